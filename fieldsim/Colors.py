@@ -2,3 +2,4 @@
 blue = (0, 0, 180)
 grey = (98, 98, 98)
 white = (255, 255, 255)
+green = (0, 180, 0)
@@ -1,18 +1,34 @@
 from networktables import NetworkTables
 from .NetUtil import isServiceAlive
+from .Colors import *
 import pygame
+import socket
+import struct
+import math
 from os import path
 from .Field import Field
 
 # Constants
 TE, AM = 50, 24
-FIELDSIM_NT_TABLE = "SmartDashboard"
+POSE_NT_TABLE = "Lib5K-Telemetry/PoseStream"
 SPRITE_DATA_PATH = path.join("fieldsim", "assets")
 
+# Pose stream protocol. Must match frc.lib5k.utils.telemetry.PoseStream
+POSE_STREAM_PORT = 5806
+POSE_STREAM_MAGIC = 0x4B35
+POSE_STREAM_VERSION = 1
+TYPE_POSE, TYPE_PATH = 1, 2
+HEADER = struct.Struct("<HBBI")
+POSE_BODY = struct.Struct("<6d")
+PATH_COUNT = struct.Struct("<I")
+
+# Time without UDP packets before falling back to NT (seconds)
+UDP_TIMEOUT = 0.5
+
 # Determine host to connect to
 robot_locations = [
     "localhost",
-    "10.{TE}.{AM}.2",
+    f"10.{TE}.{AM}.2",
     "172.22.11.2",
 ]
 
@@ -31,13 +47,14 @@ print(f"Robot found at {nt_host}")
 
 # Init NT
 NetworkTables.initialize(server=nt_host)
-sd = NetworkTables.getTable(FIELDSIM_NT_TABLE)
+pose_table = NetworkTables.getTable(POSE_NT_TABLE)
 
 
 class Robot(object):
 
     _size: tuple
     _surf: pygame.surface.Surface
+    _sock: socket.socket
     connected: bool = False
 
     def __init__(self, size: (int, int)):
@@ -50,36 +67,96 @@ class Robot(object):
         # Resize the sprite
         self._surf = pygame.transform.scale(self._surf, size)
 
+        # Listen for the UDP pose stream
+        self._sock = socket.socket(socket.AF_INET, socket.SOCK_DGRAM)
+        self._sock.setsockopt(socket.SOL_SOCKET, socket.SO_REUSEADDR, 1)
+        self._sock.bind(("", POSE_STREAM_PORT))
+        self._sock.setblocking(False)
+        self._last_packet = 0.0
+
+        # Latest sample: x, y, theta (radians), timestamp, lookahead x, lookahead y
+        self._sample = None
+        self._path = []
+
+    def _readStream(self) -> bool:
+
+        # Drain every waiting packet, keeping the latest pose
+        received = False
+        while True:
+            try:
+                packet = self._sock.recv(4096)
+            except BlockingIOError:
+                break
+
+            if len(packet) < HEADER.size:
+                continue
+            magic, kind, version, _ = HEADER.unpack_from(packet)
+            if magic != POSE_STREAM_MAGIC or version != POSE_STREAM_VERSION:
+                continue
+
+            if kind == TYPE_POSE and len(packet) >= HEADER.size + POSE_BODY.size:
+                self._sample = POSE_BODY.unpack_from(packet, HEADER.size)
+                received = True
+            elif kind == TYPE_PATH and len(packet) >= HEADER.size + PATH_COUNT.size:
+                count = PATH_COUNT.unpack_from(packet, HEADER.size)[0]
+                points = struct.unpack_from(f"<{count * 2}d", packet, HEADER.size + PATH_COUNT.size)
+                self._path = list(zip(points[0::2], points[1::2]))
+
+        if received:
+            self._last_packet = pygame.time.get_ticks() / 1000.0
+
+        return (pygame.time.get_ticks() / 1000.0) - self._last_packet < UDP_TIMEOUT
+
+    def _readNT(self) -> None:
+
+        # Fall back to the NT copy of the stream
+        sample = pose_table.getNumberArray("pose", [])
+        self._sample = tuple(sample) if len(sample) >= 6 else None
+
+        points = pose_table.getNumberArray("path", [])
+        self._path = list(zip(points[0::2], points[1::2]))
+
     def getPose(self) -> (float, float, float):
 
-        # Read robot pose data from nt
-        rbt_position = sd.getString("[DriveTrain] pose", "None").split(" ")
+        # Read the latest sample, preferring the UDP stream
+        if not self._readStream():
+            self._readNT()
 
         # If no pose found, place the robot on the screen at an angle
-        if rbt_position[0] == "None":
+        if self._sample is None:
             self.connected = False
             return (3, 0, 45)
         else:
             self.connected = True
 
-        # Parse pose data
-        x = float(rbt_position[1][:-1])
-        y = float(rbt_position[3][:-2])
-        theta = float(rbt_position[-1][:-2])
+        return (self._sample[0], self._sample[1], math.degrees(self._sample[2]))
 
-        return (x, y, theta)
+    def _getLookahead(self):
+        if self._sample is None or math.isnan(self._sample[4]) or math.isnan(self._sample[5]):
+            return None
+
+        return (self._sample[4], self._sample[5])
 
     def render(self, surf: pygame.surface.Surface, field: Field) -> None:
 
         # Get the robot pose
         pose = self.getPose()
 
+        # Draw the path being followed
+        if len(self._path) > 1:
+            pygame.draw.lines(surf, blue, False, [(field.getMappedX(x) + (self._size[1] / 2), field.getMappedY(y))
+                                                 for x, y in self._path], 3)
+
+        # Draw the lookahead point
+        lookahead = self._getLookahead()
+        if lookahead is not None:
+            pygame.draw.circle(surf, green, (int(field.getMappedX(lookahead[0]) + (self._size[1] / 2)),
+                                             int(field.getMappedY(lookahead[1]))), 6)
+
         # Map the coords
         x = field.getMappedX(pose[0]) + (self._size[1] / 2)
         y = field.getMappedY(pose[1])
 
-        # print((x, y))
-
         # Transform the sprite based on theta
         rot_sprite = pygame.transform.rotate(self._surf, pose[2] * -1)
 
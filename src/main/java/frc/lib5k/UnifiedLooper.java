@@ -1,6 +1,6 @@
 package frc.lib5k;
 
-import java.util.ArrayList;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import edu.wpi.first.wpilibj.Notifier;
 
@@ -16,8 +16,9 @@ public class UnifiedLooper {
         }
     }
 
-    // List to contain every update method
-    private static ArrayList<Component> m_updateMethods = new ArrayList<Component>();
+    // List to contain every update method. Components may register from any
+    // thread while the looper is iterating
+    private static CopyOnWriteArrayList<Component> m_updateMethods = new CopyOnWriteArrayList<Component>();
 
     // Thread
     Notifier m_notifier;
@@ -37,6 +37,19 @@ public class DifferentialDriveCalculation {
      * @return Computed DriveSignal
      */
     public static DriveSignal semiConstCurve(double speed, double rotation) {
+        return semiConstCurve(speed, rotation, new DriveSignal(0.0, 0.0));
+    }
+
+    /**
+     * Calculate a percent motor output from speed and rotation inputs using
+     * "semi-constant curvature" calculation, without allocating
+     * 
+     * @param speed    Desired speed
+     * @param rotation Desired rotation
+     * @param signal   Signal to write the output to
+     * @return The same signal
+     */
+    public static DriveSignal semiConstCurve(double speed, double rotation, DriveSignal signal) {
 
         // Stop speed from being NaN
         if (Double.isNaN(speed)) {
@@ -64,12 +77,8 @@ public class DifferentialDriveCalculation {
         avg_l = Mathutils.clamp(avg_l, -1., 1.);
         avg_r = Mathutils.clamp(avg_r, -1., 1.);
 
-        // Create a DriveSignal from motor speeds
-        DriveSignal signal = new DriveSignal(avg_l, avg_r);
-
-
-        // Return the drive signal
-        return signal;
+        // Set the DriveSignal from motor speeds
+        return signal.set(avg_l, avg_r);
     }
 
     /**
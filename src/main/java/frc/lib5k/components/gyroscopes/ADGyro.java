@@ -1,23 +1,28 @@
 package frc.lib5k.components.gyroscopes;
 
+import edu.wpi.first.hal.SimDouble;
+import edu.wpi.first.hal.sim.SimDeviceSim;
 import edu.wpi.first.wpilibj.ADXRS450_Gyro;
-import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.SPI;
 import edu.wpi.first.wpilibj.geometry.Rotation2d;
-import frc.lib5k.components.drive.IDifferentialDrivebase;
+import frc.lib5k.components.sensors.PolledSensor;
+import frc.lib5k.components.sensors.SensorPoller;
 
 public class ADGyro extends ADXRS450_Gyro {
 
-    private static ADGyro m_instance = null;
+    private static class Holder {
+        private static final ADGyro INSTANCE = new ADGyro();
+    }
 
     private boolean inverted = false;
 
     /* Simulation */
-    private final double ROTATION_SPEED_GAIN = 40;
-    private final double SIMULATION_PERIOD = 0.02;
-    private IDifferentialDrivebase m_simDrivebase;
-    private double[] m_simSensorReadings = new double[2];
-    private Notifier m_simThread;
+    private SimDouble m_simInjectedAngle;
+    private SimDouble m_simInjectedRate;
+
+    // Polled angle and rate, if polling is enabled
+    private PolledSensor m_polled;
 
     public ADGyro() {
         super(SPI.Port.kOnboardCS0);
@@ -29,51 +34,69 @@ public class ADGyro extends ADXRS450_Gyro {
      * @return NavX instance
      */
     public static ADGyro getInstance() {
-        if (m_instance == null) {
-            m_instance = new ADGyro();
-        }
-
-        return m_instance;
+        return Holder.INSTANCE;
     }
 
-    public void initDrivebaseSimulation(IDifferentialDrivebase drivebase) {
-
-
-        // if (m_simDevice != null) {
-        //     m_simDrivebase = drivebase;
+    /**
+     * Set the simulated gyro angle directly (for log replay). Does nothing on a
+     * real robot.
+     * 
+     * @param angle Raw angle in degrees
+     */
+    public void injectSimAngle(double angle) {
+        if (RobotBase.isReal()) {
+            return;
+        }
 
-        //     // Create and start a simulation thread
-        //     m_simThread = new Notifier(this::updateSimData);
-        //     m_simThread.startPeriodic(SIMULATION_PERIOD);
+        // Find the WPILib gyro simulation device
+        if (m_simInjectedAngle == null) {
+            m_simInjectedAngle = new SimDeviceSim("ADXRS450_Gyro[" + SPI.Port.kOnboardCS0.value + "]")
+                    .getDouble("Angle");
+        }
 
-        // }
+        m_simInjectedAngle.set(angle);
     }
 
-    private void updateSimData() {
-
-        // // Ensure sim is running
-        // if (m_simDevice != null) {
-
-        //     // Get drivebase sensor readings
-        //     double leftReading = m_simDrivebase.getLeftMeters();
-        //     double rightReading = m_simDrivebase.getRightMeters();
+    /**
+     * Set the simulated gyro rate directly. Does nothing on a real robot.
+     * 
+     * @param rate Raw rate in degrees per second
+     */
+    public void injectSimRate(double rate) {
+        if (RobotBase.isReal()) {
+            return;
+        }
 
-        //     // Determine change from last reading
-        //     double leftDiff = leftReading - m_simSensorReadings[0];
-        //     double rightDiff = rightReading - m_simSensorReadings[1];
+        // Find the WPILib gyro simulation device
+        if (m_simInjectedRate == null) {
+            m_simInjectedRate = new SimDeviceSim("ADXRS450_Gyro[" + SPI.Port.kOnboardCS0.value + "]")
+                    .getDouble("Rate");
+        }
 
-        //     // Calculate angle
-        //     double omega = ((leftDiff - rightDiff) / m_simDrivebase.getWidthMeters() * ROTATION_SPEED_GAIN);
+        m_simInjectedRate.set(rate);
+    }
 
-        //     // Set last readings
-        //     m_simSensorReadings[0] = leftReading;
-        //     m_simSensorReadings[1] = rightReading;
+    /**
+     * Read the gyro on the {@link SensorPoller} thread. After this, every reading
+     * comes from the latest polled snapshot, without doing an SPI read.
+     * 
+     * @param period Time between polls (seconds)
+     */
+    public void enablePolling(double period) {
+        m_polled = SensorPoller.getInstance().register("ADGyro", period, 2, (values) -> {
+            values[0] = super.getAngle();
+            values[1] = super.getRate();
+        });
+    }
 
-        //     // Publish readings
-        //     m_simAngle.set(m_simAngle.get() + omega);
-        //     m_simRate.set(omega);
-        // }
+    @Override
+    public void reset() {
+        super.reset();
 
+        // Make sure nothing reads an angle from before the reset
+        if (m_polled != null) {
+            m_polled.pollNow();
+        }
     }
 
     /**
@@ -92,6 +115,10 @@ public class ADGyro extends ADXRS450_Gyro {
         //     return m_simAngle.get();
         // }
 
+        if (m_polled != null) {
+            return m_polled.get(0);
+        }
+
         return super.getAngle();
     }
 
@@ -111,7 +138,8 @@ public class ADGyro extends ADXRS450_Gyro {
         //     return m_simRate.get() * (inverted ? -1.0 : 1.0);
         // }
 
-        return super.getRate() * (inverted ? -1.0 : 1.0);
+        double rate = (m_polled != null) ? m_polled.get(1) : super.getRate();
+        return rate * (inverted ? -1.0 : 1.0);
     }
 
     /**
@@ -15,7 +15,9 @@ import frc.lib5k.components.drive.IDifferentialDrivebase;
  */
 public class NavX extends AHRS {
 
-    private static NavX m_instance = null;
+    private static class Holder {
+        private static final NavX INSTANCE = new NavX();
+    }
 
     private boolean inverted = false;
 
@@ -47,11 +49,7 @@ public class NavX extends AHRS {
      * @return NavX instance
      */
     public static NavX getInstance() {
-        if (m_instance == null) {
-            m_instance = new NavX();
-        }
-
-        return m_instance;
+        return Holder.INSTANCE;
     }
 
     public void initDrivebaseSimulation(IDifferentialDrivebase drivebase) {
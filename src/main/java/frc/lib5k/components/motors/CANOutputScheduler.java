@@ -0,0 +1,154 @@
+package frc.lib5k.components.motors;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import frc.lib5k.roborio.FPGAClock;
+import frc.lib5k.utils.RobotLogger;
+import frc.lib5k.utils.RobotLogger.Level;
+
+/**
+ * Cuts down on CAN traffic from motor controllers. <br>
+ * <br>
+ * Each controller keeps a {@link Channel} holding the last output it sent. An
+ * output within a small epsilon of the last one is not sent again, unless the
+ * keep-alive period has passed since the last frame. Only set-points are
+ * coalesced. Configuration calls (neutral mode, current limits, ramp rates) are
+ * always sent straight through by the caller.
+ */
+public class CANOutputScheduler {
+    private RobotLogger logger = RobotLogger.getInstance();
+    private static class Holder {
+        private static final CANOutputScheduler INSTANCE = new CANOutputScheduler();
+    }
+
+    /* Output coalescing */
+    private volatile boolean m_enabled = true;
+    private volatile double m_epsilon = 0.001;
+    private volatile double m_keepAlive = 0.1;
+
+    /* Frame counts */
+    private AtomicLong m_sentFrames = new AtomicLong();
+    private AtomicLong m_suppressedFrames = new AtomicLong();
+
+    /**
+     * The last output sent to a motor controller. A channel is normally used by
+     * the one loop that owns its controller, but it is synchronized in case
+     * another thread commands or invalidates it.
+     */
+    public class Channel {
+
+        // Number of CAN frames sent for each output
+        private final int m_frames;
+
+        /* Last frame */
+        private double m_lastOutput = Double.NaN;
+        private double m_lastSendTime = 0.0;
+
+        private Channel(int frames) {
+            m_frames = frames;
+        }
+
+        /**
+         * Check if an output needs to be sent. If so, it is recorded as the last
+         * output sent.
+         *
+         * @param output Output
+         * @return Should the output be sent?
+         */
+        public synchronized boolean shouldSend(double output) {
+            double now = FPGAClock.getFPGASeconds();
+
+            // Send any real change, a stop, or a keep-alive
+            if (!m_enabled || Double.isNaN(m_lastOutput) || Math.abs(output - m_lastOutput) > m_epsilon
+                    || (output == 0.0 && m_lastOutput != 0.0) || now - m_lastSendTime >= m_keepAlive) {
+                m_lastOutput = output;
+                m_lastSendTime = now;
+                m_sentFrames.addAndGet(m_frames);
+                return true;
+            }
+
+            m_suppressedFrames.addAndGet(m_frames);
+            return false;
+        }
+
+        /**
+         * Forget the last output, so the next one is always sent. This must be
+         * called after the controller is commanded some other way.
+         */
+        public synchronized void invalidate() {
+            m_lastOutput = Double.NaN;
+        }
+    }
+
+    private CANOutputScheduler() {
+    }
+
+    /**
+     * Get the CANOutputScheduler instance
+     *
+     * @return CANOutputScheduler
+     */
+    public static CANOutputScheduler getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Configure output coalescing
+     *
+     * @param epsilon   Smallest output change that is sent
+     * @param keepAlive Longest time between frames to a controller (seconds)
+     */
+    public void configure(double epsilon, double keepAlive) {
+        m_epsilon = epsilon;
+        m_keepAlive = keepAlive;
+    }
+
+    /**
+     * Set if repeated outputs should be suppressed. When disabled, every output is
+     * sent, but the frames are still counted.
+     *
+     * @param enabled Should coalesce outputs?
+     */
+    public void setEnabled(boolean enabled) {
+        logger.log("CANOutputScheduler", String.format("%s output coalescing", (enabled) ? "Enabling" : "Disabling"),
+                Level.kLibrary);
+        m_enabled = enabled;
+    }
+
+    /**
+     * Check if repeated outputs are suppressed
+     *
+     * @return Is output coalescing enabled?
+     */
+    public boolean isEnabled() {
+        return m_enabled;
+    }
+
+    /**
+     * Create a channel for a motor controller
+     *
+     * @param frames Number of CAN frames sent for each output
+     * @return Channel
+     */
+    public Channel createChannel(int frames) {
+        return new Channel(frames);
+    }
+
+    /**
+     * Get the number of output frames sent
+     *
+     * @return Frame count
+     */
+    public long getSentFrames() {
+        return m_sentFrames.get();
+    }
+
+    /**
+     * Get the number of output frames suppressed
+     *
+     * @return Frame count
+     */
+    public long getSuppressedFrames() {
+        return m_suppressedFrames.get();
+    }
+}
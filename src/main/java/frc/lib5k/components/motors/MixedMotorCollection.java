@@ -16,6 +16,8 @@ import frc.lib5k.utils.ObjectCounter;
 import frc.lib5k.utils.RobotLogger;
 import frc.lib5k.utils.RobotLogger.Level;
 import frc.lib5k.utils.telemetry.ComponentTelemetry;
+import frc.lib5k.utils.telemetry.TelemetryPublisher;
+import frc.lib5k.utils.telemetry.TelemetryPublisher.Rate;
 
 /**
  * Collection of multiple motor controllers of mixed types that wraps a
@@ -58,6 +60,11 @@ public class MixedMotorCollection extends SpeedControllerGroup
         // Get the telemetry NetworkTable
         telemetryTable = ComponentTelemetry.getInstance().getTableForComponent(name);
 
+        // Publish telemetry in the background
+        TelemetryPublisher publisher = TelemetryPublisher.getInstance();
+        publisher.addDouble(telemetryTable, "Output", () -> output, Rate.kFast, 0.005);
+        publisher.addBoolean(telemetryTable, "Is Inverted", () -> inverted, Rate.kSlow);
+
     }
 
     @Override
@@ -163,9 +170,7 @@ public class MixedMotorCollection extends SpeedControllerGroup
 
     @Override
     public void updateTelemetry() {
-        telemetryTable.getEntry("Output").setNumber(output);
-        telemetryTable.getEntry("Is Inverted").setBoolean(inverted);
-
+        // Channels are published by the TelemetryPublisher
     }
 
 }
\ No newline at end of file
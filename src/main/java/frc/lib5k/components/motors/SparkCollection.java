@@ -15,6 +15,8 @@ import frc.lib5k.roborio.RR_HAL;
 import frc.lib5k.utils.RobotLogger;
 import frc.lib5k.utils.RobotLogger.Level;
 import frc.lib5k.utils.telemetry.ComponentTelemetry;
+import frc.lib5k.utils.telemetry.TelemetryPublisher;
+import frc.lib5k.utils.telemetry.TelemetryPublisher.Rate;
 
 /**
  * Collection of multiple Spark controllers that wraps a SpeedControllerGroup
@@ -54,6 +56,12 @@ public class SparkCollection extends SpeedControllerGroup
         // Get the telemetry NetworkTable
         telemetryTable = ComponentTelemetry.getInstance().getTableForComponent(name);
 
+        // Publish telemetry in the background
+        TelemetryPublisher publisher = TelemetryPublisher.getInstance();
+        publisher.addDouble(telemetryTable, "Output", () -> output, Rate.kFast, 0.005);
+        publisher.addBoolean(telemetryTable, "Is Inverted", () -> inverted, Rate.kSlow);
+        publisher.addDouble(telemetryTable, "Ramp Rate", this::getRampRate, Rate.kSlow, 0.0);
+
     }
 
     @Override
@@ -160,10 +168,7 @@ public class SparkCollection extends SpeedControllerGroup
 
     @Override
     public void updateTelemetry() {
-        telemetryTable.getEntry("Output").setNumber(output);
-        telemetryTable.getEntry("Is Inverted").setBoolean(inverted);
-        telemetryTable.getEntry("Ramp Rate").setNumber(getRampRate());
-
+        // Channels are published by the TelemetryPublisher
     }
 
 }
\ No newline at end of file
@@ -15,6 +15,7 @@ import edu.wpi.first.wpilibj.SpeedControllerGroup;
 import frc.lib5k.components.motors.interfaces.ICurrentController;
 import frc.lib5k.components.motors.interfaces.IMotorCollection;
 import frc.lib5k.components.motors.interfaces.IMotorGroupSafety;
+import frc.lib5k.components.motors.interfaces.IOutputScaleController;
 import frc.lib5k.components.motors.interfaces.IRampRateController;
 import frc.lib5k.components.motors.interfaces.IVoltageOutputController;
 import frc.lib5k.components.motors.motorsensors.TalonEncoder;
@@ -26,13 +27,16 @@ import frc.lib5k.utils.Mathutils;
 import frc.lib5k.utils.RobotLogger;
 import frc.lib5k.utils.RobotLogger.Level;
 import frc.lib5k.utils.telemetry.ComponentTelemetry;
+import frc.lib5k.utils.telemetry.TelemetryPublisher;
+import frc.lib5k.utils.telemetry.TelemetryPublisher.Rate;
 
 /**
  * Collection of multiple WPI_TalonSRX controllers that wraps a
  * SpeedControllerGroup
  */
 public class TalonSRXCollection extends SpeedControllerGroup implements IMotorCollection, ICurrentController,
-        IEncoderProvider, IMotorGroupSafety, IVoltageOutputController, IRampRateController, Loggable {
+        IEncoderProvider, IMotorGroupSafety, IVoltageOutputController, IRampRateController, IOutputScaleController,
+        Loggable {
     RobotLogger logger = RobotLogger.getInstance();
 
     /* Talon SRX Objects */
@@ -41,7 +45,16 @@ public class TalonSRXCollection extends SpeedControllerGroup implements IMotorCo
 
     /* Locals */
     private String name;
-    private double output, currentThresh, currentHold, rampRate;
+    private double currentThresh, currentHold, rampRate;
+    private double appliedScale = 1.0;
+
+    // Written by the PowerManager, applied by the next set() from the owning loop
+    private volatile double outputScale = 1.0;
+
+    // Read by the PowerManager's current estimates
+    private volatile double output;
+
+    private CANOutputScheduler.Channel outputChannel;
     private boolean inverted, voltageCompEnabled, currentLimited;
 
     /* Telemetry */
@@ -71,9 +84,23 @@ public class TalonSRXCollection extends SpeedControllerGroup implements IMotorCo
         // Determine name
         name = String.format("TalonSRXCollection (Master ID %d)", master.getDeviceID());
 
+        // Every output is sent to each talon
+        outputChannel = CANOutputScheduler.getInstance().createChannel(1 + slaves.length);
+
         // Get the telemetry NetworkTable
         telemetryTable = ComponentTelemetry.getInstance().getTableForComponent(name);
 
+        // Publish telemetry in the background
+        TelemetryPublisher publisher = TelemetryPublisher.getInstance();
+        publisher.addDouble(telemetryTable, "Output", () -> output, Rate.kFast, 0.005);
+        publisher.addDouble(telemetryTable, "Output Scale", () -> outputScale, Rate.kMedium, 0.005);
+        publisher.addBoolean(telemetryTable, "Is Inverted", () -> inverted, Rate.kSlow);
+        publisher.addBoolean(telemetryTable, "Is Current Limited", () -> currentLimited, Rate.kSlow);
+        publisher.addBoolean(telemetryTable, "Voltage Compensation", () -> voltageCompEnabled, Rate.kSlow);
+        publisher.addDouble(telemetryTable, "Curent Threshold", () -> currentThresh, Rate.kSlow, 0.0);
+        publisher.addDouble(telemetryTable, "Current Hold", () -> currentHold, Rate.kSlow, 0.0);
+        publisher.addDouble(telemetryTable, "Ramp Rate", () -> rampRate, Rate.kSlow, 0.0);
+
         // handle simulation device settings
         m_simDevice = SimDevice.create("TalonSRXCollection", master.getDeviceID());
         if (m_simDevice != null) {
@@ -87,6 +114,13 @@ public class TalonSRXCollection extends SpeedControllerGroup implements IMotorCo
     @Override
     public void set(double speed) {
         output = speed;
+        appliedScale = outputScale;
+        speed *= appliedScale;
+
+        // Skip frames that would not change the output
+        if (!outputChannel.shouldSend(speed)) {
+            return;
+        }
 
         if (m_simDevice != null) {
             m_simSpeed.set(speed);
@@ -97,12 +131,27 @@ public class TalonSRXCollection extends SpeedControllerGroup implements IMotorCo
 
     @Override
     public void setBuffer(double speed) {
-        if (speed != output) {
+        if (speed != output || outputScale != appliedScale) {
             set(speed);
         }
 
     }
 
+    @Override
+    public void setOutputScale(double scale) {
+        outputScale = scale;
+    }
+
+    @Override
+    public double getOutputScale() {
+        return outputScale;
+    }
+
+    @Override
+    public double getRequestedOutput() {
+        return output;
+    }
+
     @Override
     public void setInverted(boolean isInverted) {
         inverted = isInverted;
@@ -113,6 +162,9 @@ public class TalonSRXCollection extends SpeedControllerGroup implements IMotorCo
 
         super.setInverted(isInverted);
 
+        // The inversion is applied to the next output
+        outputChannel.invalidate();
+
     }
 
     @Override
@@ -333,14 +385,7 @@ public class TalonSRXCollection extends SpeedControllerGroup implements IMotorCo
 
     @Override
     public void updateTelemetry() {
-        telemetryTable.getEntry("Output").setNumber(output);
-        telemetryTable.getEntry("Is Inverted").setBoolean(inverted);
-        telemetryTable.getEntry("Is Current Limited").setBoolean(currentLimited);
-        telemetryTable.getEntry("Voltage Compensation").setBoolean(voltageCompEnabled);
-        telemetryTable.getEntry("Curent Threshold").setNumber(currentThresh);
-        telemetryTable.getEntry("Current Hold").setNumber(currentHold);
-        telemetryTable.getEntry("Ramp Rate").setNumber(rampRate);
-
+        // Channels are published by the TelemetryPublisher
     }
 
 }
\ No newline at end of file
@@ -19,6 +19,8 @@ import frc.lib5k.utils.Mathutils;
 import frc.lib5k.utils.RobotLogger;
 import frc.lib5k.utils.RobotLogger.Level;
 import frc.lib5k.utils.telemetry.ComponentTelemetry;
+import frc.lib5k.utils.telemetry.TelemetryPublisher;
+import frc.lib5k.utils.telemetry.TelemetryPublisher.Rate;
 
 public class VictorSPXCollection extends SpeedControllerGroup implements IMotorCollection, IEncoderProvider,
         IMotorGroupSafety, IVoltageOutputController, IRampRateController, Loggable {
@@ -58,6 +60,16 @@ public class VictorSPXCollection extends SpeedControllerGroup implements IMotorC
 
         // Get the telemetry NetworkTable
         telemetryTable = ComponentTelemetry.getInstance().getTableForComponent(name);
+
+        // Publish telemetry in the background
+        TelemetryPublisher publisher = TelemetryPublisher.getInstance();
+        publisher.addDouble(telemetryTable, "Output", () -> output, Rate.kFast, 0.005);
+        publisher.addBoolean(telemetryTable, "Is Inverted", () -> inverted, Rate.kSlow);
+        publisher.addBoolean(telemetryTable, "Is Current Limited", () -> currentLimited, Rate.kSlow);
+        publisher.addBoolean(telemetryTable, "Voltage Compensation", () -> voltageCompEnabled, Rate.kSlow);
+        publisher.addDouble(telemetryTable, "Curent Threshold", () -> currentThresh, Rate.kSlow, 0.0);
+        publisher.addDouble(telemetryTable, "Current Hold", () -> currentHold, Rate.kSlow, 0.0);
+        publisher.addDouble(telemetryTable, "Ramp Rate", () -> rampRate, Rate.kSlow, 0.0);
     }
 
     @Override
@@ -206,14 +218,7 @@ public class VictorSPXCollection extends SpeedControllerGroup implements IMotorC
 
     @Override
     public void updateTelemetry() {
-        telemetryTable.getEntry("Output").setNumber(output);
-        telemetryTable.getEntry("Is Inverted").setBoolean(inverted);
-        telemetryTable.getEntry("Is Current Limited").setBoolean(currentLimited);
-        telemetryTable.getEntry("Voltage Compensation").setBoolean(voltageCompEnabled);
-        telemetryTable.getEntry("Curent Threshold").setNumber(currentThresh);
-        telemetryTable.getEntry("Current Hold").setNumber(currentHold);
-        telemetryTable.getEntry("Ramp Rate").setNumber(rampRate);
-
+        // Channels are published by the TelemetryPublisher
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package frc.lib5k.components.motors.interfaces;
+
+/**
+ * A common interface for devices whose outputs can be scaled down, without the
+ * code commanding them knowing
+ */
+public interface IOutputScaleController {
+
+    /**
+     * Set the scale applied to every output. This may be called from any thread.
+     * The scale is applied by the next output sent from the thread that owns the
+     * device, so nothing is sent from the caller's thread.
+     * 
+     * @param scale Output scale [0.0 to 1.0]
+     */
+    public void setOutputScale(double scale);
+
+    /**
+     * Get the scale applied to every output
+     * 
+     * @return Output scale [0.0 to 1.0]
+     */
+    public double getOutputScale();
+
+    /**
+     * Get the last output requested, before scaling
+     * 
+     * @return Requested output [-1.0 to 1.0]
+     */
+    public double getRequestedOutput();
+
+}
@@ -5,6 +5,8 @@ import edu.wpi.first.wpilibj.Solenoid;
 import frc.lib5k.interfaces.Loggable;
 import frc.lib5k.utils.RobotLogger;
 import frc.lib5k.utils.telemetry.ComponentTelemetry;
+import frc.lib5k.utils.telemetry.TelemetryPublisher;
+import frc.lib5k.utils.telemetry.TelemetryPublisher.Rate;
 
 /**
  * Buffer solenoid commands to reduce CAN spam. For some reason, solenoid
@@ -28,6 +30,9 @@ public class LazySolenoid extends Solenoid implements Loggable {
 
         // Get telemetry table
         telemetryTable = ComponentTelemetry.getInstance().getTableForComponent(name);
+
+        // Publish telemetry in the background
+        TelemetryPublisher.getInstance().addBoolean(telemetryTable, "Enabled", () -> lastState, Rate.kMedium);
     }
 
     /**
@@ -69,8 +74,7 @@ public class LazySolenoid extends Solenoid implements Loggable {
 
     @Override
     public void updateTelemetry() {
-        telemetryTable.getEntry("Enabled").setBoolean(lastState);
-
+        // Channels are published by the TelemetryPublisher
     }
 
 }
\ No newline at end of file
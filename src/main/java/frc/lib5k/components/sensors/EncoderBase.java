@@ -4,6 +4,7 @@ import java.util.ArrayList;
 
 import edu.wpi.first.hal.SimDevice;
 import edu.wpi.first.hal.SimDouble;
+import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.SpeedController;
 import frc.lib5k.control.SlewLimiter;
 import frc.lib5k.interfaces.PeriodicComponent;
@@ -31,6 +32,8 @@ public abstract class EncoderBase implements PeriodicComponent {
     private SimDouble m_simRotations;
     private static int s_instanceCount = 0;
     private SlewLimiter m_simSlew;
+    private volatile boolean m_simInjected = false;
+    private volatile int m_injectedTicks = 0;
 
     public void initSimulationDevice(SpeedController controller, int tpr, double gearbox_ratio, double max_rpm, double ramp_time) {
         // Set locals
@@ -52,6 +55,26 @@ public abstract class EncoderBase implements PeriodicComponent {
         s_instanceCount++;
     }
 
+    /**
+     * Set the raw tick count directly (for log replay, or a physics plant). Once
+     * called, the encoder only reports injected ticks, and no longer integrates the
+     * motor output. Does nothing on a real robot.
+     * 
+     * @param ticks Raw ticks
+     */
+    public void injectSimTicks(int ticks) {
+        if (RobotBase.isReal()) {
+            return;
+        }
+
+        m_simInjected = true;
+        m_injectedTicks = ticks;
+
+        if (m_simDevice != null) {
+            m_simTicks.set(ticks);
+        }
+    }
+
     protected abstract int getSensorReading();
 
     /**
@@ -61,6 +84,11 @@ public abstract class EncoderBase implements PeriodicComponent {
      */
     public int getRawTicks() {
 
+        // If ticks are being replayed, return them
+        if (m_simInjected) {
+            return m_injectedTicks;
+        }
+
         // If we are simulating, we can return the simulated tick value
         if (m_simDevice != null) {
             return (int) m_simTicks.get();
@@ -142,7 +170,7 @@ public abstract class EncoderBase implements PeriodicComponent {
     @Override
     public void update() {
         // Handle simulation updates
-        if (m_simDevice != null) {
+        if (m_simDevice != null && !m_simInjected) {
             // If this is the first loop, simply re-set the timer, and skip
             if (last_time == 0) {
                 last_time = FPGAClock.getFPGASeconds();
@@ -9,6 +9,9 @@ import frc.lib5k.components.sensors.interfaces.IBinarySensor;
  */
 public class HallEffect extends DigitalInput implements IBinarySensor {
 
+    // Polled reading, if polling is enabled
+    private PolledSensor m_polled;
+
     /**
      * Create a digital Hall Effect sensor object
      * 
@@ -21,8 +24,32 @@ public class HallEffect extends DigitalInput implements IBinarySensor {
         SendableRegistry.setName(this, "HallEffect", channel);
     }
 
+    /**
+     * Read the sensor on the {@link SensorPoller} thread. After this,
+     * {@link #get()} returns the latest polled reading.
+     * 
+     * @param period Time between polls (seconds)
+     */
+    public void enablePolling(double period) {
+        m_polled = SensorPoller.getInstance().registerBinary(String.format("HallEffect %d", getChannel()), period,
+                this::read);
+    }
+
     @Override
     public boolean get() {
+        if (m_polled != null) {
+            return m_polled.getBoolean(0);
+        }
+
+        return read();
+    }
+
+    /**
+     * Read the sensor from hardware
+     * 
+     * @return Reading
+     */
+    private boolean read() {
         return !super.get(); // Negate reading
     }
 
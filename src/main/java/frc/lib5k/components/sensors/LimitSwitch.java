@@ -1,11 +1,18 @@
 package frc.lib5k.components.sensors;
 
+import edu.wpi.first.hal.sim.DIOSim;
 import edu.wpi.first.wpilibj.DigitalInput;
+import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.smartdashboard.SendableRegistry;
 import frc.lib5k.components.sensors.interfaces.IBinarySensor;
 
 public class LimitSwitch extends DigitalInput implements IBinarySensor {
 
+    private DIOSim m_simDIO;
+
+    // Polled reading, if polling is enabled
+    private PolledSensor m_polled;
+
     /**
      * Create a digital Limit Switch sensor object
      * 
@@ -18,9 +25,51 @@ public class LimitSwitch extends DigitalInput implements IBinarySensor {
         SendableRegistry.setName(this, "LimitSwitch", channel);
     }
 
+    /**
+     * Read the sensor on the {@link SensorPoller} thread. After this,
+     * {@link #get()} returns the latest polled reading.
+     * 
+     * @param period Time between polls (seconds)
+     */
+    public void enablePolling(double period) {
+        m_polled = SensorPoller.getInstance().registerBinary(String.format("LimitSwitch %d", getChannel()), period,
+                this::read);
+    }
+
     @Override
     public boolean get() {
-        return !super.get();
+        if (m_polled != null) {
+            return m_polled.getBoolean(0);
+        }
+
+        return read();
+    }
+
+    /**
+     * Read the sensor from hardware
+     * 
+     * @return Reading
+     */
+    private boolean read() {
+        return !super.get(); // Negate reading
+    }
+
+    /**
+     * Set the simulated DIO value directly. The switch is active-low, so a raw
+     * value of false reads as pressed. Does nothing on a real robot.
+     * 
+     * @param value Raw DIO value
+     */
+    public void injectSimState(boolean value) {
+        if (RobotBase.isReal()) {
+            return;
+        }
+
+        if (m_simDIO == null) {
+            m_simDIO = new DIOSim(getChannel());
+        }
+
+        m_simDIO.setValue(value);
     }
 
 }
\ No newline at end of file
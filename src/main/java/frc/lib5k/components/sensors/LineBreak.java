@@ -1,6 +1,8 @@
 package frc.lib5k.components.sensors;
 
+import edu.wpi.first.hal.sim.DIOSim;
 import edu.wpi.first.wpilibj.DigitalInput;
+import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.Solenoid;
 import edu.wpi.first.wpilibj.smartdashboard.SendableRegistry;
 import frc.lib5k.components.sensors.interfaces.IBinarySensor;
@@ -8,6 +10,10 @@ import frc.lib5k.components.sensors.interfaces.IBinarySensor;
 public class LineBreak extends DigitalInput implements IBinarySensor {
 
     private Solenoid m_powerSource;
+    private DIOSim m_simDIO;
+
+    // Polled reading, if polling is enabled
+    private PolledSensor m_polled;
 
     /**
      * Create a Line Break sensor object for a sensor that is powered via a
@@ -38,6 +44,44 @@ public class LineBreak extends DigitalInput implements IBinarySensor {
         SendableRegistry.setName(this, "LineBreak", channel);
     }
 
+    /**
+     * Read the sensor on the {@link SensorPoller} thread. After this,
+     * {@link #get()} returns the latest polled reading.
+     * 
+     * @param period Time between polls (seconds)
+     */
+    public void enablePolling(double period) {
+        m_polled = SensorPoller.getInstance().registerBinary(String.format("LineBreak %d", getChannel()), period,
+                super::get);
+    }
+
+    @Override
+    public boolean get() {
+        if (m_polled != null) {
+            return m_polled.getBoolean(0);
+        }
+
+        return super.get();
+    }
+
+    /**
+     * Set the simulated DIO value directly (for log replay). Does nothing on a
+     * real robot.
+     * 
+     * @param value Raw DIO value
+     */
+    public void injectSimState(boolean value) {
+        if (RobotBase.isReal()) {
+            return;
+        }
+
+        if (m_simDIO == null) {
+            m_simDIO = new DIOSim(getChannel());
+        }
+
+        m_simDIO.setValue(value);
+    }
+
     /**
      * Flush the CAN bus and send a new packet to keep external power enabled
      */
@@ -0,0 +1,150 @@
+package frc.lib5k.components.sensors;
+
+import frc.lib5k.loops.loopers.SharedState;
+import frc.lib5k.roborio.FPGAClock;
+
+/**
+ * A sensor read on the {@link SensorPoller} thread. <br>
+ * <br>
+ * Each reading is published through a {@link SharedState}, with its timestamp
+ * stored after the values, so the latest snapshot can be read from any thread
+ * without locking or tearing.
+ */
+public class PolledSensor {
+
+    /**
+     * Reads a sensor's values from hardware
+     */
+    public interface Reader {
+
+        /**
+         * Read the sensor
+         *
+         * @param values Buffer to write the readings into
+         */
+        public void read(double[] values);
+    }
+
+    /* Configuration */
+    private final String m_name;
+    private final double m_period;
+    private final Reader m_reader;
+
+    /* Snapshots */
+    private final SharedState m_state;
+    private final double[] m_reading;
+    private final int m_timestampIndex;
+
+    // Time of the last poll, used for scheduling
+    private double m_lastPollTime = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Create a PolledSensor. Use
+     * {@link SensorPoller#register(String, double, int, Reader)} to create one
+     * that is polled.
+     *
+     * @param name   Sensor name
+     * @param period Time between polls (seconds)
+     * @param values Number of values in each reading
+     * @param reader Sensor reader
+     */
+    public PolledSensor(String name, double period, int values, Reader reader) {
+        m_name = name;
+        m_period = period;
+        m_reader = reader;
+        m_state = new SharedState(values + 1);
+        m_reading = new double[values + 1];
+        m_timestampIndex = values;
+    }
+
+    /**
+     * Check if the sensor is due to be polled
+     *
+     * @param now Current time (seconds)
+     * @return Is a poll due?
+     */
+    public boolean isDue(double now) {
+        return now - m_lastPollTime >= m_period;
+    }
+
+    /**
+     * Read the sensor, and publish the reading as the latest snapshot. This is
+     * synchronized, so the SharedState only ever has one writer at a time.
+     *
+     * @param now Current time (seconds)
+     */
+    public synchronized void poll(double now) {
+
+        // The reader fills the first values, and the timestamp goes after them
+        m_reader.read(m_reading);
+        m_reading[m_timestampIndex] = now;
+        m_state.publish(m_reading);
+
+        m_lastPollTime = now;
+    }
+
+    /**
+     * Read the sensor right now, on the calling thread
+     */
+    public void pollNow() {
+        poll(FPGAClock.getFPGASeconds());
+    }
+
+    /**
+     * Get a value from the latest snapshot
+     *
+     * @param index Value index
+     * @return Value
+     */
+    public double get(int index) {
+        return m_state.get(index);
+    }
+
+    /**
+     * Get a value from the latest snapshot as a boolean
+     *
+     * @param index Value index
+     * @return Is the value non-zero?
+     */
+    public boolean getBoolean(int index) {
+        return get(index) != 0.0;
+    }
+
+    /**
+     * Copy every value of the latest snapshot at once
+     *
+     * @param values Buffer to copy the values into
+     * @return Sequence number of the snapshot. Only changes when the sensor is
+     *         polled again
+     */
+    public long copy(double[] values) {
+        return m_state.read(values);
+    }
+
+    /**
+     * Get the time the latest snapshot was read
+     *
+     * @return Timestamp (seconds)
+     */
+    public double getTimestamp() {
+        return m_state.get(m_timestampIndex);
+    }
+
+    /**
+     * Get the time between polls
+     *
+     * @return Period (seconds)
+     */
+    public double getPeriod() {
+        return m_period;
+    }
+
+    /**
+     * Get the sensor name
+     *
+     * @return Name
+     */
+    public String getName() {
+        return m_name;
+    }
+}
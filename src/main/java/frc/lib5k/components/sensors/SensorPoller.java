@@ -0,0 +1,134 @@
+package frc.lib5k.components.sensors;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import edu.wpi.first.wpilibj.Notifier;
+import frc.lib5k.roborio.FPGAClock;
+import frc.lib5k.utils.RobotLogger;
+import frc.lib5k.utils.RobotLogger.Level;
+
+/**
+ * Reads sensors on a dedicated thread, so slow bus reads (I2C, SPI) never sit
+ * in the control loop. <br>
+ * <br>
+ * Each registered sensor is polled at its own rate, rounded up to the poller's
+ * base period. Subsystems read the latest {@link PolledSensor} snapshot
+ * instead of the hardware. For deterministic simulation, the thread can be
+ * stopped, and every sensor polled from the control loop with
+ * {@link #pollAll()}.
+ */
+public class SensorPoller {
+    private RobotLogger logger = RobotLogger.getInstance();
+    private static class Holder {
+        private static final SensorPoller INSTANCE = new SensorPoller();
+    }
+
+    // Rate at which sensors are checked for a due poll
+    private static final double BASE_PERIOD = 0.005;
+
+    // Registered sensors
+    private CopyOnWriteArrayList<PolledSensor> m_sensors = new CopyOnWriteArrayList<>();
+
+    /* Polling thread */
+    private Notifier m_thread;
+    private boolean m_synchronous = false;
+
+    private SensorPoller() {
+
+        // Configure and start the polling thread
+        m_thread = new Notifier(this::update);
+        m_thread.setName("Lib5K SensorPoller");
+        m_thread.startPeriodic(BASE_PERIOD);
+    }
+
+    /**
+     * Get the SensorPoller instance
+     *
+     * @return SensorPoller
+     */
+    public static SensorPoller getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Register a sensor to be polled. The sensor is read once before this returns,
+     * so a snapshot is always available.
+     *
+     * @param name   Sensor name, used for logging
+     * @param period Time between polls (seconds)
+     * @param values Number of values in each reading
+     * @param reader Sensor reader
+     * @return Polled sensor
+     */
+    public PolledSensor register(String name, double period, int values, PolledSensor.Reader reader) {
+        PolledSensor sensor = new PolledSensor(name, period, values, reader);
+        sensor.pollNow();
+        m_sensors.add(sensor);
+
+        logger.log("SensorPoller", String.format("Polling %s every %.0fms", name, period * 1000), Level.kLibrary);
+        return sensor;
+    }
+
+    /**
+     * Register a binary sensor to be polled
+     *
+     * @param name   Sensor name, used for logging
+     * @param period Time between polls (seconds)
+     * @param reader Sensor reader
+     * @return Polled sensor, with the reading at index 0
+     */
+    public PolledSensor registerBinary(String name, double period, BooleanSupplier reader) {
+        return register(name, period, 1, (values) -> {
+            values[0] = (reader.getAsBoolean()) ? 1.0 : 0.0;
+        });
+    }
+
+    /**
+     * Set if sensors should be polled from the caller instead of the polling
+     * thread. When synchronous, {@link #pollAll()} must be called every cycle.
+     *
+     * @param synchronous Should poll synchronously?
+     */
+    public void setSynchronous(boolean synchronous) {
+        if (synchronous == m_synchronous) {
+            return;
+        }
+
+        logger.log("SensorPoller", String.format("Polling %s", (synchronous) ? "synchronously" : "on polling thread"),
+                Level.kLibrary);
+
+        if (synchronous) {
+            m_thread.stop();
+        } else {
+            m_thread.startPeriodic(BASE_PERIOD);
+        }
+        m_synchronous = synchronous;
+    }
+
+    /**
+     * Poll every sensor that is due
+     */
+    private void update() {
+        double now = FPGAClock.getFPGASeconds();
+
+        // Allow half a base period of jitter, so a sensor is not pushed back a whole
+        // base period by a late wakeup
+        for (PolledSensor sensor : m_sensors) {
+            if (sensor.isDue(now + (BASE_PERIOD / 2))) {
+                sensor.poll(now);
+            }
+        }
+    }
+
+    /**
+     * Poll every sensor now, regardless of its rate
+     */
+    public void pollAll() {
+        double now = FPGAClock.getFPGASeconds();
+
+        for (PolledSensor sensor : m_sensors) {
+            sensor.poll(now);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package frc.lib5k.control;
+
+import frc.lib5k.kinematics.models.FlywheelModel;
+
+/**
+ * A model-based flywheel velocity controller. <br>
+ * <br>
+ * The flywheel velocity is estimated with a steady-state Kalman filter built
+ * on a {@link FlywheelModel}, so encoder noise and lag are smoothed without
+ * slowing the response. Far from the setpoint, the controller applies full
+ * battery voltage (bang-bang). Near the setpoint, it applies the model's hold
+ * voltage plus an LQR-optimal correction. Every output is clamped to the
+ * battery voltage it is given. Nothing in this class allocates after
+ * construction.
+ */
+public class FlywheelController {
+
+    // Flywheel plant
+    private FlywheelModel m_model;
+
+    // Loop period
+    private double m_dt;
+
+    /* Gains */
+    private double m_lqrGain, m_kalmanGain;
+
+    // Error above which full voltage is applied
+    private double m_bangBangThreshold;
+
+    /* State */
+    private double m_setpoint = 0.0;
+    private double m_estimate = 0.0;
+    private double m_lastVoltage = 0.0;
+
+    /**
+     * Create a FlywheelController
+     *
+     * @param model              Flywheel model
+     * @param dt                 Loop period (seconds)
+     * @param velocityTolerance  Acceptable velocity error for the LQR (RPM)
+     * @param controlEffort      Acceptable control effort for the LQR (V)
+     * @param modelStdDev        Model uncertainty per step (RPM)
+     * @param measurementStdDev  Encoder noise (RPM)
+     * @param bangBangThreshold Error above which full voltage is applied (RPM)
+     */
+    public FlywheelController(FlywheelModel model, double dt, double velocityTolerance, double controlEffort,
+            double modelStdDev, double measurementStdDev, double bangBangThreshold) {
+        m_model = model;
+        m_dt = dt;
+        m_bangBangThreshold = bangBangThreshold;
+
+        double a = model.getDiscreteA(dt);
+        double b = model.getDiscreteB(dt);
+
+        // Solve the scalar discrete Riccati equation for the LQR gain
+        double q = 1.0 / (velocityTolerance * velocityTolerance);
+        double r = 1.0 / (controlEffort * controlEffort);
+        double p = q;
+        for (int i = 0; i < 1000; i++) {
+            double next = q + (a * a * p) - ((a * a * b * b * p * p) / (r + (b * b * p)));
+            if (Math.abs(next - p) < 1e-12 * p) {
+                p = next;
+                break;
+            }
+            p = next;
+        }
+        m_lqrGain = (a * b * p) / (r + (b * b * p));
+
+        // Solve for the steady-state Kalman gain
+        double processVariance = modelStdDev * modelStdDev;
+        double measurementVariance = measurementStdDev * measurementStdDev;
+        double covariance = processVariance;
+        for (int i = 0; i < 1000; i++) {
+            double predicted = (a * a * covariance) + processVariance;
+            double gain = predicted / (predicted + measurementVariance);
+            double next = (1.0 - gain) * predicted;
+            m_kalmanGain = gain;
+            if (Math.abs(next - covariance) < 1e-12 * covariance) {
+                break;
+            }
+            covariance = next;
+        }
+    }
+
+    /**
+     * Set the velocity setpoint
+     *
+     * @param rpm Setpoint
+     */
+    public void setSetpoint(double rpm) {
+        m_setpoint = rpm;
+    }
+
+    /**
+     * Get the velocity setpoint
+     *
+     * @return Setpoint (RPM)
+     */
+    public double getSetpoint() {
+        return m_setpoint;
+    }
+
+    /**
+     * Reset the velocity estimate
+     *
+     * @param measuredRPM Measured velocity
+     */
+    public void reset(double measuredRPM) {
+        m_estimate = measuredRPM;
+        m_lastVoltage = 0.0;
+    }
+
+    /**
+     * Calculate the flywheel voltage. This must be called once per loop period.
+     *
+     * @param measuredRPM    Measured velocity
+     * @param batteryVoltage Current battery voltage
+     * @return Output voltage
+     */
+    public double calculate(double measuredRPM, double batteryVoltage) {
+
+        // Correct the estimate with the measurement
+        m_estimate += m_kalmanGain * (measuredRPM - m_estimate);
+
+        double error = m_setpoint - m_estimate;
+        double voltage;
+
+        if (m_setpoint <= 0.0) {
+
+            // Let the flywheel coast down
+            voltage = 0.0;
+        } else if (error > m_bangBangThreshold) {
+
+            // Far below the setpoint, go as fast as possible
+            voltage = batteryVoltage;
+        } else {
+
+            // Hold voltage, plus an LQR correction
+            voltage = m_model.getHoldVoltage(m_setpoint) + (m_lqrGain * error);
+        }
+
+        // A flywheel is never driven backwards
+        voltage = Math.max(0.0, Math.min(voltage, batteryVoltage));
+
+        // Predict the next velocity
+        m_estimate = m_model.step(m_estimate, voltage, m_dt);
+        m_lastVoltage = voltage;
+
+        return voltage;
+    }
+
+    /**
+     * Get the estimated flywheel velocity
+     *
+     * @return Velocity (RPM)
+     */
+    public double getEstimate() {
+        return m_estimate;
+    }
+
+    /**
+     * Get the last output voltage
+     *
+     * @return Voltage
+     */
+    public double getLastVoltage() {
+        return m_lastVoltage;
+    }
+
+    /**
+     * Get the LQR feedback gain
+     *
+     * @return Gain (V per RPM)
+     */
+    public double getLQRGain() {
+        return m_lqrGain;
+    }
+
+    /**
+     * Get the steady-state Kalman gain
+     *
+     * @return Gain
+     */
+    public double getKalmanGain() {
+        return m_kalmanGain;
+    }
+
+    /**
+     * Check if the estimated velocity is within a tolerance of the setpoint
+     *
+     * @param tolerance Tolerance (RPM)
+     * @return At setpoint?
+     */
+    public boolean atSetpoint(double tolerance) {
+        return Math.abs(m_setpoint - m_estimate) <= tolerance;
+    }
+}
@@ -1,6 +1,6 @@
 package frc.lib5k.control;
 
-import edu.wpi.first.wpilibj.Timer;
+import frc.lib5k.roborio.FPGAClock;
 
 /**
  * A flywheel velocity controller designed by team 254, adapted and ported for
@@ -21,7 +21,6 @@ public class JRADController {
 
     private double kJ, kF, kLoadRatio;
     private double setpoint, lastVoltage;
-    private Timer m_timer;
     private double m_prevTime = 0;
     // private double m_pre
 
@@ -38,10 +37,8 @@ public class JRADController {
         this.kF = kF;
         this.kLoadRatio = kLoadRatio;
 
-        // Setup the timer
-        m_timer = new Timer();
-        m_timer.reset();
-        m_timer.start();
+        // Start timing from now
+        m_prevTime = FPGAClock.getFPGASeconds();
 
     }
 
@@ -63,7 +60,7 @@ public class JRADController {
     public double calculate(double voltage) {
 
         // Calculate the time difference
-        double curTime = m_timer.get();
+        double curTime = FPGAClock.getFPGASeconds();
         double dt = curTime - m_prevTime;
 
         // Calculate the next voltage
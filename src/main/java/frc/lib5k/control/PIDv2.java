@@ -4,6 +4,7 @@ import edu.wpi.first.wpilibj.Sendable;
 import edu.wpi.first.wpilibj.smartdashboard.SendableBuilder;
 import edu.wpi.first.wpilibj.smartdashboard.SendableRegistry;
 import frc.lib5k.kinematics.PIDProfile;
+import frc.lib5k.roborio.FPGAClock;
 
 /**
  * An implementation of team 1114's
@@ -161,10 +162,10 @@ public class PIDv2 implements Sendable {
         if (this.firstCycle) {
             this.previousError = error;
             this.firstCycle = false;
-            this.lastTime = System.currentTimeMillis();
+            this.lastTime = FPGAClock.getFPGAMilliseconds();
             this.deltaTime = 20.0;
         } else {
-            double currentTime = System.currentTimeMillis();
+            double currentTime = FPGAClock.getFPGAMilliseconds();
             this.deltaTime = currentTime - lastTime;
             this.lastTime = currentTime;
         }
@@ -12,7 +12,8 @@ public interface Loggable {
 
 
     /**
-     * Push telemetry data to NetworkTables
+     * Push telemetry data to NetworkTables. Components publishing through the
+     * TelemetryPublisher can leave this empty
      */
     public void updateTelemetry();
 
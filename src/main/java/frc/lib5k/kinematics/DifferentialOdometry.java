@@ -0,0 +1,100 @@
+package frc.lib5k.kinematics;
+
+/**
+ * Differential drivebase odometry that does not allocate. <br>
+ * <br>
+ * This follows WPILib's DifferentialDriveOdometry: the heading comes from the
+ * gyro, and the distance travelled since the last update is applied along an
+ * arc. The pose is tracked in a single {@link MutablePose2d}.
+ */
+public class DifferentialOdometry {
+
+    // Current pose
+    private final MutablePose2d m_pose = new MutablePose2d();
+
+    // Scratch twist for each update
+    private final MutableTwist2d m_twist = new MutableTwist2d();
+
+    /* Last readings */
+    private double m_gyroOffset;
+    private double m_previousAngle;
+    private double m_prevLeftMeters, m_prevRightMeters;
+
+    /**
+     * Create a DifferentialOdometry at a position
+     *
+     * @param gyroAngle Current gyro angle (radians)
+     * @param x         X position (meters)
+     * @param y         Y position (meters)
+     * @param theta     Heading (radians)
+     */
+    public DifferentialOdometry(double gyroAngle, double x, double y, double theta) {
+        resetPosition(x, y, theta, gyroAngle);
+    }
+
+    /**
+     * Reset the pose. The encoders must also be reset to zero.
+     *
+     * @param x         X position (meters)
+     * @param y         Y position (meters)
+     * @param theta     Heading (radians)
+     * @param gyroAngle Current gyro angle (radians)
+     */
+    public void resetPosition(double x, double y, double theta, double gyroAngle) {
+        m_pose.set(x, y, theta).normalize();
+        m_previousAngle = m_pose.getTheta();
+        m_gyroOffset = m_pose.getTheta() - gyroAngle;
+        m_prevLeftMeters = 0.0;
+        m_prevRightMeters = 0.0;
+    }
+
+    /**
+     * Move the pose by a field-relative offset, keeping its heading. Unlike
+     * {@link #resetPosition(double, double, double, double)}, the encoders keep
+     * counting from where they are.
+     *
+     * @param dx X offset (meters)
+     * @param dy Y offset (meters)
+     */
+    public void translate(double dx, double dy) {
+        m_pose.translateBy(dx, dy);
+    }
+
+    /**
+     * Update the pose from new sensor readings
+     *
+     * @param gyroAngle   Current gyro angle (radians)
+     * @param leftMeters  Left side distance since the last reset
+     * @param rightMeters Right side distance since the last reset
+     * @return The current pose. This is the odometry's own pose, and changes with
+     *         every update
+     */
+    public MutablePose2d update(double gyroAngle, double leftMeters, double rightMeters) {
+
+        // Find the distance travelled since the last update
+        double distance = ((leftMeters - m_prevLeftMeters) + (rightMeters - m_prevRightMeters)) / 2.0;
+        m_prevLeftMeters = leftMeters;
+        m_prevRightMeters = rightMeters;
+
+        // Find the field-relative heading, and how far it turned
+        double angle = Math.IEEEremainder(gyroAngle + m_gyroOffset, 2 * Math.PI);
+        double dtheta = Math.IEEEremainder(angle - m_previousAngle, 2 * Math.PI);
+        m_previousAngle = angle;
+
+        // Move along the arc, then take the gyro's heading
+        m_pose.exp(m_twist.set(distance, 0.0, dtheta));
+        m_pose.set(m_pose.getX(), m_pose.getY(), angle);
+
+        return m_pose;
+    }
+
+    /**
+     * Get the current pose. This is the odometry's own pose, and changes with
+     * every update.
+     *
+     * @return Pose
+     */
+    public MutablePose2d getPose() {
+        return m_pose;
+    }
+}
@@ -30,6 +30,19 @@ public class DriveSignal {
         return new DriveSignal((rotation + speed), (speed - rotation));
     }
 
+    /**
+     * Set both values
+     * 
+     * @param l Left value
+     * @param r Right value
+     * @return This signal
+     */
+    public DriveSignal set(double l, double r) {
+        this.l = l;
+        this.r = r;
+        return this;
+    }
+
     /**
      * Get the right value
      * 
@@ -30,6 +30,19 @@ public class Error2D {
 		this.y = _y;
 	}
 
+	/**
+	 * Set both errors
+	 * 
+	 * @param x X error
+	 * @param y Y error
+	 * @return This error
+	 */
+	public Error2D set(double x, double y) {
+		this.x = x;
+		this.y = y;
+		return this;
+	}
+
 	public double getX() {
 		return this.x;
 	}
@@ -78,22 +78,25 @@ public class FieldPosition {
      * @return Error from current position to goal
      */
     public Error2D getRotatedError(FieldPosition goalPosition) {
+        return getRotatedError(goalPosition, new Error2D(0.0, 0.0));
+    }
 
-        // Get the current and goal positions as Error2D objects
-        Error2D currentPosition = new Error2D(this.getX(), this.getY());
-        Error2D finalPosition = new Error2D(goalPosition.getX(), goalPosition.getY());
-
-        // Rotate both Errors to the goal theta
-        currentPosition.rotateBy(goalPosition.getTheta());
-        finalPosition.rotateBy(goalPosition.getTheta());
-
-        // Determine the X and Y errors
-        double xError = finalPosition.getX() - currentPosition.getX();
-        double yError = finalPosition.getY() - currentPosition.getY();
+    /**
+     * Get the rotated 2D error from the robot's current location to a goal
+     * position, without allocating
+     * 
+     * @param goalPosition Goal position (where the robot wants to be)
+     * @param error        Error to write the result to
+     * @return The same error
+     */
+    public Error2D getRotatedError(FieldPosition goalPosition, Error2D error) {
 
-        // Return a new Error2D object containing the position error
-        return new Error2D(xError, yError);
+        // Rotating both positions to the goal theta and subtracting is the same as
+        // rotating the difference
+        error.set(goalPosition.getX() - this.getX(), goalPosition.getY() - this.getY());
+        error.rotateBy(goalPosition.getTheta());
 
+        return error;
     }
 
     /**
@@ -9,6 +9,9 @@ public class MovementPlanner {
     PIDv2 m_forwardController;
     PIDv2 m_turnController;
 
+    // Position error, reused every call
+    private Error2D m_error = new Error2D(0.0, 0.0);
+
     /**
      * Create a MovementPlanner from two PIDProfiles
      * 
@@ -43,10 +46,10 @@ public class MovementPlanner {
         m_turnController.setOutputConstraints(-constraints.getMaxTurn(), constraints.getMaxTurn());
 
         // Determine 2D error from end point
-        Error2D error = LocalizationEngine.getInstance().getRotatedError(end);
+        Error2D error = LocalizationEngine.getInstance().getRotatedError(end, m_error);
 
-        // Get the robot's position
-        FieldPosition robotPosition = LocalizationEngine.getInstance().getRobotPosition();
+        // Get the robot's position. This is only read, so no copy is needed
+        FieldPosition robotPosition = LocalizationEngine.getInstance().getLocationObject();
 
         // Flip X if driving backwards
         if (error.getY() < 0) {
@@ -0,0 +1,189 @@
+package frc.lib5k.kinematics;
+
+import edu.wpi.first.wpilibj.geometry.Pose2d;
+import edu.wpi.first.wpilibj.geometry.Rotation2d;
+
+/**
+ * A reusable robot pose, stored as primitives. <br>
+ * <br>
+ * This follows WPILib's Pose2d conventions (meters, and counter-clockwise
+ * radians), but every operation works in place, so control loops can track a
+ * pose without allocating. Only {@link #toPose2d()} allocates, for handing a
+ * pose to code that needs WPILib types.
+ */
+public class MutablePose2d {
+
+    private double x, y, theta;
+
+    /**
+     * Create a MutablePose2d at the origin
+     */
+    public MutablePose2d() {
+        this(0.0, 0.0, 0.0);
+    }
+
+    /**
+     * Create a MutablePose2d
+     *
+     * @param x     X position (meters)
+     * @param y     Y position (meters)
+     * @param theta Heading (radians)
+     */
+    public MutablePose2d(double x, double y, double theta) {
+        set(x, y, theta);
+    }
+
+    /**
+     * Set every component
+     *
+     * @param x     X position (meters)
+     * @param y     Y position (meters)
+     * @param theta Heading (radians)
+     * @return This pose
+     */
+    public MutablePose2d set(double x, double y, double theta) {
+        this.x = x;
+        this.y = y;
+        this.theta = theta;
+        return this;
+    }
+
+    /**
+     * Copy another pose
+     *
+     * @param other Pose to copy
+     * @return This pose
+     */
+    public MutablePose2d set(MutablePose2d other) {
+        return set(other.x, other.y, other.theta);
+    }
+
+    /**
+     * Copy a WPILib pose
+     *
+     * @param pose Pose to copy
+     * @return This pose
+     */
+    public MutablePose2d set(Pose2d pose) {
+        return set(pose.getTranslation().getX(), pose.getTranslation().getY(), pose.getRotation().getRadians());
+    }
+
+    /**
+     * Move the pose by a field-relative offset, keeping its heading
+     *
+     * @param dx X offset (meters)
+     * @param dy Y offset (meters)
+     * @return This pose
+     */
+    public MutablePose2d translateBy(double dx, double dy) {
+        this.x += dx;
+        this.y += dy;
+        return this;
+    }
+
+    /**
+     * Rotate the whole pose about the origin
+     *
+     * @param angle Angle to rotate by (radians)
+     * @return This pose
+     */
+    public MutablePose2d rotateBy(double angle) {
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
+
+        double _x = (x * cos) - (y * sin);
+        double _y = (x * sin) + (y * cos);
+
+        return set(_x, _y, theta + angle);
+    }
+
+    /**
+     * Move the pose by an offset relative to itself
+     *
+     * @param dx     Forward offset (meters)
+     * @param dy     Sideways offset (meters)
+     * @param dtheta Heading offset (radians)
+     * @return This pose
+     */
+    public MutablePose2d transformBy(double dx, double dy, double dtheta) {
+        double cos = Math.cos(theta);
+        double sin = Math.sin(theta);
+
+        return set(x + (dx * cos) - (dy * sin), y + (dx * sin) + (dy * cos), theta + dtheta);
+    }
+
+    /**
+     * Move the pose along a constant-curvature arc. This matches WPILib's
+     * Pose2d.exp().
+     *
+     * @param twist Change in pose, relative to this pose
+     * @return This pose
+     */
+    public MutablePose2d exp(MutableTwist2d twist) {
+        double dx = twist.getDx();
+        double dy = twist.getDy();
+        double dtheta = twist.getDtheta();
+
+        // Find the arc's chord, using a taylor series near a straight line
+        double s, c;
+        if (Math.abs(dtheta) < 1e-9) {
+            s = 1.0 - ((dtheta * dtheta) / 6.0);
+            c = 0.5 * dtheta;
+        } else {
+            s = Math.sin(dtheta) / dtheta;
+            c = (1.0 - Math.cos(dtheta)) / dtheta;
+        }
+
+        return transformBy((dx * s) - (dy * c), (dx * c) + (dy * s), dtheta);
+    }
+
+    /**
+     * Wrap the heading to [-pi, pi]
+     *
+     * @return This pose
+     */
+    public MutablePose2d normalize() {
+        this.theta = Math.IEEEremainder(theta, 2 * Math.PI);
+        return this;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Get the heading
+     *
+     * @return Heading (radians)
+     */
+    public double getTheta() {
+        return theta;
+    }
+
+    /**
+     * Get the heading
+     *
+     * @return Heading (degrees)
+     */
+    public double getDegrees() {
+        return Math.toDegrees(theta);
+    }
+
+    /**
+     * Copy this pose into a new WPILib pose. This allocates.
+     *
+     * @return Pose
+     */
+    public Pose2d toPose2d() {
+        return new Pose2d(x, y, new Rotation2d(theta));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(%.2f, %.2f, %.2f)", x, y, theta);
+    }
+}
@@ -0,0 +1,73 @@
+package frc.lib5k.kinematics;
+
+/**
+ * A reusable change in pose along an arc. This is a mutable counterpart to
+ * WPILib's Twist2d, for control loops that should not allocate.
+ */
+public class MutableTwist2d {
+
+    private double dx, dy, dtheta;
+
+    /**
+     * Create an empty MutableTwist2d
+     */
+    public MutableTwist2d() {
+        this(0.0, 0.0, 0.0);
+    }
+
+    /**
+     * Create a MutableTwist2d
+     *
+     * @param dx     Forward change (meters)
+     * @param dy     Sideways change (meters)
+     * @param dtheta Heading change (radians)
+     */
+    public MutableTwist2d(double dx, double dy, double dtheta) {
+        set(dx, dy, dtheta);
+    }
+
+    /**
+     * Set every component
+     *
+     * @param dx     Forward change (meters)
+     * @param dy     Sideways change (meters)
+     * @param dtheta Heading change (radians)
+     * @return This twist
+     */
+    public MutableTwist2d set(double dx, double dy, double dtheta) {
+        this.dx = dx;
+        this.dy = dy;
+        this.dtheta = dtheta;
+        return this;
+    }
+
+    /**
+     * Scale every component in place
+     *
+     * @param scale Scale factor
+     * @return This twist
+     */
+    public MutableTwist2d scale(double scale) {
+        this.dx *= scale;
+        this.dy *= scale;
+        this.dtheta *= scale;
+        return this;
+    }
+
+    public double getDx() {
+        return dx;
+    }
+
+    public double getDy() {
+        return dy;
+    }
+
+    public double getDtheta() {
+        return dtheta;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("<%.2f, %.2f, %.2f>", dx, dy, dtheta);
+    }
+}
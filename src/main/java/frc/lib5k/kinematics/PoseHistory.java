@@ -0,0 +1,204 @@
+package frc.lib5k.kinematics;
+
+/**
+ * A fixed-size, time-indexed history of robot poses. <br>
+ * <br>
+ * Poses are stored in primitive ring buffers, and can be looked up at any time
+ * inside the buffer with a binary search and linear interpolation. Nothing in
+ * this class allocates after construction, so it is safe to record into every
+ * loop.
+ */
+public class PoseHistory {
+
+    /* Ring buffers */
+    private final double[] m_timestamps, m_xs, m_ys, m_thetas;
+
+    // Index of the oldest sample, and the number of samples stored
+    private int m_head = 0;
+    private int m_size = 0;
+
+    /* Last sample result */
+    private double m_sampleX, m_sampleY, m_sampleTheta;
+
+    /**
+     * Create a PoseHistory
+     *
+     * @param capacity Number of poses to keep
+     */
+    public PoseHistory(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("A pose history needs room for at least two poses");
+        }
+
+        m_timestamps = new double[capacity];
+        m_xs = new double[capacity];
+        m_ys = new double[capacity];
+        m_thetas = new double[capacity];
+    }
+
+    /**
+     * Record a pose. Timestamps must be increasing, older or repeated poses are
+     * ignored.
+     *
+     * @param timestamp Time in seconds
+     * @param x         X position
+     * @param y         Y position
+     * @param theta     Heading in radians
+     */
+    public void record(double timestamp, double x, double y, double theta) {
+
+        // Ignore samples that are not newer than the last one
+        if (m_size > 0 && timestamp <= m_timestamps[index(m_size - 1)]) {
+            return;
+        }
+
+        // Find the slot to write to, overwriting the oldest sample when full
+        int slot;
+        if (m_size < m_timestamps.length) {
+            slot = index(m_size);
+            m_size++;
+        } else {
+            slot = m_head;
+            m_head = (m_head + 1) % m_timestamps.length;
+        }
+
+        m_timestamps[slot] = timestamp;
+        m_xs[slot] = x;
+        m_ys[slot] = y;
+        m_thetas[slot] = theta;
+    }
+
+    /**
+     * Clear the history
+     */
+    public void clear() {
+        m_head = 0;
+        m_size = 0;
+    }
+
+    /**
+     * Move every recorded pose by an offset. This keeps the history consistent
+     * with an odometry correction.
+     *
+     * @param dx X offset
+     * @param dy Y offset
+     */
+    public void shift(double dx, double dy) {
+        for (int i = 0; i < m_size; i++) {
+            int slot = index(i);
+            m_xs[slot] += dx;
+            m_ys[slot] += dy;
+        }
+    }
+
+    /**
+     * Get the number of poses stored
+     *
+     * @return Pose count
+     */
+    public int getSize() {
+        return m_size;
+    }
+
+    /**
+     * Get the time of the oldest pose stored
+     *
+     * @return Oldest timestamp, or NaN if empty
+     */
+    public double getOldestTimestamp() {
+        return (m_size > 0) ? m_timestamps[m_head] : Double.NaN;
+    }
+
+    /**
+     * Get the time of the newest pose stored
+     *
+     * @return Newest timestamp, or NaN if empty
+     */
+    public double getNewestTimestamp() {
+        return (m_size > 0) ? m_timestamps[index(m_size - 1)] : Double.NaN;
+    }
+
+    /**
+     * Find the robot pose at a point in time. The result is read with
+     * {@link #getSampleX()}, {@link #getSampleY()} and {@link #getSampleTheta()}.
+     *
+     * @param timestamp Time in seconds
+     * @return False if the time is outside of the history
+     */
+    public boolean sample(double timestamp) {
+        if (m_size == 0 || timestamp < getOldestTimestamp() || timestamp > getNewestTimestamp()) {
+            return false;
+        }
+
+        // Binary search for the last sample at or before the timestamp
+        int low = 0;
+        int high = m_size - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (m_timestamps[index(mid)] <= timestamp) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        int before = index(low);
+
+        // Handle an exact match on the newest sample
+        if (low == m_size - 1) {
+            m_sampleX = m_xs[before];
+            m_sampleY = m_ys[before];
+            m_sampleTheta = m_thetas[before];
+            return true;
+        }
+
+        // Interpolate between the two surrounding samples
+        int after = index(low + 1);
+        double t = (timestamp - m_timestamps[before]) / (m_timestamps[after] - m_timestamps[before]);
+        m_sampleX = m_xs[before] + ((m_xs[after] - m_xs[before]) * t);
+        m_sampleY = m_ys[before] + ((m_ys[after] - m_ys[before]) * t);
+
+        // Interpolate the heading the short way around
+        double dTheta = Math.IEEEremainder(m_thetas[after] - m_thetas[before], 2 * Math.PI);
+        m_sampleTheta = m_thetas[before] + (dTheta * t);
+
+        return true;
+    }
+
+    /**
+     * Get the X component of the last sample
+     *
+     * @return X position
+     */
+    public double getSampleX() {
+        return m_sampleX;
+    }
+
+    /**
+     * Get the Y component of the last sample
+     *
+     * @return Y position
+     */
+    public double getSampleY() {
+        return m_sampleY;
+    }
+
+    /**
+     * Get the heading of the last sample
+     *
+     * @return Heading in radians
+     */
+    public double getSampleTheta() {
+        return m_sampleTheta;
+    }
+
+    /**
+     * Convert an age-ordered position to a ring buffer slot
+     *
+     * @param i Position, where 0 is the oldest sample
+     * @return Slot
+     */
+    private int index(int i) {
+        return (m_head + i) % m_timestamps.length;
+    }
+}
@@ -50,7 +50,7 @@ public class DCBrushedMotor {
         this.freeSpeedRPM = freeSpeed;
 
         // Convert from RPM to rad/s
-        this.freeSpeedRADS = freeCurrent / 60 * (2.0 * Math.PI);
+        this.freeSpeedRADS = freeSpeed / 60 * (2.0 * Math.PI);
 
         // Resistance of motor
         this.R = nominalVoltage / stallCurrent;
@@ -63,6 +63,50 @@ public class DCBrushedMotor {
 
     }
 
+    /**
+     * Get the current drawn from the supply by a set of these motors, each run
+     * through a current limited motor controller
+     * 
+     * @param numMotors     Number of motors
+     * @param output        Motor controller output [-1.0 to 1.0]
+     * @param speedRPM      Motor speed in RPM
+     * @param supplyVoltage Supply voltage
+     * @param statorLimit   Current limit of each controller in Amps
+     * @return Supply current in Amps (regenerated current is not counted)
+     */
+    public double getSupplyCurrent(int numMotors, double output, double speedRPM, double supplyVoltage,
+            double statorLimit) {
+        if (supplyVoltage <= 0.0) {
+            return 0.0;
+        }
+
+        // Current through each motor, from the voltage left over after back-EMF
+        double emf = speedRPM / Kv;
+        double statorCurrent = ((output * supplyVoltage) - emf) / R;
+
+        // The controller lowers its output to hold the limit
+        if (Math.abs(statorCurrent) > statorLimit) {
+            statorCurrent = Math.copySign(statorLimit, statorCurrent);
+            output = (emf + (statorCurrent * R)) / supplyVoltage;
+        }
+
+        // The controller only draws from the supply for its duty cycle
+        return Math.max(0.0, output * statorCurrent * numMotors);
+    }
+
+    /**
+     * Get the current drawn from the supply by a set of these motors
+     * 
+     * @param numMotors     Number of motors
+     * @param output        Motor controller output [-1.0 to 1.0]
+     * @param speedRPM      Motor speed in RPM
+     * @param supplyVoltage Supply voltage
+     * @return Supply current in Amps (regenerated current is not counted)
+     */
+    public double getSupplyCurrent(int numMotors, double output, double speedRPM, double supplyVoltage) {
+        return getSupplyCurrent(numMotors, output, speedRPM, supplyVoltage, Double.POSITIVE_INFINITY);
+    }
+
     /**
      * Build a motor model of an entire gearbox
      * 
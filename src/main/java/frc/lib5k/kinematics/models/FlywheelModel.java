@@ -0,0 +1,151 @@
+package frc.lib5k.kinematics.models;
+
+/**
+ * A first-order flywheel plant, in RPM. <br>
+ * <br>
+ * The flywheel follows: V = kS * sign(w) + kV * w + kA * dw/dt. The constants
+ * can come straight from frc-characterization, or be derived from a
+ * {@link DCBrushedMotor} and the flywheel's moment of inertia.
+ */
+public class FlywheelModel {
+
+    /* Model constants */
+    private final double m_kS, m_kV, m_kA;
+
+    /**
+     * Create a FlywheelModel from characterization constants
+     *
+     * @param kS Static friction voltage (V)
+     * @param kV Velocity gain (V per RPM)
+     * @param kA Acceleration gain (V per RPM/s)
+     */
+    public FlywheelModel(double kS, double kV, double kA) {
+        if (kV <= 0.0 || kA <= 0.0) {
+            throw new IllegalArgumentException("Flywheel kV and kA must be positive");
+        }
+
+        m_kS = kS;
+        m_kV = kV;
+        m_kA = kA;
+    }
+
+    /**
+     * Create a FlywheelModel from motor constants
+     *
+     * @param motor     Motor model
+     * @param numMotors Number of motors driving the flywheel
+     * @param gearing   Reduction from the motors to the flywheel (motor turns per
+     *                  flywheel turn)
+     * @param moi       Flywheel moment of inertia (kg*m^2)
+     * @return Flywheel model, in flywheel RPM
+     */
+    public static FlywheelModel fromMotor(DCBrushedMotor motor, int numMotors, double gearing, double moi) {
+
+        // Back-EMF voltage per flywheel RPM
+        double kV = gearing / motor.Kv;
+
+        // V = R * J * a / (Kt * n * G), converted from rad/s^2 to RPM/s
+        double kA = (motor.R * moi) / (motor.Kt * numMotors * gearing) * (2.0 * Math.PI / 60.0);
+
+        return new FlywheelModel(0.0, kV, kA);
+    }
+
+    /**
+     * Get the voltage needed to hold a velocity
+     *
+     * @param rpm Velocity
+     * @return Voltage
+     */
+    public double getHoldVoltage(double rpm) {
+        return (Math.signum(rpm) * m_kS) + (m_kV * rpm);
+    }
+
+    /**
+     * Get the flywheel acceleration at a velocity and voltage
+     *
+     * @param rpm     Velocity
+     * @param voltage Applied voltage
+     * @return Acceleration (RPM/s)
+     */
+    public double getAcceleration(double rpm, double voltage) {
+
+        // Static friction holds the flywheel still until it is overcome
+        if (rpm == 0.0 && Math.abs(voltage) <= m_kS) {
+            return 0.0;
+        }
+
+        double friction = (rpm != 0.0) ? Math.signum(rpm) * m_kS : Math.signum(voltage) * m_kS;
+        return (voltage - friction - (m_kV * rpm)) / m_kA;
+    }
+
+    /**
+     * Step the model forward in time
+     *
+     * @param rpm     Current velocity
+     * @param voltage Applied voltage
+     * @param dt      Time step (seconds)
+     * @return Next velocity
+     */
+    public double step(double rpm, double voltage, double dt) {
+
+        // Static friction holds the flywheel still until it is overcome
+        if (rpm == 0.0 && Math.abs(voltage) <= m_kS) {
+            return 0.0;
+        }
+
+        // Integrate the linear part exactly, so large steps stay stable
+        double friction = (rpm != 0.0) ? Math.signum(rpm) * m_kS : Math.signum(voltage) * m_kS;
+        double target = (voltage - friction) / m_kV;
+        double next = target + ((rpm - target) * Math.exp(-dt * m_kV / m_kA));
+
+        // Friction can stop the flywheel, but not reverse it
+        if (rpm != 0.0 && Math.signum(next) != Math.signum(rpm) && Math.signum(voltage) != Math.signum(next)) {
+            return 0.0;
+        }
+
+        return next;
+    }
+
+    /**
+     * Get the discrete-time velocity decay over one step (the plant's A)
+     *
+     * @param dt Time step (seconds)
+     * @return A
+     */
+    public double getDiscreteA(double dt) {
+        return Math.exp(-dt * m_kV / m_kA);
+    }
+
+    /**
+     * Get the discrete-time velocity gain from voltage over one step (the plant's
+     * B)
+     *
+     * @param dt Time step (seconds)
+     * @return B (RPM per volt)
+     */
+    public double getDiscreteB(double dt) {
+        return (1.0 - getDiscreteA(dt)) / m_kV;
+    }
+
+    public double getKS() {
+        return m_kS;
+    }
+
+    public double getKV() {
+        return m_kV;
+    }
+
+    public double getKA() {
+        return m_kA;
+    }
+
+    /**
+     * Get the fastest speed the flywheel can reach at a voltage
+     *
+     * @param voltage Voltage
+     * @return Free speed (RPM)
+     */
+    public double getFreeSpeed(double voltage) {
+        return Math.max(0.0, voltage - m_kS) / m_kV;
+    }
+}
@@ -2,24 +2,45 @@ package frc.lib5k.kinematics.purepursuit;
 
 import edu.wpi.first.wpilibj.geometry.Pose2d;
 import edu.wpi.first.wpilibj.geometry.Translation2d;
-import frc.lib5k.kinematics.statespace.models.DrivebaseState;
 
+/**
+ * Finds lookahead points along a {@link Path}. <br>
+ * <br>
+ * After the first update, the nearest point is only searched for in a window
+ * ahead of the last one, and both the nearest point and the lookahead point are
+ * interpolated along the path's segments. The lookahead point is always at
+ * least the lookahead distance ahead of the nearest point (or the end of the
+ * path), so the robot keeps being pulled along when it is slow or stopped.
+ * {@link #update(Pose2d)} does not allocate.
+ */
 public class Follower {
 
+    // Distance ahead of the last nearest point to search for the next one
+    private static final double SEARCH_WINDOW = 1.0;
+
     // Path to follow
     private Path m_path;
 
     // Lookahead settings
     private double m_lookaheadDist, m_lookaheadGain;
-    private Integer m_lastLookaheadIndex = null;
 
     // Drivebase info
     private double m_drivebaseWidth;
-    private Pose2d m_lastPose = null;
+
+    /* Nearest point search state */
+    private int m_segment = -1;
+    private double m_progress = 0.0;
+
+    /* Last robot position */
+    private boolean m_hasLastPose = false;
+    private double m_lastX, m_lastY;
+
+    /* Current target */
+    private double m_targetX, m_targetY;
 
     /**
      * Create a path follower
-     * 
+     *
      * @param path              Path to follow
      * @param lookaheadDistance Lookahead distance
      * @param lookaheadGain     Lookahead gain
@@ -57,118 +78,171 @@ public class Follower {
      * Reset the follower
      */
     public void reset() {
-        m_lastLookaheadIndex = null;
-        m_lastPose = null;
+        m_segment = -1;
+        m_progress = 0.0;
+        m_hasLastPose = false;
     }
 
-    public Translation2d getNextPoint(Pose2d robotPose) {
-
-        // Cast the pose up to a drivebase state
-        DrivebaseState state = new DrivebaseState(robotPose);
-        Translation2d stateRear = state.getRear(m_drivebaseWidth);
-
-        // Max nearest pose
-        Translation2d nearest = new Translation2d(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
-
-        // Check if this is the first run
-        if (m_lastLookaheadIndex == null) {
-
-            // Search for the nearest pose
-            for (int i = 0; i < m_path.getPoses().length; i++) {
-
-                // Determine diff
-                double dx = stateRear.getX() - m_path.getPoses()[i].getX();
-                double dy = stateRear.getY() - m_path.getPoses()[i].getY();
-
-                // Determine distance
-                double d = Math.hypot(dx, dy);
+    /**
+     * Update the follower with a new robot pose, and find the next target point
+     *
+     * @param robotPose Robot pose
+     */
+    public void update(Pose2d robotPose) {
+        update(robotPose.getTranslation().getX(), robotPose.getTranslation().getY(),
+                robotPose.getRotation().getRadians());
+    }
 
-                // If d is closer than the nearest, we have found a new nearest point
-                if (d < Math.hypot(stateRear.getX() - nearest.getX(), stateRear.getY() - nearest.getY())) {
+    /**
+     * Update the follower with a new robot pose, and find the next target point
+     *
+     * @param x       Robot X position
+     * @param y       Robot Y position
+     * @param heading Robot heading in radians
+     */
+    public void update(double x, double y, double heading) {
 
-                    // Set the nearest translation
-                    nearest = m_path.getPoses()[i];
+        // Find the chassis rear
+        double rearX = x - ((m_drivebaseWidth / 2) * Math.cos(heading));
+        double rearY = y - ((m_drivebaseWidth / 2) * Math.sin(heading));
 
-                    // Set the lookahead index
-                    m_lastLookaheadIndex = i;
-                }
-            }
+        // Search the whole path on the first run, then only a window ahead
+        if (m_segment < 0) {
+            findNearest(rearX, rearY, 0, m_path.getPointCount() - 2);
         } else {
+            findNearest(rearX, rearY, m_segment, m_path.findSegment(m_progress + SEARCH_WINDOW, m_segment));
+        }
 
-            // Determine the distance from the current point
-            double thisDist = state.getDistance(m_path.getPoses()[m_lastLookaheadIndex], m_drivebaseWidth);
-
-            // Tracker for path pose index
-            int nextIndex = m_lastLookaheadIndex;
+        // Determine our velocity from the last pose
+        double v = (m_hasLastPose) ? Math.hypot(x - m_lastX, y - m_lastY) : 0.0;
 
-            // Look for a new pose
-            // TODO: make this a FOR loop starting at m_lastLookaheadIndex
-            while (true) {
+        // Set the last pose
+        m_lastX = x;
+        m_lastY = y;
+        m_hasLastPose = true;
 
-                // Attempt to incr our search index
-                nextIndex = ((nextIndex + 1) < m_path.getPoses().length) ? nextIndex + 1 : nextIndex;
+        // Find the lookahead point along the path. The speed term only ever extends
+        // the lookahead, or a stopped robot would target the point it is already at
+        double LF = m_lookaheadGain * v * m_lookaheadDist;
+        double targetDistance = Math.min(m_progress + Math.max(LF, m_lookaheadDist), m_path.getLength());
+        int targetSegment = m_path.findSegment(targetDistance, m_segment);
+        interpolate(targetSegment, targetDistance);
+    }
 
-                // Find the distance to the new pose
-                double nextDist = state.getDistance(m_path.getPoses()[nextIndex], m_drivebaseWidth);
+    /**
+     * Find the nearest point on a range of segments, and move the search state to
+     * it. The search state never moves backwards along the path.
+     *
+     * @param px    Point X
+     * @param py    Point Y
+     * @param first First segment to search
+     * @param last  Last segment to search
+     */
+    private void findNearest(double px, double py, int first, int last) {
 
-                // If this new pose is closer, choose it
-                if (thisDist < nextDist || nextIndex + 1 == m_path.getPoses().length) {
-                    nearest = m_path.getPoses()[nextIndex];
-                    break;
-                }
+        // Handle single point paths
+        if (m_path.getPointCount() < 2) {
+            m_segment = 0;
+            m_progress = 0.0;
+            return;
+        }
 
-                // Update the current distance
-                thisDist = nextDist;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        int bestSegment = Math.max(m_segment, 0);
+        double bestProgress = m_progress;
+
+        for (int i = first; i <= last; i++) {
+            double x0 = m_path.getX(i);
+            double y0 = m_path.getY(i);
+            double dx = m_path.getX(i + 1) - x0;
+            double dy = m_path.getY(i + 1) - y0;
+            double length = m_path.getDistance(i + 1) - m_path.getDistance(i);
+
+            // Project the point onto the segment
+            double t = (((px - x0) * dx) + ((py - y0) * dy)) / (length * length);
+            t = Math.max(0.0, Math.min(t, 1.0));
+
+            // Check the distance to the projected point
+            double ex = px - (x0 + (dx * t));
+            double ey = py - (y0 + (dy * t));
+            double distance = (ex * ex) + (ey * ey);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestSegment = i;
+                bestProgress = m_path.getDistance(i) + (length * t);
             }
+        }
 
-            // Set the last lookahead
-            m_lastLookaheadIndex = nextIndex;
-
+        // Never move backwards
+        if (bestProgress >= m_progress || m_segment < 0) {
+            m_segment = bestSegment;
+            m_progress = bestProgress;
         }
+    }
 
-        // Determine our velocity from the last pose
-        double v;
-        if (m_lastPose != null) {
-            double dx = robotPose.getTranslation().getX() - m_lastPose.getTranslation().getX();
-            double dy = robotPose.getTranslation().getY() - m_lastPose.getTranslation().getY();
+    /**
+     * Set the target to a point along the path
+     *
+     * @param segment  Segment containing the point
+     * @param distance Distance along the path
+     */
+    private void interpolate(int segment, double distance) {
 
-            // Calc V
-            v = Math.hypot(dx, dy);
-        } else {
-            v = 0.0;
+        // Handle single point paths
+        if (m_path.getPointCount() < 2) {
+            m_targetX = m_path.getX(0);
+            m_targetY = m_path.getY(0);
+            return;
         }
 
-        // Set the last pose
-        m_lastPose = robotPose;
-
-        // Set a Lookahead
-        double L = 0.0;
-        double LF = m_lookaheadGain * v * m_lookaheadDist;
+        double start = m_path.getDistance(segment);
+        double t = (distance - start) / (m_path.getDistance(segment + 1) - start);
+        t = Math.max(0.0, Math.min(t, 1.0));
 
-        // Look for target
-        int ind = m_lastLookaheadIndex;
-        while ((LF > L) && (ind + 1) < m_path.getPoses().length) {
-            // Determine L
-            L = state.getDistance(m_path.getPoses()[ind], m_drivebaseWidth);
+        m_targetX = m_path.getX(segment) + ((m_path.getX(segment + 1) - m_path.getX(segment)) * t);
+        m_targetY = m_path.getY(segment) + ((m_path.getY(segment + 1) - m_path.getY(segment)) * t);
+    }
 
-            // Update ind
-            ind++;
-        }
+    /**
+     * Get the current target's X component
+     *
+     * @return Target X
+     */
+    public double getTargetX() {
+        return m_targetX;
+    }
 
-        // Limit index
-        if (m_lastLookaheadIndex >= ind) {
-            ind = m_lastLookaheadIndex;
-        }
-        if (ind >= m_path.getPoses().length) {
-            ind = m_path.getPoses().length - 1;
-        }
+    /**
+     * Get the current target's Y component
+     *
+     * @return Target Y
+     */
+    public double getTargetY() {
+        return m_targetY;
+    }
 
-        // Return the found pose
-        return m_path.getPoses()[ind];
+    /**
+     * Get the distance along the path of the nearest point to the robot
+     *
+     * @return Distance along the path
+     */
+    public double getProgress() {
+        return m_progress;
+    }
 
+    /**
+     * Update the follower, and get the next target point. This allocates the
+     * returned point. Control loops should use {@link #update(Pose2d)} instead.
+     *
+     * @param robotPose Robot pose
+     * @return Target point
+     */
+    public Translation2d getNextPoint(Pose2d robotPose) {
+        update(robotPose);
+        return new Translation2d(m_targetX, m_targetY);
     }
 
     public Translation2d getFinalPose() {
-        return m_path.getPoses()[m_path.getPoses().length - 1];
+        return m_path.getEnd();
     }
-}
\ No newline at end of file
+}
@@ -1,58 +1,151 @@
 package frc.lib5k.kinematics.purepursuit;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+
 import edu.wpi.first.wpilibj.geometry.Translation2d;
-import edu.wpi.first.wpilibj.util.Units;
 
+/**
+ * A polyline motion path. Points are stored in primitive arrays alongside the
+ * cumulative arc length at each point, so followers can search and interpolate
+ * along the path without allocating.
+ */
 public class Path {
 
-    // Amount of spacing between points during the "fill in" operation
-    private static final double POINT_SPACING = Units.inchesToMeters(6.0);
+    /* Path points */
+    private final double[] m_xs, m_ys;
+
+    // Arc length from the start of the path to each point
+    private final double[] m_distances;
 
-    // Path points
-    private ArrayList<Translation2d> m_points;
+    // Final point
+    private final Translation2d m_end;
 
     /**
      * Create a motion path from points
-     * 
-     * @param smoothness Path smoothness (Should be between 0 and 1)
-     * @param waypoints  Path waypoints to follow
+     *
+     * @param waypoints Path waypoints to follow
      */
     public Path(Translation2d... waypoints) {
-        this.m_points = new ArrayList<>();
+        if (waypoints.length == 0) {
+            throw new IllegalArgumentException("A path needs at least one waypoint");
+        }
 
-        // Fill in extra points
-        int i = 0;
-        for (; i < waypoints.length - 1; i++) {
+        double[] xs = new double[waypoints.length];
+        double[] ys = new double[waypoints.length];
+        double[] distances = new double[waypoints.length];
 
-            // Get the start and end translations
-            Translation2d startTrans = waypoints[i];
-            Translation2d endTrans = waypoints[i + 1];
+        // Add the first point
+        xs[0] = waypoints[0].getX();
+        ys[0] = waypoints[0].getY();
+        int count = 1;
 
-            // Create a new Translation of the difference between poses
-            Translation2d vector = new Translation2d(endTrans.getX() - startTrans.getX(),
-                    endTrans.getY() - startTrans.getY());
+        // Add every point that is not a duplicate of the last one
+        for (int i = 1; i < waypoints.length; i++) {
+            double length = Math.hypot(waypoints[i].getX() - xs[count - 1], waypoints[i].getY() - ys[count - 1]);
+            if (length < 1E-9) {
+                continue;
+            }
 
-            // Determine the number of points we can fit between the two poses
-            double innerCount = Math.ceil(Math.hypot(vector.getX(), vector.getY()) / POINT_SPACING);
+            xs[count] = waypoints[i].getX();
+            ys[count] = waypoints[i].getY();
+            distances[count] = distances[count - 1] + length;
+            count++;
+        }
 
-            // Find the interior length
-            double ilen = (1.0 / Math.sqrt((vector.getX() * vector.getX()) + (vector.getY() * vector.getY())));
-            vector = new Translation2d(vector.getX() * ilen, vector.getY() * ilen);
+        // Trim the arrays
+        m_xs = Arrays.copyOf(xs, count);
+        m_ys = Arrays.copyOf(ys, count);
+        m_distances = Arrays.copyOf(distances, count);
+        m_end = new Translation2d(m_xs[count - 1], m_ys[count - 1]);
+    }
 
-            // Add inner points
-            for (int j = 0; j < innerCount; j++) {
-                m_points.add(new Translation2d((startTrans.getX() + (vector.getX() * j)),
-                        (startTrans.getY() + (vector.getY() * j))));
-            }
+    /**
+     * Get the number of points in the path
+     *
+     * @return Point count
+     */
+    public int getPointCount() {
+        return m_xs.length;
+    }
+
+    /**
+     * Get a point's X component
+     *
+     * @param index Point index
+     * @return X
+     */
+    public double getX(int index) {
+        return m_xs[index];
+    }
+
+    /**
+     * Get a point's Y component
+     *
+     * @param index Point index
+     * @return Y
+     */
+    public double getY(int index) {
+        return m_ys[index];
+    }
+
+    /**
+     * Get the arc length from the start of the path to a point
+     *
+     * @param index Point index
+     * @return Distance along the path
+     */
+    public double getDistance(int index) {
+        return m_distances[index];
+    }
+
+    /**
+     * Get the total path length
+     *
+     * @return Length
+     */
+    public double getLength() {
+        return m_distances[m_distances.length - 1];
+    }
+
+    /**
+     * Get the final point of the path
+     *
+     * @return Final point
+     */
+    public Translation2d getEnd() {
+        return m_end;
+    }
+
+    /**
+     * Find the segment containing a distance along the path, starting the search
+     * from a known segment
+     *
+     * @param distance Distance along the path
+     * @param start    Segment to start searching from
+     * @return Segment index (the index of the segment's first point)
+     */
+    public int findSegment(double distance, int start) {
+        int segment = Math.max(0, Math.min(start, m_xs.length - 2));
+        while (segment + 2 < m_xs.length && m_distances[segment + 1] < distance) {
+            segment++;
         }
 
-        // Add the last point to the points list
-        m_points.add(waypoints[i]);
+        return segment;
     }
 
+    /**
+     * Get all path points. This allocates, so should not be called from a control
+     * loop.
+     *
+     * @return Points
+     */
     public Translation2d[] getPoses() {
-        return m_points.toArray(new Translation2d[m_points.size()]);
+        Translation2d[] output = new Translation2d[m_xs.length];
+        for (int i = 0; i < m_xs.length; i++) {
+            output[i] = new Translation2d(m_xs[i], m_ys[i]);
+        }
+
+        return output;
     }
 
-}
\ No newline at end of file
+}
@@ -4,7 +4,7 @@ import edu.wpi.first.wpilibj.geometry.Pose2d;
 import edu.wpi.first.wpilibj.geometry.Translation2d;
 import frc.lib5k.components.drive.DifferentialDriveCalculation;
 import frc.lib5k.kinematics.DriveSignal;
-import frc.lib5k.kinematics.statespace.models.DrivebaseState;
+import frc.lib5k.kinematics.MutablePose2d;
 import frc.lib5k.utils.Mathutils;
 
 public class PurePursuitController {
@@ -12,8 +12,15 @@ public class PurePursuitController {
     // Path follower
     private Follower m_follower;
 
-    // Tracker for last robot pose
-    private Pose2d m_lastPose = null;
+    /* Last robot position */
+    private boolean m_hasLastPose = false;
+    private double m_lastX, m_lastY;
+
+    // Output signal
+    private DriveSignal m_signal = new DriveSignal(0, 0);
+
+    // Robot pose, for callers passing WPILib poses
+    private MutablePose2d m_pose = new MutablePose2d();
 
     // kP for turning
     private double kP;
@@ -30,7 +37,7 @@ public class PurePursuitController {
 
     public void reset() {
         m_follower.reset();
-        m_lastPose = null;
+        m_hasLastPose = false;
     }
 
     public void configLookahead(double lookaheadDistance) {
@@ -42,33 +49,48 @@ public class PurePursuitController {
         m_follower.setLookaheadGain(lookaheadGain);
     }
 
+    /**
+     * Calculate the drive signal needed to follow the path. The returned signal is
+     * reused between calls.
+     *
+     * @param robotPose Robot pose
+     * @return Drive signal
+     */
     public DriveSignal calculate(Pose2d robotPose) {
+        return calculate(m_pose.set(robotPose));
+    }
 
-        // Get our goal pose
-        Translation2d goal = m_follower.getNextPoint(robotPose);
+    /**
+     * Calculate the drive signal needed to follow the path. The returned signal is
+     * reused between calls.
+     *
+     * @param robotPose Robot pose
+     * @return Drive signal
+     */
+    public DriveSignal calculate(MutablePose2d robotPose) {
+        double x = robotPose.getX();
+        double y = robotPose.getY();
+        double heading = robotPose.getTheta();
+
+        // Get our goal point
+        m_follower.update(x, y, heading);
+        double goalX = m_follower.getTargetX();
+        double goalY = m_follower.getTargetY();
 
         // Determine drivebase rear
-        DrivebaseState state = new DrivebaseState(robotPose);
-        Translation2d rear = state.getRear(m_follower.getDrivebaseWidth());
+        double rearX = x - ((m_follower.getDrivebaseWidth() / 2) * Math.cos(heading));
+        double rearY = y - ((m_follower.getDrivebaseWidth() / 2) * Math.sin(heading));
 
         // Determine goal alpha
-        double alpha = Math.atan2(goal.getY() - rear.getY(), goal.getX() - rear.getX())
-                - robotPose.getRotation().getRadians();
+        double alpha = Math.atan2(goalY - rearY, goalX - rearX) - heading;
 
         // Determine our velocity from the last pose
-        double v;
-        if (m_lastPose != null) {
-            double dx = robotPose.getTranslation().getX() - m_lastPose.getTranslation().getX();
-            double dy = robotPose.getTranslation().getY() - m_lastPose.getTranslation().getY();
-
-            // Calc V
-            v = Math.hypot(dx, dy);
-        } else {
-            v = 0.0;
-        }
+        double v = (m_hasLastPose) ? Math.hypot(x - m_lastX, y - m_lastY) : 0.0;
 
         // Set the last pose
-        m_lastPose = robotPose;
+        m_lastX = x;
+        m_lastY = y;
+        m_hasLastPose = true;
 
         // Determine lookahead
         double LF = m_follower.getLookaheadGain() * v * m_follower.getLookaheadDistance();
@@ -81,21 +103,8 @@ public class PurePursuitController {
         // Determine delta
         double delta = Math.atan2(2.0 * m_follower.getDrivebaseWidth() * Math.sin(alpha) / LF, 1.0) * kP;
 
-        double EPS = 86.0;
-
-        // System.out.println(delta);
-        // System.out.println(Math.abs(Math.toDegrees(Mathutils.getWrappedError(Mathutils.wpiAngleTo5k(robotPose.getRotation().getDegrees()),
-        // delta))));
-
-        // Limit dleta
-        // if (Math.abs(Math.toDegrees(delta)) < EPS) {
-        // delta *= Math.abs(delta) * 0.09;
-        // } else {
-        // delta *= Math.abs(delta) * 0.23;
-        // }
-
         // Determine distance from goal pose
-        double dist = state.getDistance(goal, m_follower.getDrivebaseWidth());
+        double dist = Math.hypot(rearX - goalX, rearY - goalY);
 
         // Determine scaling factor for the signal force based on the amount of
         // turning
@@ -110,21 +119,37 @@ public class PurePursuitController {
         speed = Mathutils.clamp(speed, -1, 1);
         speed *= kSpeedCap;
 
-        // Handle mis-alignment
-        // if(Math.toDegrees(delta) < EPS){
-        // speed *= 0.1;
-        // }
-
-        // Create a drive signal
-        DriveSignal signal = new DriveSignal(speed + delta, speed - delta);
+        // Set and normalize the drive signal
+        m_signal.setL(speed + delta);
+        m_signal.setR(speed - delta);
+        return DifferentialDriveCalculation.normalize(m_signal);
+    }
 
-        // Normalize the signal
-        signal = DifferentialDriveCalculation.normalize(signal);
+    /**
+     * Get the X component of the lookahead point from the last calculation
+     *
+     * @return Lookahead X
+     */
+    public double getTargetX() {
+        return m_follower.getTargetX();
+    }
 
-        return signal;
+    /**
+     * Get the Y component of the lookahead point from the last calculation
+     *
+     * @return Lookahead Y
+     */
+    public double getTargetY() {
+        return m_follower.getTargetY();
     }
 
     public boolean isFinished(Pose2d robotPosition, Translation2d epsilon) {
         return Mathutils.epsilonEquals(robotPosition.getTranslation(), m_follower.getFinalPose(), epsilon);
     }
+
+    public boolean isFinished(MutablePose2d robotPosition, Translation2d epsilon) {
+        Translation2d end = m_follower.getFinalPose();
+        return Mathutils.epsilonEquals(robotPosition.getX(), end.getX(), epsilon.getX())
+                && Mathutils.epsilonEquals(robotPosition.getY(), end.getY(), epsilon.getY());
+    }
 }
\ No newline at end of file
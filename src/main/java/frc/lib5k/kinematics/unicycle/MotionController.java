@@ -4,6 +4,8 @@ import edu.wpi.first.wpilibj.geometry.Pose2d;
 import edu.wpi.first.wpilibj.geometry.Translation2d;
 import edu.wpi.first.wpilibj.geometry.Twist2d;
 import edu.wpi.first.wpilibj.kinematics.DifferentialDriveWheelSpeeds;
+import frc.lib5k.kinematics.DriveSignal;
+import frc.lib5k.kinematics.MutableTwist2d;
 import frc.lib5k.kinematics.systemdef.VelocityConstraint;
 import frc.lib5k.kinematics.systemdef.VelocityDefinition;
 import frc.lib5k.utils.Mathutils;
@@ -30,6 +32,9 @@ public class MotionController {
     // Conversion P gains
     double turnP, distP;
 
+    // Position error, reused every call
+    private MutableTwist2d m_error = new MutableTwist2d();
+
     /**
      * Create a MotionController
      * 
@@ -63,30 +68,57 @@ public class MotionController {
     }
 
     public static Twist2d getRotatedError(Pose2d a, Pose2d b) {
+        MutableTwist2d error = getRotatedError(a, b, new MutableTwist2d());
+        return new Twist2d(error.getDx(), error.getDy(), error.getDtheta());
+    }
+
+    /**
+     * Get the error from pose A to pose B, rotated into B's frame, without
+     * allocating
+     * 
+     * @param a     Current pose
+     * @param b     Goal pose
+     * @param error Twist to write the error to. The heading error is in degrees
+     * @return The same twist
+     */
+    public static MutableTwist2d getRotatedError(Pose2d a, Pose2d b, MutableTwist2d error) {
 
-        // Get the rotated poses
-        Translation2d rotatedA = rotateBy(a, b.getRotation().getDegrees());
-        Translation2d rotatedB = rotateBy(b, b.getRotation().getDegrees());
+        // Rotating both poses and subtracting is the same as rotating the difference
+        double angle = b.getRotation().getRadians();
+        double ex = b.getTranslation().getX() - a.getTranslation().getX();
+        double ey = b.getTranslation().getY() - a.getTranslation().getY();
 
         // Determine X and Y errors
-        double dx = rotatedB.getX() - rotatedA.getX();
-        double dy = rotatedB.getY() - rotatedA.getY();
+        double dx = ex * Math.cos(angle) - ey * Math.sin(angle);
+        double dy = ex * Math.sin(angle) + ey * Math.cos(angle);
 
-        // Construct a Twist
-        return new Twist2d(dx, dy, b.getRotation().getDegrees() - a.getRotation().getDegrees());
+        return error.set(dx, dy, b.getRotation().getDegrees() - a.getRotation().getDegrees());
     }
 
     public DifferentialDriveWheelSpeeds calculate(Pose2d robotPose, Pose2d goalPose, VelocityConstraint constraints) {
+        DriveSignal output = calculate(robotPose, goalPose, constraints, new DriveSignal(0, 0));
+        return new DifferentialDriveWheelSpeeds(output.getL(), output.getR());
+    }
 
-        Twist2d error = getRotatedError(robotPose, goalPose);
+    /**
+     * Calculate wheel velocities to move towards a goal, without allocating
+     * 
+     * @param robotPose   Current pose
+     * @param goalPose    Goal pose
+     * @param constraints Velocity constraints
+     * @param output      Signal to write the left and right velocities to
+     * @return The same signal
+     */
+    public DriveSignal calculate(Pose2d robotPose, Pose2d goalPose, VelocityConstraint constraints,
+            DriveSignal output) {
 
-        // Flip our Y error if we are
-        if (error.dy < 0) {
-            error.dy *= -1;
-        }
+        MutableTwist2d error = getRotatedError(robotPose, goalPose, m_error);
+        double errorX = error.getDx();
+        double errorY = Math.abs(error.getDy());
 
-        // Increase turning aggression based on path progress
-        double turnModifier = (error.dy * turnRate);
+        // Increase turning aggression based on path progress. The Y error is flipped
+        // if needed
+        double turnModifier = (errorY * turnRate);
 
         // Bind the turnModifier to the max turn rate or 0
         turnModifier = Mathutils.clamp(turnModifier, -maxTurnPercent, maxTurnPercent);
@@ -99,8 +131,7 @@ public class MotionController {
         double headingErr = targetHeading - robotPose.getRotation().getDegrees();
 
         // Determine the desired robot speed
-        System.out.println(error);
-        double speed = error.dx * distP;
+        double speed = errorX * distP;
 
         // Implement distance-based speed ramping
         double cappedHeadingErr = (headingErr > 90) ? 90 : headingErr;
@@ -113,7 +144,7 @@ public class MotionController {
         double turn = headingErr * turnP;
 
         // Determine our max output
-        double maxOutput = constraints.asAbsolute(maxVelocity).maxVelocity;
+        double maxOutput = maxVelocity.maxVelocity * constraints.maxSpeedPercent;
 
         // Convert inputs to left/right outputs
         double left = (speed + turn) * maxOutput;
@@ -123,7 +154,7 @@ public class MotionController {
         left = Mathutils.clamp(left, -maxOutput, maxOutput);
         right = Mathutils.clamp(right, -maxOutput, maxOutput);
 
-        return new DifferentialDriveWheelSpeeds(left, right);
+        return output.set(left, right);
     }
 
 }
\ No newline at end of file
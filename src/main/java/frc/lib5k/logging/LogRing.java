@@ -0,0 +1,222 @@
+package frc.lib5k.logging;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free, multi-producer / single-consumer ring of preallocated log
+ * records. <br>
+ * <br>
+ * Producers (any thread calling {@link #push}) claim a sequence number with a
+ * single atomic increment, then copy their message into a preallocated
+ * character buffer. Nothing is formatted or allocated on this path. The single
+ * consumer (the logger's notifier thread) calls {@link #drain} to hand each
+ * committed record to a {@link RecordHandler}, where any formatting happens.
+ * <br>
+ * <br>
+ * When producers outrun the consumer, the oldest records are overwritten and
+ * counted in {@link #getDroppedCount()}.
+ */
+public class LogRing {
+
+    /**
+     * Callback for records being drained from the ring. The payload array is
+     * reused by the ring, so it must not be held on to after this call returns.
+     */
+    public interface RecordHandler {
+
+        /**
+         * Handle a single log record
+         *
+         * @param level     Log level ordinal
+         * @param component Component name (may be empty)
+         * @param timestamp Time the record was pushed, in seconds
+         * @param payload   Message characters
+         * @param length    Number of valid characters in the payload
+         */
+        public void handle(int level, String component, double timestamp, char[] payload, int length);
+    }
+
+    /* Ring configuration */
+    private final int m_capacity;
+    private final int m_mask;
+    private final int m_payloadSize;
+
+    /* Preallocated record storage */
+    private final int[] m_levels;
+    private final String[] m_components;
+    private final double[] m_timestamps;
+    private final char[][] m_payloads;
+    private final int[] m_lengths;
+
+    // Consumer-side copy of the record being handled
+    private final char[] m_scratch;
+
+    /**
+     * Per-slot sequence stamps. For a record with sequence s, the slot holds 2s+1
+     * while it is being written, and 2s+2 once it is committed.
+     */
+    private final AtomicLongArray m_stamps;
+
+    /* Producer and consumer cursors */
+    private final AtomicLong m_head = new AtomicLong();
+    private long m_tail = 0;
+
+    // Number of records lost to overflow
+    private final AtomicLong m_dropped = new AtomicLong();
+
+    /**
+     * Create a LogRing
+     *
+     * @param capacity    Number of records to hold. Will be rounded up to a power
+     *                    of two
+     * @param payloadSize Max number of characters per message. Longer messages
+     *                    are truncated
+     */
+    public LogRing(int capacity, int payloadSize) {
+
+        // Round the capacity to a power of two so slots can be found with a mask
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        m_capacity = size;
+        m_mask = size - 1;
+        m_payloadSize = payloadSize;
+
+        // Allocate every record up front
+        m_levels = new int[size];
+        m_components = new String[size];
+        m_timestamps = new double[size];
+        m_lengths = new int[size];
+        m_payloads = new char[size][payloadSize];
+        m_stamps = new AtomicLongArray(size);
+        m_scratch = new char[payloadSize];
+    }
+
+    /**
+     * Push a message into the ring. This is safe to call from any thread, and does
+     * not allocate.
+     *
+     * @param level     Log level ordinal
+     * @param component Component name
+     * @param timestamp Timestamp in seconds
+     * @param msg       Message
+     */
+    public void push(int level, String component, double timestamp, CharSequence msg) {
+
+        // Claim a sequence number and find its slot
+        long seq = m_head.getAndIncrement();
+        int slot = (int) (seq & m_mask);
+        long writing = (seq << 1) + 1;
+
+        // Take ownership of the slot. If a newer record already owns it, this one is
+        // stale and gets dropped (the consumer counts it when it passes this
+        // sequence number). If a producer from the previous lap is still
+        // copying into it (only possible when the ring is completely full), wait for
+        // that copy to finish
+        while (true) {
+            long stamp = m_stamps.get(slot);
+            if (stamp >= writing) {
+                return;
+            }
+            if ((stamp & 1) == 1) {
+                Thread.onSpinWait();
+            } else if (m_stamps.compareAndSet(slot, stamp, writing)) {
+                break;
+            }
+        }
+
+        // Copy the record into the slot
+        m_levels[slot] = level;
+        m_components[slot] = component;
+        m_timestamps[slot] = timestamp;
+
+        int length = Math.min(msg.length(), m_payloadSize);
+        char[] payload = m_payloads[slot];
+        if (msg instanceof String) {
+            ((String) msg).getChars(0, length, payload, 0);
+        } else {
+            for (int i = 0; i < length; i++) {
+                payload[i] = msg.charAt(i);
+            }
+        }
+        m_lengths[slot] = length;
+
+        // Commit the record
+        m_stamps.set(slot, writing + 1);
+    }
+
+    /**
+     * Hand every committed record to a handler. This must only be called from a
+     * single consumer thread.
+     *
+     * @param handler Record handler
+     * @return Number of records handled
+     */
+    public int drain(RecordHandler handler) {
+        int handled = 0;
+
+        // If producers have lapped us, skip ahead to the oldest record that could
+        // still exist
+        long head = m_head.get();
+        if (head - m_tail > m_capacity) {
+            m_dropped.addAndGet(head - m_tail - m_capacity);
+            m_tail = head - m_capacity;
+        }
+
+        while (m_tail < head) {
+            int slot = (int) (m_tail & m_mask);
+            long committed = (m_tail << 1) + 2;
+            long stamp = m_stamps.get(slot);
+
+            // A producer is still writing this record. Try again next drain
+            if (stamp < committed) {
+                break;
+            }
+
+            // The record was overwritten by a newer one before we got to it
+            if (stamp > committed) {
+                m_dropped.incrementAndGet();
+                m_tail++;
+                continue;
+            }
+
+            // Copy the record out, then make sure it was not overwritten while copying
+            int level = m_levels[slot];
+            String component = m_components[slot];
+            double timestamp = m_timestamps[slot];
+            int length = m_lengths[slot];
+            System.arraycopy(m_payloads[slot], 0, m_scratch, 0, length);
+
+            VarHandle.loadLoadFence();
+            if (m_stamps.get(slot) != committed) {
+                m_dropped.incrementAndGet();
+                m_tail++;
+                continue;
+            }
+
+            handler.handle(level, component, timestamp, m_scratch, length);
+            handled++;
+            m_tail++;
+        }
+
+        return handled;
+    }
+
+    /**
+     * Get the number of records that were dropped due to overflow
+     *
+     * @return Dropped record count
+     */
+    public long getDroppedCount() {
+        return m_dropped.get();
+    }
+
+    /**
+     * Get the ring capacity
+     *
+     * @return Capacity in records
+     */
+    public int getCapacity() {
+        return m_capacity;
+    }
+}
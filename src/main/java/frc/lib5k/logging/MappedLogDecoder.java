@@ -0,0 +1,131 @@
+package frc.lib5k.logging;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Offline tool for converting {@link MappedLogSink} segments back into the
+ * plain-text RobotLog-*.txt format. <br>
+ * <br>
+ * Usage: <code>MappedLogDecoder &lt;log directory&gt;</code>. Every session in
+ * the directory is written to a .txt file next to its segments.
+ */
+public class MappedLogDecoder {
+
+    public static void main(String[] args) throws IOException {
+
+        // Default to the simulation log directory
+        Path dir = Paths.get((args.length > 0) ? args[0] : "simlogs");
+
+        for (Map.Entry<String, List<Path>> session : findSessions(dir).entrySet()) {
+            Path output = dir.resolve(session.getKey() + ".txt");
+            int lines = decodeSession(session.getValue(), output);
+
+            System.out.println(String.format("Decoded %d lines to %s", lines, output));
+        }
+    }
+
+    /**
+     * Find every session in a directory, and its segments in order
+     *
+     * @param dir Log directory
+     * @return Map of session name to segment paths
+     * @throws IOException
+     */
+    public static Map<String, List<Path>> findSessions(Path dir) throws IOException {
+        Map<String, List<Path>> sessions = new TreeMap<>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + MappedLogSink.EXTENSION)) {
+            for (Path segment : stream) {
+
+                // Strip the ".NNN.rlog" suffix to get the session name
+                String name = segment.getFileName().toString();
+                name = name.substring(0, name.length() - MappedLogSink.EXTENSION.length());
+                name = name.substring(0, name.lastIndexOf('.'));
+
+                sessions.computeIfAbsent(name, (k) -> new ArrayList<>()).add(segment);
+            }
+        }
+
+        // Zero-padded indices sort correctly by name
+        for (List<Path> segments : sessions.values()) {
+            Collections.sort(segments);
+        }
+
+        return sessions;
+    }
+
+    /**
+     * Decode a list of segments into a single text file
+     *
+     * @param segments Segments, in order
+     * @param output   Output file
+     * @return Number of lines written
+     * @throws IOException
+     */
+    public static int decodeSession(List<Path> segments, Path output) throws IOException {
+        int lines = 0;
+
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            for (Path segment : segments) {
+                for (String line : readSegment(segment)) {
+                    writer.write(line);
+                    writer.newLine();
+                    lines++;
+                }
+            }
+        }
+
+        return lines;
+    }
+
+    /**
+     * Read every record from a segment
+     *
+     * @param segment Segment file
+     * @return Lines in the segment
+     * @throws IOException
+     */
+    public static List<String> readSegment(Path segment) throws IOException {
+        List<String> lines = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            // Check the header
+            if (buffer.remaining() < Integer.BYTES || buffer.getInt() != MappedLogSink.MAGIC) {
+                throw new IOException(String.format("%s is not a log segment", segment));
+            }
+
+            // Read records until the end marker, or a record that was cut off
+            while (buffer.remaining() >= Integer.BYTES) {
+                int size = buffer.getInt();
+                int length = size - Integer.BYTES;
+                if (size == 0 || length < 0 || length > buffer.remaining()) {
+                    break;
+                }
+
+                ByteBuffer record = buffer.slice();
+                record.limit(length);
+                lines.add(StandardCharsets.UTF_8.decode(record).toString());
+                buffer.position(buffer.position() + length);
+            }
+        }
+
+        return lines;
+    }
+}
@@ -0,0 +1,222 @@
+package frc.lib5k.logging;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A binary log writer that appends length-prefixed UTF-8 records directly into
+ * preallocated, memory-mapped segment files. <br>
+ * <br>
+ * Each segment starts with {@link #MAGIC}, followed by records made of a
+ * 4-byte record size (including itself) and the text bytes. A zero size marks
+ * the end of the segment. Segments are only forced to disk when they are
+ * rotated or closed, and are then truncated to the length that was written.
+ * Use {@link MappedLogDecoder} to turn segments back into text logs.
+ */
+public class MappedLogSink implements AutoCloseable {
+
+    /** Magic number at the start of every segment ("R5KL") */
+    public static final int MAGIC = 0x52354B4C;
+
+    /** Segment file extension */
+    public static final String EXTENSION = ".rlog";
+
+    // Default segment size (1 MiB)
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 20;
+
+    /* Segment info */
+    private final Path m_directory;
+    private final int m_segmentSize;
+    private String m_sessionName;
+    private int m_segmentIndex = 0;
+
+    /* Current segment */
+    private FileChannel m_channel;
+    private MappedByteBuffer m_buffer;
+
+    // Encoder that writes straight into the mapped buffer
+    private final CharsetEncoder m_encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    /**
+     * Create a MappedLogSink
+     *
+     * @param directory   Directory to write segments to
+     * @param segmentSize Size of each segment in bytes
+     */
+    public MappedLogSink(Path directory, int segmentSize) {
+        m_directory = directory;
+        m_segmentSize = segmentSize;
+    }
+
+    /**
+     * Create a MappedLogSink with the default segment size
+     *
+     * @param directory Directory to write segments to
+     */
+    public MappedLogSink(Path directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Finish the current segment, and start a new logging session
+     *
+     * @param sessionName Session name (ex. "RobotLog-2020-02-29.13_00_00")
+     * @throws IOException
+     */
+    public void startSession(String sessionName) throws IOException {
+        close();
+
+        m_sessionName = sessionName;
+        m_segmentIndex = 0;
+        openSegment();
+    }
+
+    /**
+     * Append a line to the log. Rotates to a new segment if the current one is
+     * full. Lines longer than a whole segment are truncated.
+     *
+     * @param line Line to write
+     * @throws IOException
+     */
+    public void append(CharSequence line) throws IOException {
+        if (m_buffer == null) {
+            return;
+        }
+
+        // Try to fit the record in this segment, otherwise rotate and retry once
+        if (!tryAppend(line)) {
+            rotate();
+            if (!tryAppend(line)) {
+                // Line is larger than a segment. Keep what fits
+                encodeRecord(line);
+            }
+        }
+    }
+
+    /**
+     * Finish the current segment and start the next one in this session
+     *
+     * @throws IOException
+     */
+    public void rotate() throws IOException {
+        if (m_sessionName == null) {
+            return;
+        }
+        close();
+        m_segmentIndex++;
+        openSegment();
+    }
+
+    /**
+     * Check if a session is open
+     *
+     * @return Is open?
+     */
+    public boolean isOpen() {
+        return m_buffer != null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        long length = -1;
+
+        if (m_buffer != null) {
+
+            // Terminate the segment, then flush it to disk
+            length = m_buffer.position();
+            if (m_buffer.remaining() >= Integer.BYTES) {
+                m_buffer.putInt(m_buffer.position(), 0);
+                length += Integer.BYTES;
+            }
+            m_buffer.force();
+            m_buffer = null;
+        }
+
+        if (m_channel != null) {
+
+            // Trim the preallocated space off the end of the segment. Some platforms
+            // (Windows) can not shrink a file while it is still mapped, and the mapping
+            // is only released by the GC. The segment keeps its full size there, which
+            // the decoder handles through the end marker
+            if (length >= 0) {
+                try {
+                    m_channel.truncate(length);
+                } catch (IOException e) {
+                }
+            }
+
+            m_channel.close();
+            m_channel = null;
+        }
+    }
+
+    /**
+     * Get the filename for a segment of a session
+     *
+     * @param sessionName Session name
+     * @param index       Segment index
+     * @return Segment filename
+     */
+    public static String getSegmentFilename(String sessionName, int index) {
+        return String.format("%s.%03d%s", sessionName, index, EXTENSION);
+    }
+
+    private void openSegment() throws IOException {
+
+        // Preallocate and map the segment
+        Path path = m_directory.resolve(getSegmentFilename(m_sessionName, m_segmentIndex));
+        m_channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        m_buffer = m_channel.map(FileChannel.MapMode.READ_WRITE, 0, m_segmentSize);
+
+        // Write the segment header
+        m_buffer.putInt(MAGIC);
+    }
+
+    private boolean tryAppend(CharSequence line) {
+        int start = m_buffer.position();
+        if (!encodeRecord(line)) {
+            m_buffer.position(start);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Encode a record at the current position. Leaves room for the end marker.
+     *
+     * @param line Line to write
+     * @return True if the whole line fit
+     */
+    private boolean encodeRecord(CharSequence line) {
+        int start = m_buffer.position();
+
+        // Need space for the size field and the end marker
+        if (m_buffer.remaining() < Integer.BYTES * 2) {
+            return false;
+        }
+
+        // Encode the text right after the length field, keeping room for the end
+        // marker
+        int limit = m_buffer.limit();
+        m_buffer.position(start + Integer.BYTES);
+        m_buffer.limit(limit - Integer.BYTES);
+        m_encoder.reset();
+        CoderResult result = m_encoder.encode(CharBuffer.wrap(line), m_buffer, true);
+        m_buffer.limit(limit);
+
+        // Fill in the record size
+        m_buffer.putInt(start, m_buffer.position() - start);
+
+        return !result.isOverflow();
+    }
+}
@@ -0,0 +1,213 @@
+package frc.lib5k.logging;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Loads a recording written by {@link TelemetryRecorder} into memory
+ */
+public class TelemetryReader {
+
+    /* Channel info */
+    private String[] m_names;
+    private byte[] m_types;
+
+    /* Decoded columns */
+    private double[] m_timestamps;
+    private long[][] m_columns;
+    private int m_rows = 0;
+
+    /**
+     * Read a recording
+     *
+     * @param file Recording file
+     * @throws IOException
+     */
+    public TelemetryReader(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        // Read the header
+        if (buffer.getInt() != TelemetryRecorder.MAGIC) {
+            throw new IOException(String.format("%s is not a telemetry recording", file));
+        }
+        int version = buffer.getInt();
+        if (version != TelemetryRecorder.VERSION) {
+            throw new IOException(String.format("Unsupported telemetry version %d", version));
+        }
+
+        // Read the channels
+        int count = buffer.getInt();
+        m_names = new String[count];
+        m_types = new byte[count];
+        for (int i = 0; i < count; i++) {
+            m_types[i] = buffer.get();
+            byte[] name = new byte[buffer.get() & 0xFF];
+            buffer.get(name);
+            m_names[i] = new String(name, StandardCharsets.UTF_8);
+        }
+
+        // Decode every block
+        long[] timestamps = new long[TelemetryRecorder.BLOCK_ROWS];
+        m_columns = new long[count][TelemetryRecorder.BLOCK_ROWS];
+        while (buffer.remaining() >= Integer.BYTES) {
+            int rows = buffer.getInt();
+
+            // Grow the columns if needed
+            if (m_rows + rows > timestamps.length) {
+                int size = Math.max(timestamps.length * 2, m_rows + rows);
+                timestamps = Arrays.copyOf(timestamps, size);
+                for (int i = 0; i < count; i++) {
+                    m_columns[i] = Arrays.copyOf(m_columns[i], size);
+                }
+            }
+
+            readDeltas(buffer, timestamps, m_rows, rows);
+            for (int i = 0; i < count; i++) {
+                if (m_types[i] == TelemetryRecorder.TYPE_DOUBLE) {
+                    readXors(buffer, m_columns[i], m_rows, rows);
+                } else {
+                    readDeltas(buffer, m_columns[i], m_rows, rows);
+                }
+            }
+            m_rows += rows;
+        }
+
+        // Convert timestamps back to seconds
+        m_timestamps = new double[m_rows];
+        for (int i = 0; i < m_rows; i++) {
+            m_timestamps[i] = timestamps[i] / 1e6;
+        }
+    }
+
+    /**
+     * Get the number of recorded rows
+     *
+     * @return Row count
+     */
+    public int getRowCount() {
+        return m_rows;
+    }
+
+    /**
+     * Get the names of every channel, in registration order
+     *
+     * @return Channel names
+     */
+    public String[] getChannelNames() {
+        return m_names.clone();
+    }
+
+    /**
+     * Get the row timestamps
+     *
+     * @return Timestamps in seconds
+     */
+    public double[] getTimestamps() {
+        return m_timestamps;
+    }
+
+    /**
+     * Get a double channel
+     *
+     * @param name Channel name
+     * @return Channel values
+     */
+    public double[] getDoubles(String name) {
+        long[] column = getColumn(name, TelemetryRecorder.TYPE_DOUBLE);
+        double[] output = new double[m_rows];
+        for (int i = 0; i < m_rows; i++) {
+            output[i] = Double.longBitsToDouble(column[i]);
+        }
+        return output;
+    }
+
+    /**
+     * Get an int channel
+     *
+     * @param name Channel name
+     * @return Channel values
+     */
+    public int[] getInts(String name) {
+        long[] column = getColumn(name, TelemetryRecorder.TYPE_INT);
+        int[] output = new int[m_rows];
+        for (int i = 0; i < m_rows; i++) {
+            output[i] = (int) column[i];
+        }
+        return output;
+    }
+
+    /**
+     * Get a boolean channel
+     *
+     * @param name Channel name
+     * @return Channel values
+     */
+    public boolean[] getBooleans(String name) {
+        long[] column = getColumn(name, TelemetryRecorder.TYPE_BOOLEAN);
+        boolean[] output = new boolean[m_rows];
+        for (int i = 0; i < m_rows; i++) {
+            output[i] = column[i] != 0;
+        }
+        return output;
+    }
+
+    private long[] getColumn(String name, byte type) {
+        for (int i = 0; i < m_names.length; i++) {
+            if (m_names[i].equals(name)) {
+                if (m_types[i] != type) {
+                    throw new IllegalArgumentException(String.format("Channel %s has a different type", name));
+                }
+                return m_columns[i];
+            }
+        }
+        throw new IllegalArgumentException(String.format("No channel named %s", name));
+    }
+
+    private static void readDeltas(ByteBuffer buffer, long[] column, int offset, int rows) {
+        long last = 0;
+        for (int i = 0; i < rows; i++) {
+            long zigzag = readVarint(buffer);
+            last += (zigzag >>> 1) ^ -(zigzag & 1);
+            column[offset + i] = last;
+        }
+    }
+
+    private static void readXors(ByteBuffer buffer, long[] column, int offset, int rows) {
+        long last = 0;
+        for (int i = 0; i < rows; i++) {
+            int header = buffer.get() & 0xFF;
+            int trailingBytes = header >>> 4;
+            int keptBytes = header & 0x0F;
+
+            // Rebuild the XOR from its kept bytes
+            long xor = 0;
+            for (int b = 0; b < keptBytes; b++) {
+                xor |= (long) (buffer.get() & 0xFF) << (b * 8);
+            }
+            if (trailingBytes < Long.BYTES) {
+                last ^= xor << (trailingBytes * 8);
+            }
+            column[offset + i] = last;
+        }
+    }
+
+    private static long readVarint(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,427 @@
+package frc.lib5k.logging;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+
+/**
+ * A columnar time-series recorder for match telemetry. <br>
+ * <br>
+ * Channels are registered once, then {@link #sample(double)} is called every
+ * loop. Samples are stored in primitive column buffers, and every
+ * {@link #BLOCK_ROWS} rows the full block is handed to the recorder's writer
+ * thread, which compresses the columns (delta + zigzag varint, or XOR with
+ * leading and trailing zero bytes trimmed for doubles) and writes them to
+ * disk. The sampling thread never touches the
+ * file. If the writer falls so far behind that every block is in use, rows are
+ * dropped and counted rather than blocking the caller. Use
+ * {@link TelemetryReader} to load a recording.
+ */
+public class TelemetryRecorder implements AutoCloseable {
+
+    /** Magic number at the start of every recording ("R5KT") */
+    public static final int MAGIC = 0x52354B54;
+
+    /** Format version */
+    public static final int VERSION = 2;
+
+    /** Number of rows per block */
+    public static final int BLOCK_ROWS = 256;
+
+    /** Number of blocks that can be buffered for the writer */
+    public static final int BLOCK_COUNT = 4;
+
+    /** Channel types */
+    public static final byte TYPE_DOUBLE = 0;
+    public static final byte TYPE_INT = 1;
+    public static final byte TYPE_BOOLEAN = 2;
+
+    /* Registered channels */
+    private ArrayList<String> m_names = new ArrayList<>();
+    private ArrayList<Byte> m_types = new ArrayList<>();
+    private ArrayList<Object> m_suppliers = new ArrayList<>();
+
+    /* Frozen channel info, built on open */
+    private byte[] m_channelTypes;
+    private DoubleSupplier[] m_doubleSuppliers;
+    private IntSupplier[] m_intSuppliers;
+    private BooleanSupplier[] m_booleanSuppliers;
+
+    /**
+     * A block of rows. Every channel is stored as raw long bits
+     */
+    private static class Block {
+        public final long[] timestamps = new long[BLOCK_ROWS];
+        public final long[][] columns;
+        public int rows = 0;
+
+        public Block(int channels) {
+            columns = new long[channels][BLOCK_ROWS];
+        }
+    }
+
+    // Marker that tells the writer to stop
+    private static final Block STOP = new Block(0);
+
+    /* Block handoff between the sampling thread and the writer */
+    private BlockingQueue<Block> m_freeBlocks;
+    private BlockingQueue<Block> m_fullBlocks;
+    private Block m_block;
+    private AtomicLong m_droppedRows = new AtomicLong();
+
+    /* Output, only used by the writer thread after open */
+    private FileChannel m_channel;
+    private ByteBuffer m_blockBuffer;
+    private Thread m_writer;
+    private volatile IOException m_writeError = null;
+
+    /**
+     * Register a double channel
+     *
+     * @param name     Channel name
+     * @param supplier Value supplier
+     */
+    public void addDoubleChannel(String name, DoubleSupplier supplier) {
+        addChannel(name, TYPE_DOUBLE, supplier);
+    }
+
+    /**
+     * Register an int channel
+     *
+     * @param name     Channel name
+     * @param supplier Value supplier
+     */
+    public void addIntChannel(String name, IntSupplier supplier) {
+        addChannel(name, TYPE_INT, supplier);
+    }
+
+    /**
+     * Register a boolean channel
+     *
+     * @param name     Channel name
+     * @param supplier Value supplier
+     */
+    public void addBooleanChannel(String name, BooleanSupplier supplier) {
+        addChannel(name, TYPE_BOOLEAN, supplier);
+    }
+
+    private void addChannel(String name, byte type, Object supplier) {
+        if (m_channel != null) {
+            throw new IllegalStateException("Channels must be registered before the recorder is opened");
+        }
+
+        m_names.add(name);
+        m_types.add(type);
+        m_suppliers.add(supplier);
+    }
+
+    /**
+     * Open a recording file, and write the channel header. No more channels can be
+     * added after this.
+     *
+     * @param file Output file
+     * @throws IOException
+     */
+    public void open(Path file) throws IOException {
+        int count = m_names.size();
+
+        // Freeze the channel list into arrays
+        m_channelTypes = new byte[count];
+        m_doubleSuppliers = new DoubleSupplier[count];
+        m_intSuppliers = new IntSupplier[count];
+        m_booleanSuppliers = new BooleanSupplier[count];
+        for (int i = 0; i < count; i++) {
+            m_channelTypes[i] = m_types.get(i);
+            switch (m_channelTypes[i]) {
+            case TYPE_DOUBLE:
+                m_doubleSuppliers[i] = (DoubleSupplier) m_suppliers.get(i);
+                break;
+            case TYPE_INT:
+                m_intSuppliers[i] = (IntSupplier) m_suppliers.get(i);
+                break;
+            default:
+                m_booleanSuppliers[i] = (BooleanSupplier) m_suppliers.get(i);
+                break;
+            }
+        }
+
+        // Worst case block size. 10 bytes per varint (or 9 per double), plus the row
+        // count
+        m_blockBuffer = ByteBuffer.allocateDirect(Integer.BYTES + (count + 1) * BLOCK_ROWS * 10);
+
+        // Build the header
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES * 3 + count * 257);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(count);
+        for (int i = 0; i < count; i++) {
+            byte[] name = m_names.get(i).getBytes(StandardCharsets.UTF_8);
+            header.put(m_channelTypes[i]);
+            header.put((byte) Math.min(name.length, 255));
+            header.put(name, 0, Math.min(name.length, 255));
+        }
+        header.flip();
+
+        // Write the header
+        m_channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        while (header.hasRemaining()) {
+            m_channel.write(header);
+        }
+
+        // Allocate every block up front
+        m_freeBlocks = new ArrayBlockingQueue<>(BLOCK_COUNT);
+        m_fullBlocks = new ArrayBlockingQueue<>(BLOCK_COUNT + 1);
+        for (int i = 0; i < BLOCK_COUNT - 1; i++) {
+            m_freeBlocks.add(new Block(count));
+        }
+        m_block = new Block(count);
+
+        // Start the writer
+        m_writer = new Thread(this::writeBlocks, "Lib5K TelemetryRecorder");
+        m_writer.setDaemon(true);
+        m_writer.start();
+    }
+
+    /**
+     * Record one row of every channel. Does not allocate or block.
+     *
+     * @param timestamp Row timestamp in seconds
+     * @throws IOException If the writer thread failed to write an earlier block
+     */
+    public void sample(double timestamp) throws IOException {
+        if (m_channel == null) {
+            return;
+        }
+        checkWriteError();
+
+        // Drop the row if the writer has every block
+        if (m_block == null) {
+            m_block = m_freeBlocks.poll();
+            if (m_block == null) {
+                m_droppedRows.incrementAndGet();
+                return;
+            }
+        }
+
+        // Timestamps are stored in microseconds
+        int row = m_block.rows;
+        m_block.timestamps[row] = Math.round(timestamp * 1e6);
+
+        // Read every channel into its column
+        for (int i = 0; i < m_channelTypes.length; i++) {
+            long value;
+            switch (m_channelTypes[i]) {
+            case TYPE_DOUBLE:
+                value = Double.doubleToLongBits(m_doubleSuppliers[i].getAsDouble());
+                break;
+            case TYPE_INT:
+                value = m_intSuppliers[i].getAsInt();
+                break;
+            default:
+                value = m_booleanSuppliers[i].getAsBoolean() ? 1 : 0;
+                break;
+            }
+            m_block.columns[i][row] = value;
+        }
+        m_block.rows++;
+
+        // Hand full blocks to the writer
+        if (m_block.rows == BLOCK_ROWS) {
+            flush();
+        }
+    }
+
+    /**
+     * Hand any buffered rows to the writer thread as a (possibly partial) block.
+     * This does not wait for the block to be written.
+     *
+     * @throws IOException If the writer thread failed to write an earlier block
+     */
+    public void flush() throws IOException {
+        if (m_channel == null) {
+            return;
+        }
+        checkWriteError();
+
+        if (m_block == null || m_block.rows == 0) {
+            return;
+        }
+
+        // The full queue has room for every block, so this never fails
+        m_fullBlocks.add(m_block);
+        m_block = m_freeBlocks.poll();
+    }
+
+    /**
+     * Get the number of rows dropped because the writer fell behind
+     *
+     * @return Dropped row count
+     */
+    public long getDroppedRows() {
+        return m_droppedRows.get();
+    }
+
+    /**
+     * Write every remaining row, stop the writer, and close the file. This blocks
+     * until everything is on disk.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        if (m_channel == null) {
+            return;
+        }
+
+        // Hand over the last rows, then ask the writer to stop once it has written
+        // everything before them. The writer is never interrupted, as that would
+        // close the file channel under it
+        flush();
+        try {
+            m_fullBlocks.put(STOP);
+            m_writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        m_channel.close();
+        m_channel = null;
+        checkWriteError();
+    }
+
+    /**
+     * Rethrow any error from the writer thread
+     *
+     * @throws IOException Writer error
+     */
+    private void checkWriteError() throws IOException {
+        IOException error = m_writeError;
+        if (error != null) {
+            m_writeError = null;
+            throw error;
+        }
+    }
+
+    /**
+     * Writer thread. Writes full blocks as they arrive, until it reaches the stop
+     * marker.
+     */
+    private void writeBlocks() {
+        while (true) {
+
+            // Wait for a block
+            Block block;
+            try {
+                block = m_fullBlocks.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (block == STOP) {
+                return;
+            }
+
+            try {
+                writeBlock(block);
+            } catch (IOException e) {
+                m_writeError = e;
+            }
+
+            // Give the block back
+            block.rows = 0;
+            m_freeBlocks.add(block);
+        }
+    }
+
+    /**
+     * Encode and write a block
+     *
+     * @param block Block
+     * @throws IOException
+     */
+    private void writeBlock(Block block) throws IOException {
+
+        // Encode the block
+        m_blockBuffer.clear();
+        m_blockBuffer.putInt(block.rows);
+        writeDeltas(block.timestamps, block.rows);
+        for (int i = 0; i < m_channelTypes.length; i++) {
+            if (m_channelTypes[i] == TYPE_DOUBLE) {
+                writeXors(block.columns[i], block.rows);
+            } else {
+                writeDeltas(block.columns[i], block.rows);
+            }
+        }
+        m_blockBuffer.flip();
+
+        // Write it
+        while (m_blockBuffer.hasRemaining()) {
+            m_channel.write(m_blockBuffer);
+        }
+    }
+
+    /**
+     * Write a column as zigzag-encoded deltas from the previous row
+     */
+    private void writeDeltas(long[] column, int rows) {
+        long last = 0;
+        for (int i = 0; i < rows; i++) {
+            long delta = column[i] - last;
+            writeVarint((delta << 1) ^ (delta >> 63));
+            last = column[i];
+        }
+    }
+
+    /**
+     * Write a column of double bits XORed with the previous row. Like Gorilla,
+     * only the bits between the leading and trailing zeros are kept, but rounded
+     * out to whole bytes. Each value is a header byte, holding the number of
+     * trailing zero bytes in the high nibble and the number of kept bytes in the
+     * low nibble, followed by the kept bytes, lowest first. <br>
+     * <br>
+     * Smooth values only differ in their high bits, and noisy ones (ex. battery
+     * voltage) differ all the way down the mantissa, but share their sign and
+     * exponent. Both lose their zero bytes, so no value takes more than 9 bytes.
+     */
+    private void writeXors(long[] column, int rows) {
+        long last = 0;
+        for (int i = 0; i < rows; i++) {
+            long xor = column[i] ^ last;
+            last = column[i];
+
+            // An unchanged value is just the header
+            if (xor == 0) {
+                m_blockBuffer.put((byte) (Long.BYTES << 4));
+                continue;
+            }
+
+            int trailingBytes = Long.numberOfTrailingZeros(xor) / 8;
+            int keptBytes = Long.BYTES - trailingBytes - (Long.numberOfLeadingZeros(xor) / 8);
+            m_blockBuffer.put((byte) ((trailingBytes << 4) | keptBytes));
+
+            xor >>>= trailingBytes * 8;
+            for (int b = 0; b < keptBytes; b++) {
+                m_blockBuffer.put((byte) xor);
+                xor >>>= 8;
+            }
+        }
+    }
+
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            m_blockBuffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        m_blockBuffer.put((byte) value);
+    }
+}
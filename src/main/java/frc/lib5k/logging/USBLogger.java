@@ -8,9 +8,9 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.Filesystem;
@@ -22,13 +22,31 @@ public class USBLogger implements AutoCloseable {
 
     private Notifier m_thread;
     private boolean m_lastStateEnabled, m_lastUSBConnectionState = false;
-    private ArrayList<String> m_messageBuffer = new ArrayList<>();
+    private ConcurrentLinkedQueue<String> m_messageBuffer = new ConcurrentLinkedQueue<>();
     private OutputStream m_fileStream;
+    private MappedLogSink m_mappedSink;
     private String relPath;
 
     public USBLogger(String relPath) {
+        this(relPath, false);
+    }
+
+    /**
+     * Create a USBLogger
+     * 
+     * @param relPath       Log directory, relative to the USB stick
+     * @param useMappedSink Write binary, memory-mapped segments with a
+     *                      {@link MappedLogSink} instead of text. Decode them
+     *                      with {@link MappedLogDecoder}
+     */
+    public USBLogger(String relPath, boolean useMappedSink) {
         this.relPath = relPath;
 
+        // Set up the binary sink
+        if (useMappedSink) {
+            m_mappedSink = new MappedLogSink(getUSBPath());
+        }
+
         // Start the thread
         m_thread = new Notifier(this::update);
         m_thread.startPeriodic(0.5);
@@ -48,6 +66,12 @@ public class USBLogger implements AutoCloseable {
 
     public void splitLogfile() throws IOException {
 
+        // In mapped mode, finishing the session is a segment rotation
+        if (m_mappedSink != null) {
+            m_mappedSink.startSession(createSessionName(new Date()));
+            return;
+        }
+
         // Close the file
         close();
 
@@ -109,8 +133,11 @@ public class USBLogger implements AutoCloseable {
 
         // Write data buffer to logfile
         try {
-            if (m_fileStream != null) {
-                for (String line : m_messageBuffer) {
+            String line;
+            while ((line = m_messageBuffer.poll()) != null) {
+                if (m_mappedSink != null) {
+                    m_mappedSink.append(line);
+                } else if (m_fileStream != null) {
                     m_fileStream.write(String.format("%s%n", line).getBytes());
                 }
             }
@@ -118,9 +145,6 @@ public class USBLogger implements AutoCloseable {
             DriverStation.reportError("Failed to write message buffer to USB", true);
         }
 
-        // Clear the message buffer
-        m_messageBuffer.clear();
-
     }
 
     @Override
@@ -128,6 +152,9 @@ public class USBLogger implements AutoCloseable {
         if (m_fileStream != null) {
             m_fileStream.close();
         }
+        if (m_mappedSink != null) {
+            m_mappedSink.close();
+        }
     }
 
     /**
@@ -137,10 +164,20 @@ public class USBLogger implements AutoCloseable {
      * @return The filename at the format "{filePrefix}-{date/time}.txt".
      */
     private String createFilename(Date time) {
+        return createSessionName(time) + ".txt";
+    }
+
+    /**
+     * Create a session name with a time.
+     *
+     * @param time The time that is saved in the name.
+     * @return The name at the format "{filePrefix}-{date/time}".
+     */
+    private String createSessionName(Date time) {
         // Get current date/time, format is YYYY-MM-DD.HH_mm_ss
         SimpleDateFormat formater = new SimpleDateFormat("yyyy-MM-dd.HH_mm_ss", Locale.getDefault());
 
-        return "RobotLog-" + formater.format(time) + ".txt";
+        return "RobotLog-" + formater.format(time);
     }
 
     private Path getUSBPath() {
@@ -0,0 +1,155 @@
+package frc.lib5k.loops.loopers;
+
+import java.util.ArrayList;
+
+import frc.lib5k.roborio.FPGAClock;
+import frc.lib5k.utils.RobotLogger;
+import frc.lib5k.utils.RobotLogger.Level;
+
+/**
+ * Runs control loops at more than one rate. <br>
+ * <br>
+ * Each {@link RateTier} runs on its own thread, alongside the robot's main
+ * command loop. Tiers should only pass data to each other through
+ * {@link SharedState}, with each piece of state written by a single tier. For
+ * deterministic simulation, the threads can be left stopped, and every tier
+ * that is due run from the simulation loop with {@link #runDue()}.
+ */
+public class MultiRateLooper {
+    private RobotLogger logger = RobotLogger.getInstance();
+    private static class Holder {
+        private static final MultiRateLooper INSTANCE = new MultiRateLooper();
+    }
+
+    // Tiers, in the order they were added
+    private ArrayList<RateTier> m_tiers = new ArrayList<>();
+
+    // Next run time of each tier, when run synchronously
+    private ArrayList<Double> m_nextRunTimes = new ArrayList<>();
+
+    /* State */
+    private boolean m_running = false;
+    private boolean m_synchronous = false;
+
+    private MultiRateLooper() {
+
+    }
+
+    /**
+     * Get the MultiRateLooper instance
+     *
+     * @return MultiRateLooper
+     */
+    public static MultiRateLooper getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Add a tier. Tiers added while the looper is running are started right away.
+     *
+     * @param name     Tier name
+     * @param period   Time between runs (seconds)
+     * @param priority Real-time thread priority [1-99], or 0 to leave the thread
+     *                 at normal priority
+     * @return Tier
+     */
+    public synchronized RateTier addTier(String name, double period, int priority) {
+        RateTier tier = new RateTier(name, period, priority);
+        m_tiers.add(tier);
+        m_nextRunTimes.add(Double.NaN);
+
+        if (m_running && !m_synchronous) {
+            tier.start();
+        }
+
+        return tier;
+    }
+
+    /**
+     * Get a tier by name
+     *
+     * @param name Tier name
+     * @return Tier, or null if there is no such tier
+     */
+    public synchronized RateTier getTier(String name) {
+        for (RateTier tier : m_tiers) {
+            if (tier.getName().equals(name)) {
+                return tier;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Start every tier's thread. Does nothing when running synchronously.
+     */
+    public synchronized void start() {
+        m_running = true;
+
+        if (m_synchronous) {
+            return;
+        }
+
+        for (RateTier tier : m_tiers) {
+            tier.start();
+        }
+    }
+
+    /**
+     * Set if tiers should be run from the caller instead of their threads. When
+     * synchronous, {@link #runDue()} must be called at least as often as the
+     * fastest tier's period.
+     *
+     * @param synchronous Should run synchronously?
+     */
+    public synchronized void setSynchronous(boolean synchronous) {
+        if (synchronous == m_synchronous) {
+            return;
+        }
+
+        logger.log("MultiRateLooper",
+                String.format("Running tiers %s", (synchronous) ? "synchronously" : "on their own threads"),
+                Level.kLibrary);
+
+        for (RateTier tier : m_tiers) {
+            if (synchronous) {
+                tier.stop();
+            } else if (m_running) {
+                tier.start();
+            }
+        }
+        m_synchronous = synchronous;
+    }
+
+    /**
+     * Run every tier whose period has come up, in the order the tiers were added
+     */
+    public synchronized void runDue() {
+        double now = FPGAClock.getFPGASeconds();
+
+        for (int i = 0; i < m_tiers.size(); i++) {
+            RateTier tier = m_tiers.get(i);
+            double nextRunTime = m_nextRunTimes.get(i);
+
+            // Allow for clock rounding when checking if the tier is due
+            if (Double.isNaN(nextRunTime) || now >= nextRunTime - 1e-6) {
+                tier.step();
+
+                // Keep to the period, unless the tier has fallen more than a period behind
+                nextRunTime = (Double.isNaN(nextRunTime)) ? now : nextRunTime;
+                nextRunTime = Math.max(nextRunTime + tier.getPeriod(), now);
+                m_nextRunTimes.set(i, nextRunTime);
+            }
+        }
+    }
+
+    /**
+     * Log every tier's overruns and missed cycles
+     */
+    public synchronized void logStatus() {
+        for (RateTier tier : m_tiers) {
+            tier.logStatus();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package frc.lib5k.loops.loopers;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.Threads;
+import frc.lib5k.loops.profiling.LoopHistogram;
+import frc.lib5k.loops.profiling.LoopProfiler;
+import frc.lib5k.roborio.FPGAClock;
+import frc.lib5k.utils.RobotLogger;
+import frc.lib5k.utils.RobotLogger.Level;
+
+/**
+ * A loop running registered tasks at a single fixed rate, on its own thread.
+ * <br>
+ * <br>
+ * Each run is timed against the tier's period. A run that takes longer than the
+ * period is counted as an overrun, and a wakeup so late that whole periods were
+ * skipped is counted as missed cycles. On a real robot, the thread can be given
+ * a real-time priority.
+ */
+public class RateTier extends Looper {
+    private RobotLogger logger = RobotLogger.getInstance();
+
+    /**
+     * A task run by the tier
+     */
+    private static class Task {
+        public String name;
+        public Runnable task;
+        public LoopHistogram timing;
+    }
+
+    // Tier name
+    private final String m_name;
+
+    // Real-time thread priority, or 0 to leave the thread alone
+    private final int m_priority;
+    private boolean m_priorityApplied = false;
+
+    // Registered tasks, in the order they run
+    private CopyOnWriteArrayList<Task> m_tasks = new CopyOnWriteArrayList<>();
+
+    /* Timing */
+    private final long m_budgetNanos;
+    private LoopHistogram m_timing;
+    private AtomicLong m_runs = new AtomicLong();
+    private AtomicLong m_overruns = new AtomicLong();
+    private AtomicLong m_missedCycles = new AtomicLong();
+    private double m_lastRunTime = Double.NaN;
+    private double m_dt;
+
+    /**
+     * Create a RateTier
+     *
+     * @param name     Tier name, used for logging and profiling
+     * @param period   Time between runs (seconds)
+     * @param priority Real-time thread priority [1-99], or 0 to leave the thread
+     *                 at normal priority
+     */
+    public RateTier(String name, double period, int priority) {
+        m_name = name;
+        m_priority = priority;
+        this.period = period;
+        m_dt = period;
+        m_budgetNanos = (long) (period * 1e9);
+
+        thread.setName("Lib5K RateTier " + name);
+        m_timing = LoopProfiler.getInstance().getHistogram("Tiers/" + name, m_budgetNanos);
+    }
+
+    /**
+     * Register a task to run every period. Tasks run in the order they are
+     * registered.
+     *
+     * @param name Task name, used for logging and profiling
+     * @param task Task
+     */
+    public void register(String name, Runnable task) {
+        Task entry = new Task();
+        entry.name = name;
+        entry.task = task;
+        entry.timing = LoopProfiler.getInstance().getHistogram("Tiers/" + m_name + "/" + name, m_budgetNanos);
+        m_tasks.add(entry);
+
+        logger.log("RateTier", String.format("Running %s in the %s tier", name, m_name), Level.kLibrary);
+    }
+
+    /**
+     * Start running the tier at its period
+     */
+    public void start() {
+        logger.log("RateTier", String.format("Starting %s tier at %.0fHz", m_name, 1.0 / period), Level.kLibrary);
+        start(period);
+    }
+
+    /**
+     * Run every task once. Used by {@link MultiRateLooper} when stepping tiers
+     * from a simulation loop.
+     */
+    public void step() {
+        update();
+    }
+
+    @Override
+    protected void update() {
+
+        // The priority can only be set from the thread itself
+        if (!m_priorityApplied) {
+            m_priorityApplied = true;
+            applyPriority();
+        }
+
+        // Determine the time since the last run, and count any skipped periods
+        double now = FPGAClock.getFPGASeconds();
+        if (!Double.isNaN(m_lastRunTime)) {
+            m_dt = now - m_lastRunTime;
+
+            long missed = Math.round(m_dt / period) - 1;
+            if (missed > 0) {
+                m_missedCycles.addAndGet(missed);
+            }
+        }
+        m_lastRunTime = now;
+
+        long start = System.nanoTime();
+
+        // Run every task
+        for (Task task : m_tasks) {
+            long taskStart = System.nanoTime();
+
+            try {
+                task.task.run();
+            } catch (Exception e) {
+                logger.log("RateTier", String.format("%s failed to run in the %s tier: %s", task.name, m_name, e),
+                        Level.kWarning);
+            }
+
+            task.timing.record(System.nanoTime() - taskStart);
+        }
+
+        // Count the run, and any overrun
+        long elapsed = System.nanoTime() - start;
+        m_timing.record(elapsed);
+        m_runs.incrementAndGet();
+        if (elapsed > m_budgetNanos) {
+            m_overruns.incrementAndGet();
+        }
+    }
+
+    /**
+     * Give the current thread the tier's real-time priority, where the platform
+     * allows it
+     */
+    private void applyPriority() {
+        if (m_priority <= 0 || !RobotBase.isReal()) {
+            return;
+        }
+
+        if (Threads.setCurrentThreadPriority(true, m_priority)) {
+            logger.log("RateTier", String.format("Running %s tier at real-time priority %d", m_name, m_priority),
+                    Level.kLibrary);
+        } else {
+            logger.log("RateTier", String.format("Failed to set %s tier priority", m_name), Level.kWarning);
+        }
+    }
+
+    /**
+     * Log the tier's overruns and missed cycles
+     */
+    public void logStatus() {
+        logger.log("RateTier",
+                String.format("%s tier: %d runs, %d overruns, %d missed cycles", m_name, m_runs.get(),
+                        m_overruns.get(), m_missedCycles.get()),
+                (m_overruns.get() > 0 || m_missedCycles.get() > 0) ? Level.kWarning : Level.kInfo);
+    }
+
+    /**
+     * Get the time between the last two runs. Tasks should use this, rather than
+     * the period, for anything that integrates or differentiates over time.
+     *
+     * @return Time (seconds)
+     */
+    public double getDt() {
+        return m_dt;
+    }
+
+    /**
+     * Get the time between runs
+     *
+     * @return Period (seconds)
+     */
+    public double getPeriod() {
+        return period;
+    }
+
+    /**
+     * Get the number of runs that took longer than the period
+     *
+     * @return Overrun count
+     */
+    public long getOverruns() {
+        return m_overruns.get();
+    }
+
+    /**
+     * Get the number of periods skipped by late wakeups
+     *
+     * @return Missed cycle count
+     */
+    public long getMissedCycles() {
+        return m_missedCycles.get();
+    }
+
+    /**
+     * Get the tier name
+     *
+     * @return Name
+     */
+    public String getName() {
+        return m_name;
+    }
+}
@@ -0,0 +1,108 @@
+package frc.lib5k.loops.loopers;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * A lock-free block of values, written by one thread and read by any number of
+ * others. Used to hand state between loops running at different rates. <br>
+ * <br>
+ * This is a sequence lock. The writer makes the sequence odd, copies the
+ * values in, then makes it even again. A reader copies the values out, and
+ * retries if the sequence was odd or changed while it was copying. Readers
+ * never block the writer, and nothing allocates after construction.
+ */
+public class SharedState {
+
+    // Published values
+    private final double[] m_values;
+
+    // Odd while a write is in progress
+    private volatile long m_sequence = 0;
+
+    /**
+     * Create a SharedState
+     *
+     * @param size Number of values
+     */
+    public SharedState(int size) {
+        m_values = new double[size];
+    }
+
+    /**
+     * Publish new values. Must only be called from a single writer thread.
+     *
+     * @param values Values to publish
+     */
+    public void publish(double[] values) {
+        long sequence = m_sequence;
+
+        // Mark the write as started before touching any values
+        m_sequence = sequence + 1;
+        VarHandle.storeStoreFence();
+
+        System.arraycopy(values, 0, m_values, 0, m_values.length);
+
+        // Mark the write as finished. The volatile write keeps the values above it
+        m_sequence = sequence + 2;
+    }
+
+    /**
+     * Copy out the latest published values. The buffer may be shorter than
+     * {@link #size()}, in which case only the first values are copied.
+     *
+     * @param values Buffer to copy the values into
+     * @return Sequence number of the copied values. Only changes when new values
+     *         are published
+     */
+    public long read(double[] values) {
+        while (true) {
+            long sequence = m_sequence;
+
+            // Wait out a write in progress
+            if ((sequence & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            System.arraycopy(m_values, 0, values, 0, values.length);
+
+            // Make sure the values were not changed while copying
+            VarHandle.loadLoadFence();
+            if (m_sequence == sequence) {
+                return sequence;
+            }
+        }
+    }
+
+    /**
+     * Get a single value from the latest publish
+     *
+     * @param index Value index
+     * @return Value
+     */
+    public double get(int index) {
+        while (true) {
+            long sequence = m_sequence;
+            if ((sequence & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            double value = m_values[index];
+
+            VarHandle.loadLoadFence();
+            if (m_sequence == sequence) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Get the number of values
+     *
+     * @return Size
+     */
+    public int size() {
+        return m_values.length;
+    }
+}
@@ -2,9 +2,11 @@ package frc.lib5k.loops.loopers;
 
 import java.util.ArrayList;
 
-import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import frc.lib5k.loops.loopables.LoopableSubsystem;
+import frc.lib5k.loops.profiling.LoopHistogram;
+import frc.lib5k.loops.profiling.LoopProfiler;
+import frc.lib5k.roborio.FPGAClock;
 import frc.lib5k.utils.RobotLogger;
 import frc.lib5k.utils.RobotLogger.Level;
 
@@ -16,6 +18,11 @@ public class SubsystemLooper extends Looper {
 
     ArrayList<LoopableSubsystem> subsystems = new ArrayList<LoopableSubsystem>();
 
+    /* Per-subsystem timing, in the same order as subsystems */
+    private LoopProfiler m_profiler = LoopProfiler.getInstance();
+    private ArrayList<LoopHistogram> m_inputTimings = new ArrayList<>();
+    private ArrayList<LoopHistogram> m_outputTimings = new ArrayList<>();
+
     double dt;
 
     public SubsystemLooper() {
@@ -29,6 +36,8 @@ public class SubsystemLooper extends Looper {
      */
     public void register(LoopableSubsystem subsystem) {
         subsystems.add(subsystem);
+        m_inputTimings.add(m_profiler.getHistogram("SubsystemLooper/" + subsystem.name + "/Input"));
+        m_outputTimings.add(m_profiler.getHistogram("SubsystemLooper/" + subsystem.name + "/Output"));
         logger.log("[Subsystem Looper] Registered " + subsystem.name, Level.kRobot);
     }
 
@@ -50,10 +59,12 @@ public class SubsystemLooper extends Looper {
         double inputTime = 0;
 
         // Run and check total time for inputs
-        for (LoopableSubsystem subsystem : subsystems) {
+        for (int i = 0; i < subsystems.size(); i++) {
+            LoopableSubsystem subsystem = subsystems.get(i);
 
-            double start = Timer.getFPGATimestamp();
+            double start = FPGAClock.getFPGASeconds();
             subsystem.last_timestamp = start;
+            long startNanos = System.nanoTime();
 
             // Run the function
             try {
@@ -64,7 +75,8 @@ public class SubsystemLooper extends Looper {
             }
 
             // Return execution time
-            inputTime += Timer.getFPGATimestamp() - start;
+            m_inputTimings.get(i).record(System.nanoTime() - startNanos);
+            inputTime += FPGAClock.getFPGASeconds() - start;
 
         }
 
@@ -76,10 +88,12 @@ public class SubsystemLooper extends Looper {
         double outputTime = 0;
 
         // Run and check total time for outputs
-        for (LoopableSubsystem subsystem : subsystems) {
+        for (int i = 0; i < subsystems.size(); i++) {
+            LoopableSubsystem subsystem = subsystems.get(i);
 
-            double start = Timer.getFPGATimestamp();
+            double start = FPGAClock.getFPGASeconds();
             subsystem.last_timestamp = start;
+            long startNanos = System.nanoTime();
 
             // Run the function
             try {
@@ -90,7 +104,8 @@ public class SubsystemLooper extends Looper {
             }
 
             // Return execution time
-            outputTime += Timer.getFPGATimestamp() - start;
+            m_outputTimings.get(i).record(System.nanoTime() - startNanos);
+            outputTime += FPGAClock.getFPGASeconds() - start;
 
         }
 
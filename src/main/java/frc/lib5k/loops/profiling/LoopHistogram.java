@@ -0,0 +1,166 @@
+package frc.lib5k.loops.profiling;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free, log-linear (HDR-style) histogram of loop durations in
+ * nanoseconds. <br>
+ * <br>
+ * Values are sorted into power-of-two ranges, each split into
+ * {@link #SUB_BUCKETS} linear buckets, so every reported percentile is within
+ * about 3% of the true value. Recording is a few atomic adds, and is safe from
+ * any thread.
+ */
+public class LoopHistogram {
+
+    /* Bucket layout */
+    private static final int SUB_BUCKET_BITS = 5;
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40; // ~18 minutes
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    // Histogram name
+    private final String m_name;
+
+    // Duration that counts as an overrun
+    private final long m_budgetNanos;
+
+    /* Counters */
+    private final AtomicLongArray m_buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong m_count = new AtomicLong();
+    private final AtomicLong m_overruns = new AtomicLong();
+    private final AtomicLong m_max = new AtomicLong();
+
+    /**
+     * Create a LoopHistogram
+     *
+     * @param name        Histogram name
+     * @param budgetNanos Samples longer than this are counted as overruns
+     */
+    public LoopHistogram(String name, long budgetNanos) {
+        m_name = name;
+        m_budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Record a duration
+     *
+     * @param nanos Duration in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+
+        m_buckets.incrementAndGet(getBucketIndex(nanos));
+        m_count.incrementAndGet();
+
+        if (nanos > m_budgetNanos) {
+            m_overruns.incrementAndGet();
+        }
+
+        // Track the max
+        long max = m_max.get();
+        while (nanos > max && !m_max.compareAndSet(max, nanos)) {
+            max = m_max.get();
+        }
+    }
+
+    /**
+     * Get the duration at a percentile
+     *
+     * @param percentile Percentile [0-1]
+     * @return Duration in nanoseconds, or 0 if nothing has been recorded
+     */
+    public long getPercentile(double percentile) {
+        long count = m_count.get();
+        if (count == 0) {
+            return 0;
+        }
+
+        // Walk the buckets until we pass the wanted rank
+        long rank = Math.max(1, (long) Math.ceil(percentile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += m_buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(getBucketUpperBound(i), getMax());
+            }
+        }
+
+        return getMax();
+    }
+
+    /**
+     * Get the longest recorded duration
+     *
+     * @return Duration in nanoseconds
+     */
+    public long getMax() {
+        return m_max.get();
+    }
+
+    /**
+     * Get the number of recorded samples
+     *
+     * @return Sample count
+     */
+    public long getCount() {
+        return m_count.get();
+    }
+
+    /**
+     * Get the number of samples over budget
+     *
+     * @return Overrun count
+     */
+    public long getOverruns() {
+        return m_overruns.get();
+    }
+
+    /**
+     * Get the histogram name
+     *
+     * @return Name
+     */
+    public String getName() {
+        return m_name;
+    }
+
+    /**
+     * Clear all samples. Samples recorded while this runs may be partially lost.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            m_buckets.set(i, 0);
+        }
+        m_count.set(0);
+        m_overruns.set(0);
+        m_max.set(0);
+    }
+
+    private static int getBucketIndex(long nanos) {
+
+        // Small values map directly
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+
+        // Find the power-of-two range, then the linear bucket inside it
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(nanos), MAX_EXPONENT);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int sub = (int) Math.min((nanos >>> shift) - SUB_BUCKETS, SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long getBucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        int shift = (index / SUB_BUCKETS) - 1;
+        long sub = (index % SUB_BUCKETS) + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
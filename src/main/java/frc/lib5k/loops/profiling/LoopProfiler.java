@@ -0,0 +1,158 @@
+package frc.lib5k.loops.profiling;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.lib5k.utils.RobotLogger;
+import frc.lib5k.utils.RobotLogger.Level;
+
+/**
+ * Collects loop timing histograms for subsystems, commands, and the
+ * CommandScheduler, and publishes them to NetworkTables and the log. <br>
+ * <br>
+ * Subsystems that extend {@link ProfiledSubsystem} time their own periodic().
+ * Commands are timed by wrapping them with {@link #profile(Command)} before
+ * they are scheduled. Histograms are named, so there is one per command name,
+ * no matter how many command objects are created.
+ */
+public class LoopProfiler {
+    private RobotLogger logger = RobotLogger.getInstance();
+    private static class Holder {
+        private static final LoopProfiler INSTANCE = new LoopProfiler();
+    }
+
+    /** Default loop budget (20ms) */
+    public static final long DEFAULT_BUDGET_NANOS = 20_000_000L;
+
+    /** How many publishes between log dumps */
+    private static final int PUBLISHES_PER_DUMP = 10;
+
+    /* Histograms */
+    private ConcurrentHashMap<String, LoopHistogram> m_histograms = new ConcurrentHashMap<>();
+    private LoopHistogram m_schedulerHistogram = getHistogram("CommandScheduler");
+
+    /* Publishing */
+    private Notifier m_thread;
+    private NetworkTable m_table = NetworkTableInstance.getDefault().getTable("Lib5K-Telemetry")
+            .getSubTable("LoopProfiler");
+    private ConcurrentHashMap<LoopHistogram, NetworkTableEntry[]> m_entries = new ConcurrentHashMap<>();
+    private int m_publishCount = 0;
+
+    private LoopProfiler() {
+        m_thread = new Notifier(this::publish);
+        m_thread.setName("Lib5K LoopProfiler");
+    }
+
+    /**
+     * Get the LoopProfiler instance
+     *
+     * @return Instance
+     */
+    public static LoopProfiler getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Start publishing to NetworkTables. Every 10th publish also dumps to the log,
+     * then resets all histograms.
+     *
+     * @param period Publish period in seconds
+     */
+    public void start(double period) {
+        logger.log("LoopProfiler", "Starting profiler thread", Level.kLibrary);
+        m_thread.startPeriodic(period);
+    }
+
+    /**
+     * Get (or create) a named histogram with the default budget. Hold on to the
+     * result instead of calling this every loop.
+     *
+     * @param name Histogram name (ex. "Subsystems/Hopper")
+     * @return Histogram
+     */
+    public LoopHistogram getHistogram(String name) {
+        return getHistogram(name, DEFAULT_BUDGET_NANOS);
+    }
+
+    /**
+     * Get (or create) a named histogram. The budget is only used if the histogram
+     * is created by this call.
+     *
+     * @param name        Histogram name (ex. "Tiers/Fast")
+     * @param budgetNanos Samples longer than this are counted as overruns
+     * @return Histogram
+     */
+    public LoopHistogram getHistogram(String name, long budgetNanos) {
+        return m_histograms.computeIfAbsent(name, (k) -> new LoopHistogram(k, budgetNanos));
+    }
+
+    /**
+     * Wrap a command so its execute() is timed into "Commands/[name]". Schedule
+     * and cancel the returned command in place of the original.
+     *
+     * @param command Command to time
+     * @return Timed command
+     */
+    public ProfiledCommand profile(Command command) {
+        return new ProfiledCommand(command, getHistogram("Commands/" + command.getName()));
+    }
+
+    /**
+     * Run the CommandScheduler, timing the whole run
+     */
+    public void runScheduler() {
+        long start = System.nanoTime();
+
+        CommandScheduler.getInstance().run();
+
+        m_schedulerHistogram.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Publish every histogram to NetworkTables, and occasionally dump to the log
+     */
+    private void publish() {
+        ArrayList<LoopHistogram> histograms = new ArrayList<>(m_histograms.values());
+
+        // Publish to NT
+        for (LoopHistogram histogram : histograms) {
+            NetworkTableEntry[] entries = m_entries.computeIfAbsent(histogram, (h) -> {
+                NetworkTable table = m_table.getSubTable(h.getName());
+                return new NetworkTableEntry[] { table.getEntry("p50_ms"), table.getEntry("p99_ms"),
+                        table.getEntry("max_ms"), table.getEntry("count"), table.getEntry("overruns") };
+            });
+
+            entries[0].setDouble(histogram.getPercentile(0.5) / 1e6);
+            entries[1].setDouble(histogram.getPercentile(0.99) / 1e6);
+            entries[2].setDouble(histogram.getMax() / 1e6);
+            entries[3].setDouble(histogram.getCount());
+            entries[4].setDouble(histogram.getOverruns());
+        }
+
+        // Dump to the log, then start a new window
+        m_publishCount++;
+        if (m_publishCount >= PUBLISHES_PER_DUMP) {
+            m_publishCount = 0;
+
+            for (LoopHistogram histogram : histograms) {
+                if (histogram.getCount() == 0) {
+                    continue;
+                }
+
+                logger.log("LoopProfiler",
+                        String.format("%s: p50 %.3fms, p99 %.3fms, max %.3fms, %d samples, %d overruns",
+                                histogram.getName(), histogram.getPercentile(0.5) / 1e6,
+                                histogram.getPercentile(0.99) / 1e6, histogram.getMax() / 1e6, histogram.getCount(),
+                                histogram.getOverruns()),
+                        (histogram.getOverruns() > 0) ? Level.kWarning : Level.kInfo);
+                histogram.reset();
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package frc.lib5k.loops.profiling;
+
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+
+/**
+ * Wraps a command, timing each of its execute() calls into a
+ * {@link LoopHistogram}. Everything else is passed straight through. <br>
+ * <br>
+ * Once wrapped, only the wrapper should be scheduled or cancelled. Create these
+ * with {@link LoopProfiler#profile(Command)}.
+ */
+public class ProfiledCommand extends CommandBase {
+
+    // Wrapped command
+    private final Command m_command;
+
+    // Execute timing
+    private final LoopHistogram m_histogram;
+
+    /**
+     * Create a ProfiledCommand
+     *
+     * @param command   Command to wrap
+     * @param histogram Histogram to record execute times to
+     */
+    public ProfiledCommand(Command command, LoopHistogram histogram) {
+        m_command = command;
+        m_histogram = histogram;
+
+        // Look like the wrapped command to the scheduler and dashboard
+        m_requirements.addAll(command.getRequirements());
+        setName(command.getName());
+    }
+
+    @Override
+    public void initialize() {
+        m_command.initialize();
+    }
+
+    @Override
+    public void execute() {
+        long startTime = System.nanoTime();
+
+        m_command.execute();
+
+        m_histogram.record(System.nanoTime() - startTime);
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        m_command.end(interrupted);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return m_command.isFinished();
+    }
+
+    @Override
+    public boolean runsWhenDisabled() {
+        return m_command.runsWhenDisabled();
+    }
+
+    /**
+     * Get the wrapped command
+     *
+     * @return Wrapped command
+     */
+    public Command getCommand() {
+        return m_command;
+    }
+}
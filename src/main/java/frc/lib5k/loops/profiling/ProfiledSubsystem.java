@@ -0,0 +1,29 @@
+package frc.lib5k.loops.profiling;
+
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+
+/**
+ * A SubsystemBase that times its own periodic() into the {@link LoopProfiler}
+ * histogram "Subsystems/[name]". Subclasses put their periodic work in
+ * {@link #profiledPeriodic()}.
+ */
+public abstract class ProfiledSubsystem extends SubsystemBase {
+
+    // Periodic timing
+    private final LoopHistogram m_loopTiming = LoopProfiler.getInstance().getHistogram("Subsystems/" + getName());
+
+    @Override
+    public final void periodic() {
+        long startTime = System.nanoTime();
+
+        profiledPeriodic();
+
+        m_loopTiming.record(System.nanoTime() - startTime);
+    }
+
+    /**
+     * Subsystem-specific tasks that must be run once per scheduler run. Called
+     * by, and timed in, {@link #periodic()}
+     */
+    protected abstract void profiledPeriodic();
+}
@@ -11,7 +11,9 @@ import frc.lib5k.utils.RobotLogger;
 import frc.lib5k.utils.RobotLogger.Level;
 
 public class PortManager {
-    private static PortManager m_instance = null;
+    private static class Holder {
+        private static final PortManager INSTANCE = new PortManager();
+    }
 
     // List of all allocated ports
     private ArrayList<Port> m_allocatedPorts = new ArrayList<>();
@@ -21,11 +23,7 @@ public class PortManager {
     private IFirewall m_firewall = new FMS2014Firewall();
 
     public static PortManager getInstance() {
-        if (m_instance == null) {
-            m_instance = new PortManager();
-        }
-
-        return m_instance;
+        return Holder.INSTANCE;
     }
 
     /**
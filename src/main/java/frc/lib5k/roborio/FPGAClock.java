@@ -3,17 +3,48 @@ package frc.lib5k.roborio;
 import edu.wpi.first.wpilibj.Timer;
 
 /**
- * Tools for interacting with the FPGA's high-precision clock
+ * Tools for interacting with the FPGA's high-precision clock. <br>
+ * <br>
+ * All lib5k time reads go through this class, so the time source can be swapped
+ * out (for example, with a stepped clock for headless simulation).
  */
 public class FPGAClock {
 
+    /**
+     * A source of time in seconds
+     */
+    public interface TimeSource {
+        public double getSeconds();
+    }
+
+    // Default source, reads the FPGA (or HAL simulation) clock
+    private static final TimeSource FPGA_SOURCE = Timer::getFPGATimestamp;
+
+    private static TimeSource s_source = FPGA_SOURCE;
+
+    /**
+     * Replace the time source
+     * 
+     * @param source New time source
+     */
+    public static void setTimeSource(TimeSource source) {
+        s_source = source;
+    }
+
+    /**
+     * Go back to reading the FPGA clock
+     */
+    public static void resetTimeSource() {
+        s_source = FPGA_SOURCE;
+    }
+
     /**
      * Get the number of seconds since the robot timer started
      * 
      * @return Seconds since timer start
      */
     public static double getFPGASeconds() {
-        return Timer.getFPGATimestamp();
+        return s_source.getSeconds();
     }
 
     /**
@@ -22,7 +53,7 @@ public class FPGAClock {
      * @return Milliseconds since timer start
      */
     public static double getFPGAMilliseconds() {
-        return getFPGASeconds() * 100;
+        return getFPGASeconds() * 1000;
     }
 
     /**
@@ -35,4 +66,4 @@ public class FPGAClock {
     public static boolean getMillisecondCycle(double period) {
         return ((getFPGAMilliseconds() % (period * 2)) - period) >= 0;
     }
-}
\ No newline at end of file
+}
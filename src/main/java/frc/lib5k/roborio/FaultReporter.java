@@ -3,6 +3,7 @@ package frc.lib5k.roborio;
 import edu.wpi.first.hal.can.CANStatus;
 import edu.wpi.first.wpilibj.Notifier;
 import edu.wpi.first.wpilibj.RobotController;
+import frc.lib5k.components.motors.CANOutputScheduler;
 import frc.lib5k.utils.RobotLogger;
 import frc.lib5k.utils.RobotLogger.Level;
 
@@ -12,10 +13,14 @@ import frc.lib5k.utils.RobotLogger.Level;
 public class FaultReporter {
     // Config
     private final double canAcceptableUsage = 0.9;
+    private final double canReportPeriod = 10.0;
 
     // locals
     RobotLogger logger = RobotLogger.getInstance();
-    private static FaultReporter instance = null;
+    private static class Holder {
+        private static final FaultReporter INSTANCE = new FaultReporter();
+    }
+
     private Notifier thread;
 
     // Fault counts
@@ -24,6 +29,11 @@ public class FaultReporter {
     boolean last3v3Enabled, last5vEnabled, last6vEnabled = false;
     CANStatus lastCANStatus = new CANStatus();
 
+    // CAN usage since the last report
+    double canUsageSum, lastCANReportTime = 0.0;
+    int canUsageSamples = 0;
+    long lastSentFrames, lastSuppressedFrames = 0;
+
     private FaultReporter() {
 
         // Print startup message
@@ -38,11 +48,7 @@ public class FaultReporter {
     }
 
     public static FaultReporter getInstance() {
-        if (instance == null) {
-            instance = new FaultReporter();
-        }
-
-        return instance;
+        return Holder.INSTANCE;
     }
 
     private void update() {
@@ -150,9 +156,41 @@ public class FaultReporter {
             logger.log("FaultReporter", "CAN bus RX error", Level.kWarning);
         }
 
+        // Periodically report CAN usage, and how much output coalescing saves
+        canUsageSum += current_status.percentBusUtilization;
+        canUsageSamples++;
+        double now = FPGAClock.getFPGASeconds();
+        if (now - lastCANReportTime >= canReportPeriod) {
+            reportCANUsage(now - lastCANReportTime);
+            lastCANReportTime = now;
+        }
+
         // Update last statuses
         lastCANStatus.setStatus(current_status.percentBusUtilization, current_status.busOffCount,
                 current_status.txFullCount, current_status.receiveErrorCount, current_status.transmitErrorCount);
 
     }
+
+    /**
+     * Report the average CAN bus utilization, and the motor output frames sent and
+     * suppressed per second
+     * 
+     * @param period Time since the last report
+     */
+    private void reportCANUsage(double period) {
+        CANOutputScheduler scheduler = CANOutputScheduler.getInstance();
+        long sent = scheduler.getSentFrames();
+        long suppressed = scheduler.getSuppressedFrames();
+
+        logger.log("FaultReporter", String.format(
+                "CAN bus %.1f%% utilized, %.0f output frames/s sent, %.0f frames/s saved (output coalescing %s)",
+                (canUsageSum / Math.max(canUsageSamples, 1)) * 100.0, (sent - lastSentFrames) / period,
+                (suppressed - lastSuppressedFrames) / period, (scheduler.isEnabled()) ? "on" : "off"), Level.kInfo);
+
+        // Start a new period
+        canUsageSum = 0.0;
+        canUsageSamples = 0;
+        lastSentFrames = sent;
+        lastSuppressedFrames = suppressed;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,296 @@
+package frc.lib5k.roborio;
+
+import java.util.ArrayList;
+
+import frc.lib5k.components.motors.interfaces.IOutputScaleController;
+import frc.lib5k.utils.RobotLogger;
+import frc.lib5k.utils.RobotLogger.Level;
+
+/**
+ * Budgets battery current between the robot's motors, so the battery never
+ * sags below a voltage floor. <br>
+ * <br>
+ * Each load estimates the current it would draw at a given output scale. Every
+ * cycle, the battery's open-circuit voltage is estimated from the measured
+ * voltage and the current drawn last cycle. This gives the current available
+ * before the battery reaches the floor, which is handed out to the loads in
+ * priority order. Any load that wants more than is left has its outputs scaled
+ * down to fit. Lower priority numbers are served first.
+ */
+public class PowerManager {
+    private RobotLogger logger = RobotLogger.getInstance();
+    private static class Holder {
+        private static final PowerManager INSTANCE = new PowerManager();
+    }
+
+    // Iterations used to search for the scale that fits a load's budget
+    private static final int SCALE_SEARCH_ITERATIONS = 12;
+
+    /**
+     * Estimates the current drawn by a load
+     */
+    public interface CurrentEstimator {
+
+        /**
+         * Estimate the current drawn by the load
+         *
+         * @param scale   Scale applied to the load's requested outputs
+         * @param voltage Battery voltage
+         * @return Supply current (A)
+         */
+        public double estimate(double scale, double voltage);
+    }
+
+    /**
+     * A set of motor controllers, budgeted together
+     */
+    private static class Load {
+        public String name;
+        public int priority;
+        public CurrentEstimator estimator;
+        public IOutputScaleController[] outputs;
+        public double scale = 1.0;
+    }
+
+    // Loads, sorted by priority
+    private ArrayList<Load> m_loads = new ArrayList<>();
+
+    /* Battery configuration */
+    private double m_resistance = 0.02;
+    private double m_voltageFloor = 7.5;
+    private double m_lowVoltage = 7.0;
+
+    /* State */
+    private boolean m_enabled = true;
+    private double m_lastTime = Double.NaN;
+    private double m_lastCurrent = 0.0;
+    private double m_voltage = 0.0;
+    private boolean m_shedding = false;
+
+    /* Metrics */
+    private double m_timeBelowLow = 0.0;
+    private double m_timeShedding = 0.0;
+    private double m_minVoltage = Double.POSITIVE_INFINITY;
+
+    private PowerManager() {
+
+    }
+
+    /**
+     * Get the PowerManager instance
+     *
+     * @return PowerManager
+     */
+    public static PowerManager getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Configure the battery
+     *
+     * @param resistance   Battery internal resistance, including wiring (ohms)
+     * @param voltageFloor Voltage to keep the battery above
+     * @param lowVoltage   Voltage below which time is counted as low
+     */
+    public void configure(double resistance, double voltageFloor, double lowVoltage) {
+        m_resistance = resistance;
+        m_voltageFloor = voltageFloor;
+        m_lowVoltage = lowVoltage;
+    }
+
+    /**
+     * Add a load to be budgeted
+     *
+     * @param name      Load name, used for logging
+     * @param priority  Priority. Lower numbers are served first
+     * @param estimator Current estimator
+     * @param outputs   Motor controllers to scale when the load is over budget
+     */
+    public void addLoad(String name, int priority, CurrentEstimator estimator, IOutputScaleController... outputs) {
+        Load load = new Load();
+        load.name = name;
+        load.priority = priority;
+        load.estimator = estimator;
+        load.outputs = outputs;
+
+        // Keep the loads sorted, serving equal priorities in the order they were added
+        int index = 0;
+        while (index < m_loads.size() && m_loads.get(index).priority <= priority) {
+            index++;
+        }
+        m_loads.add(index, load);
+
+        logger.log("PowerManager", String.format("Budgeting %s at priority %d", name, priority), Level.kLibrary);
+    }
+
+    /**
+     * Set if loads should be scaled down. When disabled, the metrics are still
+     * tracked.
+     *
+     * @param enabled Should shed load?
+     */
+    public void setEnabled(boolean enabled) {
+        m_enabled = enabled;
+    }
+
+    /**
+     * Budget the battery current, and scale every load to fit. This should be
+     * called once per cycle, after every subsystem has set its outputs.
+     */
+    public void update() {
+
+        // Determine the time since the last update
+        double now = FPGAClock.getFPGASeconds();
+        double dt = (Double.isNaN(m_lastTime)) ? 0.0 : now - m_lastTime;
+        m_lastTime = now;
+
+        // Track the battery voltage
+        m_voltage = RR_HAL.getSimSafeVoltage();
+        m_minVoltage = Math.min(m_minVoltage, m_voltage);
+        if (m_voltage < m_lowVoltage) {
+            m_timeBelowLow += dt;
+        }
+
+        // Work out how much current can be drawn before the battery reaches the floor
+        double openCircuitVoltage = m_voltage + (m_lastCurrent * m_resistance);
+        double budget = Math.max(0.0, (openCircuitVoltage - m_voltageFloor) / m_resistance);
+
+        // Hand out the budget by priority
+        double totalCurrent = 0.0;
+        boolean shedding = false;
+        for (int i = 0; i < m_loads.size(); i++) {
+            Load load = m_loads.get(i);
+
+            // Scale down any load that does not fit in what is left
+            double scale = 1.0;
+            double current = load.estimator.estimate(1.0, m_voltage);
+            if (m_enabled && current > budget) {
+                scale = findScale(load.estimator, budget);
+                current = load.estimator.estimate(scale, m_voltage);
+                shedding = true;
+            }
+
+            budget = Math.max(0.0, budget - current);
+            totalCurrent += current;
+
+            // Apply the scale
+            load.scale = scale;
+            for (IOutputScaleController output : load.outputs) {
+                output.setOutputScale(scale);
+            }
+        }
+        m_lastCurrent = totalCurrent;
+
+        // Track load shedding
+        if (shedding) {
+            m_timeShedding += dt;
+        }
+        if (shedding && !m_shedding) {
+            logger.log("PowerManager", String.format("Shedding load at %.2fV", m_voltage), Level.kWarning);
+        }
+        m_shedding = shedding;
+    }
+
+    /**
+     * Find the largest scale that keeps a load within its budget
+     *
+     * @param estimator Load current estimator
+     * @param budget    Current available to the load (A)
+     * @return Scale [0.0 to 1.0]
+     */
+    private double findScale(CurrentEstimator estimator, double budget) {
+        double low = 0.0;
+        double high = 1.0;
+
+        // Current rises with scale, so bisect for the edge of the budget
+        for (int i = 0; i < SCALE_SEARCH_ITERATIONS; i++) {
+            double mid = (low + high) / 2.0;
+            if (estimator.estimate(mid, m_voltage) > budget) {
+                high = mid;
+            } else {
+                low = mid;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Log a summary of the power metrics
+     */
+    public void logStatus() {
+        logger.log("PowerManager",
+                String.format("Min voltage: %.2fV, Time below %.1fV: %.2fs, Time shedding load: %.2fs",
+                        getMinVoltage(), m_lowVoltage, m_timeBelowLow, m_timeShedding));
+    }
+
+    /**
+     * Reset the power metrics
+     */
+    public void resetMetrics() {
+        m_timeBelowLow = 0.0;
+        m_timeShedding = 0.0;
+        m_minVoltage = Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Get the current estimated for every load last cycle
+     *
+     * @return Current (A)
+     */
+    public double getEstimatedCurrent() {
+        return m_lastCurrent;
+    }
+
+    /**
+     * Get the scale applied to a load last cycle
+     *
+     * @param name Load name
+     * @return Scale [0.0 to 1.0], or 1.0 if there is no such load
+     */
+    public double getScale(String name) {
+        for (Load load : m_loads) {
+            if (load.name.equals(name)) {
+                return load.scale;
+            }
+        }
+
+        return 1.0;
+    }
+
+    /**
+     * Check if any load was scaled down last cycle
+     *
+     * @return Is load being shed?
+     */
+    public boolean isShedding() {
+        return m_shedding;
+    }
+
+    /**
+     * Get the total time the battery spent below the low voltage
+     *
+     * @return Time (seconds)
+     */
+    public double getTimeBelowLowVoltage() {
+        return m_timeBelowLow;
+    }
+
+    /**
+     * Get the total time spent shedding load
+     *
+     * @return Time (seconds)
+     */
+    public double getTimeShedding() {
+        return m_timeShedding;
+    }
+
+    /**
+     * Get the lowest battery voltage seen
+     *
+     * @return Voltage, or 0.0 if no voltage has been read
+     */
+    public double getMinVoltage() {
+        return (Double.isInfinite(m_minVoltage)) ? 0.0 : m_minVoltage;
+    }
+}
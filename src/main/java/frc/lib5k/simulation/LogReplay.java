@@ -0,0 +1,181 @@
+package frc.lib5k.simulation;
+
+import java.util.ArrayList;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+
+import frc.lib5k.logging.TelemetryReader;
+import frc.lib5k.utils.RobotLogger;
+import frc.lib5k.utils.RobotLogger.Level;
+
+/**
+ * Deterministic replay of a {@link TelemetryReader} recording in simulation.
+ * <br>
+ * <br>
+ * Recorded channels are mapped to injectors (usually a sensor's injectSim
+ * method). {@link #run(Runnable)} pauses the simulator clock, then for every
+ * recorded row it injects all mapped channels, steps the clock to the row's
+ * timestamp, and calls the step function. This runs as fast as the CPU
+ * allows.
+ */
+public class LogReplay {
+    private RobotLogger logger = RobotLogger.getInstance();
+
+    /**
+     * Injector for boolean channels
+     */
+    public interface BooleanInjector {
+        public void inject(boolean value);
+    }
+
+    /**
+     * Injector for a group of double channels that must be set together. The
+     * values array is reused between rows.
+     */
+    public interface GroupInjector {
+        public void inject(double[] values);
+    }
+
+    // Recording being replayed
+    private TelemetryReader m_reader;
+
+    /* Mapped channels */
+    private ArrayList<double[]> m_doubleData = new ArrayList<>();
+    private ArrayList<DoubleConsumer> m_doubleInjectors = new ArrayList<>();
+    private ArrayList<int[]> m_intData = new ArrayList<>();
+    private ArrayList<IntConsumer> m_intInjectors = new ArrayList<>();
+    private ArrayList<boolean[]> m_booleanData = new ArrayList<>();
+    private ArrayList<BooleanInjector> m_booleanInjectors = new ArrayList<>();
+    private ArrayList<double[][]> m_groupData = new ArrayList<>();
+    private ArrayList<double[]> m_groupValues = new ArrayList<>();
+    private ArrayList<GroupInjector> m_groupInjectors = new ArrayList<>();
+
+    /**
+     * Create a LogReplay
+     *
+     * @param reader Recording to replay
+     */
+    public LogReplay(TelemetryReader reader) {
+        m_reader = reader;
+    }
+
+    /**
+     * Map a double channel to an injector. Missing channels are skipped with a
+     * warning.
+     *
+     * @param channel  Channel name
+     * @param injector Injector
+     */
+    public void mapDouble(String channel, DoubleConsumer injector) {
+        try {
+            m_doubleData.add(m_reader.getDoubles(channel));
+            m_doubleInjectors.add(injector);
+        } catch (IllegalArgumentException e) {
+            logger.log("LogReplay", e.getMessage(), Level.kWarning);
+        }
+    }
+
+    /**
+     * Map an int channel to an injector. Missing channels are skipped with a
+     * warning.
+     *
+     * @param channel  Channel name
+     * @param injector Injector
+     */
+    public void mapInt(String channel, IntConsumer injector) {
+        try {
+            m_intData.add(m_reader.getInts(channel));
+            m_intInjectors.add(injector);
+        } catch (IllegalArgumentException e) {
+            logger.log("LogReplay", e.getMessage(), Level.kWarning);
+        }
+    }
+
+    /**
+     * Map a boolean channel to an injector. Missing channels are skipped with a
+     * warning.
+     *
+     * @param channel  Channel name
+     * @param injector Injector
+     */
+    public void mapBoolean(String channel, BooleanInjector injector) {
+        try {
+            m_booleanData.add(m_reader.getBooleans(channel));
+            m_booleanInjectors.add(injector);
+        } catch (IllegalArgumentException e) {
+            logger.log("LogReplay", e.getMessage(), Level.kWarning);
+        }
+    }
+
+    /**
+     * Map a group of double channels to a single injector, for sensors whose
+     * readings must be set together (ex. a camera frame). The group is skipped
+     * with a warning if any channel is missing.
+     *
+     * @param channels Channel names
+     * @param injector Injector. Receives values in the same order as channels
+     */
+    public void mapDoubles(String[] channels, GroupInjector injector) {
+        double[][] data = new double[channels.length][];
+        try {
+            for (int i = 0; i < channels.length; i++) {
+                data[i] = m_reader.getDoubles(channels[i]);
+            }
+        } catch (IllegalArgumentException e) {
+            logger.log("LogReplay", e.getMessage(), Level.kWarning);
+            return;
+        }
+
+        m_groupData.add(data);
+        m_groupValues.add(new double[channels.length]);
+        m_groupInjectors.add(injector);
+    }
+
+    /**
+     * Replay every row of the recording
+     *
+     * @param step Function to call once per row, after injection (ex. the robot
+     *             loop)
+     * @return Wall-clock time taken, in seconds
+     */
+    public double run(Runnable step) {
+        double[] timestamps = m_reader.getTimestamps();
+        long startTime = System.nanoTime();
+
+        // Take control of the simulator clock
+        SteppedClock clock = new SteppedClock();
+        clock.install();
+
+        for (int row = 0; row < timestamps.length; row++) {
+
+            // Inject all channels
+            for (int i = 0; i < m_doubleInjectors.size(); i++) {
+                m_doubleInjectors.get(i).accept(m_doubleData.get(i)[row]);
+            }
+            for (int i = 0; i < m_intInjectors.size(); i++) {
+                m_intInjectors.get(i).accept(m_intData.get(i)[row]);
+            }
+            for (int i = 0; i < m_booleanInjectors.size(); i++) {
+                m_booleanInjectors.get(i).inject(m_booleanData.get(i)[row]);
+            }
+            for (int i = 0; i < m_groupInjectors.size(); i++) {
+                double[][] data = m_groupData.get(i);
+                double[] values = m_groupValues.get(i);
+                for (int j = 0; j < values.length; j++) {
+                    values[j] = data[j][row];
+                }
+                m_groupInjectors.get(i).inject(values);
+            }
+
+            // Step the clock to this row
+            if (row > 0) {
+                clock.step(Math.max(timestamps[row] - timestamps[row - 1], 0.0));
+            }
+
+            step.run();
+        }
+
+        clock.uninstall();
+        return (System.nanoTime() - startTime) / 1e9;
+    }
+}
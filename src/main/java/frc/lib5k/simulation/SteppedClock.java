@@ -0,0 +1,59 @@
+package frc.lib5k.simulation;
+
+import edu.wpi.first.hal.HALUtil;
+import edu.wpi.first.hal.sim.mockdata.SimulatorJNI;
+import edu.wpi.first.wpilibj.RobotBase;
+import frc.lib5k.roborio.FPGAClock;
+
+/**
+ * A manually stepped clock for headless simulation. <br>
+ * <br>
+ * Once installed, {@link FPGAClock} reads this clock, and the HAL simulation
+ * clock (used by WPILib Timers and Notifiers) is paused and only moves when
+ * {@link #step(double)} is called. This lets robot code run as fast as the CPU
+ * allows, while still seeing exact loop periods.
+ */
+public class SteppedClock implements FPGAClock.TimeSource {
+
+    // Current time in microseconds
+    private long m_micros = 0;
+
+    /**
+     * Install this clock as the lib5k time source, and take control of the HAL
+     * simulation clock
+     */
+    public void install() {
+        if (RobotBase.isReal()) {
+            throw new IllegalStateException("A SteppedClock can only be used in simulation");
+        }
+
+        // Start from the current HAL time so nothing sees time go backwards
+        SimulatorJNI.pauseTiming();
+        m_micros = HALUtil.getFPGATime();
+        FPGAClock.setTimeSource(this);
+    }
+
+    /**
+     * Give time control back to the HAL
+     */
+    public void uninstall() {
+        FPGAClock.resetTimeSource();
+        SimulatorJNI.resumeTiming();
+    }
+
+    /**
+     * Advance the clock
+     *
+     * @param seconds Time to advance by
+     */
+    public void step(double seconds) {
+        long delta = Math.round(seconds * 1e6);
+        m_micros += delta;
+        SimulatorJNI.stepTiming(delta);
+    }
+
+    @Override
+    public double getSeconds() {
+        return m_micros / 1e6;
+    }
+}
@@ -8,6 +8,8 @@ import frc.lib5k.roborio.FPGAClock;
 import frc.lib5k.utils.ObjectCounter;
 import frc.lib5k.utils.RobotLogger;
 import frc.lib5k.utils.telemetry.ComponentTelemetry;
+import frc.lib5k.utils.telemetry.TelemetryPublisher;
+import frc.lib5k.utils.telemetry.TelemetryPublisher.Rate;
  
 /**
  * Simulate an encoder.
@@ -49,6 +51,13 @@ public class MockEncoder extends EncoderBase implements Loggable {
 
         // Get the telemetry NetworkTable
         telemetryTable = ComponentTelemetry.getInstance().getTableForComponent(name);
+
+        // Publish telemetry in the background
+        TelemetryPublisher publisher = TelemetryPublisher.getInstance();
+        publisher.addDouble(telemetryTable, "Ticks", () -> ticks, Rate.kFast, 0.0);
+        publisher.addDouble(telemetryTable, "TPR", () -> tpr, Rate.kSlow, 0.0);
+        publisher.addDouble(telemetryTable, "Gear Ratio", () -> gearbox_ratio, Rate.kSlow, 0.0);
+        publisher.addDouble(telemetryTable, "Max RPM", () -> max_rpm, Rate.kSlow, 0.0);
     }
 
     @Override
@@ -95,11 +104,7 @@ public class MockEncoder extends EncoderBase implements Loggable {
 
     @Override
     public void updateTelemetry() {
-        telemetryTable.getEntry("Ticks").setNumber(ticks);
-        telemetryTable.getEntry("TPR").setNumber(tpr);
-        telemetryTable.getEntry("Gear Ratio").setNumber(gearbox_ratio);
-        telemetryTable.getEntry("Max RPM").setNumber(max_rpm);
-
+        // Channels are published by the TelemetryPublisher
     }
 
 }
\ No newline at end of file
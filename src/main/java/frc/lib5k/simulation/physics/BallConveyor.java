@@ -0,0 +1,148 @@
+package frc.lib5k.simulation.physics;
+
+/**
+ * Tracks balls riding a conveyor belt, and the sensors along it. <br>
+ * <br>
+ * Positions are ball centers, in meters from the conveyor entrance. Every ball
+ * moves with the belt. Balls fall out of the entrance when the belt runs
+ * backwards, and leave through the exit only when it is open. A closed exit
+ * holds the lead ball, and the belt slips under it. A sensor sees a ball when
+ * any part of the ball covers it. Nothing in this class allocates after
+ * construction.
+ */
+public class BallConveyor {
+
+    /* Geometry */
+    private final double m_ballDiameter, m_exitPosition;
+    private final double[] m_sensorPositions;
+
+    /* Balls, ordered from the exit down */
+    private final double[] m_balls;
+    private int m_count = 0;
+
+    /* Balls that have left since the last step */
+    private int m_exited = 0;
+    private int m_ejected = 0;
+
+    /**
+     * Create a BallConveyor
+     *
+     * @param capacity        Most balls the conveyor can hold
+     * @param ballDiameter    Ball diameter (m)
+     * @param exitPosition    Position at which a ball leaves the exit (m)
+     * @param sensorPositions Sensor positions (m)
+     */
+    public BallConveyor(int capacity, double ballDiameter, double exitPosition, double... sensorPositions) {
+        m_balls = new double[capacity];
+        m_ballDiameter = ballDiameter;
+        m_exitPosition = exitPosition;
+        m_sensorPositions = sensorPositions;
+    }
+
+    /**
+     * Try to put a ball in the conveyor entrance
+     *
+     * @return True if there was room for the ball
+     */
+    public boolean insert() {
+
+        // The entrance must be clear of the last ball
+        if (m_count == m_balls.length || (m_count > 0 && m_balls[m_count - 1] < m_ballDiameter)) {
+            return false;
+        }
+
+        m_balls[m_count++] = 0.0;
+        return true;
+    }
+
+    /**
+     * Move the belt
+     *
+     * @param distance Distance moved, positive towards the exit (m)
+     * @param exitOpen Can balls leave through the exit?
+     */
+    public void step(double distance, boolean exitOpen) {
+        m_exited = 0;
+        m_ejected = 0;
+
+        if (m_count == 0) {
+            return;
+        }
+
+        // A closed exit holds the lead ball, and the belt slips
+        if (!exitOpen && distance > 0.0) {
+            distance = Math.min(distance, Math.max(0.0, m_exitPosition - m_balls[0]));
+        }
+
+        // Move every ball
+        for (int i = 0; i < m_count; i++) {
+            m_balls[i] += distance;
+        }
+
+        // Remove balls that have left through the exit
+        while (m_count > 0 && m_balls[0] > m_exitPosition) {
+            System.arraycopy(m_balls, 1, m_balls, 0, m_count - 1);
+            m_count--;
+            m_exited++;
+        }
+
+        // Remove balls that have fallen out of the entrance
+        while (m_count > 0 && m_balls[m_count - 1] < -m_ballDiameter) {
+            m_count--;
+            m_ejected++;
+        }
+    }
+
+    /**
+     * Check if a sensor can see a ball
+     *
+     * @param sensor Sensor index
+     * @return Is a ball covering the sensor?
+     */
+    public boolean isBlocked(int sensor) {
+        double position = m_sensorPositions[sensor];
+        double radius = m_ballDiameter / 2.0;
+
+        for (int i = 0; i < m_count; i++) {
+            if (Math.abs(m_balls[i] - position) < radius) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Remove every ball
+     */
+    public void clear() {
+        m_count = 0;
+    }
+
+    /**
+     * Get the number of balls on the conveyor
+     *
+     * @return Ball count
+     */
+    public int getCount() {
+        return m_count;
+    }
+
+    /**
+     * Get the number of balls that left through the exit during the last step
+     *
+     * @return Ball count
+     */
+    public int getExited() {
+        return m_exited;
+    }
+
+    /**
+     * Get the number of balls that fell out of the entrance during the last step
+     *
+     * @return Ball count
+     */
+    public int getEjected() {
+        return m_ejected;
+    }
+}
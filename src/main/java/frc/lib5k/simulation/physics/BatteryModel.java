@@ -0,0 +1,147 @@
+package frc.lib5k.simulation.physics;
+
+import java.util.ArrayList;
+import java.util.function.DoubleSupplier;
+
+import edu.wpi.first.hal.sim.RoboRioSim;
+import edu.wpi.first.wpilibj.RobotBase;
+
+/**
+ * A battery with internal resistance. <br>
+ * <br>
+ * Every step, the current drawn by all loads sags the battery voltage, which is
+ * published as the simulated roboRIO input voltage. Anything that reads
+ * RobotController.getBatteryVoltage() (and so RR_HAL.getSimSafeVoltage()) sees
+ * the sag. Loads are read once per step, so the voltage lags their current by
+ * one step. The voltage settles over a short response time rather than
+ * instantly, which keeps it from oscillating against loads whose current rises
+ * with voltage. The lowest voltage, and the time spent below a low voltage, are
+ * tracked every step.
+ */
+public class BatteryModel implements PhysicsPlant.Model {
+
+    // Time constant of the voltage's response to a change in load (seconds)
+    private static final double RESPONSE_TIME = 0.005;
+
+    /* Battery constants */
+    private final double m_nominalVoltage, m_resistance;
+
+    // Current draws, in amps
+    private ArrayList<DoubleSupplier> m_loads = new ArrayList<>();
+
+    /* State */
+    private double m_voltage;
+    private double m_current = 0.0;
+
+    /* Metrics */
+    private double m_lowVoltage = 0.0;
+    private double m_timeBelowLow = 0.0;
+    private double m_minVoltage;
+
+    // Simulated roboRIO
+    private RoboRioSim m_roboRio;
+
+    /**
+     * Create a BatteryModel
+     *
+     * @param nominalVoltage Open-circuit voltage
+     * @param resistance     Internal resistance, including wiring (ohms)
+     */
+    public BatteryModel(double nominalVoltage, double resistance) {
+        m_nominalVoltage = nominalVoltage;
+        m_resistance = resistance;
+        m_voltage = nominalVoltage;
+        m_minVoltage = nominalVoltage;
+
+        if (RobotBase.isSimulation()) {
+            m_roboRio = new RoboRioSim(0);
+            m_roboRio.setVInVoltage(nominalVoltage);
+        }
+    }
+
+    /**
+     * Add a load to the battery
+     *
+     * @param current Current drawn by the load (A)
+     */
+    public void addLoad(DoubleSupplier current) {
+        m_loads.add(current);
+    }
+
+    /**
+     * Set the voltage below which time is counted as low
+     *
+     * @param volts Low voltage
+     */
+    public void setLowVoltage(double volts) {
+        m_lowVoltage = volts;
+    }
+
+    @Override
+    public void step(double dt) {
+
+        // Sum all current draws
+        m_current = 0.0;
+        for (int i = 0; i < m_loads.size(); i++) {
+            m_current += m_loads.get(i).getAsDouble();
+        }
+
+        // Settle towards V = E - IR
+        double voltage = Math.max(0.0, m_nominalVoltage - (m_current * m_resistance));
+        m_voltage += (voltage - m_voltage) * Math.min(1.0, dt / RESPONSE_TIME);
+
+        if (m_roboRio != null) {
+            m_roboRio.setVInVoltage(m_voltage);
+        }
+
+        // Track the sag
+        m_minVoltage = Math.min(m_minVoltage, m_voltage);
+        if (m_voltage < m_lowVoltage) {
+            m_timeBelowLow += dt;
+        }
+    }
+
+    /**
+     * Reset the lowest voltage, and the time spent below the low voltage
+     */
+    public void resetMetrics() {
+        m_minVoltage = m_voltage;
+        m_timeBelowLow = 0.0;
+    }
+
+    /**
+     * Get the lowest voltage since the metrics were reset
+     *
+     * @return Voltage
+     */
+    public double getMinVoltage() {
+        return m_minVoltage;
+    }
+
+    /**
+     * Get the time spent below the low voltage since the metrics were reset
+     *
+     * @return Time (seconds)
+     */
+    public double getTimeBelowLowVoltage() {
+        return m_timeBelowLow;
+    }
+
+    /**
+     * Get the battery terminal voltage
+     *
+     * @return Voltage
+     */
+    public double getVoltage() {
+        return m_voltage;
+    }
+
+    /**
+     * Get the total current drawn from the battery
+     *
+     * @return Current (A)
+     */
+    public double getCurrent() {
+        return m_current;
+    }
+}
@@ -0,0 +1,375 @@
+package frc.lib5k.simulation.physics;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+
+import frc.lib5k.kinematics.models.DCBrushedMotor;
+
+/**
+ * A differential drivetrain, modelled from its characterization gains. <br>
+ * <br>
+ * Each side follows V = kS * sign(v) + kV * v + kA * dv/dt. Motor outputs are
+ * ramp limited and current limited like the motor controllers, and scaled by
+ * the battery voltage. Side distances, heading, and field position are
+ * integrated together with a fixed-step RK4, and published to the encoder and
+ * gyro simulation hooks every step. Headings are in radians, clockwise-positive
+ * like the gyro. The current drawn by the motors is reported to the battery.
+ * Nothing in this class allocates after construction.
+ */
+public class DifferentialDrivePlant implements PhysicsPlant.Model {
+
+    /* State vector indices */
+    private static final int LEFT_POSITION = 0;
+    private static final int LEFT_VELOCITY = 1;
+    private static final int RIGHT_POSITION = 2;
+    private static final int RIGHT_VELOCITY = 3;
+    private static final int HEADING = 4;
+    private static final int X = 5;
+    private static final int Y = 6;
+    private static final int STATES = 7;
+
+    /* Characterization gains */
+    private final double m_kS, m_kV, m_kA;
+    private final double m_trackWidth;
+
+    // Resistance of all the motors on one side, in parallel
+    private final double m_sideResistance;
+
+    // Motor current limit for each side
+    private double m_currentLimit = Double.POSITIVE_INFINITY;
+
+    // Supplies the motor voltage
+    private BatteryModel m_battery;
+
+    /* Integrator */
+    private final double[] m_state = new double[STATES];
+    private final double[] m_k1 = new double[STATES];
+    private final double[] m_k2 = new double[STATES];
+    private final double[] m_k3 = new double[STATES];
+    private final double[] m_k4 = new double[STATES];
+    private final double[] m_temp = new double[STATES];
+
+    /* Inputs for the current step */
+    private double m_leftOutput, m_rightOutput;
+    private double m_leftVoltage, m_rightVoltage;
+    private double m_leftFriction, m_rightFriction;
+    private double m_current = 0.0;
+
+    /* Motor connections */
+    private DoubleSupplier m_leftInput = () -> 0.0;
+    private DoubleSupplier m_rightInput = () -> 0.0;
+    private DoubleSupplier m_rampRate = () -> 0.0;
+
+    /* Sensor connections */
+    private DoubleConsumer m_leftDistance = (meters) -> {
+    };
+    private DoubleConsumer m_rightDistance = (meters) -> {
+    };
+    private DoubleConsumer m_gyroAngle = (degrees) -> {
+    };
+    private DoubleConsumer m_gyroRate = (degreesPerSecond) -> {
+    };
+
+    /**
+     * Create a DifferentialDrivePlant
+     *
+     * @param kS            Static friction voltage (V)
+     * @param kV            Velocity gain (V per m/s)
+     * @param kA            Acceleration gain (V per m/s^2)
+     * @param trackWidth    Distance between the wheels (m)
+     * @param motor         Motor model, used for current draw
+     * @param motorsPerSide Number of motors on each side
+     * @param battery       Battery powering the motors
+     */
+    public DifferentialDrivePlant(double kS, double kV, double kA, double trackWidth, DCBrushedMotor motor,
+            int motorsPerSide, BatteryModel battery) {
+        m_kS = kS;
+        m_kV = kV;
+        m_kA = kA;
+        m_trackWidth = trackWidth;
+        m_sideResistance = motor.R / motorsPerSide;
+
+        // Draw current from the battery
+        m_battery = battery;
+        m_battery.addLoad(this::getCurrent);
+    }
+
+    /**
+     * Connect the motor outputs
+     *
+     * @param left     Left side output [-1.0 to 1.0]
+     * @param right    Right side output [-1.0 to 1.0]
+     * @param rampRate Open-loop ramp rate (seconds from 0 to full output)
+     */
+    public void connectMotors(DoubleSupplier left, DoubleSupplier right, DoubleSupplier rampRate) {
+        m_leftInput = left;
+        m_rightInput = right;
+        m_rampRate = rampRate;
+    }
+
+    /**
+     * Connect the sensors
+     *
+     * @param leftDistance  Left side distance (m)
+     * @param rightDistance Right side distance (m)
+     * @param gyroAngle     Gyro angle (degrees, clockwise-positive)
+     * @param gyroRate      Gyro rate (degrees per second)
+     */
+    public void connectSensors(DoubleConsumer leftDistance, DoubleConsumer rightDistance, DoubleConsumer gyroAngle,
+            DoubleConsumer gyroRate) {
+        m_leftDistance = leftDistance;
+        m_rightDistance = rightDistance;
+        m_gyroAngle = gyroAngle;
+        m_gyroRate = gyroRate;
+    }
+
+    /**
+     * Limit the current through the motors, like the motor controllers do
+     *
+     * @param amps Total current limit of the motors on each side (A)
+     */
+    public void setCurrentLimit(double amps) {
+        m_currentLimit = amps;
+    }
+
+    @Override
+    public void step(double dt) {
+
+        // Apply the ramp rate to the motor outputs
+        double rampRate = m_rampRate.getAsDouble();
+        double maxChange = (rampRate > 0.0) ? dt / rampRate : 2.0;
+        m_leftOutput = rampOutput(m_leftOutput, m_leftInput.getAsDouble(), maxChange);
+        m_rightOutput = rampOutput(m_rightOutput, m_rightInput.getAsDouble(), maxChange);
+
+        // Hold the voltages and friction directions for the whole step
+        double batteryVoltage = m_battery.getVoltage();
+        m_leftVoltage = limitVoltage(m_leftOutput * batteryVoltage, m_state[LEFT_VELOCITY]);
+        m_rightVoltage = limitVoltage(m_rightOutput * batteryVoltage, m_state[RIGHT_VELOCITY]);
+        m_leftFriction = getFriction(m_state[LEFT_VELOCITY], m_leftVoltage);
+        m_rightFriction = getFriction(m_state[RIGHT_VELOCITY], m_rightVoltage);
+
+        // Integrate with RK4
+        derivative(m_state, m_k1);
+        offset(m_k1, dt / 2.0);
+        derivative(m_temp, m_k2);
+        offset(m_k2, dt / 2.0);
+        derivative(m_temp, m_k3);
+        offset(m_k3, dt);
+        derivative(m_temp, m_k4);
+        for (int i = 0; i < STATES; i++) {
+            m_state[i] += (dt / 6.0) * (m_k1[i] + (2.0 * m_k2[i]) + (2.0 * m_k3[i]) + m_k4[i]);
+        }
+
+        // Friction can stop a side, but not reverse it
+        m_state[LEFT_VELOCITY] = applyStiction(m_state[LEFT_VELOCITY], m_leftFriction, m_leftVoltage);
+        m_state[RIGHT_VELOCITY] = applyStiction(m_state[RIGHT_VELOCITY], m_rightFriction, m_rightVoltage);
+
+        // Anything past the back-EMF drives current through the motors
+        m_current = supplyCurrent(m_leftVoltage, m_state[LEFT_VELOCITY], batteryVoltage)
+                + supplyCurrent(m_rightVoltage, m_state[RIGHT_VELOCITY], batteryVoltage);
+
+        // Publish sensor readings
+        m_leftDistance.accept(m_state[LEFT_POSITION]);
+        m_rightDistance.accept(m_state[RIGHT_POSITION]);
+        m_gyroAngle.accept(Math.toDegrees(m_state[HEADING]));
+        m_gyroRate.accept(Math.toDegrees((m_state[LEFT_VELOCITY] - m_state[RIGHT_VELOCITY]) / m_trackWidth));
+    }
+
+    /**
+     * Calculate the state derivative
+     *
+     * @param state State
+     * @param out   Derivative output
+     */
+    private void derivative(double[] state, double[] out) {
+        double left = state[LEFT_VELOCITY];
+        double right = state[RIGHT_VELOCITY];
+        double heading = state[HEADING];
+
+        out[LEFT_POSITION] = left;
+        out[LEFT_VELOCITY] = getAcceleration(left, m_leftVoltage, m_leftFriction);
+        out[RIGHT_POSITION] = right;
+        out[RIGHT_VELOCITY] = getAcceleration(right, m_rightVoltage, m_rightFriction);
+        out[HEADING] = (left - right) / m_trackWidth;
+        out[X] = ((left + right) / 2.0) * Math.cos(heading);
+        out[Y] = ((left + right) / 2.0) * Math.sin(heading);
+    }
+
+    /**
+     * Fill the temporary state with the current state plus a scaled derivative
+     *
+     * @param derivative Derivative
+     * @param dt         Time to advance by
+     */
+    private void offset(double[] derivative, double dt) {
+        for (int i = 0; i < STATES; i++) {
+            m_temp[i] = m_state[i] + (derivative[i] * dt);
+        }
+    }
+
+    /**
+     * Get the acceleration of one side
+     *
+     * @param velocity Velocity (m/s)
+     * @param voltage  Applied voltage
+     * @param friction Friction voltage, or NaN if static friction holds the side
+     * @return Acceleration (m/s^2)
+     */
+    private double getAcceleration(double velocity, double voltage, double friction) {
+        if (Double.isNaN(friction)) {
+            return 0.0;
+        }
+
+        return (voltage - friction - (m_kV * velocity)) / m_kA;
+    }
+
+    /**
+     * Get the friction voltage acting on one side
+     *
+     * @param velocity Velocity (m/s)
+     * @param voltage  Applied voltage
+     * @return Friction voltage, or NaN if static friction holds the side
+     */
+    private double getFriction(double velocity, double voltage) {
+
+        // Static friction holds a stopped side
+        if (velocity == 0.0 && Math.abs(voltage) <= m_kS) {
+            return Double.NaN;
+        }
+
+        return m_kS * Math.signum((velocity != 0.0) ? velocity : voltage);
+    }
+
+    /**
+     * Stop a side that friction has brought to rest
+     *
+     * @param velocity New velocity
+     * @param friction Friction voltage used this step
+     * @param voltage  Applied voltage
+     * @return Velocity
+     */
+    private double applyStiction(double velocity, double friction, double voltage) {
+        if (!Double.isNaN(friction) && Math.signum(velocity) != Math.signum(friction)
+                && Math.abs(voltage) <= m_kS) {
+            return 0.0;
+        }
+
+        return velocity;
+    }
+
+    /**
+     * Reduce the voltage applied to one side until its motors are within the
+     * current limit
+     *
+     * @param voltage  Requested voltage
+     * @param velocity Velocity (m/s)
+     * @return Applied voltage
+     */
+    private double limitVoltage(double voltage, double velocity) {
+        double emf = m_kV * velocity;
+        double headroom = m_currentLimit * m_sideResistance;
+        double limited = Math.max(emf - headroom, Math.min(voltage, emf + headroom));
+
+        // The controller can only lower its output
+        if (voltage >= 0.0) {
+            return Math.max(0.0, Math.min(limited, voltage));
+        }
+        return Math.min(0.0, Math.max(limited, voltage));
+    }
+
+    /**
+     * Get the battery current drawn by one side
+     *
+     * @param voltage        Applied voltage
+     * @param velocity       Velocity (m/s)
+     * @param batteryVoltage Battery voltage
+     * @return Supply current (A)
+     */
+    private double supplyCurrent(double voltage, double velocity, double batteryVoltage) {
+        if (batteryVoltage <= 0.0) {
+            return 0.0;
+        }
+
+        // The controller draws the motor current for its duty cycle
+        double statorCurrent = (voltage - (m_kV * velocity)) / m_sideResistance;
+        return Math.max(0.0, (voltage / batteryVoltage) * statorCurrent);
+    }
+
+    /**
+     * Move an output towards its goal, within a ramp limit
+     *
+     * @param output    Current output
+     * @param goal      Goal output
+     * @param maxChange Largest allowed change
+     * @return New output
+     */
+    private static double rampOutput(double output, double goal, double maxChange) {
+        goal = Math.max(-1.0, Math.min(goal, 1.0));
+        return output + Math.max(-maxChange, Math.min(goal - output, maxChange));
+    }
+
+    /**
+     * Stop the drivetrain where it is, and release the motor outputs
+     */
+    public void stop() {
+        m_state[LEFT_VELOCITY] = 0.0;
+        m_state[RIGHT_VELOCITY] = 0.0;
+        m_leftOutput = 0.0;
+        m_rightOutput = 0.0;
+        m_current = 0.0;
+    }
+
+    /**
+     * Get the total current drawn by the drivetrain
+     *
+     * @return Current (A)
+     */
+    public double getCurrent() {
+        return m_current;
+    }
+
+    /**
+     * Get the left side velocity
+     *
+     * @return Velocity (m/s)
+     */
+    public double getLeftVelocity() {
+        return m_state[LEFT_VELOCITY];
+    }
+
+    /**
+     * Get the right side velocity
+     *
+     * @return Velocity (m/s)
+     */
+    public double getRightVelocity() {
+        return m_state[RIGHT_VELOCITY];
+    }
+
+    /**
+     * Get the heading
+     *
+     * @return Heading (rad, clockwise-positive)
+     */
+    public double getHeading() {
+        return m_state[HEADING];
+    }
+
+    /**
+     * Get the X position, relative to where the plant started
+     *
+     * @return X (m)
+     */
+    public double getX() {
+        return m_state[X];
+    }
+
+    /**
+     * Get the Y position, relative to where the plant started
+     *
+     * @return Y (m)
+     */
+    public double getY() {
+        return m_state[Y];
+    }
+}
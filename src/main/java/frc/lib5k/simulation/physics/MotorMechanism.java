@@ -0,0 +1,155 @@
+package frc.lib5k.simulation.physics;
+
+import frc.lib5k.kinematics.models.DCBrushedMotor;
+
+/**
+ * A second-order model of a mechanism driven by DC motors through a gearbox.
+ * <br>
+ * <br>
+ * Position and velocity are at the gearbox output, in radians. The motor's
+ * back-EMF makes the velocity a first-order response to voltage, which is
+ * integrated exactly, so even a stiff, light mechanism stays stable at any
+ * step size. Optional hard stops clamp the position and stop the mechanism. An
+ * optional current limit lowers the applied voltage like a motor controller.
+ */
+public class MotorMechanism {
+
+    /* Motors */
+    private final DCBrushedMotor m_motor;
+    private final int m_numMotors;
+    private final double m_gearing;
+    private double m_currentLimit = Double.POSITIVE_INFINITY;
+
+    /* Velocity response */
+    private final double m_freeSpeedPerVolt, m_decayRate;
+
+    /* Hard stops */
+    private double m_minPosition = Double.NEGATIVE_INFINITY;
+    private double m_maxPosition = Double.POSITIVE_INFINITY;
+
+    /* State */
+    private double m_position = 0.0;
+    private double m_velocity = 0.0;
+    private double m_voltage = 0.0;
+
+    /**
+     * Create a MotorMechanism
+     *
+     * @param motor     Motor model
+     * @param numMotors Number of motors
+     * @param gearing   Reduction from the motors to the output (motor turns per
+     *                  output turn)
+     * @param moi       Moment of inertia at the output (kg*m^2)
+     */
+    public MotorMechanism(DCBrushedMotor motor, int numMotors, double gearing, double moi) {
+        m_motor = motor;
+        m_numMotors = numMotors;
+        m_gearing = gearing;
+
+        // Motor Kv is in RPM per volt
+        double kv = motor.Kv * (2.0 * Math.PI / 60.0);
+
+        // J * dw/dt = n * G * Kt * (V - G * w / Kv) / R
+        m_freeSpeedPerVolt = kv / gearing;
+        m_decayRate = (numMotors * gearing * gearing * motor.Kt) / (motor.R * kv * moi);
+    }
+
+    /**
+     * Set hard stops for the output position
+     *
+     * @param min Minimum position (rad)
+     * @param max Maximum position (rad)
+     */
+    public void setLimits(double min, double max) {
+        m_minPosition = min;
+        m_maxPosition = max;
+    }
+
+    /**
+     * Limit the current through each motor
+     *
+     * @param amps Current limit (A)
+     */
+    public void setCurrentLimit(double amps) {
+        m_currentLimit = amps;
+    }
+
+    /**
+     * Step the mechanism forward in time
+     *
+     * @param voltage Applied voltage
+     * @param dt      Time step (seconds)
+     */
+    public void step(double voltage, double dt) {
+
+        // Lower the voltage until the motors are within the current limit
+        double emf = m_velocity / m_freeSpeedPerVolt;
+        double headroom = m_currentLimit * m_motor.R;
+        double limited = Math.max(emf - headroom, Math.min(voltage, emf + headroom));
+        if (voltage >= 0.0) {
+            voltage = Math.max(0.0, Math.min(limited, voltage));
+        } else {
+            voltage = Math.min(0.0, Math.max(limited, voltage));
+        }
+        m_voltage = voltage;
+
+        // Integrate the velocity and position exactly
+        double freeSpeed = voltage * m_freeSpeedPerVolt;
+        double decay = Math.exp(-m_decayRate * dt);
+        m_position += (freeSpeed * dt) + ((m_velocity - freeSpeed) * (1.0 - decay) / m_decayRate);
+        m_velocity = freeSpeed + ((m_velocity - freeSpeed) * decay);
+
+        // Handle the hard stops
+        if (m_position <= m_minPosition) {
+            m_position = m_minPosition;
+            m_velocity = Math.max(m_velocity, 0.0);
+        } else if (m_position >= m_maxPosition) {
+            m_position = m_maxPosition;
+            m_velocity = Math.min(m_velocity, 0.0);
+        }
+    }
+
+    /**
+     * Set the mechanism state
+     *
+     * @param position Position (rad)
+     * @param velocity Velocity (rad/s)
+     */
+    public void setState(double position, double velocity) {
+        m_position = position;
+        m_velocity = velocity;
+    }
+
+    /**
+     * Get the current drawn from the supply by the motors during the last step
+     *
+     * @param supplyVoltage Supply voltage
+     * @return Supply current (A)
+     */
+    public double getSupplyCurrent(double supplyVoltage) {
+        if (supplyVoltage <= 0.0) {
+            return 0.0;
+        }
+
+        double motorRPM = m_velocity * m_gearing * (60.0 / (2.0 * Math.PI));
+        return m_motor.getSupplyCurrent(m_numMotors, m_voltage / supplyVoltage, motorRPM, supplyVoltage);
+    }
+
+    /**
+     * Get the output position
+     *
+     * @return Position (rad)
+     */
+    public double getPosition() {
+        return m_position;
+    }
+
+    /**
+     * Get the output velocity
+     *
+     * @return Velocity (rad/s)
+     */
+    public double getVelocity() {
+        return m_velocity;
+    }
+}
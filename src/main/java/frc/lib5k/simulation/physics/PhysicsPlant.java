@@ -0,0 +1,145 @@
+package frc.lib5k.simulation.physics;
+
+import java.util.ArrayList;
+
+import edu.wpi.first.wpilibj.Notifier;
+import frc.lib5k.roborio.FPGAClock;
+import frc.lib5k.utils.RobotLogger;
+import frc.lib5k.utils.RobotLogger.Level;
+
+/**
+ * Steps a set of simulated mechanisms with a fixed time step. <br>
+ * <br>
+ * The plant keeps its own simulated time, and every update runs however many
+ * whole steps fit between it and the FPGA clock. Models always see exactly the
+ * same dt, in the same order, no matter how late the thread wakes up, so a run
+ * on a {@link frc.lib5k.simulation.SteppedClock} is fully repeatable.
+ */
+public class PhysicsPlant {
+    private RobotLogger logger = RobotLogger.getInstance();
+
+    // Most time the plant will catch up on in one update
+    private static final double MAX_CATCH_UP_SECONDS = 0.1;
+
+    /**
+     * A simulated mechanism
+     */
+    public interface Model {
+
+        /**
+         * Advance the mechanism by one step
+         *
+         * @param dt Time step (seconds)
+         */
+        public void step(double dt);
+    }
+
+    // Fixed time step
+    private final double m_dt;
+
+    // Models, in the order they are stepped
+    private ArrayList<Model> m_models = new ArrayList<>();
+
+    /* Simulated time */
+    private double m_startTime = Double.NaN;
+    private long m_stepCount = 0;
+
+    // Update thread
+    private Notifier m_thread;
+
+    /**
+     * Create a PhysicsPlant
+     *
+     * @param dt Fixed time step (seconds)
+     */
+    public PhysicsPlant(double dt) {
+        m_dt = dt;
+
+        m_thread = new Notifier(this::update);
+        m_thread.setName("PhysicsPlant");
+    }
+
+    /**
+     * Add a model to the plant. Models are stepped in the order they are added.
+     *
+     * @param model Model
+     */
+    public synchronized void addModel(Model model) {
+        m_models.add(model);
+    }
+
+    /**
+     * Start stepping the plant in the background, once per time step
+     */
+    public void start() {
+        logger.log("PhysicsPlant", String.format("Starting physics plant at %.0fHz", 1.0 / m_dt));
+        m_thread.startPeriodic(m_dt);
+    }
+
+    /**
+     * Stop stepping the plant
+     */
+    public void stop() {
+        m_thread.stop();
+    }
+
+    /**
+     * Run every step between the plant's time and the FPGA clock
+     */
+    public synchronized void update() {
+        double now = FPGAClock.getFPGASeconds();
+
+        // The first update only sets the start time
+        if (Double.isNaN(m_startTime)) {
+            m_startTime = now;
+            return;
+        }
+
+        // Find the number of whole steps that have passed
+        long target = (long) Math.floor(((now - m_startTime) / m_dt) + 1e-9);
+        long steps = target - m_stepCount;
+
+        // If the plant has fallen too far behind (a breakpoint, for example), skip
+        // ahead instead of freezing the thread
+        long maxSteps = Math.round(MAX_CATCH_UP_SECONDS / m_dt);
+        if (steps > maxSteps) {
+            logger.log("PhysicsPlant", String.format("Skipping %d steps", steps - maxSteps), Level.kWarning);
+            m_stepCount += steps - maxSteps;
+            steps = maxSteps;
+        }
+
+        advance(steps);
+    }
+
+    /**
+     * Run a number of steps, without reading the clock
+     *
+     * @param steps Number of steps
+     */
+    public synchronized void advance(long steps) {
+        for (long i = 0; i < steps; i++) {
+            for (int j = 0; j < m_models.size(); j++) {
+                m_models.get(j).step(m_dt);
+            }
+            m_stepCount++;
+        }
+    }
+
+    /**
+     * Get the fixed time step
+     *
+     * @return Time step (seconds)
+     */
+    public double getStep() {
+        return m_dt;
+    }
+
+    /**
+     * Get the total simulated time
+     *
+     * @return Simulated time (seconds)
+     */
+    public synchronized double getSimulatedTime() {
+        return m_stepCount * m_dt;
+    }
+}
@@ -10,7 +10,9 @@ import edu.wpi.first.wpilibj.geometry.Pose2d;
  */
 public class IMGUIFieldReporter {
 
-    private static IMGUIFieldReporter s_instance;
+    private static class Holder {
+        private static final IMGUIFieldReporter INSTANCE = new IMGUIFieldReporter();
+    }
 
     /* Simulation devices to talk to HALSIM and IMGUI */
     private SimDevice m_device;
@@ -33,11 +35,7 @@ public class IMGUIFieldReporter {
     }
 
     public static IMGUIFieldReporter getInstance() {
-        if (s_instance == null) {
-            s_instance = new IMGUIFieldReporter();
-        }
-
-        return s_instance;
+        return Holder.INSTANCE;
     }
 
     /**
@@ -10,9 +10,11 @@ import edu.wpi.first.wpilibj.Sendable;
 import edu.wpi.first.wpilibj.Spark;
 import edu.wpi.first.wpilibj.smartdashboard.SendableBuilder;
 import edu.wpi.first.wpilibj.smartdashboard.SendableRegistry;
+import frc.lib5k.components.motors.CANOutputScheduler;
+import frc.lib5k.components.motors.interfaces.IOutputScaleController;
 import frc.lib5k.roborio.RR_HAL;
 
-public class SimSparkMax extends CANSparkMax implements Sendable {
+public class SimSparkMax extends CANSparkMax implements Sendable, IOutputScaleController {
 
     public SimSparkMax(int deviceID, MotorType type) {
         super(deviceID, type);
@@ -23,14 +25,32 @@ public class SimSparkMax extends CANSparkMax implements Sendable {
         m_simDevice = SimDevice.create("SimSparkMax", getDeviceId());
         if (m_simDevice != null) {
             m_simSpeed = m_simDevice.createDouble("Speed", true, 0.0);
+            m_simVelocity = m_simDevice.createDouble("Velocity", true, 0.0);
         }
     }
 
     private SimDevice m_simDevice;
     private SimDouble m_simSpeed;
+    private SimDouble m_simVelocity;
+
+    /* Output scaling */
+    private volatile double m_requestedOutput = 0.0;
+
+    // Written by the PowerManager, applied by the next set() from the owning loop
+    private volatile double m_outputScale = 1.0;
+
+    // Last output sent
+    private CANOutputScheduler.Channel m_outputChannel = CANOutputScheduler.getInstance().createChannel(1);
 
     @Override
     public void set(double speed) {
+        m_requestedOutput = speed;
+        speed *= m_outputScale;
+
+        // Skip frames that would not change the output
+        if (!m_outputChannel.shouldSend(speed)) {
+            return;
+        }
 
         // Set sim speed
         if (m_simDevice != null) {
@@ -40,6 +60,29 @@ public class SimSparkMax extends CANSparkMax implements Sendable {
         super.set(speed);
     }
 
+    /**
+     * Make sure the next set() is sent. This must be called after commanding the
+     * controller any other way, like through its PID controller.
+     */
+    public void invalidateOutput() {
+        m_outputChannel.invalidate();
+    }
+
+    @Override
+    public void setOutputScale(double scale) {
+        m_outputScale = scale;
+    }
+
+    @Override
+    public double getOutputScale() {
+        return m_outputScale;
+    }
+
+    @Override
+    public double getRequestedOutput() {
+        return m_requestedOutput;
+    }
+
     @Override
     public double get() {
         if (m_simDevice != null) {
@@ -49,6 +92,31 @@ public class SimSparkMax extends CANSparkMax implements Sendable {
         return super.get();
     }
 
+    /**
+     * Get the velocity reported by the built-in encoder. In simulation, this is
+     * the value set by {@link #setSimVelocity(double)}.
+     * 
+     * @return Velocity (RPM)
+     */
+    public double getVelocity() {
+        if (m_simDevice != null) {
+            return m_simVelocity.get();
+        }
+
+        return getEncoder().getVelocity();
+    }
+
+    /**
+     * Set the simulated encoder velocity. Does nothing on a real robot.
+     * 
+     * @param rpm Velocity (RPM)
+     */
+    public void setSimVelocity(double rpm) {
+        if (m_simDevice != null) {
+            m_simVelocity.set(rpm);
+        }
+    }
+
     @Override
     public void setVoltage(double outputVolts) {
         if (RobotBase.isSimulation()) {
@@ -1,14 +1,26 @@
 package frc.lib5k.simulation.wrappers;
 
+import com.ctre.phoenix.motorcontrol.ControlMode;
 import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
 
 import edu.wpi.first.wpilibj.RobotBase;
+import frc.lib5k.components.motors.CANOutputScheduler;
+import frc.lib5k.components.motors.interfaces.IOutputScaleController;
 import frc.lib5k.roborio.RR_HAL;
 
 /**
  * A simulation wrapper for the WPI_TalonSRX
  */
-public class SimTalon extends WPI_TalonSRX {
+public class SimTalon extends WPI_TalonSRX implements IOutputScaleController {
+
+    /* Output scaling */
+    private volatile double m_requestedOutput = 0.0;
+
+    // Written by the PowerManager, applied by the next set() from the owning loop
+    private volatile double m_outputScale = 1.0;
+
+    // Last output sent
+    private CANOutputScheduler.Channel m_outputChannel = CANOutputScheduler.getInstance().createChannel(1);
 
     // private SimDevice m_simDevice;
     // private SimDouble m_simSpeed;
@@ -43,6 +55,46 @@ public class SimTalon extends WPI_TalonSRX {
     // return super.get();
     // }
 
+    @Override
+    public void set(double speed) {
+        m_requestedOutput = speed;
+        speed *= m_outputScale;
+
+        // Skip frames that would not change the output, but keep motor safety fed
+        if (!m_outputChannel.shouldSend(speed)) {
+            feed();
+            return;
+        }
+
+        super.set(speed);
+    }
+
+    @Override
+    public void set(ControlMode mode, double outputValue) {
+
+        // Any other control mode makes the last percent output stale
+        if (mode != ControlMode.PercentOutput) {
+            m_outputChannel.invalidate();
+        }
+
+        super.set(mode, outputValue);
+    }
+
+    @Override
+    public void setOutputScale(double scale) {
+        m_outputScale = scale;
+    }
+
+    @Override
+    public double getOutputScale() {
+        return m_outputScale;
+    }
+
+    @Override
+    public double getRequestedOutput() {
+        return m_requestedOutput;
+    }
+
     @Override
     public double getMotorOutputVoltage() {
         if (RobotBase.isSimulation()) {
@@ -6,7 +6,9 @@ import frc.lib5k.utils.Mathutils;
 
 public class LocalizationEngine {
     /* Current instance */
-    private static LocalizationEngine m_instance = null;
+    private static class Holder {
+        private static final LocalizationEngine INSTANCE = new LocalizationEngine();
+    }
 
     /* Robot position information */
     private FieldPosition m_robotPosition;
@@ -25,11 +27,7 @@ public class LocalizationEngine {
      * @return
      */
     public static LocalizationEngine getInstance() {
-        if (m_instance == null) {
-            m_instance = new LocalizationEngine();
-        }
-
-        return m_instance;
+        return Holder.INSTANCE;
     }
 
     /**
@@ -76,25 +74,21 @@ public class LocalizationEngine {
      * @return Error from current position to goal
      */
     public Error2D getRotatedError(FieldPosition goalPosition) {
+        return getRotatedError(goalPosition, new Error2D(0.0, 0.0));
+    }
 
-        // Get the current position of the robot
-        FieldPosition robotPosition = getRobotPosition();
-
-        // Get the current and goal positions as Error2D objects
-        Error2D currentPosition = new Error2D(robotPosition.getX(), robotPosition.getY());
-        Error2D finalPosition = new Error2D(goalPosition.getX(), goalPosition.getY());
-
-        // Rotate both Errors to the goal theta
-        currentPosition.rotateBy(goalPosition.getTheta());
-        finalPosition.rotateBy(goalPosition.getTheta());
-
-        // Determine the X and Y errors
-        double xError = finalPosition.getX() - currentPosition.getX();
-        double yError = finalPosition.getY() - currentPosition.getY();
-
-        // Return a new Error2D object containing the position error
-        return new Error2D(xError, yError);
+    /**
+     * Get the rotated 2D error from the robot's current location to a goal
+     * position, without allocating
+     * 
+     * @param goalPosition Goal position (where the robot wants to be)
+     * @param error        Error to write the result to
+     * @return The same error
+     */
+    public Error2D getRotatedError(FieldPosition goalPosition, Error2D error) {
 
+        // Read the robot position in place, rather than through a copy
+        return m_robotPosition.getRotatedError(goalPosition, error);
     }
 
     /**
@@ -0,0 +1,233 @@
+package frc.lib5k.utils;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import edu.wpi.first.wpilibj2.command.Subsystem;
+import frc.lib5k.roborio.FPGAClock;
+import frc.lib5k.utils.RobotLogger.Level;
+
+/**
+ * Constructs the robot's subsystems and services eagerly, in a defined order,
+ * and records how long each one took. <br>
+ * <br>
+ * Instances are added in dependency order with {@link #add(Class, Supplier)},
+ * and constructed one after another on the calling thread by
+ * {@link #constructAll(boolean)}. Devices that nothing else is waiting on (like
+ * gyros that calibrate on construction) can be added with
+ * {@link #addIndependent(Class, Supplier)}, to be constructed on their own
+ * threads while the rest are built. <br>
+ * <br>
+ * Subsystems are always constructed on the calling thread, as they register
+ * themselves with the CommandScheduler, which is not thread safe. <br>
+ * <br>
+ * Every instance is handed out through a concurrent map, and construction
+ * threads are joined before {@link #constructAll(boolean)} returns, so every
+ * reference is safely published to any thread that reads it afterwards.
+ */
+public class InstanceRegistry {
+    private RobotLogger logger = RobotLogger.getInstance();
+    private static class Holder {
+        private static final InstanceRegistry INSTANCE = new InstanceRegistry();
+    }
+
+    /**
+     * An instance to construct
+     */
+    private static class Entry {
+        public final Class<?> type;
+        public final Supplier<?> factory;
+        public final boolean independent;
+
+        // Construction results
+        public volatile double seconds = 0.0;
+        public volatile Throwable error = null;
+
+        public Entry(Class<?> type, Supplier<?> factory, boolean independent) {
+            this.type = type;
+            this.factory = factory;
+            this.independent = independent;
+        }
+    }
+
+    // Entries, in the order they were added
+    private ArrayList<Entry> m_entries = new ArrayList<>();
+
+    // Constructed instances
+    private Map<Class<?>, Object> m_instances = new ConcurrentHashMap<>();
+
+    /* State */
+    private boolean m_constructed = false;
+    private boolean m_parallel = false;
+    private double m_totalSeconds = 0.0;
+
+    private InstanceRegistry() {
+
+    }
+
+    /**
+     * Get the InstanceRegistry instance
+     *
+     * @return InstanceRegistry
+     */
+    public static InstanceRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Add an instance to construct on the calling thread, after everything added
+     * before it
+     *
+     * @param type    Instance type
+     * @param factory Instance factory, normally the type's getInstance()
+     */
+    public synchronized <T> void add(Class<T> type, Supplier<T> factory) {
+        addEntry(new Entry(type, factory, false));
+    }
+
+    /**
+     * Add an instance that does not depend on anything else in the registry, and
+     * may be constructed on its own thread
+     *
+     * @param type    Instance type
+     * @param factory Instance factory, normally the type's getInstance()
+     */
+    public synchronized <T> void addIndependent(Class<T> type, Supplier<T> factory) {
+
+        // Subsystems can not be registered with the CommandScheduler off the main
+        // thread
+        boolean independent = !Subsystem.class.isAssignableFrom(type);
+        if (!independent) {
+            logger.log("InstanceRegistry", String.format("%s is a subsystem, and will be constructed in order",
+                    type.getSimpleName()), Level.kWarning);
+        }
+
+        addEntry(new Entry(type, factory, independent));
+    }
+
+    /**
+     * Add an entry, if construction has not happened yet
+     *
+     * @param entry Entry
+     */
+    private void addEntry(Entry entry) {
+        if (m_constructed) {
+            throw new IllegalStateException(
+                    String.format("Can not add %s after construction", entry.type.getSimpleName()));
+        }
+
+        m_entries.add(entry);
+    }
+
+    /**
+     * Construct every instance. Ordered instances are constructed on this thread,
+     * while independent instances are constructed on their own threads if
+     * parallel construction is enabled. This blocks until every instance exists.
+     *
+     * @param parallel Construct independent instances on their own threads
+     * @throws RuntimeException If any instance failed to construct
+     */
+    public synchronized void constructAll(boolean parallel) {
+        if (m_constructed) {
+            return;
+        }
+        m_constructed = true;
+        m_parallel = parallel;
+
+        logger.log("InstanceRegistry", String.format("Constructing %d instances%s", m_entries.size(),
+                (parallel) ? " in parallel" : ""), Level.kLibrary);
+        double start = FPGAClock.getFPGASeconds();
+
+        // Start every independent instance
+        ArrayList<Thread> threads = new ArrayList<>();
+        if (parallel) {
+            for (Entry entry : m_entries) {
+                if (entry.independent) {
+                    Thread thread = new Thread(() -> construct(entry),
+                            "Lib5K InstanceRegistry " + entry.type.getSimpleName());
+                    thread.setDaemon(true);
+                    thread.start();
+                    threads.add(thread);
+                }
+            }
+        }
+
+        // Construct everything else in order
+        for (Entry entry : m_entries) {
+            if (!parallel || !entry.independent) {
+                construct(entry);
+            }
+        }
+
+        // Wait for the independent instances
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while constructing instances", e);
+            }
+        }
+
+        m_totalSeconds = FPGAClock.getFPGASeconds() - start;
+        logStatus();
+
+        // Fail startup if anything could not be constructed
+        for (Entry entry : m_entries) {
+            if (entry.error != null) {
+                throw new RuntimeException(String.format("Failed to construct %s", entry.type.getSimpleName()),
+                        entry.error);
+            }
+        }
+    }
+
+    /**
+     * Construct a single entry, and time it
+     *
+     * @param entry Entry
+     */
+    private void construct(Entry entry) {
+        double start = FPGAClock.getFPGASeconds();
+
+        try {
+            m_instances.put(entry.type, entry.factory.get());
+        } catch (Throwable e) {
+            entry.error = e;
+            logger.log("InstanceRegistry",
+                    String.format("Failed to construct %s: %s", entry.type.getSimpleName(), e), Level.kWarning);
+        }
+
+        entry.seconds = FPGAClock.getFPGASeconds() - start;
+    }
+
+    /**
+     * Get a constructed instance
+     *
+     * @param type Instance type
+     * @return Instance
+     * @throws IllegalStateException If the type was never constructed
+     */
+    public <T> T get(Class<T> type) {
+        Object instance = m_instances.get(type);
+        if (instance == null) {
+            throw new IllegalStateException(String.format("%s has not been constructed", type.getSimpleName()));
+        }
+
+        return type.cast(instance);
+    }
+
+    /**
+     * Log how long each instance took to construct
+     */
+    public synchronized void logStatus() {
+        for (Entry entry : m_entries) {
+            logger.log("InstanceRegistry", String.format("%s: %.1fms%s", entry.type.getSimpleName(),
+                    entry.seconds * 1000.0, (m_parallel && entry.independent) ? " (own thread)" : ""), Level.kInfo);
+        }
+
+        logger.log("InstanceRegistry", String.format("Constructed %d instances in %.1fms", m_entries.size(),
+                m_totalSeconds * 1000.0), Level.kInfo);
+    }
+}
@@ -0,0 +1,245 @@
+package frc.lib5k.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A lookup table that interpolates between sorted (x, y) points. <br>
+ * <br>
+ * Points are stored in primitive arrays, and looked up with a binary search.
+ * Inputs outside of the table are clamped to the first or last point. Lookups
+ * do not allocate.
+ */
+public class InterpolatingTable {
+
+    /**
+     * Method for interpolating between points
+     */
+    public enum InterpolationMode {
+        // Straight lines between points
+        LINEAR,
+
+        // Smooth curve that never overshoots between points (Fritsch-Carlson)
+        MONOTONE_CUBIC
+    }
+
+    /* Table points, sorted by X */
+    private final double[] m_xs, m_ys;
+
+    // Curve tangent at each point (only used for cubic interpolation)
+    private final double[] m_tangents;
+
+    private final InterpolationMode m_mode;
+
+    /**
+     * Create an InterpolatingTable
+     *
+     * @param xs   Point X values. These do not need to be sorted, but must be
+     *             unique
+     * @param ys   Point Y values
+     * @param mode Interpolation mode
+     */
+    public InterpolatingTable(double[] xs, double[] ys, InterpolationMode mode) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("A table needs the same number of X and Y values");
+        }
+        if (xs.length == 0) {
+            throw new IllegalArgumentException("A table needs at least one point");
+        }
+
+        m_mode = mode;
+
+        // Sort the points by X
+        Integer[] order = new Integer[xs.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(xs[a], xs[b]));
+
+        m_xs = new double[xs.length];
+        m_ys = new double[xs.length];
+        for (int i = 0; i < order.length; i++) {
+            m_xs[i] = xs[order[i]];
+            m_ys[i] = ys[order[i]];
+
+            if (Double.isNaN(m_xs[i]) || Double.isNaN(m_ys[i])) {
+                throw new IllegalArgumentException("A table can not contain NaN");
+            }
+            if (i > 0 && m_xs[i] == m_xs[i - 1]) {
+                throw new IllegalArgumentException(String.format("Duplicate table point at X = %f", m_xs[i]));
+            }
+        }
+
+        m_tangents = (mode == InterpolationMode.MONOTONE_CUBIC) ? calculateTangents(m_xs, m_ys)
+                : new double[m_xs.length];
+    }
+
+    /**
+     * Load a table from a CSV file. Each line contains an X and a Y value, blank
+     * lines and lines starting with # are ignored, and any extra columns are
+     * ignored.
+     *
+     * @param path File path
+     * @param mode Interpolation mode
+     * @return Table
+     * @throws IOException If the file could not be read
+     */
+    public static InterpolatingTable load(String path, InterpolationMode mode) throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(path));
+
+        double[] xs = new double[lines.size()];
+        double[] ys = new double[lines.size()];
+        int count = 0;
+
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+
+            // Skip comments and blank lines
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] columns = line.split(",");
+            if (columns.length < 2) {
+                throw new IOException(String.format("%s:%d: Expected an X and a Y value", path, i + 1));
+            }
+
+            try {
+                xs[count] = Double.parseDouble(columns[0].trim());
+                ys[count] = Double.parseDouble(columns[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IOException(String.format("%s:%d: %s", path, i + 1, e.getMessage()));
+            }
+            count++;
+        }
+
+        return new InterpolatingTable(Arrays.copyOf(xs, count), Arrays.copyOf(ys, count), mode);
+    }
+
+    /**
+     * Get the interpolated value at an X value
+     *
+     * @param x X value
+     * @return Y value
+     */
+    public double get(double x) {
+        int last = m_xs.length - 1;
+
+        // Clamp to the ends of the table
+        if (x <= m_xs[0]) {
+            return m_ys[0];
+        }
+        if (x >= m_xs[last]) {
+            return m_ys[last];
+        }
+
+        // Binary search for the segment containing X
+        int low = 0;
+        int high = last;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (m_xs[mid] <= x) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+
+        double width = m_xs[high] - m_xs[low];
+        double t = (x - m_xs[low]) / width;
+
+        if (m_mode == InterpolationMode.LINEAR) {
+            return m_ys[low] + ((m_ys[high] - m_ys[low]) * t);
+        }
+
+        // Cubic Hermite basis functions
+        double t2 = t * t;
+        double t3 = t2 * t;
+        double h00 = (2 * t3) - (3 * t2) + 1;
+        double h10 = t3 - (2 * t2) + t;
+        double h01 = (-2 * t3) + (3 * t2);
+        double h11 = t3 - t2;
+
+        return (h00 * m_ys[low]) + (h10 * width * m_tangents[low]) + (h01 * m_ys[high])
+                + (h11 * width * m_tangents[high]);
+    }
+
+    /**
+     * Get the number of points in the table
+     *
+     * @return Point count
+     */
+    public int getSize() {
+        return m_xs.length;
+    }
+
+    /**
+     * Get the smallest X value in the table
+     *
+     * @return Minimum X
+     */
+    public double getMinX() {
+        return m_xs[0];
+    }
+
+    /**
+     * Get the largest X value in the table
+     *
+     * @return Maximum X
+     */
+    public double getMaxX() {
+        return m_xs[m_xs.length - 1];
+    }
+
+    /**
+     * Calculate Fritsch-Carlson tangents, so the curve never overshoots the points
+     *
+     * @param xs Sorted X values
+     * @param ys Y values
+     * @return Tangent at each point
+     */
+    private static double[] calculateTangents(double[] xs, double[] ys) {
+        int n = xs.length;
+        double[] tangents = new double[n];
+
+        if (n < 2) {
+            return tangents;
+        }
+
+        // Find the slope of each segment
+        double[] slopes = new double[n - 1];
+        for (int i = 0; i < n - 1; i++) {
+            slopes[i] = (ys[i + 1] - ys[i]) / (xs[i + 1] - xs[i]);
+        }
+
+        // Start with the average of the neighbouring slopes, or flat at extrema
+        tangents[0] = slopes[0];
+        tangents[n - 1] = slopes[n - 2];
+        for (int i = 1; i < n - 1; i++) {
+            tangents[i] = (slopes[i - 1] * slopes[i] <= 0) ? 0.0 : (slopes[i - 1] + slopes[i]) / 2;
+        }
+
+        // Limit the tangents to keep each segment monotonic
+        for (int i = 0; i < n - 1; i++) {
+            if (slopes[i] == 0.0) {
+                tangents[i] = 0.0;
+                tangents[i + 1] = 0.0;
+                continue;
+            }
+
+            double a = tangents[i] / slopes[i];
+            double b = tangents[i + 1] / slopes[i];
+            double magnitude = Math.hypot(a, b);
+            if (magnitude > 3.0) {
+                double tau = 3.0 / magnitude;
+                tangents[i] = tau * a * slopes[i];
+                tangents[i + 1] = tau * b * slopes[i];
+            }
+        }
+
+        return tangents;
+    }
+}
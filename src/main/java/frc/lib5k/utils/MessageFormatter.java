@@ -0,0 +1,203 @@
+package frc.lib5k.utils;
+
+/**
+ * A garbage-free message formatter for log and telemetry messages. <br>
+ * <br>
+ * Messages are built from a template, where each "{}" is replaced by the next
+ * argument. Arguments are primitives, so nothing is boxed, and the message is
+ * written into a builder owned by the calling thread. The result is only valid
+ * until the same thread formats another message, so it should be handed
+ * straight to something that copies it, like {@link RobotLogger}. <br>
+ * <br>
+ * Example: <br>
+ * <code>logger.log("DriveTrain", MessageFormatter.format("Ramp rate: {}s").arg(rate, 2));</code>
+ */
+public class MessageFormatter implements CharSequence {
+
+    /** Largest number of decimal places that can be formatted */
+    public static final int MAX_DECIMALS = 9;
+
+    /** Powers of ten, for fixed-point formatting */
+    private static final long[] POWERS_OF_TEN = { 1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L,
+            10_000_000L, 100_000_000L, 1_000_000_000L };
+
+    // One formatter per thread
+    private static final ThreadLocal<MessageFormatter> s_formatters = ThreadLocal.withInitial(MessageFormatter::new);
+
+    // Message being built
+    private final StringBuilder m_builder = new StringBuilder(256);
+
+    /* Template state */
+    private String m_template = "";
+    private int m_templateIndex = 0;
+
+    private MessageFormatter() {
+
+    }
+
+    /**
+     * Start formatting a message with this thread's formatter
+     *
+     * @param template Message template. Each "{}" is replaced by the next argument
+     * @return Formatter
+     */
+    public static MessageFormatter format(String template) {
+        MessageFormatter formatter = s_formatters.get();
+        formatter.begin(template);
+        return formatter;
+    }
+
+    /**
+     * Reset the builder, and copy the template up to its first placeholder
+     *
+     * @param template Message template
+     */
+    private void begin(String template) {
+        m_builder.setLength(0);
+        m_template = template;
+        m_templateIndex = 0;
+        copyTemplate();
+    }
+
+    /**
+     * Copy the template up to its next placeholder, and skip over the placeholder
+     */
+    private void copyTemplate() {
+        int placeholder = m_template.indexOf("{}", m_templateIndex);
+        int end = (placeholder < 0) ? m_template.length() : placeholder;
+
+        m_builder.append(m_template, m_templateIndex, end);
+        m_templateIndex = (placeholder < 0) ? end : placeholder + 2;
+    }
+
+    /**
+     * Add a number with a fixed number of decimal places
+     *
+     * @param value    Value
+     * @param decimals Decimal places [0-9]
+     * @return This formatter
+     */
+    public MessageFormatter arg(double value, int decimals) {
+        appendFixed(m_builder, value, decimals);
+        copyTemplate();
+        return this;
+    }
+
+    /**
+     * Add a number with two decimal places
+     *
+     * @param value Value
+     * @return This formatter
+     */
+    public MessageFormatter arg(double value) {
+        return arg(value, 2);
+    }
+
+    /**
+     * Add a whole number
+     *
+     * @param value Value
+     * @return This formatter
+     */
+    public MessageFormatter arg(long value) {
+        m_builder.append(value);
+        copyTemplate();
+        return this;
+    }
+
+    /**
+     * Add a boolean
+     *
+     * @param value Value
+     * @return This formatter
+     */
+    public MessageFormatter arg(boolean value) {
+        m_builder.append(value);
+        copyTemplate();
+        return this;
+    }
+
+    /**
+     * Add a character
+     *
+     * @param value Value
+     * @return This formatter
+     */
+    public MessageFormatter arg(char value) {
+        m_builder.append(value);
+        copyTemplate();
+        return this;
+    }
+
+    /**
+     * Add some text
+     *
+     * @param value Text
+     * @return This formatter
+     */
+    public MessageFormatter arg(CharSequence value) {
+        m_builder.append(value);
+        copyTemplate();
+        return this;
+    }
+
+    /**
+     * Append a number with a fixed number of decimal places, like "%.2f", without
+     * allocating. Values too large to scale into a long fall back to
+     * StringBuilder's own formatting.
+     *
+     * @param builder  Builder to append to
+     * @param value    Value
+     * @param decimals Decimal places [0-9]
+     */
+    public static void appendFixed(StringBuilder builder, double value, int decimals) {
+        decimals = Math.max(0, Math.min(decimals, MAX_DECIMALS));
+        long scale = POWERS_OF_TEN[decimals];
+
+        // Handle values that can not be scaled
+        if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) * scale >= Long.MAX_VALUE / 2) {
+            builder.append(value);
+            return;
+        }
+
+        // Round to the wanted precision
+        long scaled = Math.round(Math.abs(value) * scale);
+        if (value < 0 && scaled != 0) {
+            builder.append('-');
+        }
+
+        // Write the whole part
+        builder.append(scaled / scale);
+        if (decimals == 0) {
+            return;
+        }
+
+        // Write the fraction, padded with leading zeros
+        builder.append('.');
+        long fraction = scaled % scale;
+        for (long place = scale / 10; place > 1 && fraction < place; place /= 10) {
+            builder.append('0');
+        }
+        builder.append(fraction);
+    }
+
+    @Override
+    public int length() {
+        return m_builder.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return m_builder.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return m_builder.subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return m_builder.toString();
+    }
+}
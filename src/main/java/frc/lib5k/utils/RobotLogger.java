@@ -1,8 +1,8 @@
 package frc.lib5k.utils;
 
 import java.io.File;
-import java.util.ArrayList;
 import edu.wpi.first.wpilibj.Notifier;
+import frc.lib5k.logging.LogRing;
 import frc.lib5k.logging.USBLogger;
 import frc.lib5k.roborio.FPGAClock;
 
@@ -10,11 +10,24 @@ import frc.lib5k.roborio.FPGAClock;
  * A threaded logger for use by all robot functions
  */
 public class RobotLogger {
-    private static RobotLogger instance = null;
+    private static class Holder {
+        private static final RobotLogger INSTANCE = new RobotLogger();
+    }
+
     private Notifier notifier;
-    ArrayList<String> periodic_buffer = new ArrayList<String>();
     private USBLogger m_usbLogger;
 
+    /* Queued log records. Producers never format or allocate, the notifier does */
+    private static final int RING_CAPACITY = 1024;
+    private static final int MAX_MESSAGE_LENGTH = 256;
+    private LogRing m_ring = new LogRing(RING_CAPACITY, MAX_MESSAGE_LENGTH);
+    private LogRing.RecordHandler m_drainHandler = this::pushRecord;
+    private StringBuilder m_lineBuilder = new StringBuilder(MAX_MESSAGE_LENGTH * 2);
+    private long m_lastDroppedCount = 0;
+
+    // Levels by ordinal. Level.values() copies the array on every call
+    private static final Level[] LEVELS = Level.values();
+
     /**
      * Log level
      * 
@@ -59,10 +72,7 @@ public class RobotLogger {
      * @return The current RobotLogger
      */
     public static RobotLogger getInstance() {
-        if (instance == null) {
-            instance = new RobotLogger();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
 
     /**
@@ -79,23 +89,28 @@ public class RobotLogger {
         log("", msg, log_level);
     }
 
-    public void log(String component, String msg) {
+    public void log(String component, CharSequence msg) {
         log(component, msg, Level.kInfo);
     }
 
     /**
      * Logs a message to netconsole with a custom log level. The kRobot level will
      * immediately push to the console, everything else is queued until the next
-     * notifier cycle
+     * notifier cycle. <br>
+     * <br>
+     * The message is copied before this returns, so it can be a reused builder,
+     * like a {@link MessageFormatter}. Queued messages are copied without
+     * allocating.
      * 
      * @param msg       The message to log
      * @param log_level the Level to log the message at
      */
-    public void log(String component, String msg, Level log_level) {
-        String display_string = toString(component, msg, log_level);
+    public void log(String component, CharSequence msg, Level log_level) {
 
         // If the log level is kRobot, just print to netconsole, then return
         if (log_level == Level.kRobot) {
+            String display_string = toString(component, msg, log_level);
+
             // Check if we should log to USB
             if (m_usbLogger != null) {
                 m_usbLogger.writeln(display_string);
@@ -105,32 +120,74 @@ public class RobotLogger {
             return;
         }
 
-        // Add log to the periodic_buffer
-        this.periodic_buffer.add(display_string);
+        // Queue the raw record. Formatting is deferred to the notifier thread
+        m_ring.push(log_level.ordinal(), component, FPGAClock.getFPGASeconds(), msg);
+
+    }
 
+    /**
+     * Get the number of queued messages that were dropped because the queue
+     * overflowed
+     * 
+     * @return Dropped message count
+     */
+    public long getDroppedCount() {
+        return m_ring.getDroppedCount();
     }
 
     /**
-     * Push all queued messages to netconsole, the clear the buffer
+     * Push all queued messages to netconsole
      */
     private void pushLogs() {
-        double time = FPGAClock.getFPGASeconds();
 
-        try {
-            for (String x : this.periodic_buffer) {
-                
-                System.out.println(x);
+        // Format and print every queued record
+        m_ring.drain(m_drainHandler);
 
-                // Check if we should log to USB
-                if (m_usbLogger != null) {
-                    m_usbLogger.writeln(String.format("[%.2f] %s", time, x));
-                }
-            }
-            periodic_buffer.clear();
-        } catch (Exception e) {
-            System.out.println("Tried to push concurrently");
+        // Report any messages lost since the last push
+        long dropped = m_ring.getDroppedCount();
+        if (dropped != m_lastDroppedCount) {
+            System.out.println(String.format("WARNING: [RobotLogger] Dropped %d log messages",
+                    dropped - m_lastDroppedCount));
+            m_lastDroppedCount = dropped;
+        }
+
+    }
+
+    /**
+     * Format and output a single queued record
+     * 
+     * @param level     Log level ordinal
+     * @param component Component name
+     * @param timestamp Time the message was logged
+     * @param payload   Message characters
+     * @param length    Message length
+     */
+    private void pushRecord(int level, String component, double timestamp, char[] payload, int length) {
+
+        USBLogger usbLogger = m_usbLogger;
+        m_lineBuilder.setLength(0);
+
+        // USB log lines start with the timestamp
+        if (usbLogger != null) {
+            m_lineBuilder.append('[');
+            MessageFormatter.appendFixed(m_lineBuilder, timestamp, 2);
+            m_lineBuilder.append("] ");
+        }
+        int lineStart = m_lineBuilder.length();
+
+        // Build the display string
+        m_lineBuilder.append(getLevelPrefix(LEVELS[level]));
+        if (!component.equals("")) {
+            m_lineBuilder.append('[').append(component).append(']');
         }
+        m_lineBuilder.append(' ').append(payload, 0, length);
+
+        System.out.println(m_lineBuilder.substring(lineStart));
 
+        // Check if we should log to USB
+        if (usbLogger != null) {
+            usbLogger.writeln(m_lineBuilder.toString());
+        }
     }
 
     /**
@@ -141,30 +198,34 @@ public class RobotLogger {
      * 
      * @return The formatted output string
      */
-    private String toString(String component, String msg, Level log_level) {
-        String level_str;
+    private String toString(String component, CharSequence msg, Level log_level) {
+        return String.format("%s%s %s", getLevelPrefix(log_level),
+                (component.equals("")) ? component : "[" + component + "]", msg);
+    }
+
+    /**
+     * Get the display prefix for a Level
+     * 
+     * @param log_level The Level
+     * 
+     * @return Prefix string
+     */
+    private static String getLevelPrefix(Level log_level) {
 
         // Turn enum level into string
         switch (log_level) {
         case kInfo:
-            // level_str = "INFO: ";
-            level_str = "";
-            break;
+            // return "INFO: ";
+            return "";
         case kWarning:
-            level_str = "WARNING: ";
-            break;
+            return "WARNING: ";
         case kRobot:
-            level_str = "ROBOT: ";
-            break;
+            return "ROBOT: ";
         case kLibrary:
-            level_str = "LIBRARY: ";
-            break;
+            return "LIBRARY: ";
         default:
-            level_str = "";
-            break;
+            return "";
         }
-
-        return String.format("%s%s %s", level_str, (component.equals("")) ? component : "[" + component + "]", msg);
     }
 
 }
\ No newline at end of file
@@ -4,7 +4,9 @@ import edu.wpi.first.networktables.NetworkTable;
 import edu.wpi.first.networktables.NetworkTableInstance;
 
 public class ComponentTelemetry {
-    private static ComponentTelemetry m_instance = null;
+    private static class Holder {
+        private static final ComponentTelemetry INSTANCE = new ComponentTelemetry();
+    }
 
     private String baseTable = "Lib5K-Telemetry";
     private String componentsTable = "Components";
@@ -13,11 +15,7 @@ public class ComponentTelemetry {
     }
 
     public static ComponentTelemetry getInstance() {
-        if (m_instance == null) {
-            m_instance = new ComponentTelemetry();
-        }
-
-        return m_instance;
+        return Holder.INSTANCE;
     }
 
     /**
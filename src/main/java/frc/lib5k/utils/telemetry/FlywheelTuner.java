@@ -1,13 +1,28 @@
 package frc.lib5k.utils.telemetry;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.function.DoubleSupplier;
 
 import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEntry;
+import frc.lib5k.utils.RobotLogger;
+import frc.lib5k.utils.RobotLogger.Level;
+import frc.lib5k.utils.telemetry.TelemetryPublisher.Rate;
 
 /**
  * A utility class for providing data to a robot telemetry client
  */
 public class FlywheelTuner {
+    private RobotLogger logger = RobotLogger.getInstance();
+
+    // Number of shot samples that can wait to be written
+    private static final int SAMPLE_QUEUE_SIZE = 32;
 
     // Loop trackers
     private boolean m_enabled, m_doLogs = false;
@@ -17,10 +32,20 @@ public class FlywheelTuner {
 
     // Component telemetry table
     private NetworkTable m_telemTable;
+    private NetworkTableEntry m_enabledEntry, m_shotMadeEntry, m_shotMissedEntry;
+    private boolean m_publishing = false;
 
     // Tracker for system setpoints
     private double setpoint = 0.0;
 
+    /* Shot recording */
+    private DoubleSupplier m_distanceSource = null;
+    private volatile Path m_samplePath;
+
+    /* Sample writer thread */
+    private ArrayBlockingQueue<String> m_samples = new ArrayBlockingQueue<>(SAMPLE_QUEUE_SIZE);
+    private Thread m_writer = null;
+
     /**
      * Create a FlywheelTuner server
      * 
@@ -32,6 +57,9 @@ public class FlywheelTuner {
 
         // Connect to component telemetry
         m_telemTable = ComponentTelemetry.getInstance().getTableForComponent(String.format("FlywheelTuner-%s", name));
+        m_enabledEntry = m_telemTable.getEntry("enabled");
+        m_shotMadeEntry = m_telemTable.getEntry("shotMade");
+        m_shotMissedEntry = m_telemTable.getEntry("shotMissed");
 
     }
 
@@ -42,7 +70,17 @@ public class FlywheelTuner {
      */
     public void setEnabled(boolean enabled) {
         m_enabled = enabled;
-        m_telemTable.getEntry("enabled").setBoolean(enabled);
+        m_enabledEntry.setBoolean(enabled);
+
+        // Start publishing in the background the first time the tuner is enabled
+        if (enabled && !m_publishing) {
+            m_publishing = true;
+            TelemetryPublisher publisher = TelemetryPublisher.getInstance();
+            publisher.addBoolean(m_telemTable, "running", () -> m_enabled && m_doLogs, Rate.kMedium);
+            publisher.addDouble(m_telemTable, "rpm", this::getPublishedRPM, Rate.kFast, 1.0);
+            publisher.addDouble(m_telemTable, "setpoint", () -> setpoint, Rate.kMedium, 1.0);
+            publisher.addDouble(m_telemTable, "distance", this::getPublishedDistance, Rate.kMedium, 0.01);
+        }
 
     }
 
@@ -56,6 +94,79 @@ public class FlywheelTuner {
 
     }
 
+    /**
+     * Enable shot recording. While the tuner is enabled, setting the "shotMade" or
+     * "shotMissed" entries to true records a (distance, setpoint, rpm, made)
+     * sample to a CSV file. Samples are written on their own thread, so the
+     * robot loop never waits on the disk.
+     * 
+     * @param distanceSource Distance to target supplier
+     * @param path           File to append samples to
+     */
+    public void enableShotRecording(DoubleSupplier distanceSource, String path) {
+        m_distanceSource = distanceSource;
+        m_samplePath = Paths.get(path);
+
+        // Clear the shot buttons
+        m_shotMadeEntry.setBoolean(false);
+        m_shotMissedEntry.setBoolean(false);
+
+        // Start the sample writer
+        if (m_writer == null) {
+            m_writer = new Thread(this::writeSamples, "Lib5K FlywheelTuner");
+            m_writer.setDaemon(true);
+            m_writer.start();
+        }
+    }
+
+    /**
+     * Record a shot sample. The sample is queued, and written by the writer thread
+     * 
+     * @param made Did the shot score?
+     */
+    public void recordShot(boolean made) {
+        if (m_distanceSource == null) {
+            return;
+        }
+
+        double distance = m_distanceSource.getAsDouble();
+        String sample = String.format("%.3f,%.1f,%.1f,%d%n", distance, setpoint, m_rpmSource.getAsDouble(),
+                (made) ? 1 : 0);
+
+        if (!m_samples.offer(sample)) {
+            logger.log("FlywheelTuner", "Shot sample queue is full, dropping sample", Level.kWarning);
+            return;
+        }
+
+        logger.log("FlywheelTuner", String.format("Recorded %s shot at %.2fm with %.0fRPM setpoint",
+                (made) ? "made" : "missed", distance, setpoint));
+    }
+
+    /**
+     * Append queued samples to the sample file. Runs on the writer thread.
+     */
+    private void writeSamples() {
+        while (true) {
+            String sample;
+            try {
+                sample = m_samples.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            try {
+                Path path = m_samplePath;
+                if (path.getParent() != null) {
+                    Files.createDirectories(path.getParent());
+                }
+                Files.write(path, sample.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                logger.log("FlywheelTuner", "Failed to write shot sample: " + e.getMessage(), Level.kWarning);
+            }
+        }
+    }
+
     /**
      * Set the controller setpoint var
      * 
@@ -66,19 +177,39 @@ public class FlywheelTuner {
     }
 
     /**
-     * Update the output
+     * Get the RPM to publish. This is only published while logging.
+     *
+     * @return RPM, or 0 when not logging
+     */
+    private double getPublishedRPM() {
+        return (m_enabled && m_doLogs) ? m_rpmSource.getAsDouble() : 0.0;
+    }
+
+    /**
+     * Get the target distance to publish, if shot recording is enabled
+     *
+     * @return Distance, or 0 without shot recording
+     */
+    private double getPublishedDistance() {
+        return (m_enabled && m_distanceSource != null) ? m_distanceSource.getAsDouble() : 0.0;
+    }
+
+    /**
+     * Update the tuner. Values are published by the {@link TelemetryPublisher},
+     * this only handles the shot recording buttons.
      */
     public void update() {
         // Make sure we are enabled
-        if (m_enabled) {
+        if (m_enabled && m_distanceSource != null) {
 
-            // Publish the logger state
-            m_telemTable.getEntry("running").setBoolean(m_doLogs);
-
-            // If we should be logging, publish the rpm data
-            if (m_doLogs) {
-                m_telemTable.getEntry("rpm").setDouble(m_rpmSource.getAsDouble());
-                m_telemTable.getEntry("setpoint").setDouble(setpoint);
+            // Handle shot recording
+            if (m_shotMadeEntry.getBoolean(false)) {
+                m_shotMadeEntry.setBoolean(false);
+                recordShot(true);
+            }
+            if (m_shotMissedEntry.getBoolean(false)) {
+                m_shotMissedEntry.setBoolean(false);
+                recordShot(false);
             }
         }
 
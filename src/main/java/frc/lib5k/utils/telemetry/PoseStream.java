@@ -0,0 +1,323 @@
+package frc.lib5k.utils.telemetry;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.DatagramChannel;
+
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.Notifier;
+import frc.lib5k.kinematics.purepursuit.Path;
+import frc.lib5k.loops.loopers.SharedState;
+import frc.lib5k.utils.RobotLogger;
+import frc.lib5k.utils.RobotLogger.Level;
+
+/**
+ * Streams the robot pose, and any path being followed, to field visualizers.
+ * <br>
+ * <br>
+ * Pose samples are published to NetworkTables as a double array of
+ * {@code [x, y, theta, timestamp, lookaheadX, lookaheadY]} (meters, radians,
+ * seconds, with NaN lookahead when no path is being followed), and the path as
+ * a flat {@code [x0, y0, x1, y1, ...]} array. Optionally, every sample is also
+ * sent over UDP as a packed little-endian struct: <br>
+ * <br>
+ * Header (8 bytes): {@code uint16 magic, uint8 type, uint8 version, uint32
+ * sequence} <br>
+ * Pose (type 1): header, then the 6 sample values as float64 <br>
+ * Path (type 2): header, then {@code uint32 count}, then count (x, y) float64
+ * pairs <br>
+ * <br>
+ * Pose samples are handed over through a {@link SharedState}, so the control
+ * loop can update the stream every cycle without blocking or allocating.
+ * Sending happens on the stream's own thread.
+ */
+public class PoseStream {
+    private RobotLogger logger = RobotLogger.getInstance();
+    private static class Holder {
+        private static final PoseStream INSTANCE = new PoseStream();
+    }
+
+    /** Packet magic ("5K") */
+    public static final int MAGIC = 0x4B35;
+
+    /** Protocol version */
+    public static final int VERSION = 1;
+
+    /* Packet types */
+    public static final int TYPE_POSE = 1;
+    public static final int TYPE_PATH = 2;
+
+    /* Packet layout */
+    public static final int HEADER_SIZE = 8;
+    public static final int SAMPLE_SIZE = 6;
+    public static final int POSE_PACKET_SIZE = HEADER_SIZE + (SAMPLE_SIZE * Double.BYTES);
+    public static final int MAX_PATH_POINTS = 64;
+    public static final int MAX_PACKET_SIZE = HEADER_SIZE + Integer.BYTES + (MAX_PATH_POINTS * 2 * Double.BYTES);
+
+    /* Sample indices */
+    public static final int SAMPLE_X = 0;
+    public static final int SAMPLE_Y = 1;
+    public static final int SAMPLE_THETA = 2;
+    public static final int SAMPLE_TIMESTAMP = 3;
+    public static final int SAMPLE_LOOKAHEAD_X = 4;
+    public static final int SAMPLE_LOOKAHEAD_Y = 5;
+
+    /** NetworkTables publish period (seconds) */
+    private static final double NT_PERIOD = 0.02;
+
+    /** Time between path resends, for clients that missed it (seconds) */
+    private static final double PATH_RESEND_PERIOD = 1.0;
+
+    /* Handoff from the control loop and command loop */
+    private SharedState m_pose = new SharedState(4);
+    private double[] m_poseWrite = new double[4];
+    private SharedState m_lookahead = new SharedState(2);
+    private double[] m_lookaheadWrite = new double[] { Double.NaN, Double.NaN };
+
+    /* Path, only replaced when a new path starts */
+    private final Object m_pathLock = new Object();
+    private double[] m_path = new double[0];
+    private int m_pathVersion = 0;
+
+    /* Stream thread state */
+    private Notifier m_thread;
+    private double m_period;
+    private double[] m_poseRead = new double[4];
+    private double[] m_lookaheadRead = new double[2];
+    private double[] m_sample = new double[SAMPLE_SIZE];
+    private long m_lastSequence = -1;
+    private long m_lastNTSequence = -1;
+    private int m_sentPathVersion = -1;
+    private int m_ticks = 0;
+    private int m_pathTicks = 0;
+    private long m_packetSequence = 0;
+
+    /* NetworkTables */
+    private NetworkTableEntry m_poseEntry;
+    private NetworkTableEntry m_pathEntry;
+
+    /* UDP */
+    private DatagramChannel m_channel = null;
+    private InetSocketAddress m_target;
+    private ByteBuffer m_buffer = ByteBuffer.allocateDirect(MAX_PACKET_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private long m_sendFailures = 0;
+
+    private PoseStream() {
+        NetworkTable table = NetworkTableInstance.getDefault().getTable("Lib5K-Telemetry").getSubTable("PoseStream");
+        m_poseEntry = table.getEntry("pose");
+        m_pathEntry = table.getEntry("path");
+
+        m_thread = new Notifier(this::send);
+        m_thread.setName("Lib5K PoseStream");
+    }
+
+    /**
+     * Get the PoseStream instance
+     *
+     * @return PoseStream
+     */
+    public static PoseStream getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Also send every sample over UDP. Must be called before {@link #start(double)}
+     *
+     * @param host Host to send to. Broadcast and multicast addresses are refused
+     * @param port Port to send to
+     */
+    public void enableUDP(String host, int port) {
+        try {
+            m_target = new InetSocketAddress(host, port);
+
+            // Poses are sent every few milliseconds, so must only go to one host
+            if (m_target.isUnresolved() || m_target.getAddress().isMulticastAddress()
+                    || host.equals("255.255.255.255")) {
+                logger.log("PoseStream", "Not streaming poses to " + host + ", it is not a single host",
+                        Level.kWarning);
+                return;
+            }
+
+            m_channel = DatagramChannel.open();
+            logger.log("PoseStream", String.format("Streaming poses to %s:%d", host, port), Level.kLibrary);
+        } catch (IOException e) {
+            logger.log("PoseStream", "Failed to open UDP stream: " + e.getMessage(), Level.kWarning);
+            m_channel = null;
+        }
+    }
+
+    /**
+     * Start streaming
+     *
+     * @param period Time between samples (seconds). NetworkTables is only updated
+     *               every 20ms
+     */
+    public void start(double period) {
+        m_period = period;
+        m_thread.startPeriodic(period);
+    }
+
+    /**
+     * Hand a new pose to the stream. Must only be called from a single thread,
+     * normally the drivetrain's control loop.
+     *
+     * @param x         X position (meters)
+     * @param y         Y position (meters)
+     * @param theta     Heading (radians)
+     * @param timestamp Time of the pose (seconds)
+     */
+    public void update(double x, double y, double theta, double timestamp) {
+        m_poseWrite[0] = x;
+        m_poseWrite[1] = y;
+        m_poseWrite[2] = theta;
+        m_poseWrite[3] = timestamp;
+        m_pose.publish(m_poseWrite);
+    }
+
+    /**
+     * Start showing a path being followed
+     *
+     * @param path Path
+     */
+    public void setPath(Path path) {
+
+        // Keep the path under the packet size, spreading the points evenly and always
+        // including both ends
+        int count = path.getPointCount();
+        int size = Math.min(count, MAX_PATH_POINTS);
+        double[] points = new double[size * 2];
+        for (int i = 0; i < size; i++) {
+            int index = (size == 1) ? 0 : (int) Math.round((double) i * (count - 1) / (size - 1));
+            points[i * 2] = path.getX(index);
+            points[(i * 2) + 1] = path.getY(index);
+        }
+
+        synchronized (m_pathLock) {
+            m_path = points;
+            m_pathVersion++;
+        }
+    }
+
+    /**
+     * Show the current lookahead point on the path. Must only be called from a
+     * single thread. Autonomous actions get the stream from the real robot, so
+     * only commands run by the scheduler call this.
+     *
+     * @param x Lookahead X (meters)
+     * @param y Lookahead Y (meters)
+     */
+    public void setLookahead(double x, double y) {
+        m_lookaheadWrite[0] = x;
+        m_lookaheadWrite[1] = y;
+        m_lookahead.publish(m_lookaheadWrite);
+    }
+
+    /**
+     * Stop showing a path and lookahead point. Must be called from the same thread
+     * as {@link #setLookahead(double, double)}
+     */
+    public void clearPath() {
+        synchronized (m_pathLock) {
+            m_path = new double[0];
+            m_pathVersion++;
+        }
+
+        setLookahead(Double.NaN, Double.NaN);
+    }
+
+    /**
+     * Send the latest sample, and the path if it changed
+     */
+    private void send() {
+
+        // Build the latest sample
+        long sequence = m_pose.read(m_poseRead);
+        m_lookahead.read(m_lookaheadRead);
+        m_sample[SAMPLE_X] = m_poseRead[0];
+        m_sample[SAMPLE_Y] = m_poseRead[1];
+        m_sample[SAMPLE_THETA] = m_poseRead[2];
+        m_sample[SAMPLE_TIMESTAMP] = m_poseRead[3];
+        m_sample[SAMPLE_LOOKAHEAD_X] = m_lookaheadRead[0];
+        m_sample[SAMPLE_LOOKAHEAD_Y] = m_lookaheadRead[1];
+
+        // Stream every new sample
+        if (sequence != m_lastSequence) {
+            m_lastSequence = sequence;
+
+            if (m_channel != null) {
+                writeHeader(TYPE_POSE);
+                for (int i = 0; i < SAMPLE_SIZE; i++) {
+                    m_buffer.putDouble(m_sample[i]);
+                }
+                sendBuffer();
+            }
+        }
+
+        // Publish to NT at a lower rate
+        m_ticks++;
+        if (m_ticks * m_period >= NT_PERIOD - 1e-9) {
+            m_ticks = 0;
+
+            if (sequence != m_lastNTSequence) {
+                m_lastNTSequence = sequence;
+                m_poseEntry.setDoubleArray(m_sample);
+            }
+        }
+
+        // Send the path when it changes, and now and then for late clients
+        m_pathTicks++;
+        synchronized (m_pathLock) {
+            if (m_pathVersion != m_sentPathVersion || m_pathTicks * m_period >= PATH_RESEND_PERIOD) {
+                m_pathTicks = 0;
+
+                if (m_pathVersion != m_sentPathVersion) {
+                    m_pathEntry.setDoubleArray(m_path);
+                    m_sentPathVersion = m_pathVersion;
+                }
+
+                if (m_channel != null) {
+                    writeHeader(TYPE_PATH);
+                    m_buffer.putInt(m_path.length / 2);
+                    for (double value : m_path) {
+                        m_buffer.putDouble(value);
+                    }
+                    sendBuffer();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reset the packet buffer, and write a header
+     *
+     * @param type Packet type
+     */
+    private void writeHeader(int type) {
+        m_buffer.clear();
+        m_buffer.putShort((short) MAGIC);
+        m_buffer.put((byte) type);
+        m_buffer.put((byte) VERSION);
+        m_buffer.putInt((int) m_packetSequence++);
+    }
+
+    /**
+     * Send the packet buffer
+     */
+    private void sendBuffer() {
+        m_buffer.flip();
+
+        try {
+            m_channel.send(m_buffer, m_target);
+        } catch (IOException e) {
+
+            // Only log the first failure, as the client may just not be running
+            if (m_sendFailures++ == 0) {
+                logger.log("PoseStream", "Failed to send pose: " + e.getMessage(), Level.kWarning);
+            }
+        }
+    }
+}
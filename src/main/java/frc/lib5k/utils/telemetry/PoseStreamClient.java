@@ -0,0 +1,85 @@
+package frc.lib5k.utils.telemetry;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Test client for the {@link PoseStream} UDP channel. <br>
+ * <br>
+ * Usage: <code>PoseStreamClient [port]</code>. Once a second, prints the
+ * received sample rate, any dropped packets, and the latest pose. Path packets
+ * are printed as they arrive.
+ */
+public class PoseStreamClient {
+
+    public static void main(String[] args) throws IOException {
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : 5806;
+
+        DatagramChannel channel = DatagramChannel.open();
+        channel.bind(new InetSocketAddress(port));
+        System.out.println(String.format("Listening for poses on port %d", port));
+
+        ByteBuffer buffer = ByteBuffer.allocate(PoseStream.MAX_PACKET_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        double[] sample = new double[PoseStream.SAMPLE_SIZE];
+        long lastSequence = -1;
+        int poses = 0;
+        int dropped = 0;
+        long lastPrint = System.nanoTime();
+
+        while (true) {
+            buffer.clear();
+            channel.receive(buffer);
+            buffer.flip();
+
+            // Check the header
+            if (buffer.remaining() < PoseStream.HEADER_SIZE || (buffer.getShort() & 0xFFFF) != PoseStream.MAGIC) {
+                continue;
+            }
+            int type = buffer.get();
+            int version = buffer.get();
+            long sequence = buffer.getInt() & 0xFFFFFFFFL;
+            if (version != PoseStream.VERSION) {
+                System.out.println(String.format("Unsupported protocol version %d", version));
+                continue;
+            }
+
+            // Count packets lost since the last one
+            if (lastSequence >= 0 && sequence > lastSequence + 1) {
+                dropped += sequence - lastSequence - 1;
+            }
+            lastSequence = sequence;
+
+            if (type == PoseStream.TYPE_POSE) {
+                for (int i = 0; i < sample.length; i++) {
+                    sample[i] = buffer.getDouble();
+                }
+                poses++;
+
+            } else if (type == PoseStream.TYPE_PATH) {
+                int count = buffer.getInt();
+                StringBuilder points = new StringBuilder();
+                for (int i = 0; i < count; i++) {
+                    points.append(String.format(" (%.2f, %.2f)", buffer.getDouble(), buffer.getDouble()));
+                }
+                System.out.println(String.format("Path with %d points:%s", count, points));
+            }
+
+            // Print the rate and latest pose once a second
+            long now = System.nanoTime();
+            double elapsed = (now - lastPrint) / 1e9;
+            if (elapsed >= 1.0) {
+                System.out.println(String.format(
+                        "%.1f poses/s, %d dropped. x: %.3f y: %.3f theta: %.2f deg t: %.3f lookahead: (%.2f, %.2f)",
+                        poses / elapsed, dropped, sample[PoseStream.SAMPLE_X], sample[PoseStream.SAMPLE_Y],
+                        Math.toDegrees(sample[PoseStream.SAMPLE_THETA]), sample[PoseStream.SAMPLE_TIMESTAMP],
+                        sample[PoseStream.SAMPLE_LOOKAHEAD_X], sample[PoseStream.SAMPLE_LOOKAHEAD_Y]));
+                poses = 0;
+                dropped = 0;
+                lastPrint = now;
+            }
+        }
+    }
+}
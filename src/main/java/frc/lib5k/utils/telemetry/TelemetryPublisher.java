@@ -0,0 +1,210 @@
+package frc.lib5k.utils.telemetry;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.wpilibj.Notifier;
+import frc.lib5k.utils.RobotLogger;
+import frc.lib5k.utils.RobotLogger.Level;
+
+/**
+ * Publishes telemetry channels to NetworkTables from a background thread. <br>
+ * <br>
+ * Each channel's NetworkTableEntry is resolved once, when it is added. Channels
+ * are sampled from their suppliers at their rate class, and a sample is only
+ * written to NetworkTables if it moved further than the channel's deadband
+ * from the last published value. Nothing allocates after the channels are
+ * added. <br>
+ * <br>
+ * Suppliers are called from the publisher thread, so they should only read
+ * state, and should be cheap.
+ */
+public class TelemetryPublisher {
+    private RobotLogger logger = RobotLogger.getInstance();
+    private static class Holder {
+        private static final TelemetryPublisher INSTANCE = new TelemetryPublisher();
+    }
+
+    /**
+     * How often a channel is sampled
+     */
+    public enum Rate {
+        /** 50Hz */
+        kFast(1),
+
+        /** 10Hz */
+        kMedium(5),
+
+        /** 1Hz */
+        kSlow(50);
+
+        // Publisher cycles between samples
+        private final int cycles;
+
+        private Rate(int cycles) {
+            this.cycles = cycles;
+        }
+    }
+
+    /** Publisher period (seconds), matching the fastest rate class */
+    public static final double PERIOD = 0.02;
+
+    /* Channel types */
+    private static final int TYPE_DOUBLE = 0;
+    private static final int TYPE_BOOLEAN = 1;
+
+    /* Channels, in parallel arrays */
+    private int m_size = 0;
+    private NetworkTableEntry[] m_entries = new NetworkTableEntry[16];
+    private DoubleSupplier[] m_doubleSources = new DoubleSupplier[16];
+    private BooleanSupplier[] m_booleanSources = new BooleanSupplier[16];
+    private int[] m_types = new int[16];
+    private int[] m_cycles = new int[16];
+    private double[] m_deadbands = new double[16];
+    private double[] m_lastValues = new double[16];
+    private boolean[] m_hasPublished = new boolean[16];
+
+    /* Publishing */
+    private Notifier m_thread;
+    private long m_cycle = 0;
+    private long m_writes = 0;
+    private long m_skips = 0;
+
+    private TelemetryPublisher() {
+        m_thread = new Notifier(this::publish);
+        m_thread.setName("Lib5K TelemetryPublisher");
+    }
+
+    /**
+     * Get the TelemetryPublisher instance
+     *
+     * @return TelemetryPublisher
+     */
+    public static TelemetryPublisher getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Start publishing
+     */
+    public void start() {
+        logger.log("TelemetryPublisher", String.format("Starting publisher with %d channels", m_size),
+                Level.kLibrary);
+        m_thread.startPeriodic(PERIOD);
+    }
+
+    /**
+     * Add a number channel
+     *
+     * @param table    Table to publish to
+     * @param key      Entry name
+     * @param source   Value supplier, called from the publisher thread
+     * @param rate     How often to sample the value
+     * @param deadband Smallest change that gets published
+     */
+    public void addDouble(NetworkTable table, String key, DoubleSupplier source, Rate rate, double deadband) {
+        addChannel(table.getEntry(key), TYPE_DOUBLE, rate, deadband, source, null);
+    }
+
+    /**
+     * Add a boolean channel. Booleans are published whenever they change.
+     *
+     * @param table  Table to publish to
+     * @param key    Entry name
+     * @param source Value supplier, called from the publisher thread
+     * @param rate   How often to sample the value
+     */
+    public void addBoolean(NetworkTable table, String key, BooleanSupplier source, Rate rate) {
+        addChannel(table.getEntry(key), TYPE_BOOLEAN, rate, 0.0, null, source);
+    }
+
+    /**
+     * Add a channel, growing the arrays if needed. The source is stored under the
+     * same lock as the rest of the channel, so the publisher never sees a channel
+     * without one.
+     *
+     * @param entry         Resolved entry
+     * @param type          Channel type
+     * @param rate          Rate class
+     * @param deadband      Deadband
+     * @param doubleSource  Source for number channels
+     * @param booleanSource Source for boolean channels
+     */
+    private synchronized void addChannel(NetworkTableEntry entry, int type, Rate rate, double deadband,
+            DoubleSupplier doubleSource, BooleanSupplier booleanSource) {
+
+        // Grow every array together
+        if (m_size == m_entries.length) {
+            int capacity = m_size * 2;
+            m_entries = Arrays.copyOf(m_entries, capacity);
+            m_doubleSources = Arrays.copyOf(m_doubleSources, capacity);
+            m_booleanSources = Arrays.copyOf(m_booleanSources, capacity);
+            m_types = Arrays.copyOf(m_types, capacity);
+            m_cycles = Arrays.copyOf(m_cycles, capacity);
+            m_deadbands = Arrays.copyOf(m_deadbands, capacity);
+            m_lastValues = Arrays.copyOf(m_lastValues, capacity);
+            m_hasPublished = Arrays.copyOf(m_hasPublished, capacity);
+        }
+
+        int channel = m_size++;
+        m_entries[channel] = entry;
+        m_doubleSources[channel] = doubleSource;
+        m_booleanSources[channel] = booleanSource;
+        m_types[channel] = type;
+        m_cycles[channel] = rate.cycles;
+        m_deadbands[channel] = deadband;
+        m_hasPublished[channel] = false;
+    }
+
+    /**
+     * Sample every due channel, and publish the ones that changed
+     */
+    private synchronized void publish() {
+
+        for (int i = 0; i < m_size; i++) {
+
+            // Skip channels that are not due this cycle
+            if (m_cycle % m_cycles[i] != 0) {
+                continue;
+            }
+
+            // Sample the channel
+            double value;
+            if (m_types[i] == TYPE_BOOLEAN) {
+                value = (m_booleanSources[i].getAsBoolean()) ? 1.0 : 0.0;
+            } else {
+                value = m_doubleSources[i].getAsDouble();
+            }
+
+            // Skip values within the deadband of the last published value
+            if (m_hasPublished[i] && (Math.abs(value - m_lastValues[i]) <= m_deadbands[i]
+                    || (Double.isNaN(value) && Double.isNaN(m_lastValues[i])))) {
+                m_skips++;
+                continue;
+            }
+
+            // Publish
+            if (m_types[i] == TYPE_BOOLEAN) {
+                m_entries[i].setBoolean(value != 0.0);
+            } else {
+                m_entries[i].setDouble(value);
+            }
+            m_lastValues[i] = value;
+            m_hasPublished[i] = true;
+            m_writes++;
+        }
+
+        m_cycle++;
+    }
+
+    /**
+     * Log how many samples were published, and how many were skipped as unchanged
+     */
+    public synchronized void logStatus() {
+        logger.log("TelemetryPublisher", String.format("%d channels, %d writes, %d unchanged samples skipped", m_size,
+                m_writes, m_skips), Level.kInfo);
+    }
+}
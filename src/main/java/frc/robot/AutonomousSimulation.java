@@ -0,0 +1,305 @@
+package frc.robot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.hal.sim.DriverStationSim;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.geometry.Pose2d;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.lib5k.components.gyroscopes.ADGyro;
+import frc.lib5k.components.sensors.SensorPoller;
+import frc.lib5k.loops.loopers.MultiRateLooper;
+import frc.lib5k.loops.loopers.RateTier;
+import frc.lib5k.loops.profiling.LoopProfiler;
+import frc.lib5k.roborio.PowerManager;
+import frc.lib5k.simulation.SteppedClock;
+import frc.robot.autonomous.Chooser;
+import frc.robot.autonomous.actions.DrivePath;
+import frc.robot.autonomous.paths.AutonomousPath;
+import frc.robot.subsystems.CellSuperstructure;
+import frc.robot.subsystems.Climber;
+import frc.robot.subsystems.DriveTrain;
+import frc.robot.subsystems.PanelManipulator;
+import frc.robot.subsystems.cellmech.Hopper;
+import frc.robot.subsystems.cellmech.Shooter;
+
+/**
+ * Runs every autonomous path headless, faster than real time. <br>
+ * <br>
+ * The lib5k and HAL clocks are replaced with a {@link SteppedClock}, and the
+ * clock is stepped in 5ms increments for the length of the autonomous period.
+ * The CommandScheduler runs in a 20ms tier, and the drivetrain and flywheel
+ * control loops in a 5ms tier, both stepped through the
+ * {@link MultiRateLooper} on this thread. The robot's sensors are driven by a
+ * {@link RobotPlant}, which is stepped after every clock step. Each path is
+ * reported with whether it finished, its final pose, how far odometry drifted
+ * from the simulated robot, its lowest battery voltage, the time the battery
+ * spent below the low voltage, the time spent shedding load, and its speed-up
+ * over real time. <br>
+ * <br>
+ * Usage: run with the desktop simulation natives on the library path, or
+ * through AutonomousSimulationTest.
+ * Optionally pass a path name to only run that path, --no-shedding to run
+ * without the {@link PowerManager} scaling any outputs, and --slow-loop to run
+ * the control loops in the 20ms tier, for comparison.
+ */
+public class AutonomousSimulation {
+
+    /* Timing */
+    private static final double PERIOD = 0.02;
+    private static final double STEP = RobotConstants.Loops.FAST_PERIOD;
+    public static final double AUTONOMOUS_LENGTH = 15.0;
+
+    /* Simulation */
+    private SteppedClock m_clock;
+    private RobotPlant m_plant;
+    private Chooser m_chooser;
+
+    /**
+     * How a single {@link DrivePath} ended
+     */
+    public static class DrivenPath {
+        public final boolean interrupted;
+        public final double endError;
+
+        public DrivenPath(boolean interrupted, double endError) {
+            this.interrupted = interrupted;
+            this.endError = endError;
+        }
+    }
+
+    /**
+     * The outcome of running a single path
+     */
+    public static class Result {
+        public final String name;
+        public final boolean finished;
+        public final double simTime;
+        public final double wallTime;
+        public final Pose2d pose;
+        public final double positionError;
+        public final double headingError;
+        public final List<DrivenPath> drivenPaths;
+        public final String summary;
+
+        public Result(String name, boolean finished, double simTime, double wallTime, Pose2d pose,
+                double positionError, double headingError, List<DrivenPath> drivenPaths, String summary) {
+            this.name = name;
+            this.finished = finished;
+            this.simTime = simTime;
+            this.wallTime = wallTime;
+            this.pose = pose;
+            this.positionError = positionError;
+            this.headingError = headingError;
+            this.drivenPaths = drivenPaths;
+            this.summary = summary;
+        }
+
+        /**
+         * Get how many times faster than real time the path ran
+         *
+         * @return Speed-up
+         */
+        public double getSpeedup() {
+            return simTime / Math.max(wallTime, 1e-9);
+        }
+    }
+
+    public static void main(String[] args) {
+
+        // Parse the arguments
+        String filter = null;
+        boolean shedding = true;
+        boolean slowLoop = false;
+        for (String arg : args) {
+            if (arg.equals("--no-shedding")) {
+                shedding = false;
+            } else if (arg.equals("--slow-loop")) {
+                slowLoop = true;
+            } else {
+                filter = arg;
+            }
+        }
+
+        AutonomousSimulation simulation = new AutonomousSimulation(shedding, slowLoop);
+        int failures = 0;
+
+        for (Map.Entry<String, AutonomousPath> entry : simulation.getPaths().entrySet()) {
+
+            // Skip unwanted paths
+            if (filter != null && !entry.getKey().contains(filter)) {
+                continue;
+            }
+
+            try {
+                System.out.println(simulation.runPath(entry.getKey(), entry.getValue()).summary);
+            } catch (Exception e) {
+                System.out.println(String.format("%s: failed with %s", entry.getKey(), e));
+                e.printStackTrace();
+                failures++;
+            }
+        }
+
+        simulation.close();
+        System.exit((failures == 0) ? 0 : 1);
+    }
+
+    /**
+     * Start the HAL and every subsystem, and take control of time. This can only
+     * be done once per process, as it sets up the robot's singletons.
+     *
+     * @param shedding Let the {@link PowerManager} scale outputs
+     * @param slowLoop Run the control loops in the 20ms tier
+     */
+    public AutonomousSimulation(boolean shedding, boolean slowLoop) {
+
+        // Start the HAL, and an enabled autonomous driverstation
+        HAL.initialize(500, 0);
+        DriverStationSim dsSim = new DriverStationSim();
+        dsSim.setDsAttached(true);
+        dsSim.setAutonomous(true);
+        dsSim.setEnabled(true);
+        dsSim.notifyNewData();
+        DriverStation.getInstance().waitForData(0.1);
+
+        // Register all subsystems
+        DriveTrain.getInstance().register();
+        Climber.getInstance().register();
+        PanelManipulator.getInstance().register();
+        CellSuperstructure.getInstance().register();
+        ADGyro.getInstance().reset();
+        ADGyro.getInstance().enablePolling(RobotConstants.DriveTrain.GYRO_POLL_PERIOD);
+
+        // Read sensors in step with simulated time
+        SensorPoller.getInstance().setSynchronous(true);
+
+        // Budget battery current like the robot does
+        PowerManager.getInstance().configure(RobotConstants.Power.BATTERY_RESISTANCE,
+                RobotConstants.Power.VOLTAGE_FLOOR, RobotConstants.Power.LOW_VOLTAGE);
+        PowerManager.getInstance().setEnabled(shedding);
+
+        // Step every loop tier from here, fastest first
+        MultiRateLooper looper = MultiRateLooper.getInstance();
+        looper.setSynchronous(true);
+        if (!slowLoop) {
+            RateTier fastTier = looper.addTier("Fast", RobotConstants.Loops.FAST_PERIOD, 0);
+            DriveTrain.getInstance().runInTier(fastTier);
+            Shooter.getInstance().runInTier(fastTier);
+        }
+        RateTier commandTier = looper.addTier("Command", PERIOD, 0);
+        commandTier.register("CommandScheduler", LoopProfiler.getInstance()::runScheduler);
+        commandTier.register("PowerManager", PowerManager.getInstance()::update);
+
+        // Take control of time
+        m_clock = new SteppedClock();
+        m_clock.install();
+
+        // Simulate the robot's physics. The plant is stepped by hand, so its
+        // thread is never started.
+        m_plant = new RobotPlant();
+        m_plant.getPlant().update();
+
+        m_chooser = new Chooser();
+    }
+
+    /**
+     * Get every autonomous path
+     *
+     * @return Paths by name
+     */
+    public Map<String, AutonomousPath> getPaths() {
+        return m_chooser.getPaths();
+    }
+
+    /**
+     * Give time control back to the HAL
+     */
+    public void close() {
+        m_clock.uninstall();
+    }
+
+    /**
+     * Run a single path for the length of the autonomous period
+     *
+     * @param name Path name
+     * @param path Path
+     * @return Result
+     */
+    public Result runPath(String name, AutonomousPath path) {
+
+        // Reset the robot
+        CommandScheduler.getInstance().cancelAll();
+        m_plant.getDrive().stop();
+        DriveTrain.getInstance().setPosition(path.getStartingPose());
+        Hopper.getInstance().forceCellCount(3);
+        CellSuperstructure.getInstance().stop();
+
+        // Note how far from its end every pure pursuit path stopped
+        List<DrivenPath> drivenPaths = new ArrayList<>();
+        DrivePath.setEndListener((drivenPath, interrupted) -> {
+            Pose2d current = DriveTrain.getInstance().getPosition();
+            drivenPaths.add(new DrivenPath(interrupted,
+                    current.getTranslation().getDistance(drivenPath.getEnd())));
+        });
+
+        // Build and start the command
+        CommandBase command = m_chooser.generateAutonomousCommand(path, true, false);
+        CommandScheduler.getInstance().schedule(command);
+
+        long startTime = System.nanoTime();
+        double simTime = 0.0;
+        m_plant.getBattery().resetMetrics();
+        PowerManager.getInstance().resetMetrics();
+
+        // Remember where the simulated robot started, to measure odometry drift
+        Pose2d startPose = path.getStartingPose();
+        double startX = m_plant.getDrive().getX();
+        double startY = m_plant.getDrive().getY();
+        double startHeading = m_plant.getDrive().getHeading();
+
+        // Step until the command ends, or the period runs out
+        while (simTime < AUTONOMOUS_LENGTH && CommandScheduler.getInstance().isScheduled(command)) {
+            m_clock.step(STEP);
+            simTime += STEP;
+            m_plant.getPlant().update();
+            SensorPoller.getInstance().pollAll();
+            MultiRateLooper.getInstance().runDue();
+        }
+
+        double wallTime = (System.nanoTime() - startTime) / 1e9;
+        boolean finished = !CommandScheduler.getInstance().isScheduled(command);
+        Pose2d pose = DriveTrain.getInstance().getPosition();
+
+        // Find the simulated robot's true pose, in the same frame as odometry
+        double offset = startPose.getRotation().getRadians() - startHeading;
+        double dx = m_plant.getDrive().getX() - startX;
+        double dy = m_plant.getDrive().getY() - startY;
+        double trueX = startPose.getTranslation().getX() + (dx * Math.cos(offset)) - (dy * Math.sin(offset));
+        double trueY = startPose.getTranslation().getY() + (dx * Math.sin(offset)) + (dy * Math.cos(offset));
+        double trueHeading = m_plant.getDrive().getHeading() + offset;
+
+        // Measure the odometry drift
+        double positionError = Math.hypot(pose.getTranslation().getX() - trueX, pose.getTranslation().getY() - trueY);
+        double headingError = Math.toDegrees(
+                Math.abs(Math.IEEEremainder(pose.getRotation().getRadians() - trueHeading, 2 * Math.PI)));
+
+        String summary = String.format(
+                "%s: %s after %.2fs, final pose (%.2f, %.2f, %.1f deg), odometry drift %.3fm %.2f deg, %d cells, "
+                        + "battery low %.2fV, %.2fs below %.1fV, %.2fs shedding, %.3fs wall time (%.0fx)",
+                name, finished ? "finished" : "timed out", simTime, pose.getTranslation().getX(),
+                pose.getTranslation().getY(), pose.getRotation().getDegrees(), positionError, headingError,
+                Hopper.getInstance().getCellCount(), m_plant.getBattery().getMinVoltage(),
+                m_plant.getBattery().getTimeBelowLowVoltage(),
+                RobotConstants.Power.LOW_VOLTAGE, PowerManager.getInstance().getTimeShedding(), wallTime,
+                simTime / Math.max(wallTime, 1e-9));
+
+        CommandScheduler.getInstance().cancelAll();
+        DrivePath.setEndListener(null);
+        return new Result(name, finished, simTime, wallTime, pose, positionError, headingError, drivenPaths,
+                summary);
+    }
+}
@@ -24,7 +24,9 @@ public class Dashboard {
     RobotLogger logger = RobotLogger.getInstance();
 
     // Singleton
-    private static Dashboard s_instance = null;
+    private static class Holder {
+        private static final Dashboard INSTANCE = new Dashboard();
+    }
 
     // Thread
     private Notifier m_thread;
@@ -52,11 +54,7 @@ public class Dashboard {
     }
 
     public static Dashboard getInstance() {
-        if (s_instance == null) {
-            s_instance = new Dashboard();
-        }
-
-        return s_instance;
+        return Holder.INSTANCE;
     }
 
     public void start() {
@@ -0,0 +1,227 @@
+package frc.robot;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import frc.lib5k.control.FlywheelController;
+import frc.lib5k.kinematics.models.FlywheelModel;
+import frc.robot.subsystems.cellmech.Shooter;
+
+/**
+ * Checks the shooter's flywheel model against its characterization data, then
+ * compares spin-up and per-ball recovery times between the SparkMax velocity
+ * PID and the model-based {@link FlywheelController}. <br>
+ * <br>
+ * Usage: [characterization json]
+ */
+public class FlywheelSimulation {
+
+    /* Timing */
+    private static final double PERIOD = 0.02;
+    private static final double SPARKMAX_PERIOD = 0.001;
+    private static final int SPARKMAX_VELOCITY_WINDOW = 32;
+    private static final double SIMULATION_LENGTH = 6.0;
+
+    /* Scenario */
+    private static final double BATTERY_VOLTAGE = 12.0;
+    private static final double ENCODER_NOISE = 15.0;
+    private static final double BALL_RPM_DROP = 500.0;
+    private static final double[] BALL_TIMES = { 3.0, 4.0, 5.0 };
+
+    /* Characterization data columns */
+    private static final int COLUMN_TIME = 0;
+    private static final int COLUMN_VOLTAGE = 3;
+    private static final int COLUMN_VELOCITY = 5;
+
+    /**
+     * A flywheel velocity controller under test
+     */
+    private interface Controller {
+        public double calculate(double measuredRPM);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String path = (args.length > 0) ? args[0] : "characterization/Shooter/CarterIsChaotic20200215-1029.json";
+
+        FlywheelModel model = new FlywheelModel(RobotConstants.Shooter.kS, RobotConstants.Shooter.kV,
+                RobotConstants.Shooter.kA);
+
+        // Check the model against the recorded data
+        validateModel(model, path);
+
+        double setpoint = RobotConstants.Shooter.DEFAULT_VELOCITY;
+        System.out.println(String.format("Spinning up to %.0fRPM, shooting a ball every second from %.0fs",
+                setpoint, BALL_TIMES[0]));
+
+        // Onboard PID, as configured on the robot. The SparkMax averages its own
+        // velocity measurement, so it is not given any extra noise.
+        runScenario("SparkMax PID", model, setpoint, SPARKMAX_PERIOD, 0.0, sparkMaxPID(setpoint, 0.0));
+        runScenario("SparkMax PID, 1s ramp", model, setpoint, SPARKMAX_PERIOD, 0.0, sparkMaxPID(setpoint, 1.0));
+
+        // Model-based control
+        FlywheelController controller = Shooter.createController(model);
+        controller.setSetpoint(setpoint);
+        controller.reset(0.0);
+        runScenario("Model-based", model, setpoint, PERIOD, ENCODER_NOISE,
+                (rpm) -> controller.calculate(rpm, BATTERY_VOLTAGE));
+    }
+
+    /**
+     * Replay the recorded voltages through the model, and report how closely it
+     * follows the recorded velocities
+     *
+     * @param model Model
+     * @param path  Characterization data path
+     */
+    private static void validateModel(FlywheelModel model, String path) throws IOException {
+        Map<String, double[][]> tests = new ObjectMapper().readValue(new File(path),
+                new TypeReference<Map<String, double[][]>>() {
+                });
+
+        System.out.println(String.format("Model: kS %.4fV, kV %.6fV/RPM, kA %.6fV/(RPM/s), time constant %.3fs",
+                model.getKS(), model.getKV(), model.getKA(), model.getKA() / model.getKV()));
+
+        for (Map.Entry<String, double[][]> test : tests.entrySet()) {
+            double[][] rows = test.getValue();
+
+            // Characterization is in rotations per second
+            double rpm = rows[0][COLUMN_VELOCITY] * 60.0;
+            double squaredError = 0.0;
+            double peak = 0.0;
+
+            for (int i = 1; i < rows.length; i++) {
+                double dt = rows[i][COLUMN_TIME] - rows[i - 1][COLUMN_TIME];
+                rpm = model.step(rpm, rows[i - 1][COLUMN_VOLTAGE], dt);
+
+                double error = rpm - (rows[i][COLUMN_VELOCITY] * 60.0);
+                squaredError += error * error;
+                peak = Math.max(peak, Math.abs(rows[i][COLUMN_VELOCITY] * 60.0));
+            }
+
+            System.out.println(String.format("  %s: RMS error %.1fRPM over %d samples (peak %.0fRPM)",
+                    test.getKey(), Math.sqrt(squaredError / (rows.length - 1)), rows.length, peak));
+        }
+    }
+
+    /**
+     * Build a model of the SparkMax's onboard velocity PID, with the robot's gains
+     *
+     * @param setpoint Setpoint
+     * @param rampRate Closed-loop ramp rate (seconds from 0 to full output)
+     * @return Controller
+     */
+    private static Controller sparkMaxPID(double setpoint, double rampRate) {
+        return new Controller() {
+            private double m_integral = 0.0;
+            private double m_lastError = Double.NaN;
+            private double m_output = 0.0;
+
+            // The SparkMax measures velocity with a moving average
+            private double[] m_window = new double[SPARKMAX_VELOCITY_WINDOW];
+            private double m_windowSum = 0.0;
+            private int m_windowIndex = 0;
+
+            @Override
+            public double calculate(double measuredRPM) {
+                m_windowSum += measuredRPM - m_window[m_windowIndex];
+                m_window[m_windowIndex] = measuredRPM;
+                m_windowIndex = (m_windowIndex + 1) % m_window.length;
+
+                double error = setpoint - (m_windowSum / m_window.length);
+                m_integral += error * RobotConstants.Shooter.kIVel;
+
+                // The SparkMax derivative is per loop, not per second
+                double derivative = (Double.isNaN(m_lastError)) ? 0.0 : error - m_lastError;
+                m_lastError = error;
+
+                double output = (RobotConstants.Shooter.kPVel * error) + m_integral
+                        + (RobotConstants.Shooter.kDVel * derivative) + (RobotConstants.Shooter.kFF * setpoint);
+                output = Math.max(-1.0, Math.min(output, 1.0));
+
+                // Limit the rate of change of output
+                if (rampRate > 0.0) {
+                    double step = SPARKMAX_PERIOD / rampRate;
+                    output = Math.max(m_output - step, Math.min(output, m_output + step));
+                }
+                m_output = output;
+
+                return output * BATTERY_VOLTAGE;
+            }
+        };
+    }
+
+    /**
+     * Run a controller through spin-up and a set of shots, and print its timings
+     *
+     * @param name       Controller name
+     * @param model      Flywheel model
+     * @param setpoint   Setpoint
+     * @param period     Controller period
+     * @param noise      Encoder noise standard deviation
+     * @param controller Controller
+     */
+    private static void runScenario(String name, FlywheelModel model, double setpoint, double period,
+            double noise, Controller controller) {
+        Random random = new Random(5024);
+        double epsilon = RobotConstants.Shooter.RPM_EPSILON;
+
+        double rpm = 0.0;
+        double voltage = 0.0;
+        double lastControlTime = Double.NEGATIVE_INFINITY;
+
+        double spinUpTime = Double.NaN;
+        double[] recoveryTimes = new double[BALL_TIMES.length];
+        Arrays.fill(recoveryTimes, Double.NaN);
+        int ball = 0;
+        double lastBallTime = Double.NaN;
+        double overshoot = 0.0;
+
+        int steps = (int) Math.round(SIMULATION_LENGTH / SPARKMAX_PERIOD);
+        for (int i = 0; i < steps; i++) {
+            double time = i * SPARKMAX_PERIOD;
+
+            // Shoot a ball
+            if (ball < BALL_TIMES.length && time >= BALL_TIMES[ball]) {
+                rpm -= BALL_RPM_DROP;
+                lastBallTime = time;
+                ball++;
+            }
+
+            // Run the controller at its own rate
+            if (time - lastControlTime >= period - 1e-9) {
+                voltage = controller.calculate(rpm + (random.nextGaussian() * noise));
+                lastControlTime = time;
+            }
+
+            rpm = model.step(rpm, voltage, SPARKMAX_PERIOD);
+
+            // Record timings
+            boolean atSetpoint = Math.abs(setpoint - rpm) <= epsilon;
+            if (Double.isNaN(spinUpTime)) {
+                if (atSetpoint) {
+                    spinUpTime = time;
+                }
+            } else if (ball == 0) {
+                overshoot = Math.max(overshoot, rpm - setpoint);
+            }
+            if (ball > 0 && Double.isNaN(recoveryTimes[ball - 1]) && atSetpoint) {
+                recoveryTimes[ball - 1] = time - lastBallTime;
+            }
+        }
+
+        StringBuilder recoveries = new StringBuilder();
+        for (double recovery : recoveryTimes) {
+            recoveries.append((Double.isNaN(recovery)) ? " never" : String.format(" %.3fs", recovery));
+        }
+
+        System.out.println(String.format("  %s: spin-up %s, overshoot %.0fRPM, recovery per ball:%s", name,
+                (Double.isNaN(spinUpTime)) ? "never" : String.format("%.3fs", spinUpTime), overshoot,
+                recoveries.toString()));
+    }
+}
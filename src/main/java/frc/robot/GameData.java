@@ -5,7 +5,9 @@ import edu.wpi.first.wpilibj.util.Color8Bit;
 
 
 public class GameData {
-    private static GameData s_instance = null;
+    private static class Holder {
+        private static final GameData INSTANCE = new GameData();
+    }
 
     /**
      * GameData constructor
@@ -21,11 +23,7 @@ public class GameData {
      * @return GameData instance
      */
     public static GameData getInstance(){
-        if (s_instance == null) {
-            s_instance = new GameData();
-        }
-
-        return s_instance;
+        return Holder.INSTANCE;
     }
 
 
@@ -0,0 +1,153 @@
+package frc.robot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.hal.sim.DriverStationSim;
+import edu.wpi.first.wpilibj.DriverStation;
+import frc.lib5k.components.gyroscopes.ADGyro;
+import frc.lib5k.components.sensors.SensorPoller;
+import frc.lib5k.logging.TelemetryReader;
+import frc.lib5k.logging.TelemetryRecorder;
+import frc.lib5k.loops.loopers.MultiRateLooper;
+import frc.lib5k.simulation.LogReplay;
+import frc.robot.subsystems.DriveTrain;
+import frc.robot.subsystems.PanelManipulator;
+import frc.robot.subsystems.cellmech.Hopper;
+import frc.robot.subsystems.cellmech.Shooter;
+import frc.robot.vision.Limelight2;
+
+/**
+ * Re-drives the robot code in simulation from a recorded match (an rrlogs
+ * Telemetry-*.rtlm file). <br>
+ * <br>
+ * The recorded robot mode and sensor inputs are injected every loop, and the
+ * robot loop is stepped as fast as possible instead of every 20ms. Driver and
+ * operator joystick inputs are not recorded, so teleop commands are not
+ * replayed. <br>
+ * <br>
+ * The replayed robot does not write a USB log or a new match recording. Its
+ * outputs can instead be recorded to a file given as the second argument, so
+ * replays can be compared. <br>
+ * <br>
+ * Usage: run with the desktop simulation natives on the library path, and the
+ * recording path as the first argument.
+ */
+public class MatchReplay {
+
+    /**
+     * Robot that exposes its loop function so it can be stepped manually
+     */
+    private static class ReplayRobot extends Robot {
+
+        public ReplayRobot() {
+            super(false);
+        }
+
+        /**
+         * Run one robot loop
+         */
+        public void step() {
+            loopFunc();
+        }
+    }
+
+    /* Simulated driverstation */
+    private static DriverStationSim s_dsSim;
+    private static int s_lastMode = -1;
+
+    public static void main(String[] args) throws IOException {
+
+        // Load the recording
+        TelemetryReader reader = new TelemetryReader(Paths.get(args[0]));
+        System.out.println(String.format("Loaded %d rows from %s", reader.getRowCount(), args[0]));
+
+        // Start the HAL, and a driverstation
+        HAL.initialize(500, 0);
+        s_dsSim = new DriverStationSim();
+        s_dsSim.setDsAttached(true);
+
+        // Read sensors and run the control loops from the replay loop, so each step
+        // sees its own frame
+        SensorPoller.getInstance().setSynchronous(true);
+        MultiRateLooper.getInstance().setSynchronous(true);
+
+        // Construct and init the robot
+        ReplayRobot robot = new ReplayRobot();
+        robot.robotInit();
+
+        // Map every recorded input
+        LogReplay replay = new LogReplay(reader);
+        replay.mapInt("Mode", MatchReplay::injectMode);
+        replay.mapDouble("Gyro/Angle", ADGyro.getInstance()::injectSimAngle);
+        DriveTrain.getInstance().addReplayInjectors(replay);
+        Hopper.getInstance().addReplayInjectors(replay);
+        PanelManipulator.getInstance().addReplayInjectors(replay);
+        Limelight2.getInstance().addReplayInjectors(replay);
+
+        // Record the robot's outputs, if asked to
+        TelemetryRecorder outputs = new TelemetryRecorder();
+        if (args.length > 1) {
+            outputs.addIntChannel("Mode", Robot::getModeId);
+            outputs.addDoubleChannel("DriveTrain/X",
+                    () -> DriveTrain.getInstance().getPosition().getTranslation().getX());
+            outputs.addDoubleChannel("DriveTrain/Y",
+                    () -> DriveTrain.getInstance().getPosition().getTranslation().getY());
+            outputs.addDoubleChannel("DriveTrain/Heading",
+                    () -> DriveTrain.getInstance().getPosition().getRotation().getDegrees());
+            outputs.addIntChannel("Hopper/CellCount", Hopper.getInstance()::getCellCount);
+            outputs.addDoubleChannel("Shooter/Output", Shooter.getInstance()::getOutput);
+            outputs.open(Paths.get(args[1]));
+        }
+
+        // Run the match, reading sensors right after each frame is injected. Outputs
+        // are stamped with the recorded time, so replays line up row for row
+        double[] timestamps = reader.getTimestamps();
+        int[] row = new int[1];
+        double time = replay.run(() -> {
+            SensorPoller.getInstance().pollAll();
+            MultiRateLooper.getInstance().runDue();
+            robot.step();
+
+            try {
+                outputs.sample(timestamps[row[0]++]);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        outputs.close();
+        if (outputs.getDroppedRows() > 0) {
+            System.out.println(String.format("Dropped %d output rows", outputs.getDroppedRows()));
+        }
+
+        double duration = (timestamps.length > 0) ? timestamps[timestamps.length - 1] - timestamps[0] : 0.0;
+        System.out.println(String.format("Replayed %.1f seconds of data in %.3f seconds", duration, time));
+        System.out.println(String.format("Final cell count: %d", Hopper.getInstance().getCellCount()));
+
+        System.exit(0);
+    }
+
+    /**
+     * Set the simulated robot mode
+     *
+     * @param mode Mode ID from {@link Robot#getModeId()}
+     */
+    private static void injectMode(int mode) {
+
+        // Only touch the driverstation when the mode changes
+        if (mode == s_lastMode) {
+            return;
+        }
+        s_lastMode = mode;
+
+        s_dsSim.setEnabled(mode != 0);
+        s_dsSim.setAutonomous(mode == 1);
+        s_dsSim.setTest(mode == 3);
+        s_dsSim.notifyNewData();
+
+        // Wait for the driverstation thread to pick up the new state
+        DriverStation.getInstance().waitForData(0.1);
+    }
+}
@@ -12,7 +12,9 @@ import edu.wpi.first.wpilibj.GenericHID;
  * interface to the commands and command groups that allow control of the robot.
  */
 public class OI {
-    private static OI s_instance = null;
+    private static class Holder {
+        private static final OI INSTANCE = new OI();
+    }
 
     /* Controllers */
     private XboxController m_driverController = new XboxController(RobotConstants.HumanInputs.DRIVER_CONTROLLER_ID);
@@ -44,11 +46,7 @@ public class OI {
      * @return OI instance
      */
     public static OI getInstance() {
-        if (s_instance == null) {
-            s_instance = new OI();
-        }
-
-        return s_instance;
+        return Holder.INSTANCE;
     }
 
     /**
@@ -1,20 +1,34 @@
 package frc.robot;
 
-import edu.wpi.first.wpilibj.RobotBase;
+import java.io.IOException;
+import java.nio.file.Paths;
+
 import edu.wpi.first.wpilibj.RobotController;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj2.command.CommandBase;
-import edu.wpi.first.wpilibj2.command.CommandScheduler;
 import edu.wpi.first.wpilibj.DriverStation;
-import frc.lib5k.components.drive.IDifferentialDrivebase;
 import frc.lib5k.components.gyroscopes.ADGyro;
 import frc.lib5k.components.gyroscopes.NavX;
+import frc.lib5k.components.motors.CANOutputScheduler;
+import frc.lib5k.logging.TelemetryRecorder;
 import frc.lib5k.logging.USBLogger;
+import frc.lib5k.loops.loopers.MultiRateLooper;
+import frc.lib5k.loops.loopers.RateTier;
+import frc.lib5k.loops.profiling.LoopProfiler;
+import frc.lib5k.roborio.FPGAClock;
 import frc.lib5k.roborio.FaultReporter;
+import frc.lib5k.roborio.PowerManager;
 import frc.lib5k.roborio.RR_HAL;
 import frc.lib5k.simulation.wpihooks.imgui.IMGUIFieldReporter;
+import frc.lib5k.spatial.LocalizationEngine;
+import frc.lib5k.utils.FileUtils;
+import frc.lib5k.utils.InstanceRegistry;
 import frc.lib5k.utils.RobotLogger;
 import frc.lib5k.utils.RobotLogger.Level;
+import frc.lib5k.utils.telemetry.ComponentTelemetry;
+import frc.lib5k.utils.telemetry.PoseStream;
+import frc.lib5k.utils.telemetry.TelemetryPublisher;
+import frc.robot.autonomous.AutonomousPrebuilder;
 import frc.robot.autonomous.Chooser;
 import frc.robot.commands.DriveControl;
 import frc.robot.commands.OperatorControl;
@@ -24,6 +38,7 @@ import frc.robot.subsystems.DriveTrain;
 import frc.robot.subsystems.PanelManipulator;
 import frc.robot.subsystems.cellmech.Hopper;
 import frc.robot.subsystems.cellmech.Intake;
+import frc.robot.subsystems.cellmech.Shooter;
 import frc.robot.vision.Limelight2;
 import frc.robot.vision.Limelight2.CameraMode;
 import frc.robot.vision.Limelight2.LEDMode;
@@ -39,27 +54,61 @@ public class Robot extends TimedRobot {
 
 	/* Robot I/O helpers */
 	RobotLogger logger = RobotLogger.getInstance();
-	FaultReporter m_faultReporter = FaultReporter.getInstance();
+	FaultReporter m_faultReporter;
 	USBLogger usbLogger;
+	TelemetryRecorder m_telemetry = new TelemetryRecorder();
+	LoopProfiler m_loopProfiler = LoopProfiler.getInstance();
+	PowerManager m_powerManager = PowerManager.getInstance();
+	MultiRateLooper m_looper = MultiRateLooper.getInstance();
+	TelemetryPublisher m_telemetryPublisher = TelemetryPublisher.getInstance();
+	PoseStream m_poseStream = PoseStream.getInstance();
 
 	/* Robot telemetry */
-	private Dashboard m_dashboard = Dashboard.getInstance();
-
-	/* Robot Subsystems */
-	private DriveTrain m_driveTrain = DriveTrain.getInstance();
-	private Climber m_climber = Climber.getInstance();
-	private PanelManipulator m_panelManipulator = PanelManipulator.getInstance();
-	private CellSuperstructure m_cellSuperstructure = CellSuperstructure.getInstance();
+	private Dashboard m_dashboard;
+
+	/* Robot subsystems and devices, constructed by the InstanceRegistry in robotInit */
+	private InstanceRegistry m_registry = InstanceRegistry.getInstance();
+	private DriveTrain m_driveTrain;
+	private Climber m_climber;
+	private PanelManipulator m_panelManipulator;
+	private CellSuperstructure m_cellSuperstructure;
+	private Intake m_intake;
+	private Hopper m_hopper;
+	private Shooter m_shooter;
+	private ADGyro m_gyro;
+	private Limelight2 m_limelight;
+	private CANOutputScheduler m_canScheduler;
 
 	/* Robot Commands */
 	private CommandBase m_autonomousCommand;
-	private DriveControl m_driveControl;
+	private CommandBase m_driveControl;
 	private OperatorControl m_operatorControl;
+	private CommandBase m_operatorCommand;
 
 	private Chooser m_autonChooser;
+	private AutonomousPrebuilder m_autonPrebuilder;
+
+	/* Simulation */
+	private RobotPlant m_robotPlant;
 
 	private boolean m_lastUserState = false;
 
+	// Write match logs and telemetry recordings. Off when replaying a match
+	private final boolean m_recordMatch;
+
+	public Robot() {
+		this(true);
+	}
+
+	/**
+	 * Create a Robot
+	 * 
+	 * @param recordMatch Should the USB log and telemetry recording be written?
+	 */
+	protected Robot(boolean recordMatch) {
+		m_recordMatch = recordMatch;
+	}
+
 	/**
 	 * This function is run when the robot is first started up and should be used
 	 * for any initialization code.
@@ -67,15 +116,21 @@ public class Robot extends TimedRobot {
 	@Override
 	public void robotInit() {
 
-		// Enable USB logging
-		usbLogger = new USBLogger("RobotLogs-2020/live");
-		logger.enableUSBLogging(usbLogger);
-		
+		// Enable USB logging, as memory-mapped binary segments. Decode them with
+		// MappedLogDecoder
+		if (m_recordMatch) {
+			usbLogger = new USBLogger("RobotLogs-2020/live", true);
+			logger.enableUSBLogging(usbLogger);
+		}
+
+		// Construct every subsystem and service before any of them are used
+		constructInstances();
 
 		// Create control commands
 		logger.log("Robot", "Constructing Commands", Level.kRobot);
-		m_driveControl = new DriveControl();
+		m_driveControl = m_loopProfiler.profile(new DriveControl());
 		m_operatorControl = new OperatorControl();
+		m_operatorCommand = m_loopProfiler.profile(m_operatorControl);
 
 		// Register all subsystems
 		logger.log("Robot", "Registering Subsystems", Level.kRobot);
@@ -88,9 +143,43 @@ public class Robot extends TimedRobot {
 		// Start the logger
 		logger.start(0.02);
 
+		// Configure motor output coalescing
+		m_canScheduler.configure(RobotConstants.CAN.OUTPUT_EPSILON,
+				RobotConstants.CAN.KEEP_ALIVE_PERIOD);
+		m_canScheduler.setEnabled(RobotConstants.CAN.COALESCE_OUTPUTS);
+
+		// Configure the battery current budget
+		m_powerManager.configure(RobotConstants.Power.BATTERY_RESISTANCE, RobotConstants.Power.VOLTAGE_FLOOR,
+				RobotConstants.Power.LOW_VOLTAGE);
+
+		// Start publishing loop timings
+		m_loopProfiler.start(1.0);
+
+		// Start publishing component telemetry
+		m_telemetryPublisher.start();
+
+		// Start streaming the robot pose to FieldSim. A real robot only streams to a
+		// configured driver station
+		String poseHost = (isReal()) ? RobotConstants.PoseStream.UDP_HOST
+				: RobotConstants.PoseStream.SIM_UDP_HOST;
+		if (RobotConstants.PoseStream.UDP_STREAM && poseHost != null) {
+			m_poseStream.enableUDP(poseHost, RobotConstants.PoseStream.UDP_PORT);
+		}
+		m_poseStream.start(RobotConstants.PoseStream.STREAM_PERIOD);
+
 		// Reset & calibrate the robot gyroscope
-		ADGyro.getInstance().reset();
-		ADGyro.getInstance().setInverted(false);
+		m_gyro.reset();
+		m_gyro.setInverted(false);
+		m_gyro.enablePolling(RobotConstants.DriveTrain.GYRO_POLL_PERIOD);
+
+		// Move the drivetrain and flywheel control loops into the fast tier
+		if (RobotConstants.Loops.USE_FAST_TIER) {
+			RateTier fastTier = m_looper.addTier("Fast", RobotConstants.Loops.FAST_PERIOD,
+					RobotConstants.Loops.FAST_PRIORITY);
+			m_driveTrain.runInTier(fastTier);
+			m_shooter.runInTier(fastTier);
+		}
+		m_looper.start();
 
 		// Reset the drivetrain pose
 		m_driveTrain.setRampRate(0.12);
@@ -99,45 +188,155 @@ public class Robot extends TimedRobot {
 		m_autonChooser = new Chooser();
 		m_autonChooser.publishOptions();
 
-		// Simulate main gyroscope
-		if (RobotBase.isSimulation()) {
-			logger.log("Robot", "Starting ADGyro simulation");
-			ADGyro.getInstance().initDrivebaseSimulation((IDifferentialDrivebase) m_driveTrain);
-		}
+		// Pre-build the selected autonomous command whenever the selection changes
+		m_autonPrebuilder = new AutonomousPrebuilder(m_autonChooser);
 
 		// Force-set odometry
 		m_driveTrain.setPosition(m_autonChooser.getRobotAutoStartPosition());
 
 		// Connect to, and configure Limelight
-		Limelight2.getInstance().setPortrait(true);
-		Limelight2.getInstance().setLED(LEDMode.OFF);
-		Limelight2.getInstance().enableVision(true);
+		m_limelight.setPortrait(true);
+		m_limelight.setLED(LEDMode.OFF);
+		m_limelight.enableVision(true);
 
 		// Init and start the dashboard service
 		m_dashboard.init();
 		m_dashboard.start();
 
+		// Start recording match telemetry
+		if (m_recordMatch) {
+			startTelemetryRecording();
+		}
+
 		// Report Lib5k
 		RR_HAL.reportFRCVersion("Java", RR_HAL.getLibraryVersion());
 	}
 
+	/**
+	 * Construct every subsystem and service in dependency order. Devices that do
+	 * not depend on anything else are built on their own threads.
+	 */
+	private void constructInstances() {
+
+		// Devices and services
+		m_registry.addIndependent(ADGyro.class, ADGyro::getInstance);
+		m_registry.addIndependent(Limelight2.class, Limelight2::getInstance);
+		m_registry.addIndependent(LocalizationEngine.class, LocalizationEngine::getInstance);
+		m_registry.addIndependent(CANOutputScheduler.class, CANOutputScheduler::getInstance);
+		m_registry.addIndependent(ComponentTelemetry.class, ComponentTelemetry::getInstance);
+		m_registry.addIndependent(FaultReporter.class, FaultReporter::getInstance);
+
+		// Subsystems, in dependency order. The DriveTrain waits on the gyro, so it is
+		// built last
+		m_registry.add(OI.class, OI::getInstance);
+		m_registry.add(Climber.class, Climber::getInstance);
+		m_registry.add(PanelManipulator.class, PanelManipulator::getInstance);
+		m_registry.add(Intake.class, Intake::getInstance);
+		m_registry.add(Hopper.class, Hopper::getInstance);
+		m_registry.add(Shooter.class, Shooter::getInstance);
+		m_registry.add(CellSuperstructure.class, CellSuperstructure::getInstance);
+		m_registry.add(DriveTrain.class, DriveTrain::getInstance);
+		m_registry.add(Dashboard.class, Dashboard::getInstance);
+
+		m_registry.constructAll(RobotConstants.Startup.PARALLEL_CONSTRUCTION);
+
+		// Pick up the constructed instances
+		m_faultReporter = m_registry.get(FaultReporter.class);
+		m_dashboard = m_registry.get(Dashboard.class);
+		m_driveTrain = m_registry.get(DriveTrain.class);
+		m_climber = m_registry.get(Climber.class);
+		m_panelManipulator = m_registry.get(PanelManipulator.class);
+		m_cellSuperstructure = m_registry.get(CellSuperstructure.class);
+		m_intake = m_registry.get(Intake.class);
+		m_hopper = m_registry.get(Hopper.class);
+		m_shooter = m_registry.get(Shooter.class);
+		m_gyro = m_registry.get(ADGyro.class);
+		m_limelight = m_registry.get(Limelight2.class);
+		m_canScheduler = m_registry.get(CANOutputScheduler.class);
+	}
+
 	@Override
 	public void robotPeriodic() {
 
-		// Publish telemetry data to smartdashboard if setting enabled
-		if (RobotConstants.PUBLISH_SD_TELEMETRY) {
-			m_driveTrain.updateTelemetry();
-			// System.out.println(ADGyro.getInstance().getAngle());
+		// Budget battery current, now that every subsystem has set its outputs
+		m_powerManager.update();
 
+		// Record a row of match telemetry
+		try {
+			m_telemetry.sample(FPGAClock.getFPGASeconds());
+		} catch (IOException e) {
+			logger.log("Robot", "Failed to write telemetry recording", Level.kWarning);
 		}
 
 	}
 
+	/**
+	 * Register all telemetry channels, and open a new recording
+	 */
+	private void startTelemetryRecording() {
+
+		// Register channels
+		m_telemetry.addDoubleChannel("BusVoltage", RobotController::getBatteryVoltage);
+		m_telemetry.addBooleanChannel("Enabled", () -> DriverStation.getInstance().isEnabled());
+		m_telemetry.addDoubleChannel("Power/EstimatedCurrent", m_powerManager::getEstimatedCurrent);
+		m_telemetry.addBooleanChannel("Power/Shedding", m_powerManager::isShedding);
+		m_telemetry.addDoubleChannel("DriveTrain/X", () -> m_driveTrain.getPosition().getTranslation().getX());
+		m_telemetry.addDoubleChannel("DriveTrain/Y", () -> m_driveTrain.getPosition().getTranslation().getY());
+		m_telemetry.addDoubleChannel("DriveTrain/Heading",
+				() -> m_driveTrain.getPosition().getRotation().getDegrees());
+		m_telemetry.addIntChannel("Hopper/CellCount", m_hopper::getCellCount);
+		m_telemetry.addDoubleChannel("Shooter/Output", m_shooter::getOutput);
+
+		// Register sensor inputs needed for log replay
+		m_telemetry.addIntChannel("Mode", Robot::getModeId);
+		m_telemetry.addDoubleChannel("Gyro/Angle", m_gyro::getAngle);
+		m_driveTrain.addReplayChannels(m_telemetry);
+		m_hopper.addReplayChannels(m_telemetry);
+		m_panelManipulator.addReplayChannels(m_telemetry);
+		m_limelight.addReplayChannels(m_telemetry);
+
+		// Open the recording file
+		try {
+			m_telemetry.open(Paths.get(FileUtils.getHome(), "rrlogs",
+					String.format("Telemetry-%d.rtlm", System.currentTimeMillis())));
+		} catch (IOException e) {
+			logger.log("Robot", "Failed to start telemetry recording", Level.kWarning);
+		}
+	}
+
+	/**
+	 * Get the current robot mode as an ID for telemetry. 0 is disabled, 1 is
+	 * autonomous, 2 is teleop, and 3 is test
+	 * 
+	 * @return Mode ID
+	 */
+	public static int getModeId() {
+		DriverStation ds = DriverStation.getInstance();
+
+		if (ds.isDisabled()) {
+			return 0;
+		} else if (ds.isAutonomous()) {
+			return 1;
+		} else if (ds.isTest()) {
+			return 3;
+		}
+		return 2;
+	}
+
+	@Override
+	public void simulationInit() {
+
+		// Simulate the drivetrain, cell mechanisms, and battery
+		logger.log("Robot", "Starting physics simulation");
+		m_robotPlant = new RobotPlant();
+		m_robotPlant.getPlant().start();
+	}
+
 	@Override
 	public void simulationPeriodic() {
 
 		// Report robot position to IMGUI
-		IMGUIFieldReporter.getInstance().reportRobotPosition(DriveTrain.getInstance().getPosition());
+		IMGUIFieldReporter.getInstance().reportRobotPosition(m_driveTrain.getPosition());
 		
 	}
 
@@ -146,8 +345,9 @@ public class Robot extends TimedRobot {
 		logger.log("Robot", "Match Number: " + DriverStation.getInstance().getMatchNumber());
 		logger.log("Robot", "Autonomous started");
 
-		// Determine correct autonomous command to run
-		m_autonomousCommand = m_autonChooser.generateAutonomousCommand();
+		// Determine correct autonomous command to run, and time it
+		CommandBase autonomousCommand = m_autonPrebuilder.getCommand();
+		m_autonomousCommand = (autonomousCommand != null) ? m_loopProfiler.profile(autonomousCommand) : null;
 
 		// Try to start the command
 		if (m_autonomousCommand != null) {
@@ -163,24 +363,24 @@ public class Robot extends TimedRobot {
 		m_driveTrain.setBrakes(true);
 
 		// Lock the climber
-		Climber.getInstance().lock();
+		m_climber.lock();
 
 		// Stow the superstructure
 		m_cellSuperstructure.stop();
 
 		// Force-set the hopper to recognize 3 power cells
-		Hopper.getInstance().forceCellCount(3);
+		m_hopper.forceCellCount(3);
 
 		// Put the limelight in "Primary" mode to debug aiming
-		Limelight2.getInstance().setCamMode(CameraMode.PIP_MAIN);
-		Limelight2.getInstance().setLED(LEDMode.OFF);
+		m_limelight.setCamMode(CameraMode.PIP_MAIN);
+		m_limelight.setLED(LEDMode.OFF);
 	}
 
 	@Override
 	public void autonomousPeriodic() {
 
 		// Run all scheduled WPILib commands
-		CommandScheduler.getInstance().run();
+		m_loopProfiler.runScheduler();
 	}
 
 	@Override
@@ -192,14 +392,14 @@ public class Robot extends TimedRobot {
 		m_driveTrain.setRampRate(0.2);
 
 		// Lock the climber
-		Climber.getInstance().lock();
+		m_climber.lock();
 
 		// Freeze the intake to make Tiet happy
-		Intake.getInstance().freeze();
+		m_intake.freeze();
 
 		// Put the limelight in "Secondary" mode for driver assist
-		Limelight2.getInstance().setCamMode(CameraMode.PIP_SECONDARY);
-		Limelight2.getInstance().setLED(LEDMode.OFF);
+		m_limelight.setCamMode(CameraMode.PIP_SECONDARY);
+		m_limelight.setLED(LEDMode.OFF);
 
 		// Disable the autonomous command
 		if (m_autonomousCommand != null) {
@@ -212,7 +412,7 @@ public class Robot extends TimedRobot {
 		}
 
 		if (m_operatorControl != null) {
-			m_operatorControl.schedule();
+			m_operatorCommand.schedule();
 
 			// Ensure all sub-commands are killed
 			m_operatorControl.killAllActions();
@@ -224,7 +424,7 @@ public class Robot extends TimedRobot {
 	public void teleopPeriodic() {
 
 		// Run all scheduled WPILib commands
-		CommandScheduler.getInstance().run();
+		m_loopProfiler.runScheduler();
 	}
 
 	@Override
@@ -235,6 +435,23 @@ public class Robot extends TimedRobot {
 		AnalyticsEngine.logStats();
 		AnalyticsEngine.resetStats();
 
+		// Dump power metrics
+		m_powerManager.logStatus();
+		m_powerManager.resetMetrics();
+
+		// Dump loop tier overruns
+		m_looper.logStatus();
+
+		// Dump telemetry bandwidth
+		m_telemetryPublisher.logStatus();
+
+		// Save any buffered telemetry
+		try {
+			m_telemetry.flush();
+		} catch (IOException e) {
+			logger.log("Robot", "Failed to write telemetry recording", Level.kWarning);
+		}
+
 		// Disable brakes on the DriveTrain
 		m_driveTrain.setBrakes(false);
 		m_driveTrain.stop();
@@ -243,10 +460,10 @@ public class Robot extends TimedRobot {
 		m_operatorControl.killAllActions();
 
 		// Put the climber in service mode
-		Climber.getInstance().service();
+		m_climber.service();
 
 		// Put the Limelight in "SBS" mode
-		Limelight2.getInstance().setCamMode(CameraMode.STANDARD);
+		m_limelight.setCamMode(CameraMode.STANDARD);
 
 	}
 
@@ -254,17 +471,20 @@ public class Robot extends TimedRobot {
 	public void disabledPeriodic() {
 
 		// Run all scheduled WPILib commands
-		CommandScheduler.getInstance().run();
+		m_loopProfiler.runScheduler();
+
+		// Rebuild the autonomous command if the selection changed
+		m_autonPrebuilder.update();
 
 		// Handle limelight toggle
 		if (RobotController.getUserButton()) {
 			if (!m_lastUserState) {
 
 				// Toggle Light
-				if (Limelight2.getInstance().getLEDMode() == LEDMode.OFF) {
-					Limelight2.getInstance().setLED(LEDMode.ON);
+				if (m_limelight.getLEDMode() == LEDMode.OFF) {
+					m_limelight.setLED(LEDMode.ON);
 				} else {
-					Limelight2.getInstance().setLED(LEDMode.OFF);
+					m_limelight.setLED(LEDMode.OFF);
 
 				}
 			}
@@ -282,7 +502,7 @@ public class Robot extends TimedRobot {
 		logger.log("Robot", "Started test mode");
 
 		// Freeze the intake to stop it from auto-stowing
-		Intake.getInstance().freeze();
+		m_intake.freeze();
 	}
 
 }
@@ -1,6 +1,7 @@
 package frc.robot;
 
 import edu.wpi.first.wpilibj.controller.PIDController;
+import edu.wpi.first.wpilibj.geometry.Translation2d;
 import edu.wpi.first.wpilibj.kinematics.DifferentialDriveKinematics;
 import edu.wpi.first.wpilibj.util.Units;
 import frc.lib5k.kinematics.PIDProfile;
@@ -71,10 +72,6 @@ public class RobotConstants {
      */
     public static class DriveTrain {
 
-        public static class Simulation {
-            public static final double ENCODER_RAMP_RATE = 0.12;
-        }
-
         /**
          * Motor controller IDs
          */
@@ -102,6 +99,9 @@ public class RobotConstants {
             public static final int TIMEOUT_MS = 15;
         }
 
+        // Time between gyro reads on the sensor thread (seconds)
+        public static final double GYRO_POLL_PERIOD = 0.005;
+
         /**
          * Encoder constants
          */
@@ -202,6 +202,9 @@ public class RobotConstants {
 
         public static final int DISTANCE_THRESHOLD = 200;
 
+        // Time between color sensor reads on the sensor thread (seconds)
+        public static final double COLOR_SENSOR_POLL_PERIOD = 0.02;
+
         public static final double SPINNER_SPEED = 1.0;
 
         /**
@@ -226,6 +229,7 @@ public class RobotConstants {
         // Sensors DIO ports
         public static final int INTAKE_LIMIT_BOTTOM = 0;
         public static final int INTAKE_LIMIT_TOP = 1;
+        public static final double LIMIT_POLL_PERIOD = 0.01;
 
         // PID values
         public static final double kPArm = 0.011111111111;
@@ -265,6 +269,9 @@ public class RobotConstants {
 
         public static final int HOPPER_SENSOR_DELAY_CYCLES = 20;
 
+        // Time between line break reads on the sensor thread (seconds)
+        public static final double LINEBREAK_POLL_PERIOD = 0.01;
+
         // Belt speed during shooting
         public static final double SHOOTER_FEED_SPEED = 0.5;
 
@@ -299,6 +306,20 @@ public class RobotConstants {
         public static final double kIz = 0.0;
         public static final double kFF = 0.0;
 
+        /* Flywheel model (from characterization/Shooter) */
+        // Off until the model controller has been tuned on the real flywheel
+        public static final boolean USE_MODEL_CONTROL = false;
+        public static final double kS = 0.5715;
+        public static final double kV = 0.002252;
+        public static final double kA = 0.000464;
+
+        /* Model-based controller tuning */
+        public static final double MODEL_VELOCITY_TOLERANCE = 50.0;
+        public static final double MODEL_CONTROL_EFFORT = 12.0;
+        public static final double MODEL_STD_DEV = 10.0;
+        public static final double MEASUREMENT_STD_DEV = 30.0;
+        public static final double BANG_BANG_THRESHOLD = 300.0;
+
         /* Limelight */
         public static final double TARGET_HEIGHT = 2.49;
         public static final double LIMELIGHT_HEIGHT = 1;
@@ -317,6 +338,10 @@ public class RobotConstants {
                                                                             // Amazing auto
         // init line val: 0.71
 
+        /* Distance to RPM table */
+        public static final String RPM_TABLE_FILE = "shooter_rpm.csv";
+        public static final String SHOT_SAMPLE_FILE = "shooter_samples.csv";
+
         /* Auton shooter vals */
         public static class ShooterGoals {
             
@@ -343,6 +368,7 @@ public class RobotConstants {
         public static final int MOTOR_CONTROLLER_ID = 21;
         public static final int HIGH_HALL_ID = 5;
         public static final int LOW_HALL_ID = 6;
+        public static final double HALL_POLL_PERIOD = 0.01;
     }
 
     public static class Pneumatics {
@@ -351,4 +377,115 @@ public class RobotConstants {
         public static final int PCM_CAN_ID = 8;
     }
 
+    /**
+     * Constants regarding robot startup
+     */
+    public static class Startup {
+
+        // Construct independent devices on their own threads, while the subsystems
+        // are built
+        public static final boolean PARALLEL_CONSTRUCTION = true;
+    }
+
+    /**
+     * Constants regarding the control loop tiers
+     */
+    public static class Loops {
+
+        // Run the drivetrain and flywheel control loops faster than the command loop.
+        // Off until the drift and settling gains have been measured on the robot
+        public static final boolean USE_FAST_TIER = false;
+
+        // Fast tier period (seconds)
+        public static final double FAST_PERIOD = 0.005;
+
+        // Fast tier real-time priority. Above the main robot thread, below the HAL's
+        // own threads
+        public static final int FAST_PRIORITY = 15;
+    }
+
+    /**
+     * Constants regarding the pose stream used by FieldSim
+     */
+    public static class PoseStream {
+
+        // Also stream poses over UDP, as well as NetworkTables
+        public static final boolean UDP_STREAM = true;
+
+        // Driver station to stream to on a real robot, or null to only stream in
+        // simulation. Never a broadcast address, as the field network is shared
+        public static final String UDP_HOST = null;
+
+        /* Simulation UDP target. The port is in the FRC team-use range (5800-5810) */
+        public static final String SIM_UDP_HOST = "127.0.0.1";
+        public static final int UDP_PORT = 5806;
+
+        // Time between pose samples (seconds), matching the fast tier
+        public static final double STREAM_PERIOD = 0.005;
+    }
+
+    /**
+     * Constants regarding CAN bus traffic
+     */
+    public static class CAN {
+
+        // Skip sending repeated motor outputs
+        public static final boolean COALESCE_OUTPUTS = true;
+
+        // Smallest change in motor output that is sent
+        public static final double OUTPUT_EPSILON = 0.001;
+
+        // Resend an unchanged output after this long (seconds)
+        public static final double KEEP_ALIVE_PERIOD = 0.1;
+    }
+
+    /**
+     * Constants regarding battery current budgeting
+     */
+    public static class Power {
+
+        // Battery internal resistance, including wiring (ohms)
+        public static final double BATTERY_RESISTANCE = 0.02;
+
+        // Voltage the battery is kept above by shedding load
+        public static final double VOLTAGE_FLOOR = 7.5;
+
+        // Time spent below this voltage is counted as a near-brownout
+        public static final double LOW_VOLTAGE = 7.0;
+
+        // Continuous current limit configured on the mechanism Talons
+        public static final double MECHANISM_HOLD_AMPS = 32.0;
+
+        /* Load priorities. Lower numbers are served first */
+        public static final int DRIVETRAIN_PRIORITY = 0;
+        public static final int CLIMBER_PRIORITY = 1;
+        public static final int SHOOTER_PRIORITY = 2;
+        public static final int HOPPER_PRIORITY = 3;
+        public static final int INTAKE_PRIORITY = 4;
+        public static final int PANEL_MANIPULATOR_PRIORITY = 5;
+    }
+
+    /**
+     * Constants regarding vision pose fusion
+     */
+    public static class Vision {
+
+        // Field-relative vision target locations
+        public static final Translation2d[] FIELD_TARGETS = new Translation2d[] { new Translation2d(0, -1.45) };
+
+        // Number of control loops of pose history to keep for latency compensation
+        // (1 second at 200Hz)
+        public static final int POSE_HISTORY_LENGTH = 200;
+
+        // Fraction of the measured odometry error to correct per frame
+        public static final double FUSION_GAIN = 0.1;
+
+        // Measurements further than this from a known target are rejected (meters)
+        public static final double MAX_TARGET_ERROR = 1.0;
+
+        /* Usable target distance range (meters) */
+        public static final double MIN_TARGET_DISTANCE = 1.0;
+        public static final double MAX_TARGET_DISTANCE = 8.0;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package frc.robot;
+
+import frc.lib5k.kinematics.models.DCBrushedMotor;
+import frc.lib5k.simulation.physics.BatteryModel;
+import frc.lib5k.simulation.physics.DifferentialDrivePlant;
+import frc.lib5k.simulation.physics.PhysicsPlant;
+import frc.robot.subsystems.DriveTrain;
+import frc.robot.subsystems.cellmech.CellMechSimulation;
+import frc.robot.subsystems.cellmech.Hopper;
+import frc.robot.subsystems.cellmech.Intake;
+import frc.robot.subsystems.cellmech.Shooter;
+
+/**
+ * The physics simulation of the whole robot. <br>
+ * <br>
+ * This builds the battery, drivetrain, and cell mechanism models, and connects
+ * every subsystem to them. The battery is stepped first, so every motor sees
+ * the voltage sag caused by the last step's current draw.
+ */
+public class RobotPlant {
+
+    /* Battery */
+    private static final double BATTERY_VOLTAGE = 12.5;
+    private static final double BATTERY_RESISTANCE = 0.02;
+
+    /* Drivetrain motors */
+    private static final DCBrushedMotor DRIVE_MOTOR = DCBrushedMotor.CIM;
+    private static final int DRIVE_MOTORS_PER_SIDE = 2;
+
+    /* Models */
+    private PhysicsPlant m_plant;
+    private BatteryModel m_battery;
+    private DifferentialDrivePlant m_drive;
+    private CellMechSimulation m_cellMech;
+
+    /**
+     * Create a RobotPlant, and connect every subsystem to it
+     */
+    public RobotPlant() {
+        m_plant = new PhysicsPlant(CellMechSimulation.PERIOD);
+
+        m_battery = new BatteryModel(BATTERY_VOLTAGE, BATTERY_RESISTANCE);
+        m_battery.setLowVoltage(RobotConstants.Power.LOW_VOLTAGE);
+        m_plant.addModel(m_battery);
+
+        // Simulate the drivetrain from its characterization
+        m_drive = new DifferentialDrivePlant(RobotConstants.ControlGains.ksVolts,
+                RobotConstants.ControlGains.kvVoltsSecondsPerMeter,
+                RobotConstants.ControlGains.kaVoltsSecondsSquaredPerMeter,
+                RobotConstants.DriveTrain.Measurements.DRIVEBASE_WIDTH, DRIVE_MOTOR, DRIVE_MOTORS_PER_SIDE, m_battery);
+        m_drive.setCurrentLimit(DRIVE_MOTORS_PER_SIDE * RobotConstants.DriveTrain.CurrentLimits.HOLD_AMPS);
+        DriveTrain.getInstance().addSimulation(m_drive);
+        m_plant.addModel(m_drive);
+
+        // Simulate the cell mechanisms
+        m_cellMech = new CellMechSimulation(m_battery);
+        Intake.getInstance().addSimulation(m_cellMech);
+        Hopper.getInstance().addSimulation(m_cellMech);
+        Shooter.getInstance().addSimulation(m_cellMech);
+        m_plant.addModel(m_cellMech);
+    }
+
+    /**
+     * Get the plant that steps every model
+     *
+     * @return Physics plant
+     */
+    public PhysicsPlant getPlant() {
+        return m_plant;
+    }
+
+    /**
+     * Get the battery model
+     *
+     * @return Battery
+     */
+    public BatteryModel getBattery() {
+        return m_battery;
+    }
+
+    /**
+     * Get the drivetrain model
+     *
+     * @return Drivetrain
+     */
+    public DifferentialDrivePlant getDrive() {
+        return m_drive;
+    }
+
+    /**
+     * Get the cell mechanism model
+     *
+     * @return Cell mechanisms
+     */
+    public CellMechSimulation getCellMech() {
+        return m_cellMech;
+    }
+}
@@ -0,0 +1,120 @@
+package frc.robot.autonomous;
+
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import frc.lib5k.utils.RobotLogger;
+import frc.lib5k.utils.RobotLogger.Level;
+import frc.robot.autonomous.paths.AutonomousPath;
+
+/**
+ * Builds the autonomous command while the robot is disabled, so
+ * autonomousInit() does not have to. <br>
+ * <br>
+ * {@link #update()} is called from disabledPeriodic(), and rebuilds the
+ * command whenever the chooser selections change. Building stays on the main
+ * thread, as command groups register their commands in a static map that is not
+ * thread safe. Everything here must only be used from the main thread.
+ */
+public class AutonomousPrebuilder {
+    private RobotLogger logger = RobotLogger.getInstance();
+
+    /**
+     * A built command, and the selections it was built for
+     */
+    private static class Prebuilt {
+        public final AutonomousPath path;
+        public final boolean shouldScore;
+        public final boolean getExtraCells;
+        public final CommandBase command;
+
+        public Prebuilt(AutonomousPath path, boolean shouldScore, boolean getExtraCells, CommandBase command) {
+            this.path = path;
+            this.shouldScore = shouldScore;
+            this.getExtraCells = getExtraCells;
+            this.command = command;
+        }
+
+        public boolean matches(AutonomousPath path, boolean shouldScore, boolean getExtraCells) {
+            return this.path == path && this.shouldScore == shouldScore && this.getExtraCells == getExtraCells;
+        }
+    }
+
+    // Chooser to watch
+    private Chooser m_chooser;
+
+    // Most recently built command
+    private Prebuilt m_prebuilt = null;
+
+    /* Last seen selections */
+    private AutonomousPath m_lastPath = null;
+    private boolean m_lastShouldScore, m_lastGetExtraCells;
+
+    /**
+     * Create an AutonomousPrebuilder
+     *
+     * @param chooser Chooser to watch
+     */
+    public AutonomousPrebuilder(Chooser chooser) {
+        m_chooser = chooser;
+    }
+
+    /**
+     * Check for a new selection, and build it. Call this from disabledPeriodic()
+     */
+    public void update() {
+        AutonomousPath path = m_chooser.getSelectedPath();
+        boolean shouldScore = m_chooser.getShouldScore();
+        boolean getExtraCells = m_chooser.getGetExtraCells();
+
+        // Skip if nothing has changed
+        if (path == null || (path == m_lastPath && shouldScore == m_lastShouldScore
+                && getExtraCells == m_lastGetExtraCells)) {
+            return;
+        }
+        m_lastPath = path;
+        m_lastShouldScore = shouldScore;
+        m_lastGetExtraCells = getExtraCells;
+
+        long startTime = System.nanoTime();
+
+        // Build the command for autonomousInit() to pick up
+        CommandBase command = m_chooser.generateAutonomousCommand(path, shouldScore, getExtraCells);
+        m_prebuilt = new Prebuilt(path, shouldScore, getExtraCells, command);
+
+        logger.log("AutonomousPrebuilder",
+                String.format("Prebuilt autonomous command in %.1fms", (System.nanoTime() - startTime) / 1e6));
+    }
+
+    /**
+     * Get the autonomous command for the current selections. This is the
+     * prebuilt command if it is still valid, otherwise one is built now.
+     *
+     * @return Autonomous command
+     */
+    public CommandBase getCommand() {
+        long startTime = System.nanoTime();
+
+        AutonomousPath path = m_chooser.getSelectedPath();
+        boolean shouldScore = m_chooser.getShouldScore();
+        boolean getExtraCells = m_chooser.getGetExtraCells();
+
+        // Take the prebuilt command, so it can never be handed out twice
+        Prebuilt prebuilt = m_prebuilt;
+        m_prebuilt = null;
+        CommandBase command;
+        boolean wasPrebuilt = prebuilt != null && prebuilt.matches(path, shouldScore, getExtraCells);
+        if (wasPrebuilt) {
+            command = prebuilt.command;
+        } else {
+            command = m_chooser.generateAutonomousCommand(path, shouldScore, getExtraCells);
+        }
+
+        // Force a rebuild next time the robot is disabled
+        m_lastPath = null;
+
+        logger.log("AutonomousPrebuilder", String.format("Autonomous command ready in %.3fms (%s)",
+                (System.nanoTime() - startTime) / 1e6, (wasPrebuilt) ? "prebuilt" : "built on demand"),
+                (wasPrebuilt) ? Level.kInfo : Level.kWarning);
+
+        return command;
+    }
+}
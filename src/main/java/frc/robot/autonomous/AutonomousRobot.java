@@ -0,0 +1,136 @@
+package frc.robot.autonomous;
+
+import edu.wpi.first.wpilibj.geometry.Pose2d;
+import edu.wpi.first.wpilibj.geometry.Rotation2d;
+import frc.lib5k.kinematics.DriveSignal;
+import frc.lib5k.kinematics.MutablePose2d;
+import frc.lib5k.utils.telemetry.PoseStream;
+
+/**
+ * Everything an autonomous action needs from the robot. Actions get the
+ * current robot from {@link RobotContext#get()}, so the same command groups can
+ * drive the real subsystems, or an isolated simulated robot.
+ */
+public interface AutonomousRobot {
+
+    /**
+     * Get the robot's estimated field position
+     *
+     * @return Position
+     */
+    public Pose2d getPosition();
+
+    /**
+     * Copy the robot's estimated field position into a pose, without allocating
+     *
+     * @param pose Pose to copy into
+     * @return The same pose
+     */
+    public MutablePose2d getPosition(MutablePose2d pose);
+
+    /**
+     * Drive with arcade inputs
+     *
+     * @param speed    Speed [-1 - 1]
+     * @param rotation Rotation [-1 - 1]
+     */
+    public void drive(double speed, double rotation);
+
+    /**
+     * Drive with an open-loop signal
+     *
+     * @param signal Signal
+     */
+    public void setOpenLoop(DriveSignal signal);
+
+    /**
+     * Turn to face a field-relative angle
+     *
+     * @param rotation Desired angle
+     * @param epsilon  Allowed error in degrees
+     * @return Is facing angle?
+     */
+    public boolean face(Rotation2d rotation, double epsilon);
+
+    /**
+     * Stop the drivetrain
+     */
+    public void stop();
+
+    /**
+     * Shoot an amount of cells
+     *
+     * @param amount Cells to shoot
+     */
+    public void shootCells(int amount);
+
+    /**
+     * Intake until holding an amount of cells
+     *
+     * @param amount Cells to be holding
+     */
+    public void intakeCells(int amount);
+
+    /**
+     * Stop the current cell action
+     */
+    public void stopCells();
+
+    /**
+     * Stop the hopper
+     */
+    public void stopHopper();
+
+    /**
+     * Get if the current cell action is done
+     *
+     * @return Is done?
+     */
+    public boolean isCellActionDone();
+
+    /**
+     * Set the shooter output for autonomous
+     *
+     * @param rpm Output velocity in RPM
+     */
+    public void setShooterOutput(double rpm);
+
+    /**
+     * Force-set the number of held cells
+     *
+     * @param count Cell count
+     */
+    public void forceCellCount(int count);
+
+    /**
+     * Get the number of held cells
+     *
+     * @return Cell count
+     */
+    public int getCellCount();
+
+    /**
+     * Lower and run the intake
+     */
+    public void deployIntake();
+
+    /**
+     * Stow the intake
+     */
+    public void stowIntake();
+
+    /**
+     * Get the robot's current time
+     *
+     * @return Time in seconds
+     */
+    public double getTimestamp();
+
+    /**
+     * Get the stream that shows the robot's path on the field. Only the real
+     * robot has one, so simulated robots on other threads never write to it.
+     *
+     * @return Pose stream, or null if paths should not be shown
+     */
+    public PoseStream getPoseStream();
+}
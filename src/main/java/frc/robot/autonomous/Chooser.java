@@ -1,5 +1,8 @@
 package frc.robot.autonomous;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import edu.wpi.first.wpilibj.geometry.Pose2d;
 import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
 import edu.wpi.first.wpilibj.shuffleboard.ShuffleboardTab;
@@ -31,6 +34,9 @@ public class Chooser {
     private SendableChooser<Boolean> m_shouldScore = new SendableChooser<>();
     private SendableChooser<Boolean> m_getExtraCells = new SendableChooser<>();
 
+    /* Every available path, by name */
+    private Map<String, AutonomousPath> m_paths = new LinkedHashMap<>();
+
     /**
      * Here, we set up each chooser. This should be changed to reflect the ideal
      * "defaults"
@@ -38,13 +44,22 @@ public class Chooser {
     public Chooser() {
 
         // Paths
-        m_pathChooser.setDefaultOption("1. Score Twice", new ScoreTwice());
-        m_pathChooser.addOption("2. Shoot Center", new CenterScore());
-        m_pathChooser.addOption("3. Shoot Trench Drive Off", new ShootTrenchDriveOff());
-        m_pathChooser.addOption("4. Shoot Center Drive Off", new CenterDriveOff());
-        m_pathChooser.addOption("5. Buddy Score", new BuddyScore());
-        m_pathChooser.addOption("Test PID", new TestPID());
-        m_pathChooser.addOption("Test Pure", new TestPure());
+        m_paths.put("1. Score Twice", new ScoreTwice());
+        m_paths.put("2. Shoot Center", new CenterScore());
+        m_paths.put("3. Shoot Trench Drive Off", new ShootTrenchDriveOff());
+        m_paths.put("4. Shoot Center Drive Off", new CenterDriveOff());
+        m_paths.put("5. Buddy Score", new BuddyScore());
+        m_paths.put("Test PID", new TestPID());
+        m_paths.put("Test Pure", new TestPure());
+
+        // The first path is the default
+        for (Map.Entry<String, AutonomousPath> path : m_paths.entrySet()) {
+            if (path.getKey().equals("1. Score Twice")) {
+                m_pathChooser.setDefaultOption(path.getKey(), path.getValue());
+            } else {
+                m_pathChooser.addOption(path.getKey(), path.getValue());
+            }
+        }
         // Scoring
         m_shouldScore.setDefaultOption("Score balls", true);
         m_shouldScore.addOption("Do not score balls", false);
@@ -77,6 +92,19 @@ public class Chooser {
      * @return Generated command
      */
     public CommandBase generateAutonomousCommand() {
+        return generateAutonomousCommand(m_pathChooser.getSelected(), m_shouldScore.getSelected(),
+                m_getExtraCells.getSelected());
+    }
+
+    /**
+     * Generate an Autonomous command for a specific path
+     * 
+     * @param path          Path to run
+     * @param shouldScore   Should score?
+     * @param getExtraCells Should get extra cells?
+     * @return Generated command
+     */
+    public CommandBase generateAutonomousCommand(AutonomousPath path, boolean shouldScore, boolean getExtraCells) {
         logger.log("Chooser", "Generating autonomous command object");
 
         // Create a group of commands to build from
@@ -90,8 +118,7 @@ public class Chooser {
 
         // Generate and add the path
         try {
-            outputCommand.addCommands(
-                    m_pathChooser.getSelected().generate(m_shouldScore.getSelected(), m_getExtraCells.getSelected()));
+            outputCommand.addCommands(path.generate(shouldScore, getExtraCells));
         } catch (NullPointerException e) {
             System.out.println("WARNING: Failed to generate Autonomous path due to NPE");
         }
@@ -99,6 +126,42 @@ public class Chooser {
         return outputCommand;
     }
 
+    /**
+     * Get every available path
+     * 
+     * @return Paths, by name
+     */
+    public Map<String, AutonomousPath> getPaths() {
+        return m_paths;
+    }
+
+    /**
+     * Get the selected path
+     *
+     * @return Selected path
+     */
+    public AutonomousPath getSelectedPath() {
+        return m_pathChooser.getSelected();
+    }
+
+    /**
+     * Get if the robot should score
+     *
+     * @return Should score?
+     */
+    public boolean getShouldScore() {
+        return m_shouldScore.getSelected();
+    }
+
+    /**
+     * Get if the robot should get extra cells
+     *
+     * @return Should get extra cells?
+     */
+    public boolean getGetExtraCells() {
+        return m_getExtraCells.getSelected();
+    }
+
     /**
      * Get a Pose2d representing the robot's exact starting location for the
      * selected autonomous mode
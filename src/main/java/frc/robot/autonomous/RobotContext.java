@@ -0,0 +1,163 @@
+package frc.robot.autonomous;
+
+import edu.wpi.first.wpilibj.geometry.Pose2d;
+import edu.wpi.first.wpilibj.geometry.Rotation2d;
+import frc.lib5k.kinematics.DriveSignal;
+import frc.lib5k.kinematics.MutablePose2d;
+import frc.lib5k.roborio.FPGAClock;
+import frc.lib5k.utils.telemetry.PoseStream;
+import frc.robot.subsystems.CellSuperstructure;
+import frc.robot.subsystems.DriveTrain;
+import frc.robot.subsystems.cellmech.Hopper;
+import frc.robot.subsystems.cellmech.Intake;
+import frc.robot.subsystems.cellmech.Shooter;
+
+/**
+ * Provides the {@link AutonomousRobot} that autonomous actions should control.
+ * <br>
+ * <br>
+ * By default this is the real robot, backed by the subsystem singletons. A
+ * thread can bind its own robot (ex. a simulated robot model) so that many
+ * robots can run autonomous command groups at the same time, each on its own
+ * thread.
+ */
+public class RobotContext {
+
+    /* Robots */
+    private static final ThreadLocal<AutonomousRobot> s_bound = new ThreadLocal<>();
+    private static AutonomousRobot s_hardware = null;
+
+    /**
+     * Get the robot for the current thread
+     *
+     * @return Bound robot, or the real robot if nothing is bound
+     */
+    public static AutonomousRobot get() {
+        AutonomousRobot robot = s_bound.get();
+        if (robot != null) {
+            return robot;
+        }
+
+        return getHardware();
+    }
+
+    /**
+     * Bind a robot to the current thread
+     *
+     * @param robot Robot
+     */
+    public static void bind(AutonomousRobot robot) {
+        s_bound.set(robot);
+    }
+
+    /**
+     * Unbind the current thread's robot
+     */
+    public static void unbind() {
+        s_bound.remove();
+    }
+
+    private static synchronized AutonomousRobot getHardware() {
+        if (s_hardware == null) {
+            s_hardware = new HardwareRobot();
+        }
+
+        return s_hardware;
+    }
+
+    /**
+     * The real robot
+     */
+    private static class HardwareRobot implements AutonomousRobot {
+
+        @Override
+        public Pose2d getPosition() {
+            return DriveTrain.getInstance().getPosition();
+        }
+
+        @Override
+        public MutablePose2d getPosition(MutablePose2d pose) {
+            return DriveTrain.getInstance().getPosition(pose);
+        }
+
+        @Override
+        public void drive(double speed, double rotation) {
+            DriveTrain.getInstance().drive(speed, rotation);
+        }
+
+        @Override
+        public void setOpenLoop(DriveSignal signal) {
+            DriveTrain.getInstance().setOpenLoop(signal);
+        }
+
+        @Override
+        public boolean face(Rotation2d rotation, double epsilon) {
+            return DriveTrain.getInstance().face(rotation, epsilon);
+        }
+
+        @Override
+        public void stop() {
+            DriveTrain.getInstance().stop();
+        }
+
+        @Override
+        public void shootCells(int amount) {
+            CellSuperstructure.getInstance().shootCells(amount);
+        }
+
+        @Override
+        public void intakeCells(int amount) {
+            CellSuperstructure.getInstance().intakeCells(amount);
+        }
+
+        @Override
+        public void stopCells() {
+            CellSuperstructure.getInstance().stop();
+        }
+
+        @Override
+        public void stopHopper() {
+            Hopper.getInstance().stop();
+        }
+
+        @Override
+        public boolean isCellActionDone() {
+            return CellSuperstructure.getInstance().isDone();
+        }
+
+        @Override
+        public void setShooterOutput(double rpm) {
+            Shooter.getInstance().setAutonomousOutput(rpm);
+        }
+
+        @Override
+        public void forceCellCount(int count) {
+            Hopper.getInstance().forceCellCount(count);
+        }
+
+        @Override
+        public int getCellCount() {
+            return Hopper.getInstance().getCellCount();
+        }
+
+        @Override
+        public void deployIntake() {
+            Intake.getInstance().intake();
+        }
+
+        @Override
+        public void stowIntake() {
+            Intake.getInstance().stow();
+        }
+
+        @Override
+        public double getTimestamp() {
+            return FPGAClock.getFPGASeconds();
+        }
+
+        @Override
+        public PoseStream getPoseStream() {
+            return PoseStream.getInstance();
+        }
+    }
+}
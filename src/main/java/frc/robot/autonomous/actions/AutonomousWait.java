@@ -0,0 +1,42 @@
+package frc.robot.autonomous.actions;
+
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import frc.robot.autonomous.RobotContext;
+
+/**
+ * Waits for an amount of time on the current {@link RobotContext} robot's
+ * clock. Use this with raceWith() instead of withTimeout(), which always uses
+ * the global robot clock.
+ */
+public class AutonomousWait extends CommandBase {
+
+    // Time to wait
+    private double m_duration;
+
+    // Time the wait started
+    private double m_startTime;
+
+    /**
+     * Wait for an amount of time
+     *
+     * @param seconds Time to wait
+     */
+    public AutonomousWait(double seconds) {
+        m_duration = seconds;
+    }
+
+    @Override
+    public void initialize() {
+        m_startTime = RobotContext.get().getTimestamp();
+    }
+
+    @Override
+    public boolean isFinished() {
+        return RobotContext.get().getTimestamp() - m_startTime >= m_duration;
+    }
+
+    @Override
+    public boolean runsWhenDisabled() {
+        return true;
+    }
+}
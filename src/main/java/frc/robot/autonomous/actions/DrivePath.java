@@ -1,23 +1,38 @@
 package frc.robot.autonomous.actions;
 
+import java.util.function.BiConsumer;
+
 import edu.wpi.first.wpilibj.geometry.Translation2d;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 import frc.lib5k.kinematics.DriveSignal;
+import frc.lib5k.kinematics.MutablePose2d;
 import frc.lib5k.kinematics.purepursuit.Path;
 import frc.lib5k.kinematics.purepursuit.PurePursuitController;
 import frc.lib5k.utils.RobotLogger;
+import frc.lib5k.utils.telemetry.PoseStream;
 import frc.robot.RobotConstants;
-import frc.robot.subsystems.DriveTrain;
+import frc.robot.autonomous.RobotContext;
 
 public class DrivePath extends CommandBase {
 
+    // Told about every path that stops driving, and if it was interrupted
+    private static volatile BiConsumer<Path, Boolean> s_endListener = null;
+
     private PurePursuitController m_controller;
+    private Path m_path;
 
     private Translation2d m_epsilon;
 
+    // Robot pose, reused every loop
+    private MutablePose2d m_pose = new MutablePose2d();
+
+    // Stream to show the path on, if the robot has one
+    private PoseStream m_poseStream;
+
     public DrivePath(Path path, double lookahead, Translation2d epsilon, double kP, double kSpeedCap) {
 
         this.m_epsilon = epsilon;
+        this.m_path = path;
 
         m_controller = new PurePursuitController(path, lookahead, 0.1,
                 RobotConstants.DriveTrain.Measurements.DRIVEBASE_LENGTH, kP, kSpeedCap);
@@ -28,28 +43,58 @@ public class DrivePath extends CommandBase {
     public void initialize() {
         RobotLogger.getInstance().log("DrivePath", "Driving path");
         m_controller.reset();
+
+        // Show the path on the field
+        m_poseStream = RobotContext.get().getPoseStream();
+        if (m_poseStream != null) {
+            m_poseStream.setPath(m_path);
+        }
     }
 
     @Override
     public void execute() {
 
         // Get DriveSignal for drivebase
-        DriveSignal signal = m_controller.calculate(DriveTrain.getInstance().getPosition());
+        DriveSignal signal = m_controller.calculate(RobotContext.get().getPosition(m_pose));
 
         // Send signal to drivetrain
-        DriveTrain.getInstance().setOpenLoop(signal);
+        RobotContext.get().setOpenLoop(signal);
+
+        // Show the lookahead point on the field
+        if (m_poseStream != null) {
+            m_poseStream.setLookahead(m_controller.getTargetX(), m_controller.getTargetY());
+        }
 
     }
 
     @Override
     public void end(boolean interrupted) {
         RobotLogger.getInstance().log("DrivePath", "Finished driving path");
-        DriveTrain.getInstance().stop();
+        RobotContext.get().stop();
+        if (m_poseStream != null) {
+            m_poseStream.clearPath();
+        }
+
+        BiConsumer<Path, Boolean> listener = s_endListener;
+        if (listener != null) {
+            listener.accept(m_path, interrupted);
+        }
 
     }
 
     @Override
     public boolean isFinished() {
-        return m_controller.isFinished(DriveTrain.getInstance().getPosition(), m_epsilon);
+        return m_controller.isFinished(RobotContext.get().getPosition(m_pose), m_epsilon);
+    }
+
+    /**
+     * Set a listener to be told whenever any path stops driving. Used by
+     * simulations to check how well paths are followed.
+     * 
+     * @param listener Called with the path, and if it was interrupted. Null to
+     *                 remove
+     */
+    public static void setEndListener(BiConsumer<Path, Boolean> listener) {
+        s_endListener = listener;
     }
 }
\ No newline at end of file
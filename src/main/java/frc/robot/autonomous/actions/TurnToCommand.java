@@ -2,7 +2,7 @@ package frc.robot.autonomous.actions;
 
 import edu.wpi.first.wpilibj.geometry.Rotation2d;
 import edu.wpi.first.wpilibj2.command.CommandBase;
-import frc.robot.subsystems.DriveTrain;
+import frc.robot.autonomous.RobotContext;
 
 /**
  * Command for handling autonomous turning with PID solve
@@ -77,7 +77,7 @@ public class TurnToCommand extends CommandBase {
     public void execute() {
 
         // Handle drive and settle
-        if (DriveTrain.getInstance().face(setpoint, epsilon)) {
+        if (RobotContext.get().face(setpoint, epsilon)) {
             cycles++;
         }
     }
@@ -86,7 +86,7 @@ public class TurnToCommand extends CommandBase {
     public void end(boolean interrupted) {
 
         // Stop the drivetrain
-        DriveTrain.getInstance().stop();
+        RobotContext.get().stop();
     }
 
     @Override
@@ -7,6 +7,7 @@ import frc.robot.subsystems.DriveTrain;
 import frc.robot.vision.Limelight2;
 import frc.robot.vision.LimelightTarget;
 import frc.robot.vision.SimVision;
+import frc.robot.vision.VisionFrame;
 import frc.robot.vision.Limelight2.LEDMode;
 
 public class VisionAlign extends CommandBase {
@@ -72,21 +73,25 @@ public class VisionAlign extends CommandBase {
         Rotation2d setpoint;
 
         // Find a vision target
-        LimelightTarget target = m_limelight.getTarget();
+        VisionFrame frame = m_limelight.getFrame();
+        boolean hasTarget = frame.hasTarget();
+        double targetAngle = frame.getXAngle();
 
         // If we are simulating, find a simulated target
         if (SimVision.shouldSimulate()) {
-            target = SimVision.getSimulatedTarget();
+            LimelightTarget target = SimVision.getSimulatedTarget();
+            hasTarget = target != null;
+            targetAngle = (hasTarget) ? target.tx : 0.0;
         }
 
         // Get the robot's angle
         double robotAngle = DriveTrain.getInstance().getPosition().getRotation().getDegrees();
 
         // Check for a limelight target
-        if (target != null) {
+        if (hasTarget) {
 
             // Set the setpoint to that of the target
-            setpoint = Rotation2d.fromDegrees((target.tx * -1) + robotAngle);
+            setpoint = Rotation2d.fromDegrees((targetAngle * -1) + robotAngle);
         } else {
             // Use fallback angle if no target is found
             setpoint = fallback;
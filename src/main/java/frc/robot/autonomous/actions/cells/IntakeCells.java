@@ -3,14 +3,11 @@ package frc.robot.autonomous.actions.cells;
 import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 import frc.lib5k.utils.RobotLogger;
-import frc.robot.subsystems.CellSuperstructure;
+import frc.robot.autonomous.RobotContext;
 
 /** Command to intake an amount of cells */
 public class IntakeCells extends CommandBase {
 
-    /** Instance of the cell superstructure */
-    private CellSuperstructure m_cellSuperstructure = CellSuperstructure.getInstance();
-
     /** Amount of cells to try to intake */
     private int m_intakeAmount;
 
@@ -25,7 +22,7 @@ public class IntakeCells extends CommandBase {
     @Override
     public void initialize() {
         RobotLogger.getInstance().log("IntakeCells", String.format("Intaking %d cells", m_intakeAmount));
-        m_cellSuperstructure.intakeCells(m_intakeAmount);
+        RobotContext.get().intakeCells(m_intakeAmount);
     }
 
     @Override
@@ -37,11 +34,11 @@ public class IntakeCells extends CommandBase {
     public void end(boolean interrupted) {
         RobotLogger.getInstance().log("IntakeCells",
                 String.format("Intake action %s", (interrupted) ? "interrupted" : "ended"));
-        m_cellSuperstructure.stop();
+        RobotContext.get().stopCells();
     }
 
     @Override
     public boolean isFinished() {
-        return m_cellSuperstructure.isDone() && !RobotBase.isSimulation();
+        return RobotContext.get().isCellActionDone() && !RobotBase.isSimulation();
     }
 }
\ No newline at end of file
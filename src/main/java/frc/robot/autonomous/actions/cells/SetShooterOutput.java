@@ -2,7 +2,7 @@ package frc.robot.autonomous.actions.cells;
 
 import edu.wpi.first.wpilibj2.command.InstantCommand;
 import frc.lib5k.utils.RobotLogger;
-import frc.robot.subsystems.cellmech.Shooter;
+import frc.robot.autonomous.RobotContext;
 
 /**
  * This class is to provide simple shorthand for configuring shooter output
@@ -19,7 +19,7 @@ public class SetShooterOutput extends InstantCommand {
         super(() -> {
             RobotLogger.getInstance().log("SetShooterOutput",
                     String.format("Setting shooter output to: %.2f", outputRPM));
-            Shooter.getInstance().setAutonomousOutput(outputRPM);
+            RobotContext.get().setShooterOutput(outputRPM);
         });
     }
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+package frc.robot.autonomous.evaluation;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.geometry.Pose2d;
+import edu.wpi.first.wpilibj.geometry.Rotation2d;
+import edu.wpi.first.wpilibj2.command.Command;
+import frc.robot.autonomous.RobotContext;
+import frc.robot.autonomous.paths.AutonomousPath;
+import frc.robot.autonomous.paths.score.BuddyScore;
+import frc.robot.autonomous.paths.score.CenterDriveOff;
+import frc.robot.autonomous.paths.score.CenterScore;
+import frc.robot.autonomous.paths.score.ScoreTwice;
+import frc.robot.autonomous.paths.score.ShootTrenchDriveOff;
+
+/**
+ * Runs every scoring path thousands of times against randomly perturbed
+ * {@link SimulatedRobot}s, spread over all cores, and reports the end-pose
+ * error, time-to-shoot, and cells-scored distributions. <br>
+ * <br>
+ * Each trial binds its own robot to its worker thread through
+ * {@link RobotContext}, so trials share no mutable state. Trials are seeded by
+ * index, so results are repeatable for the same arguments. <br>
+ * <br>
+ * Usage: [trials per path] [seed]
+ */
+public class MonteCarloEvaluator {
+
+    /* Timing */
+    private static final double PERIOD = 0.02;
+    private static final double AUTONOMOUS_LENGTH = 15.0;
+
+    /* Perturbations (standard deviations, except the ramp rate range) */
+    private static final double START_POSITION_ERROR = 0.05;
+    private static final double START_HEADING_ERROR = 2.0;
+    private static final double ENCODER_NOISE = 0.02;
+    private static final double GYRO_DRIFT = 0.1;
+    private static final double MIN_RAMP_RATE = 0.08;
+    private static final double MAX_RAMP_RATE = 0.2;
+    private static final double NOMINAL_RAMP_RATE = 0.12;
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int trials = (args.length > 0) ? Integer.parseInt(args[0]) : 1000;
+        long seed = (args.length > 1) ? Long.parseLong(args[1]) : 5024;
+
+        // Commands need the HAL for logging and timing
+        HAL.initialize(500, 0);
+
+        Map<String, AutonomousPath> paths = new LinkedHashMap<>();
+        paths.put("ScoreTwice", new ScoreTwice());
+        paths.put("CenterScore", new CenterScore());
+        paths.put("BuddyScore", new BuddyScore());
+        paths.put("ShootTrenchDriveOff", new ShootTrenchDriveOff());
+        paths.put("CenterDriveOff", new CenterDriveOff());
+
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        System.out.println(String.format("Running %d trials per path on %d threads", trials, pool.getParallelism()));
+
+        for (Map.Entry<String, AutonomousPath> entry : paths.entrySet()) {
+            evaluate(entry.getKey(), entry.getValue(), trials, seed, pool);
+        }
+
+        pool.shutdown();
+        System.exit(0);
+    }
+
+    /**
+     * Evaluate a single path, and print its results
+     *
+     * @param name   Path name
+     * @param path   Path
+     * @param trials Number of trials
+     * @param seed   Base seed
+     * @param pool   Pool to run trials on
+     */
+    private static void evaluate(String name, AutonomousPath path, int trials, long seed, ForkJoinPool pool)
+            throws InterruptedException, ExecutionException {
+        Pose2d start = path.getStartingPose();
+
+        // Run a noise-free robot for reference
+        SimulatedRobot nominal = new SimulatedRobot(start, start, NOMINAL_RAMP_RATE, 0.0, 0.0, seed);
+        runTrial(path, nominal);
+        Pose2d reference = nominal.getTruePosition();
+
+        // Each trial writes only its own slot
+        double[] poseErrors = new double[trials];
+        double[] odometryErrors = new double[trials];
+        double[] shotTimes = new double[trials];
+        double[] cellsScored = new double[trials];
+
+        long startTime = System.nanoTime();
+        pool.submit(() -> IntStream.range(0, trials).parallel().forEach((i) -> {
+            Random random = new Random(seed + i);
+
+            // Perturb the robot
+            Pose2d trueStart = new Pose2d(
+                    start.getTranslation().getX() + random.nextGaussian() * START_POSITION_ERROR,
+                    start.getTranslation().getY() + random.nextGaussian() * START_POSITION_ERROR,
+                    start.getRotation().plus(Rotation2d.fromDegrees(random.nextGaussian() * START_HEADING_ERROR)));
+            double rampRate = MIN_RAMP_RATE + random.nextDouble() * (MAX_RAMP_RATE - MIN_RAMP_RATE);
+            SimulatedRobot robot = new SimulatedRobot(start, trueStart, rampRate, ENCODER_NOISE,
+                    random.nextGaussian() * GYRO_DRIFT, random.nextLong());
+
+            runTrial(path, robot);
+
+            // Record results
+            Pose2d end = robot.getTruePosition();
+            poseErrors[i] = end.getTranslation().getDistance(reference.getTranslation());
+            odometryErrors[i] = end.getTranslation().getDistance(robot.getPosition().getTranslation());
+            shotTimes[i] = robot.getFirstShotTime();
+            cellsScored[i] = robot.getCellsScored();
+        })).get();
+        double wallTime = (System.nanoTime() - startTime) / 1e9;
+
+        // Report
+        System.out.println(String.format("%s: %d trials in %.2fs (%.0f simulated seconds per second)", name, trials,
+                wallTime, trials * AUTONOMOUS_LENGTH / wallTime));
+        System.out.println(String.format("  Nominal: end (%.2f, %.2f), first shot %.2fs, %d cells",
+                reference.getTranslation().getX(), reference.getTranslation().getY(), nominal.getFirstShotTime(),
+                nominal.getCellsScored()));
+        printDistribution("End pose error (m)", poseErrors);
+        printDistribution("Odometry error (m)", odometryErrors);
+        printDistribution("Time to shoot (s)", shotTimes);
+        printDistribution("Cells scored", cellsScored);
+    }
+
+    /**
+     * Run a path to completion, or until autonomous ends
+     *
+     * @param path  Path to run
+     * @param robot Robot to run it on
+     */
+    private static void runTrial(AutonomousPath path, SimulatedRobot robot) {
+        RobotContext.bind(robot);
+
+        try {
+            Command command = path.generate(true, false);
+
+            // Step the command and the robot together
+            command.initialize();
+            while (robot.getTimestamp() < AUTONOMOUS_LENGTH) {
+                command.execute();
+                if (command.isFinished()) {
+                    command.end(false);
+                    return;
+                }
+                robot.step(PERIOD);
+            }
+            command.end(true);
+
+        } finally {
+            RobotContext.unbind();
+        }
+    }
+
+    /**
+     * Print the mean and percentiles of a set of samples. NaN samples are counted
+     * separately.
+     *
+     * @param name    Metric name
+     * @param samples Samples
+     */
+    private static void printDistribution(String name, double[] samples) {
+        double[] sorted = Arrays.stream(samples).filter((x) -> !Double.isNaN(x)).sorted().toArray();
+        int missing = samples.length - sorted.length;
+
+        if (sorted.length == 0) {
+            System.out.println(String.format("  %s: no samples", name));
+            return;
+        }
+
+        System.out.println(String.format("  %s: mean %.3f, p5 %.3f, p50 %.3f, p95 %.3f, max %.3f%s", name,
+                Arrays.stream(sorted).average().getAsDouble(), getPercentile(sorted, 0.05),
+                getPercentile(sorted, 0.5), getPercentile(sorted, 0.95), sorted[sorted.length - 1],
+                (missing > 0) ? String.format(" (%d trials without a value)", missing) : ""));
+    }
+
+    /**
+     * Get a percentile from sorted samples
+     *
+     * @param sorted     Sorted samples
+     * @param percentile Percentile [0-1]
+     * @return Value
+     */
+    private static double getPercentile(double[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
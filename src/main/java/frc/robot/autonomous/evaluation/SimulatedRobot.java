@@ -0,0 +1,368 @@
+package frc.robot.autonomous.evaluation;
+
+import java.util.Random;
+
+import edu.wpi.first.wpilibj.controller.PIDController;
+import edu.wpi.first.wpilibj.geometry.Pose2d;
+import edu.wpi.first.wpilibj.geometry.Rotation2d;
+import frc.lib5k.components.drive.DifferentialDriveCalculation;
+import frc.lib5k.components.drive.InputUtils;
+import frc.lib5k.components.drive.InputUtils.ScalingMode;
+import frc.lib5k.kinematics.DriveSignal;
+import frc.lib5k.kinematics.MutablePose2d;
+import frc.lib5k.utils.Mathutils;
+import frc.lib5k.utils.telemetry.PoseStream;
+import frc.robot.RobotConstants;
+import frc.robot.autonomous.AutonomousRobot;
+
+/**
+ * A self-contained robot model for autonomous evaluation. It touches no
+ * hardware and no singletons, so any number of them can run at once, each on
+ * its own thread. <br>
+ * <br>
+ * The drivetrain is modelled per-side from the characterized feedforward gains,
+ * with the talon ramp rate applied to the output. Odometry is integrated from
+ * noisy encoders and a drifting gyro, like the real robot, while the true pose
+ * is tracked separately. The shooter is a first-order flywheel, and the intake
+ * collects a cell for every {@link #CELL_SPACING} meters driven while intaking.
+ */
+public class SimulatedRobot implements AutonomousRobot {
+
+    /* Model constants */
+    private static final double BATTERY_VOLTAGE = 12.0;
+    private static final double TRACK_WIDTH = RobotConstants.DriveTrain.Measurements.DRIVEBASE_WIDTH;
+    private static final double SHOOTER_TIME_CONSTANT = 0.5;
+    private static final double SHOOTER_SHOT_DROP = 0.08;
+    private static final double FEED_PERIOD = 0.25;
+    public static final double CELL_SPACING = 0.914;
+    private static final int MAX_CELLS = 5;
+
+    /**
+     * Cell mechanism states
+     */
+    private enum CellState {
+        IDLE, INTAKING, SHOOTING
+    }
+
+    // Noise source
+    private Random m_random;
+
+    /* Perturbations */
+    private double m_rampRate;
+    private double m_encoderNoise;
+    private double m_gyroDriftRate;
+
+    /* Drivetrain */
+    private DriveSignal m_signal = new DriveSignal(0, 0);
+    private double m_leftOutput, m_rightOutput;
+    private double m_leftVelocity, m_rightVelocity;
+    private PIDController m_turnController;
+
+    /* Poses. Headings are in radians, clockwise-positive like the gyro */
+    private double m_trueX, m_trueY, m_trueHeading;
+    private double m_estX, m_estY, m_estHeading;
+    private double m_gyroOffset;
+
+    /* Cell mechanisms */
+    private CellState m_cellState = CellState.IDLE;
+    private int m_cellCount = 0;
+    private int m_wantedCells = 0;
+    private double m_intakeDistance = 0.0;
+    private double m_shooterGoal = 0.0;
+    private double m_shooterVelocity = 0.0;
+    private double m_lastFeedTime = Double.NEGATIVE_INFINITY;
+
+    /* Results */
+    private double m_time = 0.0;
+    private double m_firstShotTime = Double.NaN;
+    private int m_cellsScored = 0;
+
+    /**
+     * Create a SimulatedRobot
+     *
+     * @param believedStart Pose the robot thinks it starts at
+     * @param trueStart     Pose the robot actually starts at
+     * @param rampRate      Drivetrain ramp rate in seconds
+     * @param encoderNoise  Standard deviation of encoder readings, as a fraction of
+     *                      the distance travelled
+     * @param gyroDriftRate Gyro drift in degrees per second
+     * @param seed          Noise seed
+     */
+    public SimulatedRobot(Pose2d believedStart, Pose2d trueStart, double rampRate, double encoderNoise,
+            double gyroDriftRate, long seed) {
+        m_random = new Random(seed);
+        m_rampRate = rampRate;
+        m_encoderNoise = encoderNoise;
+        m_gyroDriftRate = Math.toRadians(gyroDriftRate);
+
+        // Set the starting poses
+        m_trueX = trueStart.getTranslation().getX();
+        m_trueY = trueStart.getTranslation().getY();
+        m_trueHeading = trueStart.getRotation().getRadians();
+        m_estX = believedStart.getTranslation().getX();
+        m_estY = believedStart.getTranslation().getY();
+        m_estHeading = believedStart.getRotation().getRadians();
+
+        // The gyro reads relative to where it was reset
+        m_gyroOffset = m_estHeading - m_trueHeading;
+
+        // Use the same turn controller as the DriveTrain
+        m_turnController = new PIDController(RobotConstants.ControlGains.kPTurnVel,
+                RobotConstants.ControlGains.kITurnVel, RobotConstants.ControlGains.kDTurnVel);
+    }
+
+    /**
+     * Advance the model
+     *
+     * @param dt Time step in seconds
+     */
+    public void step(double dt) {
+        m_time += dt;
+
+        // Apply the ramp rate to the motor outputs
+        double maxChange = (m_rampRate > 0.0) ? dt / m_rampRate : 2.0;
+        m_leftOutput += Mathutils.clamp(m_signal.getL() - m_leftOutput, -maxChange, maxChange);
+        m_rightOutput += Mathutils.clamp(m_signal.getR() - m_rightOutput, -maxChange, maxChange);
+
+        // Integrate each side
+        m_leftVelocity = stepSide(m_leftVelocity, m_leftOutput * BATTERY_VOLTAGE, dt);
+        m_rightVelocity = stepSide(m_rightVelocity, m_rightOutput * BATTERY_VOLTAGE, dt);
+        double left = m_leftVelocity * dt;
+        double right = m_rightVelocity * dt;
+
+        // Move the true pose
+        double distance = (left + right) / 2.0;
+        m_trueHeading += (left - right) / TRACK_WIDTH;
+        m_trueX += distance * Math.cos(m_trueHeading);
+        m_trueY += distance * Math.sin(m_trueHeading);
+
+        // Run odometry from the sensors
+        double leftReading = left * (1.0 + m_random.nextGaussian() * m_encoderNoise);
+        double rightReading = right * (1.0 + m_random.nextGaussian() * m_encoderNoise);
+        m_estHeading = m_trueHeading + m_gyroOffset + (m_gyroDriftRate * m_time);
+        m_estX += ((leftReading + rightReading) / 2.0) * Math.cos(m_estHeading);
+        m_estY += ((leftReading + rightReading) / 2.0) * Math.sin(m_estHeading);
+
+        stepCells(Math.abs(distance), dt);
+    }
+
+    /**
+     * Integrate one drivetrain side from the feedforward model
+     *
+     * @param velocity Current velocity in m/s
+     * @param voltage  Applied voltage
+     * @param dt       Time step
+     * @return New velocity
+     */
+    private double stepSide(double velocity, double voltage, double dt) {
+        double ks = RobotConstants.ControlGains.ksVolts;
+        double kv = RobotConstants.ControlGains.kvVoltsSecondsPerMeter;
+        double ka = RobotConstants.ControlGains.kaVoltsSecondsSquaredPerMeter;
+
+        // Static friction holds a stopped side
+        if (velocity == 0.0 && Math.abs(voltage) <= ks) {
+            return 0.0;
+        }
+
+        double friction = ks * Math.signum((velocity != 0.0) ? velocity : voltage);
+        double newVelocity = velocity + ((voltage - friction - (kv * velocity)) / ka) * dt;
+
+        // Friction can stop a side, but not reverse it
+        if (Math.signum(newVelocity) != Math.signum(velocity) && velocity != 0.0 && Math.abs(voltage) <= ks) {
+            return 0.0;
+        }
+
+        return newVelocity;
+    }
+
+    /**
+     * Advance the cell mechanisms
+     *
+     * @param distance Distance driven this step
+     * @param dt       Time step
+     */
+    private void stepCells(double distance, double dt) {
+
+        // Spin the flywheel towards its goal while shooting
+        double goal = (m_cellState == CellState.SHOOTING) ? m_shooterGoal : 0.0;
+        m_shooterVelocity += (goal - m_shooterVelocity) * Math.min(dt / SHOOTER_TIME_CONSTANT, 1.0);
+
+        switch (m_cellState) {
+        case INTAKING:
+
+            // Pick up a cell every time we drive over one
+            m_intakeDistance += distance;
+            if (m_intakeDistance >= CELL_SPACING && m_cellCount < MAX_CELLS) {
+                m_intakeDistance -= CELL_SPACING;
+                m_cellCount++;
+            }
+
+            if (m_cellCount >= m_wantedCells) {
+                m_cellState = CellState.IDLE;
+            }
+            break;
+        case SHOOTING:
+
+            // Feed a cell once the flywheel is at speed
+            boolean atSpeed = Mathutils.epsilonEquals(m_shooterVelocity, m_shooterGoal,
+                    RobotConstants.Shooter.RPM_EPSILON);
+            if (atSpeed && m_time - m_lastFeedTime >= FEED_PERIOD && m_cellCount > m_wantedCells) {
+                m_lastFeedTime = m_time;
+                m_cellCount--;
+                m_cellsScored++;
+                m_shooterVelocity *= (1.0 - SHOOTER_SHOT_DROP);
+
+                if (Double.isNaN(m_firstShotTime)) {
+                    m_firstShotTime = m_time;
+                }
+            }
+
+            if (m_cellCount <= m_wantedCells) {
+                m_cellState = CellState.IDLE;
+            }
+            break;
+        default:
+            break;
+        }
+    }
+
+    @Override
+    public Pose2d getPosition() {
+        return new Pose2d(m_estX, m_estY, new Rotation2d(m_estHeading));
+    }
+
+    @Override
+    public MutablePose2d getPosition(MutablePose2d pose) {
+        return pose.set(m_estX, m_estY, m_estHeading);
+    }
+
+    /**
+     * Get the robot's true field position
+     *
+     * @return True position
+     */
+    public Pose2d getTruePosition() {
+        return new Pose2d(m_trueX, m_trueY, new Rotation2d(m_trueHeading));
+    }
+
+    @Override
+    public void drive(double speed, double rotation) {
+        speed = InputUtils.scale(speed, ScalingMode.SQUARED);
+        rotation = InputUtils.scale(rotation, ScalingMode.SQUARED);
+        setOpenLoop(
+                DifferentialDriveCalculation.normalize(DifferentialDriveCalculation.semiConstCurve(speed, rotation)));
+    }
+
+    @Override
+    public void setOpenLoop(DriveSignal signal) {
+        m_signal = signal;
+    }
+
+    @Override
+    public boolean face(Rotation2d rotation, double epsilon) {
+
+        // Same maths as DriveTrain.face()
+        double setpointAngle = Mathutils.wpiAngleTo5k(rotation.getDegrees());
+        double drivebaseAngle = Mathutils.wpiAngleTo5k(getPosition().getRotation().getDegrees());
+        double error = Mathutils.getWrappedError(drivebaseAngle, setpointAngle);
+
+        m_turnController.setTolerance(epsilon);
+        m_turnController.setSetpoint(0);
+        double force = Mathutils.clamp(m_turnController.calculate(error, 0.0), -1.0, 1.0) * 0.9;
+        setOpenLoop(new DriveSignal(force, -force));
+
+        if (m_turnController.atSetpoint()) {
+            m_turnController.reset();
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public void stop() {
+        setOpenLoop(new DriveSignal(0, 0));
+    }
+
+    @Override
+    public void shootCells(int amount) {
+        m_wantedCells = (int) Mathutils.clamp(m_cellCount - amount, 0, 4);
+        m_cellState = CellState.SHOOTING;
+    }
+
+    @Override
+    public void intakeCells(int amount) {
+        m_wantedCells = (int) Mathutils.clamp(amount, 1, 5);
+        if (m_cellCount < m_wantedCells) {
+            m_intakeDistance = 0.0;
+            m_cellState = CellState.INTAKING;
+        }
+    }
+
+    @Override
+    public void stopCells() {
+        m_cellState = CellState.IDLE;
+    }
+
+    @Override
+    public void stopHopper() {
+    }
+
+    @Override
+    public boolean isCellActionDone() {
+        return m_cellState == CellState.IDLE;
+    }
+
+    @Override
+    public void setShooterOutput(double rpm) {
+        m_shooterGoal = Mathutils.clamp(rpm, 0.0, RobotConstants.Shooter.MOTOR_MAX_RPM);
+    }
+
+    @Override
+    public void forceCellCount(int count) {
+        m_cellCount = count;
+    }
+
+    @Override
+    public int getCellCount() {
+        return m_cellCount;
+    }
+
+    @Override
+    public void deployIntake() {
+    }
+
+    @Override
+    public void stowIntake() {
+    }
+
+    @Override
+    public double getTimestamp() {
+        return m_time;
+    }
+
+    @Override
+    public PoseStream getPoseStream() {
+
+        // Many simulated robots run at once, so none of them are shown
+        return null;
+    }
+
+    /**
+     * Get the time of the first shot
+     *
+     * @return Time in seconds, or NaN if nothing was shot
+     */
+    public double getFirstShotTime() {
+        return m_firstShotTime;
+    }
+
+    /**
+     * Get the number of cells shot. Cells are only fed with the flywheel at speed
+     *
+     * @return Cells scored
+     */
+    public int getCellsScored() {
+        return m_cellsScored;
+    }
+}
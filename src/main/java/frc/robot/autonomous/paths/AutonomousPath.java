@@ -7,6 +7,10 @@ public abstract class AutonomousPath {
 
     protected boolean score, getBalls = false;
 
+    // Command groups register their commands globally, so only one path can be
+    // generated at a time
+    private static final Object s_generateLock = new Object();
+
     /**
      * Generate command group using params
      * 
@@ -14,12 +18,15 @@ public abstract class AutonomousPath {
      * @param getBalls Should get balls?
      */
     public SequentialCommandGroup generate(boolean score, boolean getBalls) {
-        // Set locals
-        this.score = score;
-        this.getBalls = getBalls;
+        synchronized (s_generateLock) {
+
+            // Set locals
+            this.score = score;
+            this.getBalls = getBalls;
 
-        // Call and return the internal generator
-        return getCommand();
+            // Call and return the internal generator
+            return getCommand();
+        }
     }
 
     /**
@@ -9,13 +9,12 @@ import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import frc.lib5k.utils.RobotLogger;
 import frc.robot.RobotConstants;
 import frc.robot.autonomous.AutonomousStartpoints;
+import frc.robot.autonomous.RobotContext;
+import frc.robot.autonomous.actions.AutonomousWait;
 import frc.robot.autonomous.actions.TurnToCommand;
 import frc.robot.autonomous.actions.cells.SetShooterOutput;
 import frc.robot.autonomous.actions.cells.ShootCells;
 import frc.robot.autonomous.paths.AutonomousPath;
-import frc.robot.subsystems.DriveTrain;
-import frc.robot.subsystems.cellmech.Hopper;
-import frc.robot.subsystems.cellmech.Intake;
 
 public class BuddyScore extends AutonomousPath {
 
@@ -30,7 +29,7 @@ public class BuddyScore extends AutonomousPath {
                 super.execute();
 
                 // Force-set out ball counter
-                Hopper.getInstance().forceCellCount(3);
+                RobotContext.get().forceCellCount(3);
             }
         };
 
@@ -47,19 +46,19 @@ public class BuddyScore extends AutonomousPath {
             @Override
             public void initialize() {
                 RobotLogger.getInstance().log("BuddyScore", "Making a gap");
-                DriveTrain.getInstance().drive(-0.5, 0.0);
+                RobotContext.get().drive(-0.5, 0.0);
             }
 
             @Override
             public void end(boolean x) {
                 RobotLogger.getInstance().log("BuddyScore", "Stopped");
-                DriveTrain.getInstance().stop();
+                RobotContext.get().stop();
 
             }
-        }.withTimeout(0.5));
+        }.raceWith(new AutonomousWait(0.5)));
 
         // Add a timeout command for shooting
-        ParallelRaceGroup shootCommand = new ShootCells(5).withTimeout(shootTimeout);
+        ParallelRaceGroup shootCommand = new ShootCells(5).raceWith(new AutonomousWait(shootTimeout));
 
         // Add a timeout command for "fake intaking"
         ParallelRaceGroup intakeCommand = new CommandBase() {
@@ -67,56 +66,57 @@ public class BuddyScore extends AutonomousPath {
             @Override
             public void initialize() {
                 RobotLogger.getInstance().log("BuddyScore", "Dropping intake");
-                Intake.getInstance().intake();
+                RobotContext.get().deployIntake();
             }
 
             @Override
             public void execute() {
-                Intake.getInstance().intake();
+                RobotContext.get().deployIntake();
             }
 
             @Override
             public void end(boolean x) {
                 RobotLogger.getInstance().log("BuddyScore", "Raising intake");
-                Intake.getInstance().stow();
+                RobotContext.get().stowIntake();
 
             }
-        }.withTimeout(shootTimeout - 0.5);
+        }.raceWith(new AutonomousWait(shootTimeout - 0.5));
 
         // Combine both commands
-        output.addCommands(new ParallelCommandGroup(shootCommand, intakeCommand).withTimeout(shootTimeout + 0.1));
+        output.addCommands(new ParallelCommandGroup(shootCommand, intakeCommand)
+                .raceWith(new AutonomousWait(shootTimeout + 0.1)));
 
         // Push our buddy off the line
         output.addCommands(new CommandBase() {
             @Override
             public void initialize() {
                 RobotLogger.getInstance().log("BuddyScore", "Pushing buddy");
-                DriveTrain.getInstance().drive(0.5, 0.0);
+                RobotContext.get().drive(0.5, 0.0);
             }
 
             @Override
             public void end(boolean x) {
                 RobotLogger.getInstance().log("BuddyScore", "Stopped pushing");
-                DriveTrain.getInstance().stop();
+                RobotContext.get().stop();
 
             }
-        }.withTimeout(pushTimeout));
+        }.raceWith(new AutonomousWait(pushTimeout)));
 
         // Get off the line ourselves
         output.addCommands(new CommandBase() {
             @Override
             public void initialize() {
                 RobotLogger.getInstance().log("BuddyScore", "Pushing buddy");
-                DriveTrain.getInstance().drive(-0.35, 0.0);
+                RobotContext.get().drive(-0.35, 0.0);
             }
 
             @Override
             public void end(boolean x) {
                 RobotLogger.getInstance().log("BuddyScore", "Stopped pushing");
-                DriveTrain.getInstance().stop();
+                RobotContext.get().stop();
 
             }
-        }.withTimeout(runTimeout));
+        }.raceWith(new AutonomousWait(runTimeout)));
 
         return output;
     }
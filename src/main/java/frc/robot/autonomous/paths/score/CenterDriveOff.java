@@ -12,6 +12,8 @@ import frc.lib5k.kinematics.purepursuit.Path;
 import frc.lib5k.utils.RobotLogger;
 import frc.robot.RobotConstants;
 import frc.robot.autonomous.AutonomousStartpoints;
+import frc.robot.autonomous.RobotContext;
+import frc.robot.autonomous.actions.AutonomousWait;
 import frc.robot.autonomous.actions.DriveDistance;
 import frc.robot.autonomous.actions.DrivePath;
 import frc.robot.autonomous.actions.DriveToCommand;
@@ -22,8 +24,6 @@ import frc.robot.autonomous.actions.cells.IntakeCells;
 import frc.robot.autonomous.actions.cells.SetShooterOutput;
 import frc.robot.autonomous.actions.cells.ShootCells;
 import frc.robot.autonomous.paths.AutonomousPath;
-import frc.robot.subsystems.DriveTrain;
-import frc.robot.subsystems.cellmech.Hopper;
 
 
 /**
@@ -47,9 +47,9 @@ public class CenterDriveOff extends AutonomousPath {
 
         // Shoot 3 balls
         output.addCommands(new LogCommand("Autonomous", "Shooting 3 cells"));
-        output.addCommands(new InstantCommand(()->{Hopper.getInstance().forceCellCount(3);}));
+        output.addCommands(new InstantCommand(()->{RobotContext.get().forceCellCount(3);}));
         output.addCommands(new SetShooterOutput(RobotConstants.Shooter.ShooterGoals.INIT_LINE_DIRECT_SHOT));
-        output.addCommands(new ShootCells(3).withTimeout(3.5));
+        output.addCommands(new ShootCells(3).raceWith(new AutonomousWait(3.5)));
 
         // Turn to trench
         output.addCommands(new LogCommand("Autonomous", "Driving Backwards"));
@@ -57,16 +57,16 @@ public class CenterDriveOff extends AutonomousPath {
             @Override
             public void initialize() {
                 RobotLogger.getInstance().log("BuddyScore", "Pushing buddy");
-                DriveTrain.getInstance().drive(-0.35, 0.0);
+                RobotContext.get().drive(-0.35, 0.0);
             }
             
             @Override
             public void end(boolean x) {
                 RobotLogger.getInstance().log("BuddyScore", "Stopped pushing");
-                DriveTrain.getInstance().stop();
+                RobotContext.get().stop();
                 
             }
-        }.withTimeout(1.5));
+        }.raceWith(new AutonomousWait(1.5)));
         
 
 
@@ -10,6 +10,8 @@ import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import frc.lib5k.kinematics.purepursuit.Path;
 import frc.robot.RobotConstants;
 import frc.robot.autonomous.AutonomousStartpoints;
+import frc.robot.autonomous.RobotContext;
+import frc.robot.autonomous.actions.AutonomousWait;
 import frc.robot.autonomous.actions.DrivePath;
 import frc.robot.autonomous.actions.LogCommand;
 import frc.robot.autonomous.actions.TurnToCommand;
@@ -17,7 +19,6 @@ import frc.robot.autonomous.actions.cells.IntakeCells;
 import frc.robot.autonomous.actions.cells.SetShooterOutput;
 import frc.robot.autonomous.actions.cells.ShootCells;
 import frc.robot.autonomous.paths.AutonomousPath;
-import frc.robot.subsystems.cellmech.Hopper;
 
 /**
  * Starts Center scores then gets one ball
@@ -41,10 +42,10 @@ public class CenterScore extends AutonomousPath {
         // Shoot 3 balls
         output.addCommands(new LogCommand("Autonomous", "Shooting 3 cells"));
         output.addCommands(new InstantCommand(() -> {
-            Hopper.getInstance().forceCellCount(3);
+            RobotContext.get().forceCellCount(3);
         }));
         output.addCommands(new SetShooterOutput(RobotConstants.Shooter.ShooterGoals.INIT_LINE_DIRECT_SHOT));
-        output.addCommands(new ShootCells(3).withTimeout(4));
+        output.addCommands(new ShootCells(3).raceWith(new AutonomousWait(4)));
 
         // Turn to trench
         output.addCommands(new LogCommand("Autonomous", "Turning to face Trench"));
@@ -10,6 +10,8 @@ import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import frc.lib5k.kinematics.purepursuit.Path;
 import frc.robot.RobotConstants;
 import frc.robot.autonomous.AutonomousStartpoints;
+import frc.robot.autonomous.RobotContext;
+import frc.robot.autonomous.actions.AutonomousWait;
 import frc.robot.autonomous.actions.DrivePath;
 import frc.robot.autonomous.actions.LogCommand;
 import frc.robot.autonomous.actions.TurnToCommand;
@@ -18,7 +20,6 @@ import frc.robot.autonomous.actions.cells.IntakeCells;
 import frc.robot.autonomous.actions.cells.SetShooterOutput;
 import frc.robot.autonomous.actions.cells.ShootCells;
 import frc.robot.autonomous.paths.AutonomousPath;
-import frc.robot.subsystems.cellmech.Hopper;
 
 public class ScoreTwice extends AutonomousPath {
 
@@ -40,11 +41,11 @@ public class ScoreTwice extends AutonomousPath {
         output.addCommands(new LogCommand("Autonomous", "Turing to Goal"));
         output.addCommands(new TurnToCommand(Rotation2d.fromDegrees(150), 8.0));
         output.addCommands(new SetShooterOutput(RobotConstants.Shooter.DEFAULT_VELOCITY));
-        output.addCommands(new InstantCommand(()->{Hopper.getInstance().forceCellCount(3);}));
+        output.addCommands(new InstantCommand(()->{RobotContext.get().forceCellCount(3);}));
 
         // // Shoot 3 balls
         output.addCommands(new LogCommand("Autonomous", "Shooting 3 Balls"));
-        output.addCommands(new ShootCells(3).withTimeout(3.5));
+        output.addCommands(new ShootCells(3).raceWith(new AutonomousWait(3.5)));
 
         // Turn to trench
         output.addCommands(new LogCommand("Autonomous", "Turning to Face Trench"));
@@ -83,7 +84,7 @@ public class ScoreTwice extends AutonomousPath {
         // Shoot 3 balls
         output.addCommands(new LogCommand("Autonomous", "Shooting Three Balls"));
         output.addCommands(new SetShooterOutput(RobotConstants.Shooter.ShooterGoals.TRENCH_REAR_SHOT));
-        output.addCommands(new ShootCells(2).withTimeout(6.5));
+        output.addCommands(new ShootCells(2).raceWith(new AutonomousWait(6.5)));
 
         output.addCommands(new LogCommand("Autonomous", "Path Finished"));
         return output;
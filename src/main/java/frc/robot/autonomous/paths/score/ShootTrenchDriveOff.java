@@ -10,6 +10,8 @@ import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import frc.lib5k.kinematics.purepursuit.Path;
 import frc.robot.RobotConstants;
 import frc.robot.autonomous.AutonomousStartpoints;
+import frc.robot.autonomous.RobotContext;
+import frc.robot.autonomous.actions.AutonomousWait;
 import frc.robot.autonomous.actions.DriveDistance;
 import frc.robot.autonomous.actions.DrivePath;
 import frc.robot.autonomous.actions.LogCommand;
@@ -19,7 +21,6 @@ import frc.robot.autonomous.actions.cells.IntakeCells;
 import frc.robot.autonomous.actions.cells.SetShooterOutput;
 import frc.robot.autonomous.actions.cells.ShootCells;
 import frc.robot.autonomous.paths.AutonomousPath;
-import frc.robot.subsystems.cellmech.Hopper;
 
 
 public class ShootTrenchDriveOff extends AutonomousPath {
@@ -41,13 +42,13 @@ public class ShootTrenchDriveOff extends AutonomousPath {
         // Aim at goal
         output.addCommands(new LogCommand("Autonomous", "Turing to Goal"));
         output.addCommands(new TurnToCommand(Rotation2d.fromDegrees(150), 8.0));
-        output.addCommands(new InstantCommand(()->{Hopper.getInstance().forceCellCount(3);}));
+        output.addCommands(new InstantCommand(()->{RobotContext.get().forceCellCount(3);}));
         
 
         // // Shoot 3 balls
         output.addCommands(new LogCommand("Autonomous", "Shooting 3 Balls"));
         output.addCommands(new SetShooterOutput(RobotConstants.Shooter.DEFAULT_VELOCITY));
-        output.addCommands(new ShootCells(3).withTimeout(3.5));
+        output.addCommands(new ShootCells(3).raceWith(new AutonomousWait(3.5)));
 
         // Drives back
         output.addCommands(new LogCommand("Autonomous", "Driving Backwards"));
@@ -1,7 +1,9 @@
 package frc.robot.commands;
 
+import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 import frc.lib5k.control.CubicDeadband;
+import frc.lib5k.loops.profiling.LoopProfiler;
 import frc.robot.OI;
 import frc.robot.RobotConstants;
 import frc.robot.commands.actions.FreeSpaceAutoAim;
@@ -25,8 +27,8 @@ public class DriveControl extends CommandBase {
             RobotConstants.HumanInputs.Deadbands.ROTATION_INPUT_DEADBAND, 0.0);
 
     /** Alignment commands */
-    private FreeSpaceAutoAim m_freeSpaceAim = new FreeSpaceAutoAim();
-    private PivotAutoAim m_pivotAim = new PivotAutoAim();
+    private Command m_freeSpaceAim = LoopProfiler.getInstance().profile(new FreeSpaceAutoAim());
+    private Command m_pivotAim = LoopProfiler.getInstance().profile(new PivotAutoAim());
 
     /**
      * DriveControl constructor
@@ -1,7 +1,9 @@
 package frc.robot.commands;
 
 import edu.wpi.first.wpilibj.geometry.Translation2d;
+import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandBase;
+import frc.lib5k.loops.profiling.LoopProfiler;
 import frc.lib5k.utils.RobotLogger;
 import frc.robot.AnalyticsEngine;
 import frc.robot.OI;
@@ -24,14 +26,15 @@ import frc.robot.subsystems.cellmech.Hopper;
 public class OperatorControl extends CommandBase {
 
     /** sub-commands */
-    private IntakeCells m_intakeCellsCommand = new IntakeCells(5);
-    private ShootCells m_shootCellsCommand = new ShootCells(5);
-    private UnjamCells m_unjamCommend = new UnjamCells();
-    private UnjamUpCells m_unjamUpCommend = new UnjamUpCells();
+    private LoopProfiler m_profiler = LoopProfiler.getInstance();
+    private Command m_intakeCellsCommand = m_profiler.profile(new IntakeCells(5));
+    private Command m_shootCellsCommand = m_profiler.profile(new ShootCells(5));
+    private Command m_unjamCommend = m_profiler.profile(new UnjamCells());
+    private Command m_unjamUpCommend = m_profiler.profile(new UnjamUpCells());
 
-    private ClimbController m_climbController = new ClimbController();
-    private TimePanel m_panelTimeCommand;
-    private LowerBalls m_lowerBallsCommand = new LowerBalls();
+    private Command m_climbController = m_profiler.profile(new ClimbController());
+    private Command m_panelTimeCommand;
+    private Command m_lowerBallsCommand = m_profiler.profile(new LowerBalls());
 
     // Cell count modification protection
     private boolean m_cellModProtection = false;
@@ -132,12 +135,12 @@ public class OperatorControl extends CommandBase {
         }
 
         if (m_oi.shouldRotatePanel()) {
-            m_panelTimeCommand = new TimePanel(5.0, false);
+            m_panelTimeCommand = m_profiler.profile(new TimePanel(5.0, false));
             m_panelTimeCommand.schedule();
         }
 
         if (m_oi.shouldIncrPanelRight()) {
-            m_panelTimeCommand = new TimePanel(0.5, false);
+            m_panelTimeCommand = m_profiler.profile(new TimePanel(0.5, false));
             m_panelTimeCommand.schedule();
         }
 
@@ -10,13 +10,14 @@ import frc.robot.subsystems.cellmech.Shooter;
 import frc.robot.vision.Limelight2;
 import frc.robot.vision.LimelightTarget;
 import frc.robot.vision.SimVision;
+import frc.robot.vision.VisionFrame;
 import frc.robot.vision.Limelight2.CameraMode;
 import frc.robot.vision.Limelight2.LEDMode;
 
 public class PivotAim extends CommandBase {
 
-    // Vision target
-    private LimelightTarget m_target;
+    // Was a vision target found?
+    private boolean m_hasTarget;
     private double m_angle;
 
     public PivotAim() {
@@ -35,19 +36,23 @@ public class PivotAim extends CommandBase {
 
         // Read the target
         // Find a vision target
-        m_target = Limelight2.getInstance().getTarget();
+        VisionFrame frame = Limelight2.getInstance().getFrame();
+        m_hasTarget = frame.hasTarget();
+        double targetAngle = frame.getXAngle();
 
         // If we are simulating, find a simulated target
         if (SimVision.shouldSimulate()) {
-            m_target = SimVision.getSimulatedTarget();
+            LimelightTarget target = SimVision.getSimulatedTarget();
+            m_hasTarget = target != null;
+            targetAngle = (m_hasTarget) ? target.tx : 0.0;
         }
 
         // Get the robot's angle
         double robotAngle = DriveTrain.getInstance().getPosition().getRotation().getDegrees();
 
         // Set the target angle
-        if (m_target != null) {
-            m_angle = (m_target.tx * -1) + robotAngle;
+        if (m_hasTarget) {
+            m_angle = (targetAngle * -1) + robotAngle;
         } else {
             m_angle = 0.0;
             Limelight2.getInstance().setLED(LEDMode.BLINK);
@@ -62,7 +67,7 @@ public class PivotAim extends CommandBase {
         // We enable the LEDs here to prevent other commands from disabling it
         Limelight2.getInstance().setLED(LEDMode.DEFAULT);
 
-        if (m_target != null) {
+        if (m_hasTarget) {
 
             // Tell the DriveTrain to auto-steer, send outcome to shooter
             Shooter.getInstance().setInPosition(DriveTrain.getInstance().face(Rotation2d.fromDegrees(m_angle), 4));
@@ -84,7 +89,7 @@ public class PivotAim extends CommandBase {
         Limelight2.getInstance().setCamMode(CameraMode.PIP_SECONDARY);
 
         // Reset target info
-        m_target = null;
+        m_hasTarget = false;
         m_angle = 0.0;
     }
 
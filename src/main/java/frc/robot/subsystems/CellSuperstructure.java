@@ -1,7 +1,7 @@
 package frc.robot.subsystems;
 
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import edu.wpi.first.wpiutil.math.MathUtil;
+import frc.lib5k.loops.profiling.ProfiledSubsystem;
 import frc.lib5k.utils.Mathutils;
 import frc.lib5k.utils.RobotLogger;
 import frc.lib5k.utils.RobotLogger.Level;
@@ -17,12 +17,14 @@ import frc.robot.subsystems.cellmech.Shooter;
  * commands along to it's sub-subsystems. Do not call the sub-subsystems
  * independently.
  */
-public class CellSuperstructure extends SubsystemBase {
+public class CellSuperstructure extends ProfiledSubsystem {
 
     /**
      * Class instance
      */
-    private static CellSuperstructure s_instance = null;
+    private static class Holder {
+        private static final CellSuperstructure INSTANCE = new CellSuperstructure();
+    }
 
     /**
      * Robot logger util
@@ -76,15 +78,11 @@ public class CellSuperstructure extends SubsystemBase {
      * @return Instance
      */
     public static CellSuperstructure getInstance() {
-        if (s_instance == null) {
-            s_instance = new CellSuperstructure();
-        }
-
-        return s_instance;
+        return Holder.INSTANCE;
     }
 
     @Override
-    public void periodic() {
+    protected void profiledPeriodic() {
 
         if (m_intakeDone = true) {
             m_intakeDone = false;
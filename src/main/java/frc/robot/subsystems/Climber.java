@@ -1,7 +1,6 @@
 package frc.robot.subsystems;
 
 import edu.wpi.first.wpilibj.Timer;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import com.ctre.phoenix.motorcontrol.NeutralMode;
 
 import edu.wpi.cscore.VideoSource;
@@ -9,6 +8,8 @@ import frc.lib5k.components.AutoCamera;
 import frc.lib5k.components.SmartServo;
 import frc.lib5k.components.motors.TalonHelper;
 import frc.lib5k.components.sensors.HallEffect;
+import frc.lib5k.loops.profiling.ProfiledSubsystem;
+import frc.lib5k.roborio.PowerManager;
 import frc.lib5k.simulation.wrappers.SimTalon;
 import frc.lib5k.utils.RobotLogger;
 import frc.robot.RobotConstants;
@@ -16,9 +17,11 @@ import frc.robot.RobotConstants;
 /**
  * Robot climber subsystem
  */
-public class Climber extends SubsystemBase {
+public class Climber extends ProfiledSubsystem {
     private static RobotLogger logger = RobotLogger.getInstance();
-    private static Climber s_instance = null;
+    private static class Holder {
+        private static final Climber INSTANCE = new Climber();
+    }
 
     // "Pin" for releasing the climber
     private SmartServo m_releaseServo;
@@ -76,6 +79,8 @@ public class Climber extends SubsystemBase {
         // Low and High Hall sensors
         m_lowHall = new HallEffect(RobotConstants.Climber.LOW_HALL_ID);
         m_highHall = new HallEffect(RobotConstants.Climber.HIGH_HALL_ID);
+        m_lowHall.enablePolling(RobotConstants.Climber.HALL_POLL_PERIOD);
+        m_highHall.enablePolling(RobotConstants.Climber.HALL_POLL_PERIOD);
 
         // Set up the camera
         m_camera = new AutoCamera("Climb camera", 0);
@@ -86,6 +91,13 @@ public class Climber extends SubsystemBase {
         m_liftMotor.setNeutralMode(NeutralMode.Coast);
 
         TalonHelper.configCurrentLimit(m_liftMotor, 34, 32, 15, 0);
+
+        // Budget the lift motor's battery current. Without a speed sensor, assume it is
+        // stalled at its current limit.
+        PowerManager.getInstance().addLoad("Climber", RobotConstants.Power.CLIMBER_PRIORITY,
+                (scale, voltage) -> Math.abs(m_liftMotor.getRequestedOutput() * scale)
+                        * RobotConstants.Power.MECHANISM_HOLD_AMPS,
+                m_liftMotor);
     }
 
     /**
@@ -94,16 +106,12 @@ public class Climber extends SubsystemBase {
      * @return Climber Instance
      */
     public static Climber getInstance() {
-        if (s_instance == null) {
-            s_instance = new Climber();
-        }
-
-        return s_instance;
+        return Holder.INSTANCE;
 
     }
 
     @Override
-    public void periodic() {
+    protected void profiledPeriodic() {
 
         // Determine if this state is new
         boolean isNewState = false;
@@ -130,7 +138,6 @@ public class Climber extends SubsystemBase {
 
         // Set the last state
         m_lastState = m_state;
-
     }
 
     /**
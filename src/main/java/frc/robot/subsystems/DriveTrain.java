@@ -3,14 +3,12 @@ package frc.robot.subsystems;
 import com.ctre.phoenix.motorcontrol.NeutralMode;
 import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
 
-import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.wpilibj.controller.PIDController;
 import edu.wpi.first.wpilibj.geometry.Pose2d;
 import edu.wpi.first.wpilibj.geometry.Rotation2d;
-import edu.wpi.first.wpilibj.kinematics.DifferentialDriveOdometry;
 import edu.wpi.first.wpilibj.kinematics.DifferentialDriveWheelSpeeds;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.lib5k.components.drive.DifferentialDriveCalculation;
 import frc.lib5k.components.drive.IDifferentialDrivebase;
 import frc.lib5k.components.drive.InputUtils;
@@ -18,19 +16,72 @@ import frc.lib5k.components.drive.InputUtils.ScalingMode;
 import frc.lib5k.components.gyroscopes.ADGyro;
 import frc.lib5k.components.motors.TalonSRXCollection;
 import frc.lib5k.components.sensors.EncoderBase;
+import frc.lib5k.kinematics.DifferentialOdometry;
+import frc.lib5k.kinematics.MutablePose2d;
+import frc.lib5k.kinematics.PoseHistory;
+import frc.lib5k.kinematics.models.DCBrushedMotor;
 import frc.lib5k.interfaces.Loggable;
+import frc.lib5k.logging.TelemetryRecorder;
+import frc.lib5k.loops.loopers.RateTier;
+import frc.lib5k.loops.loopers.SharedState;
+import frc.lib5k.loops.profiling.ProfiledSubsystem;
+import frc.lib5k.roborio.FPGAClock;
+import frc.lib5k.roborio.PowerManager;
+import frc.lib5k.simulation.LogReplay;
+import frc.lib5k.simulation.physics.DifferentialDrivePlant;
 import frc.lib5k.utils.Mathutils;
+import frc.lib5k.utils.MessageFormatter;
 import frc.lib5k.utils.RobotLogger;
+import frc.lib5k.utils.telemetry.PoseStream;
+import frc.lib5k.utils.telemetry.TelemetryPublisher;
+import frc.lib5k.utils.telemetry.TelemetryPublisher.Rate;
 import frc.robot.RobotConstants;
+import frc.robot.vision.Limelight2;
 import frc.robot.vision.LimelightTarget;
+import frc.robot.vision.VisionFusion;
 import frc.lib5k.kinematics.DriveSignal;
 
 /**
- * The DriveTrain handles all robot movement.
+ * The DriveTrain handles all robot movement. <br>
+ * <br>
+ * Commands set the drive mode and signal from the command loop. The encoders,
+ * odometry, heading control, and gearbox outputs are handled by a separate
+ * control loop, which can run in a faster {@link RateTier}. The two only share
+ * state through {@link SharedState}, so neither ever waits on the other.
  */
-public class DriveTrain extends SubsystemBase implements Loggable, IDifferentialDrivebase {
+public class DriveTrain extends ProfiledSubsystem implements Loggable, IDifferentialDrivebase {
     private static RobotLogger logger = RobotLogger.getInstance();
-    private static DriveTrain s_instance = null;
+    private static class Holder {
+        private static final DriveTrain INSTANCE = new DriveTrain();
+    }
+
+    /* Gearbox motors */
+    private static final DCBrushedMotor GEARBOX_MOTOR = DCBrushedMotor.CIM;
+    private static final int MOTORS_PER_GEARBOX = 2;
+
+    /* Command values, written by the command loop */
+    private static final int COMMAND_MODE = 0;
+    private static final int COMMAND_LEFT = 1;
+    private static final int COMMAND_RIGHT = 2;
+    private static final int COMMAND_TURN_SETPOINT = 3;
+    private static final int COMMAND_TURN_TOLERANCE = 4;
+    private static final int COMMAND_TURNS = 5;
+    private static final int COMMAND_RESETS = 6;
+    private static final int COMMAND_RESET_X = 7;
+    private static final int COMMAND_RESET_Y = 8;
+    private static final int COMMAND_RESET_THETA = 9;
+    private static final int COMMAND_SIZE = 10;
+
+    /* State values, written by the control loop */
+    private static final int STATE_X = 0;
+    private static final int STATE_Y = 1;
+    private static final int STATE_THETA = 2;
+    private static final int STATE_LEFT_METERS = 3;
+    private static final int STATE_RIGHT_METERS = 4;
+    private static final int STATE_LEFT_MPS = 5;
+    private static final int STATE_RIGHT_MPS = 6;
+    private static final int STATE_RESETS = 7;
+    private static final int STATE_SIZE = 8;
 
     /*
      * Drive Control Modes
@@ -38,13 +89,17 @@ public class DriveTrain extends SubsystemBase implements Loggable, IDifferential
     public enum DriveMode {
         OPEN_LOOP, // Open loop control (percent output control)
         VOLTAGE, // Voltage control
+        TURN, // Closed loop heading control
 
     }
 
+    // Every DriveMode, indexed by ordinal
+    private static final DriveMode[] DRIVE_MODES = DriveMode.values();
+
     // Keep track of the current DriveMode
     private DriveMode m_currentDriveMode = DriveMode.OPEN_LOOP;
 
-    private DriveSignal m_currentSignal;
+    private DriveSignal m_currentSignal = new DriveSignal(0.0, 0.0);
 
     /**
      * Left side gearbox.
@@ -69,12 +124,23 @@ public class DriveTrain extends SubsystemBase implements Loggable, IDifferential
     /**
      * Odometry object for tracking robot position
      */
-    private DifferentialDriveOdometry m_odometry;
+    private DifferentialOdometry m_odometry;
 
     /**
-     * Pose2d for keeping track of robot position on the field
+     * Robot position on the field. This is the odometry's own pose, updated in
+     * place by the control loop
      */
-    private Pose2d m_robotPose = new Pose2d();
+    private MutablePose2d m_robotPose;
+
+    /**
+     * Recent robot poses, for vision latency compensation
+     */
+    private PoseHistory m_poseHistory = new PoseHistory(RobotConstants.Vision.POSE_HISTORY_LENGTH);
+
+    /**
+     * Vision-based odometry correction
+     */
+    private VisionFusion m_visionFusion = new VisionFusion();
 
     /**
      * Velocity tracking vars
@@ -89,6 +155,43 @@ public class DriveTrain extends SubsystemBase implements Loggable, IDifferential
     /** Old angle for bump detection */
     private double oldYaw;
 
+    /**
+     * Latest command, handed from the command loop to the control loop
+     */
+    private SharedState m_commandState = new SharedState(COMMAND_SIZE);
+    private double[] m_command = new double[COMMAND_SIZE];
+    private double[] m_loopCommand = new double[COMMAND_SIZE];
+
+    /**
+     * Latest odometry, handed from the control loop to the command loop
+     */
+    private SharedState m_state = new SharedState(STATE_SIZE);
+
+    // Pose stream for field visualizers
+    private PoseStream m_poseStream = PoseStream.getInstance();
+    private double[] m_loopState = new double[STATE_SIZE];
+
+    /**
+     * Position most recently requested with {@link #setPosition(Pose2d)}
+     */
+    private Pose2d m_requestedPose = new Pose2d();
+
+    /* Reusable buffers for the command loop */
+    private double[] m_readState = new double[STATE_SIZE];
+    private MutablePose2d m_facePose = new MutablePose2d();
+
+    // Last pose built by getPosition(), and the state sequence it was built from
+    private Pose2d m_cachedPose = new Pose2d();
+    private long m_cachedPoseSequence = -1;
+    private DriveSignal m_driveSignal = new DriveSignal(0.0, 0.0);
+    private DriveSignal m_targetSignal = new DriveSignal(0.0, 0.0);
+    private DriveSignal m_voltageSignal = new DriveSignal(0.0, 0.0);
+
+    /* Control loop */
+    private boolean m_inRateTier = false;
+    private double m_lastLoopTime = Double.NaN;
+    private double m_appliedTurns, m_appliedResets = 0;
+
     /**
      * DriveTrain constructor.
      * 
@@ -115,6 +218,10 @@ public class DriveTrain extends SubsystemBase implements Loggable, IDifferential
                 RobotConstants.DriveTrain.CurrentLimits.TIMEOUT_MS, RobotConstants.DriveTrain.CurrentLimits.HOLD_AMPS,
                 0);
 
+        // Budget the gearboxes' battery current
+        PowerManager.getInstance().addLoad("DriveTrain", RobotConstants.Power.DRIVETRAIN_PRIORITY,
+                this::estimateCurrent, m_leftGearbox, m_rightGearbox);
+
         // Disable motor safety
         m_leftGearbox.setMasterMotorSafety(false);
         m_rightGearbox.setMasterMotorSafety(false);
@@ -129,32 +236,29 @@ public class DriveTrain extends SubsystemBase implements Loggable, IDifferential
         m_rightEncoder = m_rightGearbox.getEncoder(RobotConstants.DriveTrain.Encoders.RIGHT_ENCODER_SLOT,
                 RobotConstants.DriveTrain.Encoders.RIGHT_SENSOR_PHASE);
 
-        // Set up encoder simulation if robot is not real
-        if (RobotBase.isSimulation()) {
-            m_leftEncoder.initSimulationDevice(m_leftGearbox, RobotConstants.DriveTrain.Encoders.PULSES_PER_REVOLUTION,
-                    RobotConstants.DriveTrain.Measurements.GEAR_RATIO,
-                    RobotConstants.DriveTrain.Measurements.MOTOR_MAX_RPM,
-                    RobotConstants.DriveTrain.Simulation.ENCODER_RAMP_RATE);
-
-            m_rightEncoder.initSimulationDevice(m_rightGearbox,
-                    RobotConstants.DriveTrain.Encoders.PULSES_PER_REVOLUTION,
-                    RobotConstants.DriveTrain.Measurements.GEAR_RATIO,
-                    RobotConstants.DriveTrain.Measurements.MOTOR_MAX_RPM,
-                    RobotConstants.DriveTrain.Simulation.ENCODER_RAMP_RATE);
-        }
-
         // Configure turning PID controller
         m_turnController = new PIDController(RobotConstants.ControlGains.kPTurnVel,
                 RobotConstants.ControlGains.kITurnVel, RobotConstants.ControlGains.kDTurnVel);
         m_turnController.reset();
 
         // Create odometry object
-        m_odometry = new DifferentialDriveOdometry(ADGyro.getInstance().getRotation());
+        m_odometry = new DifferentialOdometry(Math.toRadians(ADGyro.getInstance().getHeading()), 0.0, 0.0, 0.0);
+        m_robotPose = m_odometry.getPose();
 
         // Zero encoders
         m_leftEncoder.zero();
         m_rightEncoder.zero();
 
+        // Publish the pose to the dashboard in the background
+        if (RobotConstants.PUBLISH_SD_TELEMETRY) {
+            NetworkTable dashboard = NetworkTableInstance.getDefault().getTable("SmartDashboard");
+            TelemetryPublisher publisher = TelemetryPublisher.getInstance();
+            publisher.addDouble(dashboard, "[DriveTrain] x", () -> m_state.get(STATE_X), Rate.kMedium, 0.001);
+            publisher.addDouble(dashboard, "[DriveTrain] y", () -> m_state.get(STATE_Y), Rate.kMedium, 0.001);
+            publisher.addDouble(dashboard, "[DriveTrain] heading",
+                    () -> Math.toDegrees(m_state.get(STATE_THETA)), Rate.kMedium, 0.05);
+        }
+
         // Set ramp rate
         setRampRate(0.12);
     }
@@ -165,11 +269,7 @@ public class DriveTrain extends SubsystemBase implements Loggable, IDifferential
      * @return DriveTrain instance
      */
     public static DriveTrain getInstance() {
-        if (s_instance == null) {
-            s_instance = new DriveTrain();
-        }
-
-        return s_instance;
+        return Holder.INSTANCE;
     }
 
     /**
@@ -177,51 +277,156 @@ public class DriveTrain extends SubsystemBase implements Loggable, IDifferential
      * this method.
      */
     @Override
-    public void periodic() {
+    protected void profiledPeriodic() {
+
+        // Without a fast tier, the control loop runs at the command loop's rate
+        if (!m_inRateTier) {
+            controlLoop();
+        }
+    }
+
+    /**
+     * Run the control loop in a fast tier, instead of from {@link #periodic()}.
+     * This must be called before the tier is started.
+     * 
+     * @param tier Tier to run in
+     */
+    public void runInTier(RateTier tier) {
+        logger.log("DriveTrain", String.format("Running control loop at %.0fHz", 1.0 / tier.getPeriod()));
+
+        // The turn controller integrates and differentiates over the tier's period
+        m_turnController = new PIDController(RobotConstants.ControlGains.kPTurnVel,
+                RobotConstants.ControlGains.kITurnVel, RobotConstants.ControlGains.kDTurnVel, tier.getPeriod());
+
+        m_inRateTier = true;
+        tier.register("DriveTrain", this::controlLoop);
+    }
+
+    /**
+     * Read the sensors, update odometry, and set the gearbox outputs. Once the
+     * control loop is running in a tier, nothing else touches the gearbox outputs,
+     * encoders, or odometry.
+     */
+    private void controlLoop() {
 
-        if(m_currentSignal == null){
-            m_currentSignal = new DriveSignal(0.0,0.0);
+        // Pick up the latest command
+        m_commandState.read(m_loopCommand);
+
+        // Determine the time since the last loop
+        double now = FPGAClock.getFPGASeconds();
+        double dt = (Double.isNaN(m_lastLoopTime)) ? 0.0 : now - m_lastLoopTime;
+        m_lastLoopTime = now;
+
+        // Apply any new position reset
+        if (m_loopCommand[COMMAND_RESETS] != m_appliedResets) {
+            m_appliedResets = m_loopCommand[COMMAND_RESETS];
+            resetPosition(m_loopCommand[COMMAND_RESET_X], m_loopCommand[COMMAND_RESET_Y],
+                    m_loopCommand[COMMAND_RESET_THETA]);
+        }
+
+        /* Handle encoder updates */
+        m_leftEncoder.update();
+        m_rightEncoder.update();
+        double leftMeters = readLeftMeters();
+        double rightMeters = readRightMeters();
+
+        // Determine wheel speeds
+        if (dt > 0.0) {
+            m_leftMPS = (leftMeters - m_lastLeftMeters) / dt;
+            m_rightMPS = (rightMeters - m_lastRightMeters) / dt;
+        }
+
+        // set last distances
+        m_lastLeftMeters = leftMeters;
+        m_lastRightMeters = rightMeters;
+
+        /* Handle odometry updates */
+
+        // Get the current robot heading
+        double heading = Math.toRadians(ADGyro.getInstance().getHeading());
+
+        // Calculate the robot pose. This updates m_robotPose in place
+        m_odometry.update(heading, leftMeters, rightMeters);
+
+        // Record the pose for latency compensation
+        m_poseHistory.record(now, m_robotPose.getX(), m_robotPose.getY(), m_robotPose.getTheta());
+
+        // Correct the pose with any new vision frame
+        if (m_visionFusion.update(Limelight2.getInstance().getFrame(), m_poseHistory)) {
+            applyVisionCorrection(m_visionFusion.getCorrectionX(), m_visionFusion.getCorrectionY());
         }
 
         /* Handle motor outputs for each mode */
-        switch (m_currentDriveMode) {
+        switch (DRIVE_MODES[(int) m_loopCommand[COMMAND_MODE]]) {
         case OPEN_LOOP:
             // Sets the left and right gearbox
-            m_leftGearbox.set(m_currentSignal.getL());
-            m_rightGearbox.set(m_currentSignal.getR());
+            m_leftGearbox.set(m_loopCommand[COMMAND_LEFT]);
+            m_rightGearbox.set(m_loopCommand[COMMAND_RIGHT]);
             break;
         case VOLTAGE:
             // ets the left and right gearbox
-            m_leftGearbox.setVoltage(m_currentSignal.getL());
-            m_rightGearbox.setVoltage(m_currentSignal.getR());
+            m_leftGearbox.setVoltage(m_loopCommand[COMMAND_LEFT]);
+            m_rightGearbox.setVoltage(m_loopCommand[COMMAND_RIGHT]);
+            break;
+        case TURN:
+            // Turn towards the setpoint, using this loop's heading
+            runTurnControl();
             break;
         default:
-            // This code should never run, but if it does, we set the mode to OPEN_LOOP, and
-            // the outputs to 0
-            setOpenLoop(new DriveSignal(0, 0));
+            // This code should never run, but if it does, we stop the gearboxes
+            m_leftGearbox.set(0.0);
+            m_rightGearbox.set(0.0);
         }
 
-        /* Handle encoder updates */
-        m_leftEncoder.update();
-        m_rightEncoder.update();
+        // Publish the new state
+        m_loopState[STATE_X] = m_robotPose.getX();
+        m_loopState[STATE_Y] = m_robotPose.getY();
+        m_loopState[STATE_THETA] = m_robotPose.getTheta();
+        m_loopState[STATE_LEFT_METERS] = m_lastLeftMeters;
+        m_loopState[STATE_RIGHT_METERS] = m_lastRightMeters;
+        m_loopState[STATE_LEFT_MPS] = m_leftMPS;
+        m_loopState[STATE_RIGHT_MPS] = m_rightMPS;
+        m_loopState[STATE_RESETS] = m_appliedResets;
+        m_state.publish(m_loopState);
+
+        // Stream the pose
+        m_poseStream.update(m_robotPose.getX(), m_robotPose.getY(), m_robotPose.getTheta(), now);
+    }
 
-        // Determine wheel speeds
-        m_leftMPS = (getLeftMeters() - m_lastLeftMeters) * 50;
-        m_rightMPS = (getRightMeters() - m_lastRightMeters) * 50;
+    /**
+     * Run the heading controller towards the commanded setpoint
+     */
+    private void runTurnControl() {
 
-        // set last distances
-        m_lastLeftMeters = getLeftMeters();
-        m_lastRightMeters = getRightMeters();
+        // Start every new turn with a fresh controller
+        if (m_loopCommand[COMMAND_TURNS] != m_appliedTurns) {
+            m_appliedTurns = m_loopCommand[COMMAND_TURNS];
+            m_turnController.reset();
+        }
 
-        /* Handle odometry updates */
+        // Find the error from the current heading
+        double drivebaseAngle = Mathutils.wpiAngleTo5k(m_robotPose.getDegrees());
+        double error = Mathutils.getWrappedError(drivebaseAngle, m_loopCommand[COMMAND_TURN_SETPOINT]);
 
-        // Get the current robot heading
-        Rotation2d heading = Rotation2d.fromDegrees(ADGyro.getInstance().getHeading());
+        // Set PID controller epsilon
+        m_turnController.setTolerance(m_loopCommand[COMMAND_TURN_TOLERANCE]);
+        m_turnController.setSetpoint(0);
+
+        // Calculate turn force
+        double force = m_turnController.calculate(error, 0.0);
+
+        // Clamp turn force
+        force = Mathutils.clamp(force, -1.0, 1.0);
+        force *= 0.9;
 
-        // Calculate the robot pose
-        m_odometry.update(heading, getLeftMeters(), getRightMeters());
-        m_robotPose = m_odometry.getPoseMeters();
+        // Set motor command
+        m_leftGearbox.set(force);
+        m_rightGearbox.set(-force);
 
+        // Reset PID controller after a completed turn
+        if (m_turnController.atSetpoint()) {
+            m_turnController.reset();
+        }
     }
 
     /**
@@ -236,7 +441,7 @@ public class DriveTrain extends SubsystemBase implements Loggable, IDifferential
         rotation = InputUtils.scale(rotation, ScalingMode.SQUARED);
 
         // Compute a DriveSignal from inputs
-        DriveSignal signal = DifferentialDriveCalculation.semiConstCurve(speed, rotation);
+        DriveSignal signal = DifferentialDriveCalculation.semiConstCurve(speed, rotation, m_driveSignal);
 
         signal = DifferentialDriveCalculation.normalize(signal);
 
@@ -274,41 +479,61 @@ public class DriveTrain extends SubsystemBase implements Loggable, IDifferential
 
         // Convert the WPILib angles to Lib5K-compatible angles
         double setpointAngle = Mathutils.wpiAngleTo5k(rot.getDegrees());
-        double drivebaseAngle = Mathutils.wpiAngleTo5k(getPosition().getRotation().getDegrees());
+        double drivebaseAngle = Mathutils.wpiAngleTo5k(getPosition(m_facePose).getDegrees());
+
+        // Hand the setpoint to the control loop
+        setTurn(setpointAngle, eps);
 
         // Find error between angles
         double error = Mathutils.getWrappedError(drivebaseAngle, setpointAngle);
-
-        return face(error, eps);
+        return Math.abs(error) < eps;
     }
 
+    /**
+     * Turn the drivebase by an angle
+     * 
+     * @param error Current angle minus the desired angle, in degrees
+     * @param eps   Acceptable error
+     * @return Is facing angle?
+     */
     public boolean face(double error, double eps) {
-        // Set PID controller epsilon
-        m_turnController.setTolerance(eps);
-        m_turnController.setSetpoint(0);
-
-        // Calculate turn force
-        double force = m_turnController.calculate(error, 0.0);
 
-        // Clamp turn force
-        force = Mathutils.clamp(force, -1.0, 1.0);
-        force *= 0.9;
-        // Set motor command
-        setOpenLoop(new DriveSignal(force, -force));
+        // Convert the error to a setpoint, so the control loop can track it with its
+        // own heading
+        double drivebaseAngle = Mathutils.wpiAngleTo5k(getPosition(m_facePose).getDegrees());
+        setTurn(Mathutils.wpiAngleTo5k(Mathutils.wrapGyro(drivebaseAngle - error)), eps);
 
-        // Handle reset after completed turn
-        if (m_turnController.atSetpoint()) {
+        return Math.abs(error) < eps;
+    }
 
-            // Reset PID controller
-            m_turnController.reset();
+    /**
+     * Hand a heading setpoint to the control loop
+     * 
+     * @param setpoint Desired angle, in Lib5K degrees
+     * @param eps      Acceptable error
+     */
+    private void setTurn(double setpoint, double eps) {
 
-            // Return the "finished" status
-            return true;
+        // Force-set the mode if not already set
+        if (m_currentDriveMode != DriveMode.TURN) {
+
+            // Coming from voltage control, the brakes need to be re-enabled
+            if (m_currentDriveMode == DriveMode.VOLTAGE) {
+                setBrakes(true);
+                logger.log("DriveTrain",
+                        MessageFormatter.format("Set control mode to TURN with setpoint: {}").arg(setpoint, 2));
+            }
+
+            // Set the new state, and count a new turn
+            m_currentDriveMode = DriveMode.TURN;
+            m_command[COMMAND_TURNS]++;
         }
 
-        // If this is reached, we have not yet met the target
-        return false;
-
+        // Publish the new setpoint
+        m_command[COMMAND_MODE] = DriveMode.TURN.ordinal();
+        m_command[COMMAND_TURN_SETPOINT] = setpoint;
+        m_command[COMMAND_TURN_TOLERANCE] = eps;
+        m_commandState.publish(m_command);
     }
 
     /**
@@ -332,7 +557,7 @@ public class DriveTrain extends SubsystemBase implements Loggable, IDifferential
         throttle = Mathutils.clamp(throttle, -1.0, 1.0);
 
         // Send motor command
-        setOpenLoop(new DriveSignal(throttle, throttle));
+        setOpenLoop(m_targetSignal.set(throttle, throttle));
 
         // Set old yaw
         setOldYaw(ADGyro.getInstance().getAngle());
@@ -353,18 +578,24 @@ public class DriveTrain extends SubsystemBase implements Loggable, IDifferential
         // Force-set the mode if not already set
         if (m_currentDriveMode != DriveMode.OPEN_LOOP) {
 
-            // Enable motor brakes
-            setBrakes(true);
+            // A turn already has the brakes enabled, and hands back to open loop often
+            if (m_currentDriveMode != DriveMode.TURN) {
 
-            // Log the state change
-            logger.log("DriveTrain", String.format("Set control mode to OPEN_LOOP with signal: %s", signal.toString()));
+                // Enable motor brakes
+                setBrakes(true);
+
+                // Log the state change
+                logger.log("DriveTrain", MessageFormatter.format("Set control mode to OPEN_LOOP with signal: <{}, {}>")
+                        .arg(signal.getL(), 2).arg(signal.getR(), 2));
+            }
 
             // Set the new state
             m_currentDriveMode = DriveMode.OPEN_LOOP;
         }
 
-        // Set the current DriveTrain signal
-        m_currentSignal = signal;
+        // Set the current DriveTrain signal. Callers may reuse their signal, so copy it
+        m_currentSignal.set(signal.getL(), signal.getR());
+        publishSignal(DriveMode.OPEN_LOOP, signal);
     }
 
     /**
@@ -382,14 +613,29 @@ public class DriveTrain extends SubsystemBase implements Loggable, IDifferential
             setBrakes(false);
 
             // Log the state change
-            logger.log("DriveTrain", String.format("Set control mode to VOLTAGE with signal: %s", signal.toString()));
+            logger.log("DriveTrain", MessageFormatter.format("Set control mode to VOLTAGE with signal: <{}, {}>")
+                    .arg(signal.getL(), 2).arg(signal.getR(), 2));
 
             // Set the new state
             m_currentDriveMode = DriveMode.VOLTAGE;
         }
 
-        // Set the current DriveTrain signal
-        m_currentSignal = signal;
+        // Set the current DriveTrain signal. Callers may reuse their signal, so copy it
+        m_currentSignal.set(signal.getL(), signal.getR());
+        publishSignal(DriveMode.VOLTAGE, signal);
+    }
+
+    /**
+     * Hand a drive signal to the control loop
+     * 
+     * @param mode   Drive mode
+     * @param signal Signal
+     */
+    private void publishSignal(DriveMode mode, DriveSignal signal) {
+        m_command[COMMAND_MODE] = mode.ordinal();
+        m_command[COMMAND_LEFT] = signal.getL();
+        m_command[COMMAND_RIGHT] = signal.getR();
+        m_commandState.publish(m_command);
     }
 
     /**
@@ -399,7 +645,7 @@ public class DriveTrain extends SubsystemBase implements Loggable, IDifferential
      * @param right
      */
     public void setVoltage(double left, double right) {
-        setVoltage(new DriveSignal(left, right));
+        setVoltage(m_voltageSignal.set(left, right));
     }
 
     /**
@@ -408,7 +654,7 @@ public class DriveTrain extends SubsystemBase implements Loggable, IDifferential
      * @param rampRate Ramp rate
      */
     public void setRampRate(double rampRate) {
-        logger.log("DriveTrain", String.format("Setting DriveTrain ramp rate to: %.2f", rampRate));
+        logger.log("DriveTrain", MessageFormatter.format("Setting DriveTrain ramp rate to: {}").arg(rampRate, 2));
 
         m_leftGearbox.setRampRate(rampRate);
         m_rightGearbox.setRampRate(rampRate);
@@ -433,7 +679,7 @@ public class DriveTrain extends SubsystemBase implements Loggable, IDifferential
      * @param brakesApplied Should the brakes be applied?
      */
     public void setBrakes(boolean brakesApplied) {
-        logger.log("DriveTrain", String.format("%s brakes", (brakesApplied) ? "Enabling" : "Disabling"));
+        logger.log("DriveTrain", (brakesApplied) ? "Enabling brakes" : "Disabling brakes");
 
         m_leftGearbox.setNeutralMode((brakesApplied) ? NeutralMode.Brake : NeutralMode.Coast);
         m_rightGearbox.setNeutralMode((brakesApplied) ? NeutralMode.Brake : NeutralMode.Coast);
@@ -446,10 +692,7 @@ public class DriveTrain extends SubsystemBase implements Loggable, IDifferential
      */
     @Override
     public double getLeftMeters() {
-
-        return m_leftEncoder.getMeters(RobotConstants.DriveTrain.Encoders.PULSES_PER_REVOLUTION,
-                RobotConstants.DriveTrain.Measurements.WHEEL_CIRCUMFERENCE);
-
+        return m_state.get(STATE_LEFT_METERS);
     }
 
     /**
@@ -459,10 +702,29 @@ public class DriveTrain extends SubsystemBase implements Loggable, IDifferential
      */
     @Override
     public double getRightMeters() {
+        return m_state.get(STATE_RIGHT_METERS);
+    }
 
-        return m_rightEncoder.getMeters(RobotConstants.DriveTrain.Encoders.PULSES_PER_REVOLUTION,
+    /**
+     * Read the left side distance from the encoder. Only called from the control
+     * loop.
+     * 
+     * @return Left distance
+     */
+    private double readLeftMeters() {
+        return m_leftEncoder.getMeters(RobotConstants.DriveTrain.Encoders.PULSES_PER_REVOLUTION,
                 RobotConstants.DriveTrain.Measurements.WHEEL_CIRCUMFERENCE);
+    }
 
+    /**
+     * Read the right side distance from the encoder. Only called from the control
+     * loop.
+     * 
+     * @return Right distance
+     */
+    private double readRightMeters() {
+        return m_rightEncoder.getMeters(RobotConstants.DriveTrain.Encoders.PULSES_PER_REVOLUTION,
+                RobotConstants.DriveTrain.Measurements.WHEEL_CIRCUMFERENCE);
     }
 
     @Override
@@ -471,12 +733,51 @@ public class DriveTrain extends SubsystemBase implements Loggable, IDifferential
     }
 
     /**
-     * Get the robot's current field-relative position
+     * Get the robot's current field-relative position. A new Pose2d is only built
+     * once per odometry update, and shared by every caller until the next one.
+     * Code that needs a pose every cycle without allocating should use
+     * {@link #getPosition(MutablePose2d)}.
      * 
      * @return Robot position
      */
     public Pose2d getPosition() {
-        return m_odometry.getPoseMeters();
+        synchronized (m_readState) {
+            long sequence = m_state.read(m_readState);
+
+            // The control loop has not picked up the last reset yet
+            if (m_readState[STATE_RESETS] != m_command[COMMAND_RESETS]) {
+                return m_requestedPose;
+            }
+
+            // Pose2d is immutable, so the last one can be handed out again
+            if (sequence != m_cachedPoseSequence) {
+                m_cachedPose = new Pose2d(m_readState[STATE_X], m_readState[STATE_Y],
+                        new Rotation2d(m_readState[STATE_THETA]));
+                m_cachedPoseSequence = sequence;
+            }
+
+            return m_cachedPose;
+        }
+    }
+
+    /**
+     * Copy the robot's current field-relative position into a pose, without
+     * allocating
+     * 
+     * @param pose Pose to copy into
+     * @return The same pose
+     */
+    public MutablePose2d getPosition(MutablePose2d pose) {
+        synchronized (m_readState) {
+            m_state.read(m_readState);
+
+            // The control loop has not picked up the last reset yet
+            if (m_readState[STATE_RESETS] != m_command[COMMAND_RESETS]) {
+                return pose.set(m_requestedPose);
+            }
+
+            return pose.set(m_readState[STATE_X], m_readState[STATE_Y], m_readState[STATE_THETA]);
+        }
     }
 
     /**
@@ -505,20 +806,133 @@ public class DriveTrain extends SubsystemBase implements Loggable, IDifferential
     public void setPosition(Pose2d pose) {
         logger.log("DriveTrain", String.format("Set odometry position to: %s", pose.toString()));
 
+        // Hand the reset to the control loop, which owns the encoders and odometry
+        m_requestedPose = pose;
+        m_command[COMMAND_RESET_X] = pose.getTranslation().getX();
+        m_command[COMMAND_RESET_Y] = pose.getTranslation().getY();
+        m_command[COMMAND_RESET_THETA] = pose.getRotation().getRadians();
+        m_command[COMMAND_RESETS]++;
+        m_commandState.publish(m_command);
+    }
+
+    /**
+     * Reset the encoders and odometry to a position. Only called from the control
+     * loop.
+     * 
+     * @param x     X position (meters)
+     * @param y     Y position (meters)
+     * @param theta Heading (radians)
+     */
+    private void resetPosition(double x, double y, double theta) {
+
         // Zero encoders (Important)
         m_leftEncoder.zero();
         m_rightEncoder.zero();
-
+        m_lastLeftMeters = 0;
+        m_lastRightMeters = 0;
 
         // Reset odometry
-        m_odometry.resetPosition(pose, ADGyro.getInstance().getRotation());
+        m_odometry.resetPosition(x, y, theta, Math.toRadians(ADGyro.getInstance().getHeading()));
+
+        // Old poses no longer match the new position
+        m_poseHistory.clear();
+    }
+
+    /**
+     * Shift the robot's position by a vision correction, keeping its heading
+     * 
+     * @param dx X correction in meters
+     * @param dy Y correction in meters
+     */
+    private void applyVisionCorrection(double dx, double dy) {
+
+        // Move the odometry pose. The encoders are left alone, as commands measure
+        // distance with them
+        m_odometry.translate(dx, dy);
 
+        // Move the history along with the pose
+        m_poseHistory.shift(dx, dy);
     }
 
     public DifferentialDriveWheelSpeeds getWheelSpeeds() {
         // System.out.println("" + m_leftMPS + "|" + m_rightMPS);
-        return new DifferentialDriveWheelSpeeds(m_leftMPS, m_rightMPS);
+        return new DifferentialDriveWheelSpeeds(m_state.get(STATE_LEFT_MPS), m_state.get(STATE_RIGHT_MPS));
+
+    }
+
+    /**
+     * Register this subsystem's sensor inputs with a telemetry recorder, so they
+     * can be replayed later
+     * 
+     * @param recorder Telemetry recorder
+     */
+    public void addReplayChannels(TelemetryRecorder recorder) {
+        recorder.addIntChannel("DriveTrain/LeftTicks", m_leftEncoder::getRawTicks);
+        recorder.addIntChannel("DriveTrain/RightTicks", m_rightEncoder::getRawTicks);
+    }
+
+    /**
+     * Map this subsystem's recorded sensor inputs to their simulation hooks
+     * 
+     * @param replay Log replay
+     */
+    public void addReplayInjectors(LogReplay replay) {
+        replay.mapInt("DriveTrain/LeftTicks", m_leftEncoder::injectSimTicks);
+        replay.mapInt("DriveTrain/RightTicks", m_rightEncoder::injectSimTicks);
+    }
+
+    /**
+     * Connect the gearboxes, encoders, and gyro to a simulated drivetrain
+     * 
+     * @param plant Drivetrain plant
+     */
+    public void addSimulation(DifferentialDrivePlant plant) {
+        plant.connectMotors(m_leftGearbox::get, m_rightGearbox::get, m_leftGearbox::getRampRate);
+        plant.connectSensors((meters) -> m_leftEncoder.injectSimTicks(metersToTicks(meters)),
+                (meters) -> m_rightEncoder.injectSimTicks(metersToTicks(meters)),
+                ADGyro.getInstance()::injectSimAngle, ADGyro.getInstance()::injectSimRate);
+    }
+
+    /**
+     * Estimate the battery current drawn by both gearboxes
+     * 
+     * @param scale   Output scale
+     * @param voltage Battery voltage
+     * @return Supply current (A)
+     */
+    private double estimateCurrent(double scale, double voltage) {
+        return estimateGearboxCurrent(m_leftGearbox.getRequestedOutput() * scale, m_state.get(STATE_LEFT_MPS),
+                voltage)
+                + estimateGearboxCurrent(m_rightGearbox.getRequestedOutput() * scale, m_state.get(STATE_RIGHT_MPS),
+                        voltage);
+    }
 
+    /**
+     * Estimate the battery current drawn by one gearbox
+     * 
+     * @param output  Gearbox output
+     * @param mps     Wheel speed (m/s)
+     * @param voltage Battery voltage
+     * @return Supply current (A)
+     */
+    private static double estimateGearboxCurrent(double output, double mps, double voltage) {
+
+        // The characterized kV folds the gearbox losses into the back-EMF
+        double motorRPM = RobotConstants.ControlGains.kvVoltsSecondsPerMeter * mps * GEARBOX_MOTOR.Kv;
+
+        return GEARBOX_MOTOR.getSupplyCurrent(MOTORS_PER_GEARBOX, output, motorRPM, voltage,
+                RobotConstants.DriveTrain.CurrentLimits.HOLD_AMPS);
+    }
+
+    /**
+     * Convert a wheel distance to raw encoder ticks
+     * 
+     * @param meters Distance in meters
+     * @return Encoder ticks
+     */
+    private static int metersToTicks(double meters) {
+        return (int) Math.round((meters / RobotConstants.DriveTrain.Measurements.WHEEL_CIRCUMFERENCE)
+                * RobotConstants.DriveTrain.Encoders.PULSES_PER_REVOLUTION);
     }
 
     @Override
@@ -530,8 +944,6 @@ public class DriveTrain extends SubsystemBase implements Loggable, IDifferential
 
     @Override
     public void updateTelemetry() {
-
-        SmartDashboard.putString("[DriveTrain] pose", getPosition().toString());
-
+        // The pose is published by the TelemetryPublisher
     }
 }
\ No newline at end of file
@@ -21,10 +21,13 @@ import edu.wpi.first.wpilibj.Preferences;
 import edu.wpi.first.wpilibj.shuffleboard.BuiltInWidgets;
 import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
 import edu.wpi.first.wpilibj.util.Color;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import edu.wpi.first.wpiutil.CircularBuffer;
 import frc.lib5k.components.motors.TalonHelper;
 import frc.lib5k.components.sensors.ColorSensor5k;
+import frc.lib5k.logging.TelemetryRecorder;
+import frc.lib5k.loops.profiling.ProfiledSubsystem;
+import frc.lib5k.roborio.PowerManager;
+import frc.lib5k.simulation.LogReplay;
 import frc.lib5k.simulation.wrappers.SimTalon;
 import frc.lib5k.utils.Mathutils;
 import frc.lib5k.utils.RobotLogger;
@@ -34,9 +37,11 @@ import frc.robot.RobotConstants;
 /**
  * Subsystem in charge of interacting with the control panel
  */
-public class PanelManipulator extends SubsystemBase {
+public class PanelManipulator extends ProfiledSubsystem {
     RobotLogger logger = RobotLogger.getInstance();
-    private static PanelManipulator s_instance = null;
+    private static class Holder {
+        private static final PanelManipulator INSTANCE = new PanelManipulator();
+    }
 
     // Color sensor
     private ColorSensor5k m_colorSensor;
@@ -149,6 +154,7 @@ public class PanelManipulator extends SubsystemBase {
 
         // Connect to Color Sensor
         m_colorSensor = new ColorSensor5k(I2C.Port.kOnboard);
+        m_colorSensor.enablePolling(RobotConstants.PanelManipulator.COLOR_SENSOR_POLL_PERIOD);
 
         // Build a color matcher
         m_matcher = new ColorMatch();
@@ -158,6 +164,13 @@ public class PanelManipulator extends SubsystemBase {
         TalonHelper.configCurrentLimit(m_spinner, 34, 32, 30, 0);
         m_spinner.setInverted(false);
 
+        // Budget the spinner's battery current. Without a speed sensor, assume it is
+        // stalled at its current limit.
+        PowerManager.getInstance().addLoad("PanelManipulator", RobotConstants.Power.PANEL_MANIPULATOR_PRIORITY,
+                (scale, voltage) -> Math.abs(m_spinner.getRequestedOutput() * scale)
+                        * RobotConstants.Power.MECHANISM_HOLD_AMPS,
+                m_spinner);
+
         // Add all colors to matcher
         for (FieldColors fc : m_colors) {
             m_matcher.addColorMatch(fc.color);
@@ -175,16 +188,12 @@ public class PanelManipulator extends SubsystemBase {
      * @return Instance
      */
     public static PanelManipulator getInstance() {
-        if (s_instance == null) {
-            s_instance = new PanelManipulator();
-        }
-
-        return s_instance;
+        return Holder.INSTANCE;
 
     }
 
     @Override
-    public void periodic() {
+    protected void profiledPeriodic() {
 
         /* Update the threshold from Shuffleboard */
         double threshold = m_threshold.getDouble(RobotConstants.PanelManipulator.DEFAULT_COLOR_THRESHOLD);
@@ -219,7 +228,6 @@ public class PanelManipulator extends SubsystemBase {
                 // Set state to idle
                 m_currentState = SystemState.IDLE;
         }
-
     }
 
     /**
@@ -487,6 +495,32 @@ public class PanelManipulator extends SubsystemBase {
         return m_colorSensor.getProximity() > RobotConstants.PanelManipulator.DISTANCE_THRESHOLD;
     }
 
+    /**
+     * Register this subsystem's sensor inputs with a telemetry recorder, so they
+     * can be replayed later. Uses the last sensor reading, so this does not add
+     * any I2C traffic.
+     * 
+     * @param recorder Telemetry recorder
+     */
+    public void addReplayChannels(TelemetryRecorder recorder) {
+        recorder.addDoubleChannel("PanelManipulator/Red", () -> m_colorSensor.getLastColor().red);
+        recorder.addDoubleChannel("PanelManipulator/Green", () -> m_colorSensor.getLastColor().green);
+        recorder.addDoubleChannel("PanelManipulator/Blue", () -> m_colorSensor.getLastColor().blue);
+        recorder.addDoubleChannel("PanelManipulator/Proximity", m_colorSensor::getLastProximity);
+    }
+
+    /**
+     * Map this subsystem's recorded sensor inputs to their simulation hooks
+     * 
+     * @param replay Log replay
+     */
+    public void addReplayInjectors(LogReplay replay) {
+        replay.mapDoubles(
+                new String[] { "PanelManipulator/Red", "PanelManipulator/Green", "PanelManipulator/Blue",
+                        "PanelManipulator/Proximity" },
+                (values) -> m_colorSensor.injectSimReading(values[0], values[1], values[2], (int) values[3]));
+    }
+
     /**
      * Check if the system is idle
      * 
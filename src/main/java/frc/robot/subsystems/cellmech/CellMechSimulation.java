@@ -0,0 +1,287 @@
+package frc.robot.subsystems.cellmech;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntConsumer;
+
+import frc.lib5k.kinematics.models.DCBrushedMotor;
+import frc.lib5k.kinematics.models.FlywheelModel;
+import frc.lib5k.simulation.physics.BallConveyor;
+import frc.lib5k.simulation.physics.BatteryModel;
+import frc.lib5k.simulation.physics.MotorMechanism;
+import frc.lib5k.simulation.physics.PhysicsPlant;
+import frc.robot.RobotConstants;
+
+/**
+ * Simulates the intake arm, hopper belt, and shooter flywheel, along with the
+ * cells moving between them. <br>
+ * <br>
+ * The mechanisms read their motor outputs, and drive the encoder, line break,
+ * and limit switch simulation values that the subsystems read. This runs as a
+ * {@link PhysicsPlant} model, so it is stepped at a fixed rate, independent of
+ * the robot loop. The current drawn by every motor is reported to the battery.
+ * Each subsystem connects itself with its addSimulation() method.
+ */
+public class CellMechSimulation implements PhysicsPlant.Model {
+
+    // Plant step
+    public static final double PERIOD = 0.001;
+
+    /* Cell geometry */
+    private static final double CELL_DIAMETER = 0.178;
+    private static final double CELL_SPACING = 0.2032;
+    private static final int HOPPER_CAPACITY = 5;
+
+    /* Hopper geometry, measured from the bottom of the belt */
+    private static final double LINEBREAK_BOTTOM_POSITION = 0.05;
+    private static final double LINEBREAK_MIDDLE_POSITION = 0.30;
+    private static final double LINEBREAK_TOP_POSITION = 1.0;
+    private static final double HOPPER_EXIT_POSITION = 1.15;
+
+    /* Hopper belt */
+    private static final double BELT_GEARING = 20.0;
+    private static final double BELT_PULLEY_RADIUS = 0.02;
+    private static final double BELT_MOI = 0.0005;
+    private static final double BELT_TICKS_PER_METER = RobotConstants.Hopper.MAGIC_ENCODER_NUMBER / CELL_SPACING;
+
+    /* Intake arm */
+    private static final double ARM_GEARING = 200.0;
+    private static final double ARM_MOI = 0.05;
+    private static final double ARM_TRAVEL = 1.75;
+    private static final double ARM_LIMIT_TOLERANCE = 0.05;
+
+    /* Intake roller */
+    private static final double ROLLER_MIN_SPEED = 0.1;
+    private static final double CELL_PICKUP_PERIOD = 1.0;
+
+    /* Shooter */
+    private static final double SHOT_MIN_RPM = 1000.0;
+    private static final double SHOT_RPM_DROP = 500.0;
+
+    /**
+     * Sets a simulated digital input
+     */
+    public interface SensorInjector {
+        public void inject(boolean value);
+    }
+
+    /* Mechanisms */
+    private BatteryModel m_battery;
+    private double m_current = 0.0;
+    private FlywheelModel m_flywheel;
+    private double m_flywheelRPM = 0.0;
+    private MotorMechanism m_belt;
+    private MotorMechanism m_arm;
+    private BallConveyor m_hopper;
+
+    /* Intake state */
+    private double m_pickupTimer = 0.0;
+    private boolean m_cellInIntake = false;
+    private int m_shotCount = 0;
+
+    /* Shooter connections */
+    private DoubleSupplier m_flywheelVoltage = () -> 0.0;
+    private DoubleConsumer m_flywheelVelocity = (rpm) -> {
+    };
+
+    /* Hopper connections */
+    private DoubleSupplier m_beltVoltage = () -> 0.0;
+    private IntConsumer m_beltTicks = (ticks) -> {
+    };
+    private SensorInjector m_lineBottom, m_lineMiddle, m_lineTop;
+
+    /* Intake connections */
+    private DoubleSupplier m_armVoltage = () -> 0.0;
+    private DoubleSupplier m_rollerSpeed = () -> 0.0;
+    private SensorInjector m_limitBottom, m_limitTop;
+
+    /**
+     * Create a CellMechSimulation
+     *
+     * @param battery Battery powering the motors
+     */
+    public CellMechSimulation(BatteryModel battery) {
+
+        // Draw current from the battery
+        m_battery = battery;
+        m_battery.addLoad(this::getCurrent);
+
+        // The flywheel uses its characterized model
+        m_flywheel = new FlywheelModel(RobotConstants.Shooter.kS, RobotConstants.Shooter.kV,
+                RobotConstants.Shooter.kA);
+
+        m_belt = new MotorMechanism(DCBrushedMotor.BAG, 1, BELT_GEARING, BELT_MOI);
+        m_belt.setCurrentLimit(RobotConstants.Power.MECHANISM_HOLD_AMPS);
+
+        // The arm starts stowed, against its top stop
+        m_arm = new MotorMechanism(DCBrushedMotor.M_775PRO, 1, ARM_GEARING, ARM_MOI);
+        m_arm.setLimits(0.0, ARM_TRAVEL);
+        m_arm.setCurrentLimit(RobotConstants.Power.MECHANISM_HOLD_AMPS);
+
+        m_hopper = new BallConveyor(HOPPER_CAPACITY, CELL_DIAMETER, HOPPER_EXIT_POSITION, LINEBREAK_BOTTOM_POSITION,
+                LINEBREAK_MIDDLE_POSITION, LINEBREAK_TOP_POSITION);
+    }
+
+    /**
+     * Connect the shooter flywheel
+     *
+     * @param voltage  Flywheel motor voltage
+     * @param velocity Simulated flywheel velocity (RPM)
+     */
+    public void connectShooter(DoubleSupplier voltage, DoubleConsumer velocity) {
+        m_flywheelVoltage = voltage;
+        m_flywheelVelocity = velocity;
+    }
+
+    /**
+     * Connect the hopper belt and line breaks
+     *
+     * @param voltage    Belt motor voltage
+     * @param ticks      Simulated belt encoder ticks
+     * @param lineBottom Bottom line break DIO
+     * @param lineMiddle Middle line break DIO
+     * @param lineTop    Top line break DIO
+     */
+    public void connectHopper(DoubleSupplier voltage, IntConsumer ticks, SensorInjector lineBottom,
+            SensorInjector lineMiddle, SensorInjector lineTop) {
+        m_beltVoltage = voltage;
+        m_beltTicks = ticks;
+        m_lineBottom = lineBottom;
+        m_lineMiddle = lineMiddle;
+        m_lineTop = lineTop;
+    }
+
+    /**
+     * Connect the intake arm, roller, and limit switches
+     *
+     * @param armVoltage  Arm motor voltage
+     * @param rollerSpeed Roller motor output [-1.0 to 1.0]
+     * @param limitBottom Bottom limit switch DIO
+     * @param limitTop    Top limit switch DIO
+     */
+    public void connectIntake(DoubleSupplier armVoltage, DoubleSupplier rollerSpeed, SensorInjector limitBottom,
+            SensorInjector limitTop) {
+        m_armVoltage = armVoltage;
+        m_rollerSpeed = rollerSpeed;
+        m_limitBottom = limitBottom;
+        m_limitTop = limitTop;
+    }
+
+    @Override
+    public void step(double dt) {
+
+        // Move the intake arm. Positive output deploys it.
+        m_arm.step(m_armVoltage.getAsDouble(), dt);
+        boolean deployed = m_arm.getPosition() >= ARM_TRAVEL - ARM_LIMIT_TOLERANCE;
+        boolean stowed = m_arm.getPosition() <= ARM_LIMIT_TOLERANCE;
+
+        // A deployed, running intake picks up a cell every so often
+        if (deployed && m_rollerSpeed.getAsDouble() > ROLLER_MIN_SPEED && !m_cellInIntake) {
+            m_pickupTimer += dt;
+            if (m_pickupTimer >= CELL_PICKUP_PERIOD) {
+                m_pickupTimer = 0.0;
+                m_cellInIntake = true;
+            }
+        }
+
+        // Feed the picked up cell into the hopper as soon as there is room
+        if (m_cellInIntake && m_hopper.insert()) {
+            m_cellInIntake = false;
+        }
+
+        // Spin the flywheel
+        double flywheelVoltage = m_flywheelVoltage.getAsDouble();
+        m_flywheelRPM = m_flywheel.step(m_flywheelRPM, flywheelVoltage, dt);
+
+        // Move the belt, and the cells on it. Cells only leave the top if the
+        // flywheel can take them.
+        double lastBeltPosition = m_belt.getPosition();
+        m_belt.step(m_beltVoltage.getAsDouble(), dt);
+        double beltDistance = (m_belt.getPosition() - lastBeltPosition) * BELT_PULLEY_RADIUS;
+        m_hopper.step(beltDistance, m_flywheelRPM >= SHOT_MIN_RPM);
+
+        // Each shot takes energy out of the flywheel
+        for (int i = 0; i < m_hopper.getExited(); i++) {
+            m_flywheelRPM = Math.max(0.0, m_flywheelRPM - SHOT_RPM_DROP);
+            m_shotCount++;
+        }
+
+        // Work out the battery current. The roller is not modelled, so it is assumed
+        // to run at its current limit.
+        double batteryVoltage = m_battery.getVoltage();
+        m_current = m_arm.getSupplyCurrent(batteryVoltage) + m_belt.getSupplyCurrent(batteryVoltage)
+                + (Math.abs(m_rollerSpeed.getAsDouble()) * RobotConstants.Power.MECHANISM_HOLD_AMPS);
+        if (batteryVoltage > 0.0) {
+            m_current += DCBrushedMotor.NEO.getSupplyCurrent(1, flywheelVoltage / batteryVoltage, m_flywheelRPM,
+                    batteryVoltage);
+        }
+
+        // Publish sensor values
+        m_flywheelVelocity.accept(m_flywheelRPM);
+        m_beltTicks.accept((int) Math.round(m_belt.getPosition() * BELT_PULLEY_RADIUS * BELT_TICKS_PER_METER));
+        inject(m_lineBottom, m_hopper.isBlocked(0));
+        inject(m_lineMiddle, m_hopper.isBlocked(1));
+        inject(m_lineTop, m_hopper.isBlocked(2));
+
+        // Limit switches are active-low
+        inject(m_limitBottom, !deployed);
+        inject(m_limitTop, !stowed);
+    }
+
+    /**
+     * Set a sensor, if it is connected
+     *
+     * @param sensor Sensor
+     * @param value  Raw DIO value
+     */
+    private void inject(SensorInjector sensor, boolean value) {
+        if (sensor != null) {
+            sensor.inject(value);
+        }
+    }
+
+    /**
+     * Get the total current drawn by the cell mechanisms
+     *
+     * @return Current (A)
+     */
+    public double getCurrent() {
+        return m_current;
+    }
+
+    /**
+     * Get the number of cells in the hopper
+     *
+     * @return Cell count
+     */
+    public int getHopperCount() {
+        return m_hopper.getCount();
+    }
+
+    /**
+     * Get the number of cells shot so far
+     *
+     * @return Shot count
+     */
+    public int getShotCount() {
+        return m_shotCount;
+    }
+
+    /**
+     * Get the simulated flywheel velocity
+     *
+     * @return Velocity (RPM)
+     */
+    public double getFlywheelRPM() {
+        return m_flywheelRPM;
+    }
+
+    /**
+     * Get the simulated intake arm angle
+     *
+     * @return Angle from stowed (rad)
+     */
+    public double getArmAngle() {
+        return m_arm.getPosition();
+    }
+}
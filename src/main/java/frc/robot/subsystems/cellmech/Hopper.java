@@ -1,11 +1,14 @@
 package frc.robot.subsystems.cellmech;
 
 import edu.wpi.first.wpilibj.Timer;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.lib5k.components.motors.TalonHelper;
 import frc.lib5k.components.motors.motorsensors.TalonEncoder;
 import frc.lib5k.components.sensors.EncoderBase;
 import frc.lib5k.components.sensors.LineBreak;
+import frc.lib5k.logging.TelemetryRecorder;
+import frc.lib5k.loops.profiling.ProfiledSubsystem;
+import frc.lib5k.roborio.PowerManager;
+import frc.lib5k.simulation.LogReplay;
 import frc.lib5k.simulation.wrappers.SimTalon;
 import frc.lib5k.utils.Mathutils;
 import frc.lib5k.utils.RobotLogger;
@@ -17,8 +20,11 @@ import frc.robot.AnalyticsEngine.AnalyticEvent;
 /**
  * Robot hopper subsystem
  */
-public class Hopper extends SubsystemBase {
-    public static Hopper s_instance = null;
+public class Hopper extends ProfiledSubsystem {
+    private static class Holder {
+        private static final Hopper INSTANCE = new Hopper();
+    }
+
     private RobotLogger logger = RobotLogger.getInstance();
 
     private OI m_OI = OI.getInstance();
@@ -94,6 +100,13 @@ public class Hopper extends SubsystemBase {
         // Set voltage limiting
         TalonHelper.configCurrentLimit(m_hopperBelt, 34, 32, 30, 0);
 
+        // Budget the belt's battery current. The belt motor is not modelled, so assume
+        // it is stalled at its current limit.
+        PowerManager.getInstance().addLoad("Hopper", RobotConstants.Power.HOPPER_PRIORITY,
+                (scale, voltage) -> Math.abs(m_hopperBelt.getRequestedOutput() * scale)
+                        * RobotConstants.Power.MECHANISM_HOLD_AMPS,
+                m_hopperBelt);
+
         // Construct encoder
         m_hopperEncoder = new TalonEncoder(m_hopperBelt);
         m_hopperBelt.setSensorPhase(false);
@@ -106,6 +119,11 @@ public class Hopper extends SubsystemBase {
         m_lineMiddle = new LineBreak(RobotConstants.Hopper.HOPPER_LINEBREAK_MIDDLE,
                 RobotConstants.Pneumatics.PCM_CAN_ID, RobotConstants.Hopper.HOPPER_LINEBREAK_MIDDLE_POWER_CHANNEL);
 
+        // Read the line breaks off the main thread
+        m_lineBottom.enablePolling(RobotConstants.Hopper.LINEBREAK_POLL_PERIOD);
+        m_lineTop.enablePolling(RobotConstants.Hopper.LINEBREAK_POLL_PERIOD);
+        m_lineMiddle.enablePolling(RobotConstants.Hopper.LINEBREAK_POLL_PERIOD);
+
         m_lineBottomLastValue = false;
         m_lineMiddleLastValue = false;
         m_lineTopLastValue = false;
@@ -149,19 +167,14 @@ public class Hopper extends SubsystemBase {
      * @return Hopper Instance
      */
     public static Hopper getInstance() {
-        if (s_instance == null) {
-            s_instance = new Hopper();
-        }
-
-        return s_instance;
+        return Holder.INSTANCE;
 
     }
 
     @Override
-    public void periodic() {
+    protected void profiledPeriodic() {
         if (m_rumbleCounter < m_rumbleSequence.length) {
             m_OI.rumbleOperator((double) m_rumbleSequence[m_rumbleCounter]);
-            System.out.println(m_rumbleSequence[m_rumbleCounter]);
             m_rumbleCounter++;
         }
 
@@ -518,6 +531,41 @@ public class Hopper extends SubsystemBase {
         m_rumbleCounter = 0;
     }
 
+    /**
+     * Register this subsystem's sensor inputs with a telemetry recorder, so they
+     * can be replayed later
+     * 
+     * @param recorder Telemetry recorder
+     */
+    public void addReplayChannels(TelemetryRecorder recorder) {
+        recorder.addIntChannel("Hopper/BeltTicks", m_hopperEncoder::getRawTicks);
+        recorder.addBooleanChannel("Hopper/LineBottom", m_lineBottom::get);
+        recorder.addBooleanChannel("Hopper/LineMiddle", m_lineMiddle::get);
+        recorder.addBooleanChannel("Hopper/LineTop", m_lineTop::get);
+    }
+
+    /**
+     * Map this subsystem's recorded sensor inputs to their simulation hooks
+     * 
+     * @param replay Log replay
+     */
+    public void addReplayInjectors(LogReplay replay) {
+        replay.mapInt("Hopper/BeltTicks", m_hopperEncoder::injectSimTicks);
+        replay.mapBoolean("Hopper/LineBottom", m_lineBottom::injectSimState);
+        replay.mapBoolean("Hopper/LineMiddle", m_lineMiddle::injectSimState);
+        replay.mapBoolean("Hopper/LineTop", m_lineTop::injectSimState);
+    }
+
+    /**
+     * Connect the belt and line breaks to a simulated plant
+     * 
+     * @param simulation Cell mechanism simulation
+     */
+    public void addSimulation(CellMechSimulation simulation) {
+        simulation.connectHopper(m_hopperBelt::getMotorOutputVoltage, m_hopperEncoder::injectSimTicks,
+                m_lineBottom::injectSimState, m_lineMiddle::injectSimState, m_lineTop::injectSimState);
+    }
+
     /**
      * @return wether or not the hopper has completed it's actions (if it is idle or
      *         not)
@@ -1,8 +1,9 @@
 package frc.robot.subsystems.cellmech;
 
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.lib5k.components.motors.TalonHelper;
 import frc.lib5k.components.sensors.LimitSwitch;
+import frc.lib5k.loops.profiling.ProfiledSubsystem;
+import frc.lib5k.roborio.PowerManager;
 import frc.lib5k.simulation.wrappers.SimTalon;
 import frc.lib5k.utils.RobotLogger;
 import frc.lib5k.utils.RobotLogger.Level;
@@ -11,9 +12,11 @@ import frc.robot.RobotConstants;
 /**
  * Robot Intake subsystem
  */
-public class Intake extends SubsystemBase {
+public class Intake extends ProfiledSubsystem {
     private RobotLogger logger = RobotLogger.getInstance();
-    public static Intake s_instance = null;
+    private static class Holder {
+        private static final Intake INSTANCE = new Intake();
+    }
 
     /** Motor that moves intake up and down */
     private SimTalon m_intakeActuator;
@@ -61,6 +64,14 @@ public class Intake extends SubsystemBase {
         TalonHelper.configCurrentLimit(m_intakeActuator, 34, 32, 30, 0);
         TalonHelper.configCurrentLimit(m_intakeRoller, 34, 32, 30, 0);
 
+        // Budget the arm and roller's battery current. Without speed sensors, assume
+        // both are stalled at their current limits.
+        PowerManager.getInstance().addLoad("Intake", RobotConstants.Power.INTAKE_PRIORITY,
+                (scale, voltage) -> (Math.abs(m_intakeActuator.getRequestedOutput() * scale)
+                        + Math.abs(m_intakeRoller.getRequestedOutput() * scale))
+                        * RobotConstants.Power.MECHANISM_HOLD_AMPS,
+                m_intakeActuator, m_intakeRoller);
+
         // Configure motor ramps
         m_intakeActuator.configOpenloopRamp(0.2);
         m_intakeRoller.configOpenloopRamp(0.0);
@@ -74,6 +85,8 @@ public class Intake extends SubsystemBase {
         // Construct sensors
         m_bottomHall = new LimitSwitch(RobotConstants.Intake.INTAKE_LIMIT_BOTTOM);
         m_topHall = new LimitSwitch(RobotConstants.Intake.INTAKE_LIMIT_TOP);
+        m_bottomHall.enablePolling(RobotConstants.Intake.LIMIT_POLL_PERIOD);
+        m_topHall.enablePolling(RobotConstants.Intake.LIMIT_POLL_PERIOD);
 
         // Add children
         addChild("Arms", m_intakeActuator);
@@ -88,16 +101,12 @@ public class Intake extends SubsystemBase {
      * @return Intake Instance
      */
     public static Intake getInstance() {
-        if (s_instance == null) {
-            s_instance = new Intake();
-        }
-
-        return s_instance;
+        return Holder.INSTANCE;
 
     }
 
     @Override
-    public void periodic() {
+    protected void profiledPeriodic() {
 
         // Determine if this state is new
         boolean isNewState = false;
@@ -307,4 +316,14 @@ public class Intake extends SubsystemBase {
 
     }
 
+    /**
+     * Connect the arm, roller, and limit switches to a simulated plant
+     * 
+     * @param simulation Cell mechanism simulation
+     */
+    public void addSimulation(CellMechSimulation simulation) {
+        simulation.connectIntake(m_intakeActuator::getMotorOutputVoltage, m_intakeRoller::get,
+                m_bottomHall::injectSimState, m_topHall::injectSimState);
+    }
+
 }
\ No newline at end of file
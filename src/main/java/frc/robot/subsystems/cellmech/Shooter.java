@@ -1,17 +1,30 @@
 package frc.robot.subsystems.cellmech;
 
-import com.revrobotics.CANEncoder;
+import java.io.IOException;
+
 import com.revrobotics.CANPIDController;
 import com.revrobotics.ControlType;
 import com.revrobotics.CANSparkMaxLowLevel.MotorType;
 
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.lib5k.control.FlywheelController;
+import frc.lib5k.kinematics.models.DCBrushedMotor;
+import frc.lib5k.kinematics.models.FlywheelModel;
+import frc.lib5k.loops.loopers.RateTier;
+import frc.lib5k.loops.loopers.SharedState;
+import frc.lib5k.loops.profiling.ProfiledSubsystem;
+import frc.lib5k.roborio.FPGAClock;
+import frc.lib5k.roborio.PowerManager;
 import frc.lib5k.roborio.RR_HAL;
 import frc.lib5k.simulation.wrappers.SimSparkMax;
+import frc.lib5k.utils.FileUtils;
+import frc.lib5k.utils.InterpolatingTable;
 import frc.lib5k.utils.Mathutils;
+import frc.lib5k.utils.MessageFormatter;
 import frc.lib5k.utils.RobotLogger;
+import frc.lib5k.utils.InterpolatingTable.InterpolationMode;
+import frc.lib5k.utils.RobotLogger.Level;
 import frc.lib5k.utils.telemetry.FlywheelTuner;
 import frc.robot.RobotConstants;
 import frc.robot.subsystems.DriveTrain;
@@ -21,11 +34,19 @@ import frc.robot.vision.Limelight2.LEDMode;
 /**
  * Robot Shooter subsystem
  */
-public class Shooter extends SubsystemBase {
-    public static Shooter s_instance = null;
+public class Shooter extends ProfiledSubsystem {
+    private static class Holder {
+        private static final Shooter INSTANCE = new Shooter();
+    }
+
+    /* Flywheel command values, written by the command loop */
+    private static final int FLYWHEEL_ENABLED = 0;
+    private static final int FLYWHEEL_SETPOINT = 1;
+    private static final int FLYWHEEL_SPIN_UPS = 2;
+    private static final int FLYWHEEL_COMMAND_SIZE = 3;
 
     // Wind-up time
-    private long windUpStartTime, windUpEndTime, windUpTotalTime;
+    private double windUpStartTime, windUpEndTime, windUpTotalTime;
 
     // Optimal Position
     boolean inPosition;
@@ -60,9 +81,8 @@ public class Shooter extends SubsystemBase {
     // Output value. Depending on mode, this will become different things
     private double output = 0.0;
 
-    // Velocity calculating encoder
+    // Velocity controller
     private CANPIDController m_motorPID;
-    private CANEncoder m_motorEncoder;
 
     // Limelight
     private Limelight2 m_limelight;
@@ -70,6 +90,27 @@ public class Shooter extends SubsystemBase {
     // Telemetry object for tuning the flywheel
     private FlywheelTuner m_tuner;
 
+    // Distance to RPM table
+    private InterpolatingTable m_rpmTable;
+
+    // Model-based flywheel controller
+    private FlywheelModel m_flywheelModel = new FlywheelModel(RobotConstants.Shooter.kS, RobotConstants.Shooter.kV,
+            RobotConstants.Shooter.kA);
+    private FlywheelController m_flywheelController = createController(m_flywheelModel);
+
+    // Flywheel command, handed from the command loop to the controller's loop
+    private SharedState m_flywheelCommand = new SharedState(FLYWHEEL_COMMAND_SIZE);
+    private double[] m_command = new double[FLYWHEEL_COMMAND_SIZE];
+    private double[] m_loopCommand = new double[FLYWHEEL_COMMAND_SIZE];
+
+    /* Controller loop */
+    private boolean m_inRateTier = false;
+    private double m_appliedSpinUps = 0;
+    private boolean m_controlling = false;
+
+    // Is the flywheel recovering from a shot?
+    private boolean m_isRecovering = false;
+
     // Autonomous flywheel velocity tracker
     private double autonOutputGoal = RobotConstants.Shooter.DEFAULT_VELOCITY;
 
@@ -81,7 +122,6 @@ public class Shooter extends SubsystemBase {
         // Create and configure motor
         m_motorController = new SimSparkMax(RobotConstants.Shooter.MOTOR_ID, MotorType.kBrushless);
         m_motorController.restoreFactoryDefaults();
-        m_motorEncoder = m_motorController.getEncoder();
         m_motorPID = m_motorController.getPIDController();
 
         m_motorPID.setP(RobotConstants.Shooter.kPVel);
@@ -96,9 +136,29 @@ public class Shooter extends SubsystemBase {
 
         addChild("SimSparkMax", m_motorController);
 
+        // Budget the flywheel's battery current
+        PowerManager.getInstance().addLoad("Shooter", RobotConstants.Power.SHOOTER_PRIORITY,
+                (scale, voltage) -> DCBrushedMotor.NEO.getSupplyCurrent(1,
+                        m_motorController.getRequestedOutput() * scale, m_motorController.getVelocity(), voltage),
+                m_motorController);
+
         // Configure the tuner
-        m_tuner = new FlywheelTuner("Shooter", m_motorEncoder::getVelocity);
+        m_tuner = new FlywheelTuner("Shooter", m_motorController::getVelocity);
         m_tuner.setEnabled(RobotConstants.ENABLE_PID_TUNING_OUTPUTS);
+        m_tuner.enableShotRecording(this::getDistanceFromLimelight,
+                FileUtils.getHome() + RobotConstants.Shooter.SHOT_SAMPLE_FILE);
+
+        // Load the distance to RPM table
+        try {
+            m_rpmTable = InterpolatingTable.load(FileUtils.constructDeployPath(RobotConstants.Shooter.RPM_TABLE_FILE),
+                    InterpolationMode.MONOTONE_CUBIC);
+            logger.log("Shooter", String.format("Loaded %d point RPM table", m_rpmTable.getSize()));
+        } catch (IOException | IllegalArgumentException e) {
+            logger.log("Shooter", "Failed to load RPM table, using the default velocity: " + e.getMessage(),
+                    Level.kWarning);
+            m_rpmTable = new InterpolatingTable(new double[] { 0.0 },
+                    new double[] { RobotConstants.Shooter.DEFAULT_VELOCITY }, InterpolationMode.LINEAR);
+        }
 
     }
 
@@ -108,16 +168,12 @@ public class Shooter extends SubsystemBase {
      * @return Shooter Instance
      */
     public static Shooter getInstance() {
-        if (s_instance == null) {
-            s_instance = new Shooter();
-        }
-
-        return s_instance;
+        return Holder.INSTANCE;
 
     }
 
     @Override
-    public void periodic() {
+    protected void profiledPeriodic() {
 
         // Determine if this state is new
         boolean isNewState = false;
@@ -167,9 +223,67 @@ public class Shooter extends SubsystemBase {
 
         }
 
+        // Hand the model-based controller its setpoint. It only runs while the flywheel
+        // is meant to be spinning
+        if (RobotConstants.Shooter.USE_MODEL_CONTROL) {
+            boolean spinning = m_systemState == SystemState.SPIN_UP || m_systemState == SystemState.HOLD;
+            m_command[FLYWHEEL_ENABLED] = (spinning) ? 1.0 : 0.0;
+            m_command[FLYWHEEL_SETPOINT] = Mathutils.clamp(output, 0, RobotConstants.Shooter.MOTOR_MAX_RPM);
+            m_flywheelCommand.publish(m_command);
+
+            // Without a fast tier, the controller runs at the command loop's rate
+            if (!m_inRateTier) {
+                runFlywheelControl();
+            }
+        }
+
         // Update the tuner
         m_tuner.update();
+    }
 
+    /**
+     * Run the model-based controller in a fast tier, instead of from
+     * {@link #periodic()}. This must be called before the tier is started.
+     * 
+     * @param tier Tier to run in
+     */
+    public void runInTier(RateTier tier) {
+        logger.log("Shooter", String.format("Running flywheel controller at %.0fHz", 1.0 / tier.getPeriod()));
+
+        // The controller's model is discretized at the tier's period
+        m_flywheelController = createController(m_flywheelModel, tier.getPeriod());
+
+        m_inRateTier = true;
+        tier.register("Shooter", this::runFlywheelControl);
+    }
+
+    /**
+     * Run the model-based controller. Once the controller is running in a tier,
+     * only this sets the motor while the flywheel is spinning.
+     */
+    private void runFlywheelControl() {
+
+        // Pick up the latest command
+        m_flywheelCommand.read(m_loopCommand);
+
+        // Start every spin-up from the measured velocity
+        if (m_loopCommand[FLYWHEEL_SPIN_UPS] != m_appliedSpinUps) {
+            m_appliedSpinUps = m_loopCommand[FLYWHEEL_SPIN_UPS];
+            m_flywheelController.reset(m_motorController.getVelocity());
+        }
+
+        if (m_loopCommand[FLYWHEEL_ENABLED] != 0.0) {
+            m_flywheelController.setSetpoint(m_loopCommand[FLYWHEEL_SETPOINT]);
+            m_motorController.setVoltage(
+                    m_flywheelController.calculate(m_motorController.getVelocity(), RR_HAL.getSimSafeVoltage()));
+            m_controlling = true;
+        } else if (m_controlling) {
+
+            // The command loop stops the motor when spinning down, but a voltage set
+            // here may have landed after that
+            m_motorController.set(0.0);
+            m_controlling = false;
+        }
     }
 
     /**
@@ -199,10 +313,10 @@ public class Shooter extends SubsystemBase {
     private void handleSpinUp(boolean newState) {
 
         if (newState) {
-            logger.log("Shooter", String.format("Spinning up to: %.2f", output));
+            logger.log("Shooter", MessageFormatter.format("Spinning up to: {}").arg(output, 2));
 
             // Reset wind-up
-            windUpStartTime = System.currentTimeMillis();
+            windUpStartTime = FPGAClock.getFPGAMilliseconds();
 
             m_motorController.setOpenLoopRampRate(0);
 
@@ -217,10 +331,6 @@ public class Shooter extends SubsystemBase {
             m_tuner.enableLogging(true);
         }
 
-        // Log the speeds
-        System.out.println(
-                String.format("Setpoint: %.1f, Curent: %.1f", output, m_motorController.getEncoder().getVelocity()));
-
         // Switch to HOLD state if spinup complete
         if (atRPMSetpoint()) {
 
@@ -262,9 +372,16 @@ public class Shooter extends SubsystemBase {
 
         if (newState) {
 
-            windUpEndTime = System.currentTimeMillis();
+            windUpEndTime = FPGAClock.getFPGAMilliseconds();
             windUpTotalTime = windUpEndTime - windUpStartTime;
-            logger.log("Shooter", "Holding. Spin-Up took " + (windUpTotalTime / 1000.0) + " seconds");
+            if (m_isRecovering) {
+                logger.log("Shooter",
+                        MessageFormatter.format("Holding. Recovery took {} seconds").arg(windUpTotalTime / 1000.0, 3));
+            } else {
+                logger.log("Shooter",
+                        MessageFormatter.format("Holding. Spin-Up took {} seconds").arg(windUpTotalTime / 1000.0, 3));
+            }
+            m_isRecovering = false;
 
             m_tuner.setSetpoint(output);
 
@@ -272,6 +389,7 @@ public class Shooter extends SubsystemBase {
 
         // If we are under-RPM, spin up more
         if (!atRPMSetpoint()) {
+            m_isRecovering = true;
             m_systemState = SystemState.SPIN_UP;
         }
 
@@ -295,8 +413,44 @@ public class Shooter extends SubsystemBase {
      */
     private void sendMotorCommand(double desiredRPM) {
 
+        // The model-based controller is run every loop instead. Count the spin-up, so
+        // its loop resets the controller
+        if (RobotConstants.Shooter.USE_MODEL_CONTROL) {
+            m_command[FLYWHEEL_SPIN_UPS]++;
+            return;
+        }
+
         m_motorPID.setReference(output, ControlType.kVelocity);
+        m_motorController.invalidateOutput();
+
+    }
 
+    /**
+     * Create the model-based flywheel controller
+     * 
+     * @param model Flywheel model
+     * @return Controller
+     */
+    public static FlywheelController createController(FlywheelModel model) {
+        return createController(model, 0.02);
+    }
+
+    /**
+     * Create the model-based flywheel controller
+     *
+     * @param model  Flywheel model
+     * @param period Loop period (seconds)
+     * @return Controller
+     */
+    public static FlywheelController createController(FlywheelModel model, double period) {
+
+        // The model uncertainty is tuned per 20ms step, and grows with the square root
+        // of the step length
+        double modelStdDev = RobotConstants.Shooter.MODEL_STD_DEV * Math.sqrt(period / 0.02);
+
+        return new FlywheelController(model, period, RobotConstants.Shooter.MODEL_VELOCITY_TOLERANCE,
+                RobotConstants.Shooter.MODEL_CONTROL_EFFORT, modelStdDev, RobotConstants.Shooter.MEASUREMENT_STD_DEV,
+                RobotConstants.Shooter.BANG_BANG_THRESHOLD);
     }
 
     /**
@@ -348,7 +502,7 @@ public class Shooter extends SubsystemBase {
      * @return At setpoint?
      */
     private boolean atRPMSetpoint() {
-        return Mathutils.epsilonEquals(m_motorController.getEncoder().getVelocity(),
+        return Mathutils.epsilonEquals(m_motorController.getVelocity(),
                 Mathutils.clamp(this.output, 0, RobotConstants.Shooter.MOTOR_MAX_RPM),
                 RobotConstants.Shooter.RPM_EPSILON);
     }
@@ -387,7 +541,7 @@ public class Shooter extends SubsystemBase {
         rpm = Mathutils.clamp(rpm, 0.0, RobotConstants.Shooter.MOTOR_MAX_RPM);
 
         // Log
-        logger.log("Shooter", String.format("Set autonomous output velocity goal to: %.2fRPM", rpm));
+        logger.log("Shooter", MessageFormatter.format("Set autonomous output velocity goal to: {}RPM").arg(rpm, 2));
 
         // Set
         autonOutputGoal = rpm;
@@ -405,37 +559,33 @@ public class Shooter extends SubsystemBase {
         }
 
         // If there is no target found, default to a constant shooting point
-        if (!m_limelight.hasTarget()) {
+        double distance = getDistanceFromLimelight();
+        if (Double.isNaN(distance)) {
             return RobotConstants.Shooter.DEFAULT_VELOCITY;
         }
 
-        // TODO: Temp
-        return RobotConstants.Shooter.DEFAULT_VELOCITY;
-
-        // // Get distance to target
-        // double angleToTarget = m_limelight.getTarget().ty;
-
-        // // d = (h2-h1) / tan(a1+a2)
-        // double distance = (RobotConstants.Shooter.TARGET_HEIGHT -
-        // RobotConstants.Shooter.LIMELIGHT_HEIGHT)
-        // / Math.tan(RobotConstants.Shooter.LIMELIGHT_MOUNT_ANGLE + angleToTarget);
-        // RobotLogger.getInstance().log(
-        // "[LIMELIGHT]: Distance to target calculated. Distance is " +
-        // String.format("%.4f", distance) + "m.");
-
-        // // Calculate necessary linear velocity of ball
-        // double ballVel = (Math.sqrt(9.81) * Math.sqrt(distance) * Math.sqrt(
-        // (Math.tan(RobotConstants.Shooter.LAUNCH_ANGLE) *
-        // Math.tan(RobotConstants.Shooter.LAUNCH_ANGLE)) + 1))
-        // / Math.sqrt(2 * Math.tan(RobotConstants.Shooter.LAUNCH_ANGLE)
-        // - (2 * 9.81 * RobotConstants.Shooter.TARGET_HEIGHT) / distance);
-
-        // // Tangential velocity of flywheel, in RPM
-        // double wheelVel = (ballVel * 2) * RobotConstants.Shooter.RPM_PER_MPS;
-        // RobotLogger.getInstance().log("[LIMELIGHT]: Desired velocity calculated.
-        // Desired velocity is "
-        // + String.format("%.4f", wheelVel) + "RPM.");
-        // return wheelVel;
+        // Look up the velocity for this distance
+        return Mathutils.clamp(m_rpmTable.get(distance), 0.0, RobotConstants.Shooter.MOTOR_MAX_RPM);
+    }
+
+    /**
+     * Get the distance to the vision target
+     * 
+     * @return Distance in meters, or NaN if there is no target
+     */
+    public double getDistanceFromLimelight() {
+        return m_limelight.getFrame().getDistance(RobotConstants.Shooter.TARGET_HEIGHT,
+                RobotConstants.Shooter.LIMELIGHT_HEIGHT, RobotConstants.Shooter.LIMELIGHT_MOUNT_ANGLE);
+    }
+
+    /**
+     * Connect the flywheel to a simulated plant
+     * 
+     * @param simulation Cell mechanism simulation
+     */
+    public void addSimulation(CellMechSimulation simulation) {
+        simulation.connectShooter(() -> m_motorController.get() * RR_HAL.getSimSafeVoltage(),
+                m_motorController::setSimVelocity);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,129 @@
+package frc.robot.vision;
+
+/**
+ * Merges single Limelight readings into complete {@link VisionFrame}s. <br>
+ * <br>
+ * NetworkTables only sends readings that changed, one entry at a time, and in
+ * no particular order. Each reading is merged into the latest value of every
+ * other reading, and a new frame is built whenever any reading changes. So a
+ * frame always holds the newest value of every reading, and a lost target (tv
+ * going to 0) always produces a frame, even if nothing else changed. <br>
+ * <br>
+ * This is not thread safe. Callers must synchronize.
+ */
+public class FrameAssembler {
+
+    /* Reading IDs */
+    public static final int TV = 0;
+    public static final int TX = 1;
+    public static final int TY = 2;
+    public static final int TA = 3;
+    public static final int TS = 4;
+    public static final int TL = 5;
+
+    // NetworkTables key of each reading, by ID
+    private static final String[] KEYS = { "tv", "tx", "ty", "ta", "ts", "tl" };
+
+    // Image capture latency to add to the pipeline latency, in milliseconds
+    private static final double CAPTURE_LATENCY_MS = 11.0;
+
+    // Latest value of every reading
+    private final double[] m_readings = new double[KEYS.length];
+
+    // Is the camera mounted sideways?
+    private boolean m_isPortrait = false;
+
+    // Latest frame
+    private long m_sequence = 0;
+    private VisionFrame m_frame = new VisionFrame(false, 0, 0, 0, 0, 0, false, 0, 0);
+
+    /**
+     * Find the reading ID for a NetworkTables key
+     *
+     * @param key Key in the limelight table
+     * @return Reading ID, or -1 if the key is not a frame reading
+     */
+    public static int getReadingId(String key) {
+        for (int i = 0; i < KEYS.length; i++) {
+            if (KEYS[i].equals(key)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Merge a new reading, and build a new frame if it changed
+     *
+     * @param id    Reading ID
+     * @param value New value
+     * @param now   FPGA time in seconds
+     * @return Was a new frame built?
+     */
+    public boolean update(int id, double value, double now) {
+        if (m_readings[id] == value) {
+            return false;
+        }
+
+        m_readings[id] = value;
+        publish(now);
+        return true;
+    }
+
+    /**
+     * Replace every reading at once, and build a new frame
+     *
+     * @param hasTarget Does the camera have a target? (tv)
+     * @param tx        Raw X angle
+     * @param ty        Raw Y angle
+     * @param ta        Target area
+     * @param ts        Target skew
+     * @param latency   Pipeline latency in milliseconds (tl)
+     * @param now       FPGA time in seconds
+     */
+    public void set(boolean hasTarget, double tx, double ty, double ta, double ts, double latency, double now) {
+        m_readings[TV] = (hasTarget) ? 1.0 : 0.0;
+        m_readings[TX] = tx;
+        m_readings[TY] = ty;
+        m_readings[TA] = ta;
+        m_readings[TS] = ts;
+        m_readings[TL] = latency;
+        publish(now);
+    }
+
+    /**
+     * Set camera portrait mode. This updates the latest frame without counting as
+     * a new one.
+     *
+     * @param isPortrait Is camera in portrait mode?
+     */
+    public void setPortrait(boolean isPortrait) {
+        m_isPortrait = isPortrait;
+        m_frame = m_frame.withPortrait(isPortrait);
+    }
+
+    /**
+     * Get the latest frame
+     *
+     * @return Latest frame
+     */
+    public VisionFrame getFrame() {
+        return m_frame;
+    }
+
+    /**
+     * Build a frame from the latest readings
+     *
+     * @param now FPGA time in seconds
+     */
+    private void publish(double now) {
+
+        // Stamp the frame with the time its image was captured
+        double latency = m_readings[TL];
+        double timestamp = now - ((latency + CAPTURE_LATENCY_MS) / 1000.0);
+
+        m_frame = new VisionFrame(m_readings[TV] != 0.0, m_readings[TX], m_readings[TY], m_readings[TA],
+                m_readings[TS], latency, m_isPortrait, timestamp, ++m_sequence);
+    }
+}
@@ -3,12 +3,19 @@ package frc.robot.vision;
 import edu.wpi.first.networktables.EntryListenerFlags;
 import edu.wpi.first.networktables.NetworkTable;
 import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.NetworkTableType;
+import edu.wpi.first.networktables.NetworkTableValue;
 import edu.wpi.first.wpiutil.net.PortForwarder;
+import frc.lib5k.logging.TelemetryRecorder;
+import frc.lib5k.roborio.FPGAClock;
+import frc.lib5k.simulation.LogReplay;
 import frc.lib5k.utils.Mathutils;
 
 public class Limelight2 {
 
-    private static Limelight2 s_instance = null;
+    private static class Holder {
+        private static final Limelight2 INSTANCE = new Limelight2();
+    }
 
     // Counter for the number of device users
     public int users = 0;
@@ -38,9 +45,11 @@ public class Limelight2 {
     // Vision NT table
     private NetworkTable m_table;
 
-    /* Camera data */
-    private boolean m_hasTarget, m_isPortrait;
-    private double m_angleX, m_angleY, m_area, m_skew;
+    // Merges camera readings into frames, only touched while synchronized
+    private final FrameAssembler m_assembler = new FrameAssembler();
+
+    // Latest complete frame
+    private volatile VisionFrame m_frame = m_assembler.getFrame();
 
     private Limelight2() {
 
@@ -50,36 +59,43 @@ public class Limelight2 {
         // Portforward the device configuration panel
         PortForwarder.add(5801, "10.50.24.11", 5801);
 
-        /* Add NT listeners */
-        m_table.addEntryListener("tv", (table, key, entry, value, flags) -> {
-            m_hasTarget = (value.getDouble() == 0.0) ? false : true;
-
-        }, EntryListenerFlags.kNew | EntryListenerFlags.kUpdate);
+        // NetworkTables only notifies about readings that changed, so listen to every
+        // reading, and merge each one into the latest frame
+        m_table.addEntryListener((table, key, entry, value, flags) -> readValue(key, value),
+                EntryListenerFlags.kImmediate | EntryListenerFlags.kNew | EntryListenerFlags.kUpdate);
 
-        m_table.addEntryListener("tx", (table, key, entry, value, flags) -> {
-            m_angleX = value.getDouble();
-        }, EntryListenerFlags.kNew | EntryListenerFlags.kUpdate);
-
-        m_table.addEntryListener("ty", (table, key, entry, value, flags) -> {
-            m_angleY = value.getDouble();
-        }, EntryListenerFlags.kNew | EntryListenerFlags.kUpdate);
+    }
 
-        m_table.addEntryListener("ta", (table, key, entry, value, flags) -> {
-            m_area = value.getDouble();
-        }, EntryListenerFlags.kNew | EntryListenerFlags.kUpdate);
+    public static Limelight2 getInstance() {
+        return Holder.INSTANCE;
+    }
 
-        m_table.addEntryListener("ts", (table, key, entry, value, flags) -> {
-            m_skew = value.getDouble();
-        }, EntryListenerFlags.kNew | EntryListenerFlags.kUpdate);
+    /**
+     * Merge a changed camera value into the latest frame
+     * 
+     * @param key   Key in the limelight table
+     * @param value New value
+     */
+    private synchronized void readValue(String key, NetworkTableValue value) {
 
-    }
+        // Skip everything that is not part of a frame
+        int id = FrameAssembler.getReadingId(key);
+        if (id < 0 || value.getType() != NetworkTableType.kDouble) {
+            return;
+        }
 
-    public static Limelight2 getInstance() {
-        if (s_instance == null) {
-            s_instance = new Limelight2();
+        if (m_assembler.update(id, value.getDouble(), FPGAClock.getFPGASeconds())) {
+            m_frame = m_assembler.getFrame();
         }
+    }
 
-        return s_instance;
+    /**
+     * Get the latest camera frame. This never returns null, and does not allocate.
+     * 
+     * @return Latest frame
+     */
+    public VisionFrame getFrame() {
+        return m_frame;
     }
 
     public void use(boolean use) {
@@ -99,21 +115,17 @@ public class Limelight2 {
      * @return Has target
      */
     public boolean hasTarget() {
-        return m_hasTarget;
+        return m_frame.hasTarget();
     }
 
     /**
-     * Get the current target, or null if no target
+     * Get the current target, or null if no target. The target is shared by every
+     * caller until the next frame, so it must not be modified.
      * 
      * @return Current target
      */
     public LimelightTarget getTarget() {
-        // Handle no target
-        if (!hasTarget()) {
-            return null;
-        }
-
-        return new LimelightTarget(getXAngle(), getYAngle(), getArea(), getSkew());
+        return m_frame.getTarget();
     }
 
     public LEDMode getLEDMode() {
@@ -138,7 +150,7 @@ public class Limelight2 {
      * @return Target angle
      */
     public double getXAngle() {
-        return (m_isPortrait) ? m_angleY : m_angleX;
+        return m_frame.getXAngle();
     }
 
     /**
@@ -147,7 +159,7 @@ public class Limelight2 {
      * @return Target angle
      */
     public double getYAngle() {
-        return (m_isPortrait) ? m_angleX : m_angleY;
+        return m_frame.getYAngle();
     }
 
     /**
@@ -156,7 +168,7 @@ public class Limelight2 {
      * @return Target area
      */
     public double getArea() {
-        return m_area;
+        return m_frame.getArea();
     }
 
     /**
@@ -165,7 +177,47 @@ public class Limelight2 {
      * @return Target skew
      */
     public double getSkew() {
-        return m_skew;
+        return m_frame.getSkew();
+    }
+
+    /**
+     * Register the camera's raw readings with a telemetry recorder, so they can be
+     * replayed later
+     * 
+     * @param recorder Telemetry recorder
+     */
+    public void addReplayChannels(TelemetryRecorder recorder) {
+        recorder.addDoubleChannel("Limelight/tv", () -> (m_frame.hasTarget()) ? 1.0 : 0.0);
+        recorder.addDoubleChannel("Limelight/tx", () -> m_frame.getRawX());
+        recorder.addDoubleChannel("Limelight/ty", () -> m_frame.getRawY());
+        recorder.addDoubleChannel("Limelight/ta", () -> m_frame.getArea());
+        recorder.addDoubleChannel("Limelight/ts", () -> m_frame.getSkew());
+    }
+
+    /**
+     * Map the camera's recorded readings to {@link #injectFrame}
+     * 
+     * @param replay Log replay
+     */
+    public void addReplayInjectors(LogReplay replay) {
+        replay.mapDoubles(
+                new String[] { "Limelight/tv", "Limelight/tx", "Limelight/ty", "Limelight/ta", "Limelight/ts" },
+                (values) -> injectFrame(values[0] != 0.0, values[1], values[2], values[3], values[4]));
+    }
+
+    /**
+     * Set the camera readings directly, as if they came from NetworkTables (for
+     * log replay)
+     * 
+     * @param hasTarget Does the camera have a target? (tv)
+     * @param tx        Raw X angle
+     * @param ty        Raw Y angle
+     * @param ta        Target area
+     * @param ts        Target skew
+     */
+    public synchronized void injectFrame(boolean hasTarget, double tx, double ty, double ta, double ts) {
+        m_assembler.set(hasTarget, tx, ty, ta, ts, 0.0, FPGAClock.getFPGASeconds());
+        m_frame = m_assembler.getFrame();
     }
 
     /**
@@ -173,8 +225,9 @@ public class Limelight2 {
      * 
      * @param isPortrait Is camera in portrait mode?
      */
-    public void setPortrait(boolean isPortrait) {
-        m_isPortrait = isPortrait;
+    public synchronized void setPortrait(boolean isPortrait) {
+        m_assembler.setPortrait(isPortrait);
+        m_frame = m_assembler.getFrame();
     }
 
     /**
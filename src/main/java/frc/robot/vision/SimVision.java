@@ -4,6 +4,7 @@ import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.geometry.Pose2d;
 import edu.wpi.first.wpilibj.geometry.Translation2d;
 import frc.lib5k.utils.Mathutils;
+import frc.robot.RobotConstants;
 import frc.robot.subsystems.DriveTrain;
 
 /**
@@ -15,7 +16,7 @@ public class SimVision {
 
     private static final double LIMELIGHT_FOV = 29.8;
 
-    private static final Translation2d[] visionTargets = new Translation2d[] { new Translation2d(0, -1.45) };
+    private static final Translation2d[] visionTargets = RobotConstants.Vision.FIELD_TARGETS;
 
     /**
      * Should the client be attempting to simulate vision?
@@ -5,7 +5,9 @@ import frc.lib5k.roborio.FPGAClock;
 import frc.robot.vision.Limelight2.LEDMode;
 
 public class TargetTracker extends SubsystemBase {
-    private static TargetTracker s_instance = null;
+    private static class Holder {
+        private static final TargetTracker INSTANCE = new TargetTracker();
+    }
 
     // Limelight camera
     private Limelight2 m_limelight;
@@ -23,11 +25,7 @@ public class TargetTracker extends SubsystemBase {
     }
 
     public static TargetTracker getInstance() {
-        if (s_instance == null) {
-            s_instance = new TargetTracker();
-        }
-
-        return s_instance;
+        return Holder.INSTANCE;
     }
 
     @Override
@@ -41,8 +39,8 @@ public class TargetTracker extends SubsystemBase {
             m_limelight.setLED(LEDMode.ON);
 
             // Read target data
-            m_lastSnapshot.set(m_limelight.getXAngle(), m_limelight.getYAngle(), m_limelight.getArea(),
-                    m_limelight.getSkew());
+            VisionFrame frame = m_limelight.getFrame();
+            m_lastSnapshot.set(frame.getXAngle(), frame.getYAngle(), frame.getArea(), frame.getSkew());
 
             // Disable check after a half second
             if ((timestamp - m_lastTimestampSecs) > 1.5) {
@@ -86,15 +84,7 @@ public class TargetTracker extends SubsystemBase {
      * @return Current target
      */
     public LimelightTarget getTarget() {
-
-        // Handle no target or no vision
-        if (!m_limelight.hasTarget()) {
-            return null;
-        }
-
-        return new LimelightTarget(m_limelight.getXAngle(), m_limelight.getYAngle(), m_limelight.getArea(),
-                m_limelight.getSkew());
-
+        return m_limelight.getTarget();
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,191 @@
+package frc.robot.vision;
+
+/**
+ * An immutable snapshot of the Limelight's readings. A frame is never changed
+ * after it is built, so it can be read from any thread without tearing.
+ */
+public class VisionFrame {
+
+    /* Raw camera readings */
+    private final boolean m_hasTarget;
+    private final double m_tx, m_ty, m_area, m_skew, m_latency;
+
+    // Is the camera mounted sideways?
+    private final boolean m_isPortrait;
+
+    // FPGA time the image was captured at
+    private final double m_timestamp;
+
+    // Frame number, incremented whenever any reading changes
+    private final long m_sequence;
+
+    // Target, built once per frame. Null if there is no target
+    private final LimelightTarget m_target;
+
+    /**
+     * Create a VisionFrame
+     *
+     * @param hasTarget  Does the camera have a target? (tv)
+     * @param tx         Raw X angle
+     * @param ty         Raw Y angle
+     * @param area       Target area
+     * @param skew       Target skew
+     * @param latency    Pipeline latency in milliseconds (tl)
+     * @param isPortrait Is the camera in portrait mode?
+     * @param timestamp  FPGA time the image was captured at, in seconds
+     * @param sequence   Frame number
+     */
+    public VisionFrame(boolean hasTarget, double tx, double ty, double area, double skew, double latency,
+            boolean isPortrait, double timestamp, long sequence) {
+        m_hasTarget = hasTarget;
+        m_tx = tx;
+        m_ty = ty;
+        m_area = area;
+        m_skew = skew;
+        m_latency = latency;
+        m_isPortrait = isPortrait;
+        m_timestamp = timestamp;
+        m_sequence = sequence;
+        m_target = (hasTarget) ? new LimelightTarget(getXAngle(), getYAngle(), area, skew) : null;
+    }
+
+    /**
+     * Does this frame have a target in sight?
+     *
+     * @return Has target
+     */
+    public boolean hasTarget() {
+        return m_hasTarget;
+    }
+
+    /**
+     * Get this frame's target. This is shared by everything that reads the frame,
+     * so it must not be modified.
+     *
+     * @return Target, or null if there is no target
+     */
+    public LimelightTarget getTarget() {
+        return m_target;
+    }
+
+    /**
+     * Get horizontal target angle [from -29.8 t0 29.8 degrees]
+     *
+     * @return Target angle
+     */
+    public double getXAngle() {
+        return (m_isPortrait) ? m_ty : m_tx;
+    }
+
+    /**
+     * Get vertical target angle [from -24.85 to 24.85 degrees]
+     *
+     * @return Target angle
+     */
+    public double getYAngle() {
+        return (m_isPortrait) ? m_tx : m_ty;
+    }
+
+    /**
+     * Get the raw X angle, as reported by the camera
+     *
+     * @return Raw X angle
+     */
+    public double getRawX() {
+        return m_tx;
+    }
+
+    /**
+     * Get the raw Y angle, as reported by the camera
+     *
+     * @return Raw Y angle
+     */
+    public double getRawY() {
+        return m_ty;
+    }
+
+    /**
+     * Get the ground distance to the target, from the camera's pitch to it
+     *
+     * @param targetHeight Target height in meters
+     * @param cameraHeight Camera height in meters
+     * @param mountAngle   Camera mount angle in degrees
+     * @return Distance in meters, or NaN if there is no target, or it is not above
+     *         the camera
+     */
+    public double getDistance(double targetHeight, double cameraHeight, double mountAngle) {
+        double pitch = Math.toRadians(mountAngle + getYAngle());
+        if (!m_hasTarget || pitch <= 0.0) {
+            return Double.NaN;
+        }
+
+        // d = (h2-h1) / tan(a1+a2)
+        return (targetHeight - cameraHeight) / Math.tan(pitch);
+    }
+
+    /**
+     * Get target area [0% to 100%]
+     *
+     * @return Target area
+     */
+    public double getArea() {
+        return m_area;
+    }
+
+    /**
+     * Get target skew / rotation [-90 to 0 degrees]
+     *
+     * @return Target skew
+     */
+    public double getSkew() {
+        return m_skew;
+    }
+
+    /**
+     * Get the pipeline latency
+     *
+     * @return Latency in milliseconds
+     */
+    public double getLatency() {
+        return m_latency;
+    }
+
+    /**
+     * Get the FPGA time the image was captured at
+     *
+     * @return Capture time in seconds
+     */
+    public double getTimestamp() {
+        return m_timestamp;
+    }
+
+    /**
+     * Get the frame number. This can be compared between reads to check for a new
+     * frame.
+     *
+     * @return Frame number
+     */
+    public long getSequence() {
+        return m_sequence;
+    }
+
+    /**
+     * Is the camera in portrait mode?
+     *
+     * @return Is portrait?
+     */
+    public boolean isPortrait() {
+        return m_isPortrait;
+    }
+
+    /**
+     * Get a copy of this frame with a different orientation
+     *
+     * @param isPortrait Is the camera in portrait mode?
+     * @return New frame
+     */
+    public VisionFrame withPortrait(boolean isPortrait) {
+        return new VisionFrame(m_hasTarget, m_tx, m_ty, m_area, m_skew, m_latency, isPortrait, m_timestamp,
+                m_sequence);
+    }
+}
@@ -0,0 +1,106 @@
+package frc.robot.vision;
+
+import edu.wpi.first.wpilibj.geometry.Translation2d;
+import frc.lib5k.kinematics.PoseHistory;
+import frc.robot.RobotConstants;
+
+/**
+ * Corrects odometry drift using Limelight targets. <br>
+ * <br>
+ * Each new frame is matched against the robot pose at the time its image was
+ * captured (from a {@link PoseHistory}), not the current pose. The target's
+ * distance and bearing are projected from that pose, matched to the nearest
+ * known field target, and a fraction of the difference is returned as a
+ * correction to apply to odometry. Nothing in this class allocates.
+ */
+public class VisionFusion {
+
+    // Number of the last frame used
+    private long m_lastSequence = -1;
+
+    /* Last correction */
+    private double m_correctionX, m_correctionY;
+
+    /**
+     * Process a vision frame, and calculate an odometry correction if possible
+     *
+     * @param frame   Latest vision frame
+     * @param history Robot pose history
+     * @return True if a new correction was calculated
+     */
+    public boolean update(VisionFrame frame, PoseHistory history) {
+
+        // Only use each frame once, and only if it has a target
+        if (!frame.hasTarget() || frame.getSequence() == m_lastSequence) {
+            return false;
+        }
+        m_lastSequence = frame.getSequence();
+
+        // Find where the robot was when the image was captured
+        if (!history.sample(frame.getTimestamp())) {
+            return false;
+        }
+        double robotX = history.getSampleX();
+        double robotY = history.getSampleY();
+        double robotTheta = history.getSampleTheta();
+
+        // Find the distance to the target
+        double distance = frame.getDistance(RobotConstants.Shooter.TARGET_HEIGHT,
+                RobotConstants.Shooter.LIMELIGHT_HEIGHT, RobotConstants.Shooter.LIMELIGHT_MOUNT_ANGLE);
+        if (Double.isNaN(distance) || distance < RobotConstants.Vision.MIN_TARGET_DISTANCE
+                || distance > RobotConstants.Vision.MAX_TARGET_DISTANCE) {
+            return false;
+        }
+
+        // Project the target onto the field
+        double bearing = robotTheta - Math.toRadians(frame.getXAngle());
+        double measuredX = robotX + (distance * Math.cos(bearing));
+        double measuredY = robotY + (distance * Math.sin(bearing));
+
+        // Find the nearest known target
+        double bestError = RobotConstants.Vision.MAX_TARGET_ERROR;
+        double errorX = 0.0;
+        double errorY = 0.0;
+        boolean found = false;
+        for (Translation2d target : RobotConstants.Vision.FIELD_TARGETS) {
+            double dx = target.getX() - measuredX;
+            double dy = target.getY() - measuredY;
+            double error = Math.hypot(dx, dy);
+
+            if (error < bestError) {
+                bestError = error;
+                errorX = dx;
+                errorY = dy;
+                found = true;
+            }
+        }
+
+        // Reject measurements that do not match a target
+        if (!found) {
+            return false;
+        }
+
+        // The robot is off by the same amount as the target
+        m_correctionX = errorX * RobotConstants.Vision.FUSION_GAIN;
+        m_correctionY = errorY * RobotConstants.Vision.FUSION_GAIN;
+        return true;
+    }
+
+    /**
+     * Get the X component of the last correction
+     *
+     * @return X correction in meters
+     */
+    public double getCorrectionX() {
+        return m_correctionX;
+    }
+
+    /**
+     * Get the Y component of the last correction
+     *
+     * @return Y correction in meters
+     */
+    public double getCorrectionY() {
+        return m_correctionY;
+    }
+}
@@ -0,0 +1,68 @@
+package frc.lib5k.kinematics;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class DifferentialOdometryTest {
+
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * Check a pose against expected values
+     */
+    private static void assertPose(double x, double y, double theta, MutablePose2d pose) {
+        assertEquals(x, pose.getX(), EPSILON);
+        assertEquals(y, pose.getY(), EPSILON);
+        assertEquals(theta, pose.getTheta(), EPSILON);
+    }
+
+    @Test
+    public void testDrivesStraight() {
+        DifferentialOdometry odometry = new DifferentialOdometry(0.0, 0.0, 0.0, 0.0);
+
+        odometry.update(0.0, 0.5, 0.5);
+        assertPose(1.0, 0.0, 0.0, odometry.update(0.0, 1.0, 1.0));
+    }
+
+    @Test
+    public void testTurnsInPlace() {
+        DifferentialOdometry odometry = new DifferentialOdometry(0.0, 0.0, 0.0, 0.0);
+
+        assertPose(0.0, 0.0, Math.PI / 2, odometry.update(Math.PI / 2, -0.3, 0.3));
+    }
+
+    @Test
+    public void testFollowsArc() {
+        DifferentialOdometry odometry = new DifferentialOdometry(0.0, 0.0, 0.0, 0.0);
+
+        // A quarter circle of radius 1, in small steps
+        int steps = 1000;
+        for (int i = 1; i <= steps; i++) {
+            double angle = (Math.PI / 2) * i / steps;
+            odometry.update(angle, angle, angle);
+        }
+
+        assertPose(1.0, 1.0, Math.PI / 2, odometry.getPose());
+    }
+
+    @Test
+    public void testResetUsesGyroOffset() {
+        DifferentialOdometry odometry = new DifferentialOdometry(0.0, 0.0, 0.0, 0.0);
+
+        // Face +Y while the gyro still reads 0
+        odometry.resetPosition(1.0, 2.0, Math.PI / 2, 0.0);
+        assertPose(1.0, 3.0, Math.PI / 2, odometry.update(0.0, 1.0, 1.0));
+    }
+
+    @Test
+    public void testTranslateKeepsEncoderHistory() {
+        DifferentialOdometry odometry = new DifferentialOdometry(0.0, 0.0, 0.0, 0.0);
+        odometry.update(0.0, 1.0, 1.0);
+
+        // Shifting the pose must not make the next update re-count the distance
+        odometry.translate(0.5, 0.25);
+        assertPose(1.5, 0.25, 0.0, odometry.getPose());
+        assertPose(2.5, 0.25, 0.0, odometry.update(0.0, 2.0, 2.0));
+    }
+}
@@ -0,0 +1,145 @@
+package frc.lib5k.kinematics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class PoseHistoryTest {
+
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * Sample a history, and check the pose found
+     */
+    private static void assertSample(double x, double y, double theta, PoseHistory history, double timestamp) {
+        assertTrue(history.sample(timestamp));
+        assertEquals(x, history.getSampleX(), EPSILON);
+        assertEquals(y, history.getSampleY(), EPSILON);
+        assertEquals(theta, history.getSampleTheta(), EPSILON);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsTinyCapacity() {
+        new PoseHistory(1);
+    }
+
+    @Test
+    public void testEmpty() {
+        PoseHistory history = new PoseHistory(4);
+
+        assertEquals(0, history.getSize());
+        assertTrue(Double.isNaN(history.getOldestTimestamp()));
+        assertTrue(Double.isNaN(history.getNewestTimestamp()));
+        assertFalse(history.sample(0.0));
+    }
+
+    @Test
+    public void testExactLookups() {
+        PoseHistory history = new PoseHistory(8);
+        history.record(1.0, 1.0, 2.0, 0.1);
+        history.record(2.0, 3.0, 4.0, 0.2);
+        history.record(3.0, 5.0, 6.0, 0.3);
+
+        assertSample(1.0, 2.0, 0.1, history, 1.0);
+        assertSample(3.0, 4.0, 0.2, history, 2.0);
+        assertSample(5.0, 6.0, 0.3, history, 3.0);
+    }
+
+    @Test
+    public void testInterpolatedLookups() {
+        PoseHistory history = new PoseHistory(8);
+        history.record(1.0, 0.0, 0.0, 0.0);
+        history.record(2.0, 2.0, -4.0, 1.0);
+
+        assertSample(0.5, -1.0, 0.25, history, 1.25);
+        assertSample(1.0, -2.0, 0.5, history, 1.5);
+    }
+
+    @Test
+    public void testOutOfRangeLookups() {
+        PoseHistory history = new PoseHistory(8);
+        history.record(1.0, 0.0, 0.0, 0.0);
+        history.record(2.0, 1.0, 0.0, 0.0);
+
+        assertFalse(history.sample(0.999));
+        assertFalse(history.sample(2.001));
+    }
+
+    @Test
+    public void testIgnoresOldPoses() {
+        PoseHistory history = new PoseHistory(8);
+        history.record(2.0, 1.0, 0.0, 0.0);
+        history.record(2.0, 5.0, 0.0, 0.0);
+        history.record(1.0, 5.0, 0.0, 0.0);
+
+        assertEquals(1, history.getSize());
+        assertSample(1.0, 0.0, 0.0, history, 2.0);
+    }
+
+    @Test
+    public void testWrapsAround() {
+        PoseHistory history = new PoseHistory(4);
+
+        // Record more poses than fit, so the oldest are overwritten
+        for (int i = 0; i < 10; i++) {
+            history.record(i, i * 2.0, -i, 0.0);
+        }
+
+        assertEquals(4, history.getSize());
+        assertEquals(6.0, history.getOldestTimestamp(), EPSILON);
+        assertEquals(9.0, history.getNewestTimestamp(), EPSILON);
+        assertFalse(history.sample(5.5));
+
+        // Look up across the end of the ring buffer
+        assertSample(12.0, -6.0, 0.0, history, 6.0);
+        assertSample(15.0, -7.5, 0.0, history, 7.5);
+        assertSample(18.0, -9.0, 0.0, history, 9.0);
+    }
+
+    @Test
+    public void testHeadingInterpolatesAcrossPi() {
+        PoseHistory history = new PoseHistory(4);
+        history.record(0.0, 0.0, 0.0, 3.1);
+        history.record(1.0, 0.0, 0.0, -3.1);
+
+        // The short way round passes through pi, not zero
+        assertSample(0.0, 0.0, Math.PI, history, 0.5);
+
+        history.clear();
+        history.record(0.0, 0.0, 0.0, -3.1);
+        history.record(1.0, 0.0, 0.0, 3.1);
+        assertSample(0.0, 0.0, -Math.PI, history, 0.5);
+    }
+
+    @Test
+    public void testShift() {
+        PoseHistory history = new PoseHistory(4);
+        for (int i = 0; i < 6; i++) {
+            history.record(i, i, 0.0, 0.5);
+        }
+
+        // Every stored pose moves, including across the wrap
+        history.shift(0.5, -1.0);
+        assertSample(2.5, -1.0, 0.5, history, 2.0);
+        assertSample(5.5, -1.0, 0.5, history, 5.0);
+    }
+
+    @Test
+    public void testClear() {
+        PoseHistory history = new PoseHistory(4);
+        for (int i = 0; i < 6; i++) {
+            history.record(i, i, 0.0, 0.0);
+        }
+
+        history.clear();
+        assertEquals(0, history.getSize());
+        assertFalse(history.sample(5.0));
+
+        // Older times can be recorded again after clearing
+        history.record(1.0, 3.0, 0.0, 0.0);
+        assertEquals(1, history.getSize());
+        assertSample(3.0, 0.0, 0.0, history, 1.0);
+    }
+}
@@ -0,0 +1,100 @@
+package frc.lib5k.kinematics.purepursuit;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import edu.wpi.first.wpilibj.geometry.Translation2d;
+
+public class FollowerTest {
+
+    private static final double EPSILON = 1e-9;
+
+    /* Follower settings */
+    private static final double LOOKAHEAD = 0.2;
+    private static final double GAIN = 0.1;
+    private static final double WIDTH = 0.5;
+
+    /**
+     * Create a follower for a straight 2m path along the X axis
+     */
+    private static Follower straightFollower() {
+        return new Follower(new Path(new Translation2d(0.0, 0.0), new Translation2d(2.0, 0.0)), LOOKAHEAD, GAIN,
+                WIDTH);
+    }
+
+    @Test
+    public void testStoppedRobotTargetsLookaheadAhead() {
+        Follower follower = straightFollower();
+
+        // The chassis rear is 0.5m along the path
+        follower.update(0.75, 0.0, 0.0);
+        assertEquals(0.5, follower.getProgress(), EPSILON);
+        assertEquals(0.5 + LOOKAHEAD, follower.getTargetX(), EPSILON);
+        assertEquals(0.0, follower.getTargetY(), EPSILON);
+
+        // Still stopped, so still the same distance ahead
+        follower.update(0.75, 0.0, 0.0);
+        assertEquals(0.5 + LOOKAHEAD, follower.getTargetX(), EPSILON);
+    }
+
+    @Test
+    public void testSlowRobotTargetsLookaheadAhead() {
+        Follower follower = straightFollower();
+
+        // A robot moving 1cm per update would only look a fraction of a mm ahead
+        follower.update(0.75, 0.0, 0.0);
+        follower.update(0.76, 0.0, 0.0);
+        assertEquals(0.51 + LOOKAHEAD, follower.getTargetX(), EPSILON);
+    }
+
+    @Test
+    public void testOffsetRobotTargetsPath() {
+        Follower follower = straightFollower();
+
+        follower.update(0.75, 0.3, 0.0);
+        assertEquals(0.5, follower.getProgress(), EPSILON);
+        assertEquals(0.5 + LOOKAHEAD, follower.getTargetX(), EPSILON);
+        assertEquals(0.0, follower.getTargetY(), EPSILON);
+    }
+
+    @Test
+    public void testTargetStopsAtEnd() {
+        Follower follower = straightFollower();
+
+        follower.update(2.1, 0.0, 0.0);
+        assertEquals(2.0, follower.getTargetX(), EPSILON);
+        assertEquals(0.0, follower.getTargetY(), EPSILON);
+
+        // Overshooting the end keeps the end as the target
+        follower.update(2.5, 0.0, 0.0);
+        assertEquals(2.0, follower.getProgress(), EPSILON);
+        assertEquals(2.0, follower.getTargetX(), EPSILON);
+    }
+
+    @Test
+    public void testTargetFollowsCorners() {
+        Follower follower = new Follower(new Path(new Translation2d(0.0, 0.0), new Translation2d(1.0, 0.0),
+                new Translation2d(1.0, 1.0)), LOOKAHEAD, GAIN, WIDTH);
+
+        // 0.1m before the corner, the target is 0.1m past it
+        follower.update(1.15, 0.0, 0.0);
+        assertEquals(0.9, follower.getProgress(), EPSILON);
+        assertEquals(1.0, follower.getTargetX(), EPSILON);
+        assertEquals(0.1, follower.getTargetY(), EPSILON);
+    }
+
+    @Test
+    public void testNeverMovesBackwards() {
+        Follower follower = straightFollower();
+
+        follower.update(1.25, 0.0, 0.0);
+        follower.update(0.75, 0.0, 0.0);
+        assertEquals(1.0, follower.getProgress(), EPSILON);
+
+        // Resetting starts from the nearest point again
+        follower.reset();
+        follower.update(0.75, 0.0, 0.0);
+        assertEquals(0.5, follower.getProgress(), EPSILON);
+    }
+}
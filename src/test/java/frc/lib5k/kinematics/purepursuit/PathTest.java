@@ -0,0 +1,65 @@
+package frc.lib5k.kinematics.purepursuit;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import edu.wpi.first.wpilibj.geometry.Translation2d;
+
+public class PathTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    public void testDistances() {
+        Path path = new Path(new Translation2d(0.0, 0.0), new Translation2d(3.0, 0.0), new Translation2d(3.0, 4.0));
+
+        assertEquals(3, path.getPointCount());
+        assertEquals(0.0, path.getDistance(0), EPSILON);
+        assertEquals(3.0, path.getDistance(1), EPSILON);
+        assertEquals(7.0, path.getDistance(2), EPSILON);
+        assertEquals(7.0, path.getLength(), EPSILON);
+        assertEquals(3.0, path.getEnd().getX(), EPSILON);
+        assertEquals(4.0, path.getEnd().getY(), EPSILON);
+    }
+
+    @Test
+    public void testSkipsDuplicatePoints() {
+        Path path = new Path(new Translation2d(0.0, 0.0), new Translation2d(0.0, 0.0), new Translation2d(1.0, 0.0),
+                new Translation2d(1.0, 0.0));
+
+        assertEquals(2, path.getPointCount());
+        assertEquals(1.0, path.getLength(), EPSILON);
+    }
+
+    @Test
+    public void testSinglePoint() {
+        Path path = new Path(new Translation2d(1.0, 2.0));
+
+        assertEquals(1, path.getPointCount());
+        assertEquals(0.0, path.getLength(), EPSILON);
+        assertEquals(2.0, path.getEnd().getY(), EPSILON);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsEmptyPath() {
+        new Path();
+    }
+
+    @Test
+    public void testFindsSegments() {
+        Path path = new Path(new Translation2d(0.0, 0.0), new Translation2d(1.0, 0.0), new Translation2d(2.0, 0.0),
+                new Translation2d(3.0, 0.0));
+
+        assertEquals(0, path.findSegment(0.5, 0));
+        assertEquals(1, path.findSegment(1.5, 0));
+        assertEquals(2, path.findSegment(2.5, 0));
+
+        // Distances past either end stay on the end segments
+        assertEquals(2, path.findSegment(10.0, 0));
+        assertEquals(0, path.findSegment(-1.0, 0));
+
+        // The search never moves back from where it starts
+        assertEquals(2, path.findSegment(0.5, 2));
+    }
+}
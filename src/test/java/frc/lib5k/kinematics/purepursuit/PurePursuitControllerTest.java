@@ -0,0 +1,65 @@
+package frc.lib5k.kinematics.purepursuit;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import edu.wpi.first.wpilibj.geometry.Translation2d;
+import frc.lib5k.kinematics.DriveSignal;
+import frc.lib5k.kinematics.MutablePose2d;
+
+public class PurePursuitControllerTest {
+
+    /* Simulated robot */
+    private static final double PERIOD = 0.02;
+    private static final double MAX_SPEED = 3.0;
+    private static final double WIDTH = 0.7112;
+
+    /**
+     * Drive a simulated robot along a path until it finishes
+     *
+     * @param path    Path to follow
+     * @param epsilon Finish tolerance
+     * @param timeout Longest time to drive for
+     * @return Time taken to finish, or infinity if it never did
+     */
+    private static double drive(Path path, Translation2d epsilon, double kSpeedCap, double timeout) {
+
+        // Use the same gains as the autonomous paths
+        PurePursuitController controller = new PurePursuitController(path, 0.2, 0.1, WIDTH, 0.025, kSpeedCap);
+        MutablePose2d pose = new MutablePose2d(path.getX(0), path.getY(0), 0.0);
+
+        for (double time = 0.0; time < timeout; time += PERIOD) {
+            if (controller.isFinished(pose, epsilon)) {
+                return time;
+            }
+
+            // Drive like a differential drivebase with no inertia
+            DriveSignal signal = controller.calculate(pose);
+            double distance = (signal.getL() + signal.getR()) / 2.0 * MAX_SPEED * PERIOD;
+            double turn = (signal.getR() - signal.getL()) / WIDTH * MAX_SPEED * PERIOD;
+            pose.set(pose.getX() + (distance * Math.cos(pose.getTheta())),
+                    pose.getY() + (distance * Math.sin(pose.getTheta())), pose.getTheta() + turn);
+        }
+
+        return Double.POSITIVE_INFINITY;
+    }
+
+    @Test
+    public void testShortPathFinishes() {
+
+        // Like the trench path in ScoreTwice
+        Path path = new Path(new Translation2d(0.0, 0.0), new Translation2d(0.9, 0.0));
+        double time = drive(path, new Translation2d(0.2, 0.2), 0.25, 15.0);
+
+        assertTrue("Path did not finish", Double.isFinite(time));
+    }
+
+    @Test
+    public void testLongPathFinishes() {
+        Path path = new Path(new Translation2d(0.0, 0.0), new Translation2d(2.0, 0.0), new Translation2d(4.0, 0.0));
+        double time = drive(path, new Translation2d(0.2, 0.2), 0.65, 15.0);
+
+        assertTrue("Path did not finish", Double.isFinite(time));
+    }
+}
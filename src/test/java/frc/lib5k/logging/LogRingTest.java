@@ -0,0 +1,117 @@
+package frc.lib5k.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class LogRingTest {
+
+    /**
+     * Drain a ring into a list of "component:message" strings
+     */
+    private static List<String> drainAll(LogRing ring) {
+        List<String> records = new ArrayList<>();
+        ring.drain((level, component, timestamp, payload, length) -> records
+                .add(component + ":" + new String(payload, 0, length)));
+        return records;
+    }
+
+    @Test
+    public void testCapacityRoundsToPowerOfTwo() {
+        assertEquals(8, new LogRing(5, 16).getCapacity());
+        assertEquals(8, new LogRing(8, 16).getCapacity());
+    }
+
+    @Test
+    public void testDrainsInOrder() {
+        LogRing ring = new LogRing(8, 32);
+        ring.push(1, "A", 0.0, "first");
+        ring.push(2, "B", 1.0, new StringBuilder("second"));
+
+        List<String> records = drainAll(ring);
+        assertEquals(2, records.size());
+        assertEquals("A:first", records.get(0));
+        assertEquals("B:second", records.get(1));
+
+        // Nothing is handed out twice
+        assertEquals(0, drainAll(ring).size());
+    }
+
+    @Test
+    public void testRecordFields() {
+        LogRing ring = new LogRing(4, 32);
+        ring.push(3, "C", 2.5, "msg");
+
+        ring.drain((level, component, timestamp, payload, length) -> {
+            assertEquals(3, level);
+            assertEquals("C", component);
+            assertEquals(2.5, timestamp, 0.0);
+            assertEquals(3, length);
+        });
+    }
+
+    @Test
+    public void testTruncatesLongMessages() {
+        LogRing ring = new LogRing(4, 4);
+        ring.push(0, "", 0.0, "truncated");
+
+        assertEquals(":trun", drainAll(ring).get(0));
+    }
+
+    @Test
+    public void testOverflowKeepsNewestAndCountsDrops() {
+        LogRing ring = new LogRing(4, 8);
+        for (int i = 0; i < 10; i++) {
+            ring.push(0, "", 0.0, Integer.toString(i));
+        }
+
+        List<String> records = drainAll(ring);
+        assertEquals(4, records.size());
+        assertEquals(":6", records.get(0));
+        assertEquals(":9", records.get(3));
+        assertEquals(6, ring.getDroppedCount());
+    }
+
+    @Test
+    public void testConcurrentProducersLoseNothingUncounted() throws InterruptedException {
+        LogRing ring = new LogRing(1024, 16);
+        int producers = 4;
+        int perProducer = 20000;
+
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    ring.push(0, "P", 0.0, "message");
+                }
+            });
+            threads[p].start();
+        }
+
+        // Drain while the producers run
+        long handled = 0;
+        boolean running = true;
+        while (running) {
+            running = false;
+            for (Thread thread : threads) {
+                running |= thread.isAlive();
+            }
+            handled += ring.drain((level, component, timestamp, payload, length) -> {
+                assertEquals("message", new String(payload, 0, length));
+            });
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        handled += ring.drain((level, component, timestamp, payload, length) -> {
+        });
+
+        // Every record was either handled or counted as dropped
+        assertEquals(producers * perProducer, handled + ring.getDroppedCount());
+        assertTrue(handled > 0);
+    }
+}
@@ -0,0 +1,74 @@
+package frc.lib5k.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class MappedLogSinkTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Path dir = Files.createTempDirectory("mappedlog");
+
+        try (MappedLogSink sink = new MappedLogSink(dir, 4096)) {
+            sink.startSession("RobotLog-test");
+            sink.append("first line");
+            sink.append("second line, with \u00fcnicode");
+        }
+
+        Path segment = dir.resolve(MappedLogSink.getSegmentFilename("RobotLog-test", 0));
+        List<String> lines = MappedLogDecoder.readSegment(segment);
+        assertEquals(2, lines.size());
+        assertEquals("first line", lines.get(0));
+        assertEquals("second line, with \u00fcnicode", lines.get(1));
+    }
+
+    @Test
+    public void testClosedSegmentsAreTruncated() throws IOException {
+        Path dir = Files.createTempDirectory("mappedlog");
+
+        try (MappedLogSink sink = new MappedLogSink(dir, 4096)) {
+            sink.startSession("RobotLog-test");
+            sink.append("line");
+        }
+
+        // Header, one record, and the end marker
+        Path segment = dir.resolve(MappedLogSink.getSegmentFilename("RobotLog-test", 0));
+        long expected = Integer.BYTES + (Integer.BYTES + 4) + Integer.BYTES;
+        long size = Files.size(segment);
+        assertTrue("Segment was not truncated: " + size, size == expected || size == 4096);
+    }
+
+    @Test
+    public void testRotatesFullSegments() throws IOException {
+        Path dir = Files.createTempDirectory("mappedlog");
+
+        List<String> written = new ArrayList<>();
+        try (MappedLogSink sink = new MappedLogSink(dir, 256)) {
+            sink.startSession("RobotLog-test");
+            for (int i = 0; i < 100; i++) {
+                String line = "line number " + i;
+                sink.append(line);
+                written.add(line);
+            }
+        }
+
+        Map<String, List<Path>> sessions = MappedLogDecoder.findSessions(dir);
+        assertEquals(1, sessions.size());
+        assertTrue(sessions.get("RobotLog-test").size() > 1);
+
+        List<String> read = new ArrayList<>();
+        for (Path segment : sessions.get("RobotLog-test")) {
+            read.addAll(MappedLogDecoder.readSegment(segment));
+        }
+        assertEquals(written, read);
+    }
+}
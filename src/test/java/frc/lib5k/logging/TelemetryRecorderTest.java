@@ -0,0 +1,198 @@
+package frc.lib5k.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TelemetryRecorderTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Path file = Files.createTempFile("telemetry", ".rtlm");
+        int rows = (TelemetryRecorder.BLOCK_ROWS * 10) + 17;
+
+        // Values are read from the current row
+        int[] row = new int[1];
+        TelemetryRecorder recorder = new TelemetryRecorder();
+        recorder.addDoubleChannel("Double", () -> Math.sin(row[0] * 0.01) * 12.0);
+        recorder.addIntChannel("Int", () -> row[0] % 7 - 3);
+        recorder.addBooleanChannel("Boolean", () -> row[0] % 3 == 0);
+        recorder.open(file);
+
+        for (row[0] = 0; row[0] < rows; row[0]++) {
+            recorder.sample(row[0] * 0.02);
+
+            // Flush a partial block part way through, like the robot does on disable
+            if (row[0] == 1000) {
+                recorder.flush();
+            }
+        }
+        recorder.close();
+
+        // Read it back. This loop can outrun the writer, so rows may have been
+        // dropped, but every row must be accounted for
+        TelemetryReader reader = new TelemetryReader(file);
+        assertEquals(rows, reader.getRowCount() + recorder.getDroppedRows());
+
+        // Check every row that was kept against the row it was sampled from
+        double[] timestamps = reader.getTimestamps();
+        double[] doubles = reader.getDoubles("Double");
+        int[] ints = reader.getInts("Int");
+        boolean[] booleans = reader.getBooleans("Boolean");
+        for (int i = 0; i < reader.getRowCount(); i++) {
+            int source = (int) Math.round(timestamps[i] / 0.02);
+            assertEquals(Math.sin(source * 0.01) * 12.0, doubles[i], 0.0);
+            assertEquals(source % 7 - 3, ints[i]);
+            assertEquals(source % 3 == 0, booleans[i]);
+        }
+    }
+
+    @Test
+    public void testKeepsEveryRowAtLoopRate() throws IOException, InterruptedException {
+        Path file = Files.createTempFile("telemetry", ".rtlm");
+        int rows = TelemetryRecorder.BLOCK_ROWS * 3;
+
+        TelemetryRecorder recorder = new TelemetryRecorder();
+        recorder.addIntChannel("Row", () -> 0);
+        recorder.open(file);
+
+        // Give the writer time between blocks, like a real loop does
+        for (int i = 0; i < rows; i++) {
+            recorder.sample(i * 0.02);
+            if (i % TelemetryRecorder.BLOCK_ROWS == 0) {
+                Thread.sleep(20);
+            }
+        }
+        recorder.close();
+
+        assertEquals(0, recorder.getDroppedRows());
+        assertEquals(rows, new TelemetryReader(file).getRowCount());
+    }
+
+    /**
+     * Record a single double channel at loop rate
+     *
+     * @param values Values, one per row. Null records no channels
+     * @param rows   Number of rows to record
+     * @return Recording size (bytes)
+     */
+    private static long recordDoubles(double[] values, int rows) throws IOException, InterruptedException {
+        Path file = Files.createTempFile("telemetry", ".rtlm");
+
+        int[] row = new int[1];
+        TelemetryRecorder recorder = new TelemetryRecorder();
+        if (values != null) {
+            recorder.addDoubleChannel("Voltage", () -> values[row[0]]);
+        }
+        recorder.open(file);
+        for (row[0] = 0; row[0] < rows; row[0]++) {
+            recorder.sample(row[0] * 0.02);
+            if (row[0] % TelemetryRecorder.BLOCK_ROWS == 0) {
+                Thread.sleep(20);
+            }
+        }
+        recorder.close();
+        assertEquals(0, recorder.getDroppedRows());
+
+        // Check the values survived
+        if (values != null) {
+            double[] read = new TelemetryReader(file).getDoubles("Voltage");
+            for (int i = 0; i < rows; i++) {
+                assertEquals(Double.doubleToRawLongBits(values[i]), Double.doubleToRawLongBits(read[i]));
+            }
+        }
+
+        return Files.size(file);
+    }
+
+    /**
+     * Size of a varint
+     */
+    private static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    @Test
+    public void testNoisyDoublesDoNotGrow() throws IOException, InterruptedException {
+        int rows = TelemetryRecorder.BLOCK_ROWS * 4;
+
+        // Battery voltage with sensor noise, so every mantissa bit changes
+        Random random = new Random(5024);
+        double[] voltage = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            voltage[i] = 12.3 - (i * 0.001) + (random.nextGaussian() * 0.02);
+        }
+
+        // Size of just the column, less the timestamps and header
+        long columnSize = recordDoubles(voltage, rows) - recordDoubles(null, rows)
+                - (2 + "Voltage".length());
+
+        // What the old bit-reversed XOR varints would have taken
+        long reversedSize = 0;
+        long last = 0;
+        for (double value : voltage) {
+            long bits = Double.doubleToRawLongBits(value);
+            reversedSize += varintSize(Long.reverse(bits ^ last));
+            last = bits;
+        }
+
+        assertTrue("Column grew to " + columnSize + " bytes", columnSize <= rows * Long.BYTES);
+        assertTrue(String.format("%d bytes is no smaller than %d", columnSize, reversedSize), columnSize < reversedSize);
+    }
+
+    @Test
+    public void testSmoothDoublesShrink() throws IOException, InterruptedException {
+        int rows = TelemetryRecorder.BLOCK_ROWS * 4;
+
+        // A setpoint that steps between round values, and is mostly unchanged
+        double[] setpoint = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            setpoint[i] = (i / 100) * 0.5;
+        }
+
+        long columnSize = recordDoubles(setpoint, rows) - recordDoubles(null, rows) - (2 + "Voltage".length());
+        assertTrue("Column took " + columnSize + " bytes", columnSize < rows * 2);
+    }
+
+    @Test
+    public void testSpecialDoublesRoundTrip() throws IOException, InterruptedException {
+        double[] values = { 0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.MIN_VALUE, -Double.MAX_VALUE, 1.0, 1.0, 0.0 };
+
+        // Checked bit for bit while recording
+        recordDoubles(values, values.length);
+    }
+
+    @Test
+    public void testSamplingBeforeOpenDoesNothing() throws IOException {
+        TelemetryRecorder recorder = new TelemetryRecorder();
+        recorder.addIntChannel("Int", () -> 1);
+
+        recorder.sample(0.0);
+        recorder.flush();
+        recorder.close();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testChannelsCanNotBeAddedAfterOpen() throws IOException {
+        TelemetryRecorder recorder = new TelemetryRecorder();
+        recorder.open(Files.createTempFile("telemetry", ".rtlm"));
+
+        try {
+            recorder.addIntChannel("Late", () -> 1);
+        } finally {
+            recorder.close();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package frc.lib5k.loops.loopers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class SharedStateTest {
+
+    @Test
+    public void testStartsAtZero() {
+        SharedState state = new SharedState(3);
+        double[] values = new double[3];
+
+        assertEquals(0, state.read(values));
+        assertEquals(0.0, values[0], 0.0);
+        assertEquals(0.0, state.get(2), 0.0);
+    }
+
+    @Test
+    public void testReadsLatestPublish() {
+        SharedState state = new SharedState(3);
+        double[] values = new double[3];
+
+        state.publish(new double[] { 1.0, 2.0, 3.0 });
+        long first = state.read(values);
+        assertEquals(1.0, values[0], 0.0);
+        assertEquals(3.0, values[2], 0.0);
+        assertEquals(2.0, state.get(1), 0.0);
+
+        // The sequence only changes when something is published
+        assertEquals(first, state.read(values));
+        state.publish(new double[] { 4.0, 5.0, 6.0 });
+        assertNotEquals(first, state.read(values));
+        assertEquals(6.0, values[2], 0.0);
+    }
+
+    @Test
+    public void testReadsPrefix() {
+        SharedState state = new SharedState(3);
+        state.publish(new double[] { 1.0, 2.0, 3.0 });
+
+        double[] values = new double[2];
+        state.read(values);
+        assertEquals(1.0, values[0], 0.0);
+        assertEquals(2.0, values[1], 0.0);
+    }
+
+    @Test
+    public void testReadersNeverSeeTornWrites() throws InterruptedException {
+        int size = 16;
+        SharedState state = new SharedState(size);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        // Every publish fills the state with a single value, so a mixed copy is a tear
+        Thread writer = new Thread(() -> {
+            double[] values = new double[size];
+            for (int i = 1; i <= 200000; i++) {
+                Arrays.fill(values, i);
+                state.publish(values);
+            }
+            running.set(false);
+        });
+
+        Thread[] readers = new Thread[2];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                double[] values = new double[size];
+                double last = 0.0;
+                while (running.get() && failure.get() == null) {
+                    state.read(values);
+                    for (int i = 1; i < size; i++) {
+                        if (values[i] != values[0]) {
+                            failure.set("Torn read: " + values[0] + " and " + values[i]);
+                        }
+                    }
+
+                    // Snapshots never go backwards
+                    if (values[0] < last) {
+                        failure.set("Read went backwards: " + last + " then " + values[0]);
+                    }
+                    last = values[0];
+                }
+            });
+            readers[r].start();
+        }
+        writer.start();
+
+        writer.join();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertTrue(failure.get(), failure.get() == null);
+        assertEquals(200000.0, state.get(size - 1), 0.0);
+    }
+}
@@ -0,0 +1,44 @@
+package frc.lib5k.roborio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class FPGAClockTest {
+
+    // Time read by the test source
+    private double m_seconds = 0.0;
+
+    @After
+    public void tearDown() {
+        FPGAClock.resetTimeSource();
+    }
+
+    @Test
+    public void testReadsTimeSource() {
+        FPGAClock.setTimeSource(() -> m_seconds);
+
+        m_seconds = 1.5;
+        assertEquals(1.5, FPGAClock.getFPGASeconds(), 0.0);
+        assertEquals(1500.0, FPGAClock.getFPGAMilliseconds(), 1e-9);
+
+        m_seconds = 2.25;
+        assertEquals(2.25, FPGAClock.getFPGASeconds(), 0.0);
+    }
+
+    @Test
+    public void testMillisecondCycle() {
+        FPGAClock.setTimeSource(() -> m_seconds);
+
+        // 100ms low, then 100ms high
+        m_seconds = 0.05;
+        assertFalse(FPGAClock.getMillisecondCycle(100));
+        m_seconds = 0.15;
+        assertTrue(FPGAClock.getMillisecondCycle(100));
+        m_seconds = 0.25;
+        assertFalse(FPGAClock.getMillisecondCycle(100));
+    }
+}
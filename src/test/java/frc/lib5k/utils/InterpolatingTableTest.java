@@ -0,0 +1,112 @@
+package frc.lib5k.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import frc.lib5k.utils.InterpolatingTable.InterpolationMode;
+
+public class InterpolatingTableTest {
+
+    private static final double EPSILON = 1e-9;
+
+    // Unsorted input with a flat section and a direction change
+    private static final double[] XS = { 4.0, 1.0, 2.0, 3.0, 5.0, 6.0 };
+    private static final double[] YS = { 3000.0, 2500.0, 2500.0, 2800.0, 3200.0, 3100.0 };
+
+    @Test
+    public void testExactPoints() {
+        for (InterpolationMode mode : InterpolationMode.values()) {
+            InterpolatingTable table = new InterpolatingTable(XS, YS, mode);
+            assertEquals(mode.toString(), 2500.0, table.get(1.0), EPSILON);
+            assertEquals(mode.toString(), 3000.0, table.get(4.0), EPSILON);
+            assertEquals(mode.toString(), 3100.0, table.get(6.0), EPSILON);
+        }
+    }
+
+    @Test
+    public void testClampsOutsideTable() {
+        for (InterpolationMode mode : InterpolationMode.values()) {
+            InterpolatingTable table = new InterpolatingTable(XS, YS, mode);
+            assertEquals(mode.toString(), 2500.0, table.get(-10.0), EPSILON);
+            assertEquals(mode.toString(), 3100.0, table.get(100.0), EPSILON);
+            assertEquals(mode.toString(), 3100.0, table.get(Double.POSITIVE_INFINITY), EPSILON);
+        }
+    }
+
+    @Test
+    public void testFlatSegmentStaysFlat() {
+        for (InterpolationMode mode : InterpolationMode.values()) {
+            assertEquals(mode.toString(), 2500.0, new InterpolatingTable(XS, YS, mode).get(1.5), EPSILON);
+        }
+    }
+
+    @Test
+    public void testNeverOvershoots() {
+        for (InterpolationMode mode : InterpolationMode.values()) {
+            InterpolatingTable table = new InterpolatingTable(XS, YS, mode);
+
+            // Values stay between their neighbouring points
+            for (double x = 1.0; x <= 6.0; x += 0.01) {
+                int segment = (int) Math.min(Math.floor(x) - 1, 4);
+                double low = Math.min(table.get(segment + 1.0), table.get(segment + 2.0));
+                double high = Math.max(table.get(segment + 1.0), table.get(segment + 2.0));
+                double value = table.get(x);
+                assertTrue(String.format("%s overshoot at %.2f: %.3f", mode, x, value),
+                        value >= low - EPSILON && value <= high + EPSILON);
+            }
+        }
+    }
+
+    @Test
+    public void testLinearMidpoint() {
+        assertEquals(2900.0, new InterpolatingTable(XS, YS, InterpolationMode.LINEAR).get(3.5), EPSILON);
+    }
+
+    @Test
+    public void testSinglePointIsConstant() {
+        InterpolatingTable table = new InterpolatingTable(new double[] { 2.0 }, new double[] { 1234.0 },
+                InterpolationMode.MONOTONE_CUBIC);
+        assertEquals(1234.0, table.get(-5.0), EPSILON);
+        assertEquals(1234.0, table.get(5.0), EPSILON);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsDuplicateX() {
+        new InterpolatingTable(new double[] { 1.0, 1.0 }, new double[] { 1.0, 2.0 }, InterpolationMode.LINEAR);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsEmptyTable() {
+        new InterpolatingTable(new double[0], new double[0], InterpolationMode.LINEAR);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsMismatchedLengths() {
+        new InterpolatingTable(new double[] { 1.0 }, new double[] { 1.0, 2.0 }, InterpolationMode.LINEAR);
+    }
+
+    @Test
+    public void testLoadsCSV() throws IOException {
+        Path file = Files.createTempFile("table", ".csv");
+        Files.write(file, "# distance, rpm\n\n2.0, 2000, extra\n1.0,1000\n".getBytes(StandardCharsets.UTF_8));
+
+        InterpolatingTable table = InterpolatingTable.load(file.toString(), InterpolationMode.LINEAR);
+        assertEquals(2, table.getSize());
+        assertEquals(1500.0, table.get(1.5), EPSILON);
+    }
+
+    @Test(expected = IOException.class)
+    public void testLoadRejectsBadNumbers() throws IOException {
+        Path file = Files.createTempFile("table", ".csv");
+        Files.write(file, "1.0,fast\n".getBytes(StandardCharsets.UTF_8));
+
+        InterpolatingTable.load(file.toString(), InterpolationMode.LINEAR);
+    }
+}
@@ -0,0 +1,62 @@
+package frc.robot;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import frc.robot.autonomous.paths.AutonomousPath;
+
+public class AutonomousSimulationTest {
+
+    // Furthest a pure pursuit path may stop from its end. The paths stop inside a
+    // 0.2m box around the end, so this allows for the box's corners
+    private static final double END_TOLERANCE = 0.3;
+
+    // Furthest odometry may drift from the simulated robot over a path
+    private static final double DRIFT_TOLERANCE = 0.15;
+
+    // The simulation owns the robot's singletons, so there is one per run
+    private static AutonomousSimulation s_simulation;
+
+    @BeforeClass
+    public static void setUp() {
+        s_simulation = new AutonomousSimulation(true, false);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        s_simulation.close();
+    }
+
+    @Test
+    public void testEveryPathRuns() {
+        assertFalse(s_simulation.getPaths().isEmpty());
+
+        for (Map.Entry<String, AutonomousPath> entry : s_simulation.getPaths().entrySet()) {
+            AutonomousSimulation.Result result = s_simulation.runPath(entry.getKey(), entry.getValue());
+            System.out.println(result.summary);
+
+            // The command must end by itself before autonomous does
+            assertTrue(result.summary, result.finished);
+            assertTrue(result.summary, result.simTime < AutonomousSimulation.AUTONOMOUS_LENGTH);
+
+            // Every pure pursuit path that was not cut short must reach its end
+            for (AutonomousSimulation.DrivenPath drivenPath : result.drivenPaths) {
+                if (!drivenPath.interrupted) {
+                    assertTrue(String.format("%s: path stopped %.3fm from its end", result.name, drivenPath.endError),
+                            drivenPath.endError < END_TOLERANCE);
+                }
+            }
+
+            // Odometry must track the simulated robot
+            assertTrue(result.summary, Double.isFinite(result.pose.getTranslation().getX()));
+            assertTrue(result.summary, Double.isFinite(result.pose.getTranslation().getY()));
+            assertTrue(result.summary, result.positionError < DRIFT_TOLERANCE);
+        }
+    }
+}
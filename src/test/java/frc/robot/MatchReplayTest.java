@@ -0,0 +1,102 @@
+package frc.robot;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import frc.lib5k.logging.TelemetryReader;
+import frc.lib5k.logging.TelemetryRecorder;
+
+public class MatchReplayTest {
+
+    // Short enough that the output recorder never has to drop a row
+    private static final int ROWS = 300;
+
+    @Test
+    public void testReplayIsRepeatable() throws IOException, InterruptedException {
+        Path input = recordSyntheticMatch();
+
+        // Each replay gets its own JVM, as the robot's singletons can only be set up
+        // once
+        Path first = Files.createTempFile("replay", ".rtlm");
+        Path second = Files.createTempFile("replay", ".rtlm");
+        runReplay(input, first);
+        runReplay(input, second);
+
+        TelemetryReader a = new TelemetryReader(first);
+        TelemetryReader b = new TelemetryReader(second);
+        assertEquals(ROWS, a.getRowCount());
+        assertEquals(ROWS, b.getRowCount());
+        assertArrayEquals(a.getTimestamps(), b.getTimestamps(), 0.0);
+
+        // Both replays must produce exactly the same outputs
+        assertArrayEquals(a.getInts("Mode"), b.getInts("Mode"));
+        assertArrayEquals(a.getDoubles("DriveTrain/X"), b.getDoubles("DriveTrain/X"), 0.0);
+        assertArrayEquals(a.getDoubles("DriveTrain/Y"), b.getDoubles("DriveTrain/Y"), 0.0);
+        assertArrayEquals(a.getDoubles("DriveTrain/Heading"), b.getDoubles("DriveTrain/Heading"), 0.0);
+        assertArrayEquals(a.getInts("Hopper/CellCount"), b.getInts("Hopper/CellCount"));
+        assertArrayEquals(a.getDoubles("Shooter/Output"), b.getDoubles("Shooter/Output"), 0.0);
+    }
+
+    /**
+     * Record a short match: disabled, a few seconds of driving in autonomous, then
+     * disabled again
+     *
+     * @return Recording path
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    private static Path recordSyntheticMatch() throws IOException, InterruptedException {
+        Path file = Files.createTempFile("match", ".rtlm");
+
+        // Values are read from the current row
+        int[] row = new int[1];
+        TelemetryRecorder recorder = new TelemetryRecorder();
+        recorder.addIntChannel("Mode", () -> (row[0] >= 25 && row[0] < 275) ? 1 : 0);
+        recorder.addDoubleChannel("Gyro/Angle", () -> row[0] * 0.1);
+        recorder.addIntChannel("DriveTrain/LeftTicks", () -> row[0] * 20);
+        recorder.addIntChannel("DriveTrain/RightTicks", () -> row[0] * 24);
+        recorder.addIntChannel("Hopper/BeltTicks", () -> row[0] * 5);
+        recorder.addBooleanChannel("Hopper/LineBottom", () -> row[0] % 50 < 5);
+        recorder.addBooleanChannel("Hopper/LineMiddle", () -> row[0] % 50 >= 10 && row[0] % 50 < 15);
+        recorder.addBooleanChannel("Hopper/LineTop", () -> false);
+        recorder.open(file);
+
+        // Give the writer time between blocks, so no rows are dropped
+        for (row[0] = 0; row[0] < ROWS; row[0]++) {
+            recorder.sample(row[0] * 0.02);
+            if (row[0] % TelemetryRecorder.BLOCK_ROWS == 0) {
+                Thread.sleep(20);
+            }
+        }
+        recorder.close();
+
+        assertEquals(0, recorder.getDroppedRows());
+        return file;
+    }
+
+    /**
+     * Replay a recording in a new JVM
+     *
+     * @param input  Recording to replay
+     * @param output Where to record the replay's outputs
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    private static void runReplay(Path input, Path output) throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+
+        ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                "-Djava.library.path=" + System.getProperty("java.library.path"), MatchReplay.class.getName(),
+                input.toString(), output.toString());
+        builder.inheritIO();
+
+        assertEquals(0, builder.start().waitFor());
+    }
+}
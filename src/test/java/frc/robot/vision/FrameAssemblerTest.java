@@ -0,0 +1,98 @@
+package frc.robot.vision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class FrameAssemblerTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    public void testFindsReadings() {
+        assertEquals(FrameAssembler.TV, FrameAssembler.getReadingId("tv"));
+        assertEquals(FrameAssembler.TL, FrameAssembler.getReadingId("tl"));
+        assertEquals(-1, FrameAssembler.getReadingId("ledMode"));
+        assertEquals(-1, FrameAssembler.getReadingId("tcornx"));
+    }
+
+    @Test
+    public void testMergesReadingsInAnyOrder() {
+        FrameAssembler assembler = new FrameAssembler();
+
+        // The latency arrives before the rest of the image's readings
+        assertTrue(assembler.update(FrameAssembler.TL, 20.0, 1.0));
+        assertTrue(assembler.update(FrameAssembler.TX, 5.0, 1.0));
+        assertTrue(assembler.update(FrameAssembler.TA, 2.0, 1.0));
+        assertTrue(assembler.update(FrameAssembler.TV, 1.0, 1.0));
+
+        VisionFrame frame = assembler.getFrame();
+        assertTrue(frame.hasTarget());
+        assertNotNull(frame.getTarget());
+        assertEquals(5.0, frame.getRawX(), EPSILON);
+        assertEquals(2.0, frame.getArea(), EPSILON);
+        assertEquals(20.0, frame.getLatency(), EPSILON);
+        assertEquals(4, frame.getSequence());
+
+        // Readings that did not change keep their last value
+        assertTrue(assembler.update(FrameAssembler.TY, -3.0, 1.02));
+        frame = assembler.getFrame();
+        assertEquals(5.0, frame.getRawX(), EPSILON);
+        assertEquals(-3.0, frame.getRawY(), EPSILON);
+    }
+
+    @Test
+    public void testLostTargetMakesFrame() {
+        FrameAssembler assembler = new FrameAssembler();
+        assembler.set(true, 5.0, 1.0, 2.0, 0.0, 20.0, 1.0);
+        long sequence = assembler.getFrame().getSequence();
+
+        // Only tv changes when the target is lost
+        assertTrue(assembler.update(FrameAssembler.TV, 0.0, 1.1));
+
+        VisionFrame frame = assembler.getFrame();
+        assertFalse(frame.hasTarget());
+        assertNull(frame.getTarget());
+        assertEquals(sequence + 1, frame.getSequence());
+    }
+
+    @Test
+    public void testUnchangedReadingsDoNotMakeFrames() {
+        FrameAssembler assembler = new FrameAssembler();
+        assembler.set(true, 5.0, 1.0, 2.0, 0.0, 20.0, 1.0);
+        VisionFrame frame = assembler.getFrame();
+
+        assertFalse(assembler.update(FrameAssembler.TX, 5.0, 1.1));
+        assertFalse(assembler.update(FrameAssembler.TL, 20.0, 1.1));
+        assertSame(frame, assembler.getFrame());
+    }
+
+    @Test
+    public void testStampsCaptureTime() {
+        FrameAssembler assembler = new FrameAssembler();
+
+        // 20ms in the pipeline, and 11ms to capture the image
+        assembler.update(FrameAssembler.TL, 20.0, 2.0);
+        assertEquals(2.0 - 0.031, assembler.getFrame().getTimestamp(), EPSILON);
+    }
+
+    @Test
+    public void testPortraitKeepsSequence() {
+        FrameAssembler assembler = new FrameAssembler();
+        assembler.set(true, 5.0, 1.0, 2.0, 0.0, 20.0, 1.0);
+        long sequence = assembler.getFrame().getSequence();
+
+        assembler.setPortrait(true);
+        assertTrue(assembler.getFrame().isPortrait());
+        assertEquals(sequence, assembler.getFrame().getSequence());
+
+        // New frames stay in portrait mode
+        assembler.update(FrameAssembler.TX, 6.0, 1.1);
+        assertTrue(assembler.getFrame().isPortrait());
+    }
+}
@@ -0,0 +1,148 @@
+package frc.robot.vision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import edu.wpi.first.wpilibj.geometry.Translation2d;
+import frc.lib5k.kinematics.PoseHistory;
+import frc.robot.RobotConstants;
+
+public class VisionFusionTest {
+
+    private static final double EPSILON = 1e-6;
+
+    // The field target every test looks at
+    private static final Translation2d TARGET = RobotConstants.Vision.FIELD_TARGETS[0];
+
+    /**
+     * Build the frame the camera would see of the target from a pose
+     *
+     * @param x         Robot X position
+     * @param y         Robot Y position
+     * @param theta     Robot heading in radians
+     * @param timestamp Image capture time
+     * @param sequence  Frame number
+     * @return Frame
+     */
+    private static VisionFrame frameFrom(double x, double y, double theta, double timestamp, long sequence) {
+        double dx = TARGET.getX() - x;
+        double dy = TARGET.getY() - y;
+
+        // Bearings are measured clockwise from the robot's heading
+        double tx = Math.toDegrees(theta - Math.atan2(dy, dx));
+
+        // Find the pitch that gives this distance
+        double pitch = Math.toDegrees(Math.atan((RobotConstants.Shooter.TARGET_HEIGHT
+                - RobotConstants.Shooter.LIMELIGHT_HEIGHT) / Math.hypot(dx, dy)));
+        double ty = pitch - RobotConstants.Shooter.LIMELIGHT_MOUNT_ANGLE;
+
+        return new VisionFrame(true, tx, ty, 1.0, 0.0, 20.0, false, timestamp, sequence);
+    }
+
+    /**
+     * Create a history with the robot stood still at a pose
+     */
+    private static PoseHistory historyAt(double x, double y, double theta) {
+        PoseHistory history = new PoseHistory(RobotConstants.Vision.POSE_HISTORY_LENGTH);
+        history.record(0.0, x, y, theta);
+        history.record(2.0, x, y, theta);
+        return history;
+    }
+
+    @Test
+    public void testNoCorrectionWhenOdometryIsRight() {
+        VisionFusion fusion = new VisionFusion();
+        double x = TARGET.getX() - 3.0;
+        double y = TARGET.getY() + 0.5;
+
+        assertTrue(fusion.update(frameFrom(x, y, 0.2, 1.0, 1), historyAt(x, y, 0.2)));
+        assertEquals(0.0, fusion.getCorrectionX(), EPSILON);
+        assertEquals(0.0, fusion.getCorrectionY(), EPSILON);
+    }
+
+    @Test
+    public void testCorrectsTowardsTruePose() {
+        VisionFusion fusion = new VisionFusion();
+
+        // The robot is really 0.5m further back, and 0.2m to the left of where
+        // odometry thinks it is
+        double x = TARGET.getX() - 3.0;
+        double y = TARGET.getY();
+        VisionFrame frame = frameFrom(x - 0.5, y + 0.2, 0.0, 1.0, 1);
+
+        assertTrue(fusion.update(frame, historyAt(x, y, 0.0)));
+        assertEquals(-0.5 * RobotConstants.Vision.FUSION_GAIN, fusion.getCorrectionX(), EPSILON);
+        assertEquals(0.2 * RobotConstants.Vision.FUSION_GAIN, fusion.getCorrectionY(), EPSILON);
+    }
+
+    @Test
+    public void testUsesPoseAtCaptureTime() {
+        VisionFusion fusion = new VisionFusion();
+        double x = TARGET.getX() - 3.0;
+        double y = TARGET.getY();
+
+        // The robot drove 1m after the image was captured
+        PoseHistory history = new PoseHistory(RobotConstants.Vision.POSE_HISTORY_LENGTH);
+        history.record(0.9, x, y, 0.0);
+        history.record(1.0, x, y, 0.0);
+        history.record(1.1, x + 1.0, y, 0.0);
+
+        assertTrue(fusion.update(frameFrom(x, y, 0.0, 1.0, 1), history));
+        assertEquals(0.0, fusion.getCorrectionX(), EPSILON);
+        assertEquals(0.0, fusion.getCorrectionY(), EPSILON);
+    }
+
+    @Test
+    public void testRejectsFrameWithoutTarget() {
+        VisionFusion fusion = new VisionFusion();
+        VisionFrame frame = new VisionFrame(false, 0.0, 0.0, 0.0, 0.0, 20.0, false, 1.0, 1);
+
+        assertFalse(fusion.update(frame, historyAt(TARGET.getX() - 3.0, TARGET.getY(), 0.0)));
+    }
+
+    @Test
+    public void testUsesEachFrameOnce() {
+        VisionFusion fusion = new VisionFusion();
+        double x = TARGET.getX() - 3.0;
+        PoseHistory history = historyAt(x, TARGET.getY(), 0.0);
+
+        assertTrue(fusion.update(frameFrom(x, TARGET.getY(), 0.0, 1.0, 1), history));
+        assertFalse(fusion.update(frameFrom(x, TARGET.getY(), 0.0, 1.0, 1), history));
+        assertTrue(fusion.update(frameFrom(x, TARGET.getY(), 0.0, 1.0, 2), history));
+    }
+
+    @Test
+    public void testRejectsFrameOutsideHistory() {
+        VisionFusion fusion = new VisionFusion();
+        double x = TARGET.getX() - 3.0;
+
+        assertFalse(fusion.update(frameFrom(x, TARGET.getY(), 0.0, 5.0, 1), historyAt(x, TARGET.getY(), 0.0)));
+    }
+
+    @Test
+    public void testRejectsTargetsOutOfRange() {
+        VisionFusion fusion = new VisionFusion();
+
+        // Too close
+        double x = TARGET.getX() - (RobotConstants.Vision.MIN_TARGET_DISTANCE * 0.5);
+        assertFalse(fusion.update(frameFrom(x, TARGET.getY(), 0.0, 1.0, 1), historyAt(x, TARGET.getY(), 0.0)));
+
+        // Too far
+        x = TARGET.getX() - (RobotConstants.Vision.MAX_TARGET_DISTANCE + 1.0);
+        assertFalse(fusion.update(frameFrom(x, TARGET.getY(), 0.0, 1.0, 2), historyAt(x, TARGET.getY(), 0.0)));
+    }
+
+    @Test
+    public void testRejectsUnknownTargets() {
+        VisionFusion fusion = new VisionFusion();
+        double x = TARGET.getX() - 3.0;
+        double y = TARGET.getY();
+
+        // Odometry is further off than any target match allows
+        double offset = RobotConstants.Vision.MAX_TARGET_ERROR + 0.5;
+        assertFalse(fusion.update(frameFrom(x, y + offset, 0.0, 1.0, 1), historyAt(x, y, 0.0)));
+    }
+}